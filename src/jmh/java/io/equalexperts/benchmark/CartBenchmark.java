@@ -0,0 +1,128 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Add/decrement throughput of a single cart: one hot product line, many distinct lines, and the same cart shared by
+ * several threads (every mutation publishes a new snapshot of the cart, so concurrent mutations retry their
+ * compare-and-set, whatever the product).
+ * <p>
+ * The {@code checkThenAct} benchmarks add to the lines of a cart the way {@code CartImpl} used to - {@code containsKey},
+ * {@code get}, {@code put}, which loses updates under contention - and the {@code merge} benchmarks the way it did next,
+ * with a single {@code ConcurrentHashMap.merge}, as a reference for the single-lookup add.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+    private static final int PRODUCTS = 1_024;
+
+    private final ProductIn hotProduct = new ProductIn("cornflakes", 1);
+    private final ProductIn[] products = new ProductIn[PRODUCTS];
+    private Cart cart;
+    private Map<String, ItemMetadata> lines;
+    private Map<String, ItemMetadata> linesView;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = new ProductIn("product-" + i, 1);
+        }
+        cart = new CartImpl();
+        lines = new ConcurrentHashMap<>();
+        linesView = Collections.unmodifiableMap(lines);
+    }
+
+    private Map<String, ItemMetadata> checkThenAct(final ProductIn productIn) {
+        if (lines.containsKey(productIn.name())) {
+            lines.put(productIn.name(), lines.get(productIn.name()).addQuantity(productIn.quantity()));
+        } else {
+            lines.put(productIn.name(), new ItemMetadata(PRICE, productIn.quantity()));
+        }
+        return Collections.unmodifiableMap(lines);
+    }
+
+    private Map<String, ItemMetadata> merge(final ProductIn productIn) {
+        lines.merge(productIn.name(), new ItemMetadata(PRICE, productIn.quantity()),
+                (line, added) -> line.addQuantity(added.quantity()));
+        return linesView;
+    }
+
+    @Benchmark
+    public CartSnapshot addSameProduct() {
+        return cart.addProduct(hotProduct, PRICE);
+    }
+
+    @Benchmark
+    public CartSnapshot addDistinctProducts() {
+        return cart.addProduct(products[ThreadLocalRandom.current().nextInt(PRODUCTS)], PRICE);
+    }
+
+    @Benchmark
+    public CartSnapshot addThenDecrement() {
+        cart.addProduct(hotProduct, PRICE);
+        return cart.removeProduct(hotProduct.name(), 1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CartSnapshot addSameProductContended() {
+        return cart.addProduct(hotProduct, PRICE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CartSnapshot addDistinctProductsContended() {
+        return cart.addProduct(products[ThreadLocalRandom.current().nextInt(PRODUCTS)], PRICE);
+    }
+
+    @Benchmark
+    public Map<String, ItemMetadata> addSameProductCheckThenAct() {
+        return checkThenAct(hotProduct);
+    }
+
+    @Benchmark
+    public Map<String, ItemMetadata> addSameProductMerge() {
+        return merge(hotProduct);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Map<String, ItemMetadata> addSameProductContendedCheckThenAct() {
+        return checkThenAct(hotProduct);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Map<String, ItemMetadata> addSameProductContendedMerge() {
+        return merge(hotProduct);
+    }
+}
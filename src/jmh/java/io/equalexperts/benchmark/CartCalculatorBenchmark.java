@@ -0,0 +1,61 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.calculator.CartCalculator;
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.model.CartTotals;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals of carts from 1 to 100k lines: the full recomputation over every line, vs. the O(1) derivation from the
+ * cart's running subtotal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartCalculatorBenchmark {
+    @Param({"1", "10", "100", "1000", "10000", "100000"})
+    private int lines;
+
+    private final CartCalculator cartCalculator = new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5)));
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        cart = new CartImpl();
+        for (int i = 0; i < lines; i++) {
+            cart.addProduct(new ProductIn("product-" + i, 1 + random.nextInt(10)), BigDecimal.valueOf(random.nextInt(100_000), 2));
+        }
+    }
+
+    @Benchmark
+    public CartTotals fullRecomputation() {
+        return cartCalculator.calculateTotals(cart.items());
+    }
+
+    @Benchmark
+    public CartTotals fromRunningSubTotal() {
+        return cartCalculator.calculateTotals(cart.subTotal());
+    }
+}
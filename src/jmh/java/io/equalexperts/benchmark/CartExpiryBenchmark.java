@@ -0,0 +1,106 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.cart.impl.ExpiringCartRegistry;
+import io.equalexperts.component.expiry.impl.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling overhead of cart expiry with five million live carts: touching a cart on access, against a registry
+ * without expiry; creating and removing a cart, which schedules and cancels its timer; and an expiry round with nothing
+ * due. Also measures rescheduling a timer of a {@link TimerWheel} holding five million timers on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CartExpiryBenchmark {
+    private static final int LIVE_CARTS = 5_000_000;
+
+    @Param({"plain", "expiring"})
+    public String registry;
+
+    private String[] cartIds;
+    private CartRegistry carts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final CartRegistry plain = new CartRegistryImpl(CartImpl::new, LIVE_CARTS);
+        carts = registry.equals("plain") ? plain
+                : new ExpiringCartRegistry(plain, Duration.ofMinutes(30), Duration.ofHours(24), (cartId, snapshot, cause) -> {
+        });
+        cartIds = new String[LIVE_CARTS];
+        for (int i = 0; i < LIVE_CARTS; i++) {
+            cartIds[i] = "shopper-" + i;
+            carts.getOrCreate(cartIds[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (carts instanceof ExpiringCartRegistry expiring) {
+            expiring.close();
+        }
+    }
+
+    @Benchmark
+    public Cart touch() {
+        return carts.getOrCreate(cartIds[ThreadLocalRandom.current().nextInt(LIVE_CARTS)]);
+    }
+
+    @Benchmark
+    public boolean createAndRemove() {
+        final String cartId = cartIds[ThreadLocalRandom.current().nextInt(LIVE_CARTS)];
+        carts.remove(cartId);
+        return carts.getOrCreate(cartId) != null;
+    }
+
+    @Benchmark
+    public int expireRound() {
+        return carts instanceof ExpiringCartRegistry expiring ? expiring.expire() : 0;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Wheel {
+        private final long origin = System.nanoTime();
+        private final TimerWheel wheel = new TimerWheel(TimeUnit.SECONDS.toNanos(1), origin);
+        private final TimerWheel.Timer[] timers = new TimerWheel.Timer[LIVE_CARTS];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < LIVE_CARTS; i++) {
+                timers[i] = new TimerWheel.Timer();
+                wheel.schedule(timers[i], origin + random.nextLong(TimeUnit.HOURS.toNanos(24)));
+            }
+        }
+    }
+
+    @Benchmark
+    public int rescheduleTimer(final Wheel state) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        state.wheel.schedule(state.timers[random.nextInt(LIVE_CARTS)], state.origin + random.nextLong(TimeUnit.HOURS.toNanos(24)));
+        return state.wheel.size();
+    }
+}
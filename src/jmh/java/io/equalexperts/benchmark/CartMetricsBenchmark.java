@@ -0,0 +1,81 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.metrics.CartMetrics;
+import io.equalexperts.component.metrics.impl.CartMetricsImpl;
+import io.equalexperts.component.metrics.impl.LatencyRecorder;
+import io.equalexperts.model.CartStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.equalexperts.constant.ErrorConstants.NOT_FOUND_ERROR;
+
+/**
+ * The cost of the instrumentation of {@code CartServiceImpl}: recording a latency, timing a stage (incl. reading the
+ * clock), counting an outcome, and timing all five stages of an add-to-cart, against metrics that are not collected.
+ * Reading the clock on its own is the baseline of timing a stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CartMetricsBenchmark {
+    private static final CartStage[] STAGES = CartStage.values();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final CartMetrics metrics = new CartMetricsImpl();
+    private long stageStart = System.nanoTime();
+
+    @Benchmark
+    public long readClock() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void recordLatency() {
+        recorder.record(ThreadLocalRandom.current().nextLong(1_000_000));
+    }
+
+    @Benchmark
+    public long recordStage() {
+        stageStart = metrics.recordStage(CartStage.CART_MUTATION, stageStart);
+        return stageStart;
+    }
+
+    @Benchmark
+    public void recordError() {
+        metrics.recordError(NOT_FOUND_ERROR);
+    }
+
+    @Benchmark
+    public long recordAdd() {
+        return recordAdd(metrics);
+    }
+
+    @Benchmark
+    public long recordAddNotCollected() {
+        return recordAdd(CartMetrics.NONE);
+    }
+
+    /**
+     * Records what one add-to-cart records.
+     */
+    private static long recordAdd(final CartMetrics metrics) {
+        long start = metrics.startNanos();
+        for (final CartStage stage : STAGES) {
+            start = metrics.recordStage(stage, start);
+        }
+        metrics.recordSuccess();
+        return start;
+    }
+}
@@ -0,0 +1,94 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.cart.impl.DurableCartRegistry;
+import io.equalexperts.component.store.impl.FileCartStore;
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Start-up recovery time of a {@link FileCartStore} holding one million carts of two lines each, recorded as a log of
+ * three changes per cart, or compacted into a snapshot. Measures the replay on its own, and the restart of a
+ * {@link DurableCartRegistry} on top of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CartRecoveryBenchmark {
+    private static final ItemMetadata CORNFLAKES = new ItemMetadata(BigDecimal.valueOf(2.52), 2);
+    private static final ItemMetadata WEETABIX = new ItemMetadata(BigDecimal.valueOf(9.98), 1);
+
+    @Param({"1000000"})
+    public int carts;
+
+    @Param({"log", "snapshot"})
+    public String layout;
+
+    private Path directory;
+    private FileCartStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cart-recovery-benchmark");
+        store = new FileCartStore(directory);
+        CompletableFuture<Void> recorded = null;
+        for (int cart = 0; cart < carts; cart++) {
+            final String cartId = "shopper-" + cart;
+            store.append(new CartChange(cartId, 1, Map.of("cornflakes", CORNFLAKES), Set.of(), false));
+            store.append(new CartChange(cartId, 2, Map.of("weetabix", WEETABIX), Set.of(), false));
+            recorded = store.append(new CartChange(cartId, 3, Map.of("cornflakes", CORNFLAKES.addQuantity(1)), Set.of(), false));
+        }
+        recorded.join();
+        if (layout.equals("snapshot")) {
+            store.compact();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, CartSnapshot> recover() {
+        return store.recover();
+    }
+
+    @Benchmark
+    public CartRegistry restartRegistry() {
+        return new DurableCartRegistry(store);
+    }
+}
@@ -0,0 +1,90 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.service.internal.CartService;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.view.CartItemView;
+import io.equalexperts.view.CartSummaryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The full add-to-cart pipeline (validation, price look-up, cart update, totals and view) with a stubbed, in-memory
+ * Price API, so that only the cart engine itself is measured. The contended variants share one cart across threads;
+ * the isolated variants give every thread a cart of its own. The read variants poll a cart of 100 lines that does not
+ * change, with and without the version the caller already holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartServiceBenchmark {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+    private static final AtomicInteger SHOPPERS = new AtomicInteger();
+
+    private final ProductIn productIn = new ProductIn("cornflakes", 1);
+    private CartService cartService;
+    private long readCartVersion;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cartService = new CartServiceImpl(productName -> PRICE, new CartRegistryImpl(),
+                new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5))));
+        for (int i = 0; i < 100; i++) {
+            readCartVersion = cartService.validateAndAddToCart("read-cart", new ProductIn("product-" + i, 1)).version();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        private final String cartId = "shopper-" + SHOPPERS.incrementAndGet();
+    }
+
+    @Benchmark
+    public CartSummaryView addToSharedCart() {
+        return cartService.validateAndAddToCart("shared-cart", productIn);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CartSummaryView addToSharedCartContended() {
+        return cartService.validateAndAddToCart("shared-cart", productIn);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CartSummaryView addToOwnCart(final Shopper shopper) {
+        return cartService.validateAndAddToCart(shopper.cartId, productIn);
+    }
+
+    @Benchmark
+    public Optional<CartSummaryView> readUnmodifiedCart() {
+        return cartService.getCartIfModified("read-cart", readCartVersion);
+    }
+
+    @Benchmark
+    public List<CartItemView> readCart() {
+        return cartService.getCartIfModified("read-cart", -1).orElseThrow().items();
+    }
+}
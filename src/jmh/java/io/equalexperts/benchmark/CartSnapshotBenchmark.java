@@ -0,0 +1,74 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of publishing a new snapshot of a cart on every mutation, by the number of lines in the cart: the
+ * persistent map of {@link CartSnapshot} shares the untouched lines, where a copy-on-write of a plain
+ * {@code HashMap} copies all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartSnapshotBenchmark {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    @Param({"1", "100", "10000"})
+    private int lines;
+
+    private ProductIn[] products;
+    private Cart cart;
+    private Map<String, ItemMetadata> copyOnWriteItems;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        products = new ProductIn[lines];
+        cart = new CartImpl();
+        copyOnWriteItems = new HashMap<>();
+        for (int i = 0; i < lines; i++) {
+            products[i] = new ProductIn("product-" + i, 1);
+            cart.addProduct(products[i], PRICE);
+            copyOnWriteItems.put(products[i].name(), new ItemMetadata(PRICE, 1));
+        }
+    }
+
+    @Benchmark
+    public CartSnapshot addToSnapshot() {
+        cart.addProduct(products[ThreadLocalRandom.current().nextInt(lines)], PRICE);
+        return cart.snapshot();
+    }
+
+    @Benchmark
+    public Map<String, ItemMetadata> addToCopyOnWriteHashMap() {
+        final ProductIn productIn = products[ThreadLocalRandom.current().nextInt(lines)];
+        final Map<String, ItemMetadata> next = new HashMap<>(copyOnWriteItems);
+        next.merge(productIn.name(), new ItemMetadata(PRICE, productIn.quantity()), (existing, added) -> existing.addQuantity(added.quantity()));
+        copyOnWriteItems = next;
+        return next;
+    }
+}
@@ -0,0 +1,97 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.cart.impl.DurableCartRegistry;
+import io.equalexperts.component.store.impl.FileCartStore;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Add-to-cart throughput of carts whose mutations are made durable by a {@link FileCartStore}, against carts held in
+ * memory only. {@value #SHOPPERS} shoppers add to their own carts one after the other (a sync per add), or all at once
+ * on virtual threads, whose adds the store writes and syncs together (group commit). Reported in adds per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartStoreBenchmark {
+    private static final int SHOPPERS = 1_000;
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    @Param({"durable", "in-memory"})
+    public String carts;
+
+    private final ProductIn productIn = new ProductIn("cornflakes", 1);
+    private final Future<?>[] adds = new Future<?>[SHOPPERS];
+    private Path directory;
+    private FileCartStore store;
+    private CartRegistry cartRegistry;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cart-store-benchmark");
+        store = new FileCartStore(directory);
+        cartRegistry = carts.equals("durable") ? new DurableCartRegistry(store) : new CartRegistryImpl();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOPPERS)
+    public CartSnapshot addOneAfterTheOther() {
+        CartSnapshot items = null;
+        for (int shopper = 0; shopper < SHOPPERS; shopper++) {
+            items = cartRegistry.getOrCreate("shopper-" + shopper).addProduct(productIn, PRICE);
+        }
+        return items;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOPPERS)
+    public Object addConcurrently() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shopper = 0; shopper < SHOPPERS; shopper++) {
+                final String cartId = "shopper-" + shopper;
+                adds[shopper] = executor.submit(() -> cartRegistry.getOrCreate(cartId).addProduct(productIn, PRICE));
+            }
+        }
+        return adds[SHOPPERS - 1].get();
+    }
+}
@@ -0,0 +1,59 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.model.CartTotals;
+import io.equalexperts.model.ConsolidatedCart;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.view.CartSummaryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the client-facing view of a cart, which is done on every add/remove. A full summary derives the quantities
+ * and items from every line of the cart; a totals-only summary does not read the lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartSummaryViewBenchmark {
+    @Param({"1", "100", "10000"})
+    private int lines;
+
+    private ConsolidatedCart consolidatedCart;
+
+    @Setup
+    public void setUp() {
+        final Map<String, ItemMetadata> items = new HashMap<>();
+        for (int i = 0; i < lines; i++) {
+            items.put("product-" + i, new ItemMetadata(BigDecimal.valueOf(i, 2), 1 + i % 10));
+        }
+        final var totals = new CartTotals(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(11));
+        consolidatedCart = new ConsolidatedCart(null, items, totals);
+    }
+
+    @Benchmark
+    public CartSummaryView from() {
+        return CartSummaryView.from(consolidatedCart);
+    }
+
+    @Benchmark
+    public CartSummaryView totalsOnly() {
+        return CartSummaryView.totalsOnly(consolidatedCart);
+    }
+}
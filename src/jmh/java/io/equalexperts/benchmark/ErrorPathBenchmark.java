@@ -0,0 +1,64 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.service.internal.CartService;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.view.CartSummaryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bot spamming the cart service with bad requests: adds of products the Price API does not know (404), and of
+ * products with an invalid quantity (400). Measures the throughput of the error path, incl. its logging with the
+ * Log4j2 configuration on the classpath, with a stubbed, in-memory Price API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    private final ProductIn unknownProduct = new ProductIn("no-such-cereal", 1);
+    private final ProductIn invalidQuantity = new ProductIn("cornflakes", -1);
+    private CartService cartService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cartService = new CartServiceImpl(productName -> {
+            if (productName.equals("no-such-cereal")) {
+                throw new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, "Product no-such-cereal was not Found");
+            }
+            return PRICE;
+        }, new CartRegistryImpl(), new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5))));
+    }
+
+    @Benchmark
+    public CartSummaryView addUnknownProduct() {
+        return cartService.validateAndAddToCart("bot", unknownProduct);
+    }
+
+    @Benchmark
+    public CartSummaryView addInvalidQuantity() {
+        return cartService.validateAndAddToCart("bot", invalidQuantity);
+    }
+}
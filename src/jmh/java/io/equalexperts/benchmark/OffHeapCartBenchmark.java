@@ -0,0 +1,100 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.cart.impl.OffHeapCart;
+import io.equalexperts.component.cart.impl.OffHeapCartArena;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-heap ({@link CartImpl}) against off-heap ({@link OffHeapCart}) carts: half a million live carts of eight lines
+ * each. Reports the heap retained per cart once they are filled, and measures the pause of a full collection with all
+ * of them live - the cost of tracing them - and the cost of a mutation of a random cart.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:+UseG1GC"})
+public class OffHeapCartBenchmark {
+    private static final int LINES = 8;
+    private static final BigDecimal PRICE = new BigDecimal("2.52");
+    private static final ProductIn EXTRA = new ProductIn("extra", 1);
+
+    @Param({"500000"})
+    public int carts;
+
+    @Param({"on-heap", "off-heap"})
+    public String storage;
+
+    private OffHeapCartArena arena;
+    private Cart[] live;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        arena = new OffHeapCartArena(new ProductDictionaryImpl());
+        final long before = retainedHeap();
+        live = new Cart[carts];
+        for (int i = 0; i < carts; i++) {
+            live[i] = storage.equals("on-heap") ? new CartImpl() : new OffHeapCart(arena);
+            for (int line = 0; line < LINES; line++) {
+                live[i].addProduct(new ProductIn("product-" + line, line + 1), PRICE);
+            }
+        }
+        System.out.printf("%n%s: %d bytes of heap and %d bytes off-heap retained per cart%n", storage,
+                (retainedHeap() - before) / carts, arena.usedBytes() / carts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        live = null;
+        arena.close();
+    }
+
+    /**
+     * A full collection with all carts live; its pause grows with the number of objects to trace.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void fullGc() {
+        System.gc();
+    }
+
+    /**
+     * Adds a line to a random cart and takes it off again, so the carts stay the same size.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public CartSnapshot addAndRemove() {
+        final Cart cart = live[ThreadLocalRandom.current().nextInt(carts)];
+        cart.addProduct(EXTRA, PRICE);
+        return cart.removeProduct(EXTRA.name());
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
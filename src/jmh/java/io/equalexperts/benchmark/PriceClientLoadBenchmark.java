@@ -0,0 +1,105 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.service.external.priceclient.impl.InstrumentedHttpClient;
+import io.equalexperts.service.external.priceclient.impl.PriceApiImpl;
+import io.equalexperts.service.external.priceclient.impl.PriceClientFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the price client: {@value #LOOK_UPS_IN_FLIGHT} threads look up prices, back to back, against a local
+ * HTTP/2 ({@code h2c}) stub of the Price API that answers after {@code latencyMillis}. Compares the client of
+ * {@link PriceClientFactory} against a default {@code HttpClient} and an HTTP/1.1 one; read the throughput (look-ups
+ * per ms) and the p0.99 of the sample-time mode. The connections the stub has seen are printed after each run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(PriceClientLoadBenchmark.LOOK_UPS_IN_FLIGHT)
+@Fork(1)
+public class PriceClientLoadBenchmark {
+    static final int LOOK_UPS_IN_FLIGHT = 64;
+    private static final String PRICE_API_URI = "prices";
+    private static final byte[] BODY = "{\"title\": \"Corn Flakes\", \"price\": 2.52}".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"tuned", "default", "http1"})
+    public String client;
+
+    @Param({"5"})
+    public long latencyMillis;
+
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+    private Server server;
+    private HttpClient httpClient;
+    private PriceApiImpl priceApi;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new Server();
+        final var config = new HttpConfiguration();
+        final var connector = new ServerConnector(server, new HttpConnectionFactory(config), new HTTP2CServerConnectionFactory(config));
+        connector.setHost("127.0.0.1");
+        server.addConnector(connector);
+        server.setHandler(new Handler.Abstract.NonBlocking() {
+            @Override
+            public boolean handle(final Request request, final Response response, final Callback callback) {
+                connections.add(Request.getRemotePort(request));
+                server.getScheduler().schedule(() -> response.write(true, ByteBuffer.wrap(BODY), callback),
+                        latencyMillis, TimeUnit.MILLISECONDS);
+                return true;
+            }
+        });
+        server.start();
+
+        httpClient = switch (client) {
+            case "tuned" -> new PriceClientFactory().create();
+            case "http1" -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            default -> HttpClient.newHttpClient();
+        };
+        priceApi = new PriceApiImpl(PRICE_API_URI, "http://127.0.0.1:%d".formatted(connector.getLocalPort()), httpClient);
+        priceApi.getPrice("cornflakes");    // Upgrades the first connection to HTTP/2 before the load starts
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.out.printf("%n%s client: %d connection(s)%s%n", client, connections.size(),
+                httpClient instanceof InstrumentedHttpClient instrumented ? ", " + instrumented.stats() : "");
+        httpClient.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public BigDecimal lookUpPrice() {
+        return priceApi.getPrice("cornflakes");
+    }
+}
@@ -0,0 +1,90 @@
+package io.equalexperts.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.equalexperts.service.external.dto.PriceRespDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handling of a price response body, from the bytes the HttpClient receives to the DTO, on the JSON fixtures of the
+ * tests. Compare {@code gc.alloc.rate.norm} (bytes per call): the String body bound reflectively by a pretty-printing
+ * Gson (the former client), against the streaming reader on the buffered (async) and streamed (blocking) bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceResponseParsingBenchmark {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Flow.Subscription SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(final long n) {
+            // The body is handed over in full up-front
+        }
+
+        @Override
+        public void cancel() {
+            // Nothing to cancel
+        }
+    };
+
+    @Param({"positive/success_resp", "negative/fail_null_title_resp", "negative/fail_null_price_resp"})
+    public String fixture;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("json/%s.json".formatted(fixture))) {
+            body = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public PriceRespDTO stringBodyReflectiveGson() {
+        return GSON.fromJson(receive(BodySubscribers.ofString(StandardCharsets.UTF_8)), PriceRespDTO.class);
+    }
+
+    @Benchmark
+    public PriceRespDTO bufferedBodyStreamingReader() throws IOException {
+        return PriceRespDTO.fromJson(receive(BodySubscribers.mapping(BodySubscribers.ofByteArray(), ByteArrayInputStream::new)));
+    }
+
+    @Benchmark
+    public PriceRespDTO streamedBodyStreamingReader() throws IOException {
+        return PriceRespDTO.fromJson(receive(BodySubscribers.ofInputStream()));
+    }
+
+    /**
+     * Feeds the fixture to a body subscriber, the way the HttpClient hands over a received body.
+     */
+    private <T> T receive(final BodySubscriber<T> subscriber) {
+        subscriber.onSubscribe(SUBSCRIPTION);
+        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        subscriber.onComplete();
+        return subscriber.getBody().toCompletableFuture().join();
+    }
+}
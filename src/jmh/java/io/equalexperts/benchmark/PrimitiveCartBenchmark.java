@@ -0,0 +1,101 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.cart.impl.PrimitiveCart;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carts of {@link CartImpl} against carts of {@link PrimitiveCart}, both keyed through a {@link ProductDictionary}: the
+ * heap retained by 200,000 carts of five lines each, and the cost of adding to and removing from an existing line, and
+ * of summing the quantities of a cart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PrimitiveCartBenchmark {
+    private static final int CARTS = 200_000;
+    private static final String[] PRODUCTS = {"cheerios", "cornflakes", "frosties", "shreddies", "weetabix"};
+    private static final BigDecimal PRICE = new BigDecimal("2.52");
+    private static final ProductIn ONE_CORNFLAKES = new ProductIn("cornflakes", 1);
+
+    @Param({"objects", "primitive"})
+    public String lines;
+
+    private final Quantities quantities = new Quantities();
+    private Cart[] carts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ProductDictionary products = new ProductDictionaryImpl();
+        final long before = retainedHeap();
+        carts = new Cart[CARTS];
+        for (int i = 0; i < CARTS; i++) {
+            carts[i] = lines.equals("objects") ? new CartImpl(CartSnapshot.empty(), products) : new PrimitiveCart(products);
+            for (final String product : PRODUCTS) {
+                carts[i].addProduct(new ProductIn(product, 1), PRICE);
+            }
+        }
+        System.out.printf("%n%s: %d bytes of heap retained per cart%n", lines, (retainedHeap() - before) / CARTS);
+    }
+
+    @Benchmark
+    public CartSnapshot addAndRemove() {
+        final Cart cart = carts[ThreadLocalRandom.current().nextInt(CARTS)];
+        cart.addProduct(ONE_CORNFLAKES, PRICE);
+        return cart.removeProduct("cornflakes", 1);
+    }
+
+    @Benchmark
+    public long sumQuantities() {
+        final Cart cart = carts[ThreadLocalRandom.current().nextInt(CARTS)];
+        if (cart instanceof PrimitiveCart primitive) {
+            quantities.total = 0;
+            primitive.forEachLine(quantities);
+            return quantities.total;
+        }
+        long total = 0;
+        for (final ItemMetadata line : cart.items().values()) {
+            total += line.quantity();
+        }
+        return total;
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class Quantities implements PrimitiveCart.LineVisitor {
+        private long total;
+
+        @Override
+        public void visit(final int productId, final long priceUnits, final int quantity) {
+            total += quantity;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carts keyed by the product names as they arrive with each request, against carts keyed by the canonical names of a
+ * {@link ProductDictionary}: the heap retained by 200,000 carts of five lines each, and the cost of an add and a
+ * look-up with a name freshly decoded from a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductDictionaryBenchmark {
+    private static final int CARTS = 200_000;
+    private static final String[] PRODUCTS = {"cheerios", "cornflakes", "frosties", "shreddies", "weetabix"};
+    private static final BigDecimal PRICE = new BigDecimal("2.52");
+
+    @Param({"raw", "interned"})
+    public String names;
+
+    private Cart[] carts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ProductDictionary products = names.equals("raw") ? new RawNames() : new ProductDictionaryImpl();
+        final long before = retainedHeap();
+        carts = new Cart[CARTS];
+        for (int i = 0; i < CARTS; i++) {
+            carts[i] = new CartImpl(CartSnapshot.empty(), products);
+            for (final String product : PRODUCTS) {
+                carts[i].addProduct(new ProductIn(decoded(product), 1), PRICE);
+            }
+        }
+        System.out.printf("%n%s: %d bytes of heap retained per cart%n", names, (retainedHeap() - before) / CARTS);
+    }
+
+    @Benchmark
+    public CartSnapshot addAndRemove() {
+        final Cart cart = carts[ThreadLocalRandom.current().nextInt(CARTS)];
+        cart.addProduct(new ProductIn(decoded("cornflakes"), 1), PRICE);
+        return cart.removeProduct(decoded("cornflakes"), 1);
+    }
+
+    @Benchmark
+    public ItemMetadata lookUp() {
+        return carts[ThreadLocalRandom.current().nextInt(CARTS)].items().get(decoded("weetabix"));
+    }
+
+    /**
+     * A name as decoded from a request: equal to, but not the same instance as, the names seen before.
+     */
+    private static String decoded(final String name) {
+        return new String(name.toCharArray());
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Keeps names as they are given, as carts did before the dictionary.
+     */
+    private static final class RawNames implements ProductDictionary {
+        @Override
+        public int idOf(final String productName) {
+            return NO_ID;
+        }
+
+        @Override
+        public String intern(final String productName) {
+            return productName;
+        }
+
+        @Override
+        public int find(final String productName) {
+            return NO_ID;
+        }
+
+        @Override
+        public String nameOf(final int productId) {
+            throw new IllegalArgumentException("Unknown product id: " + productId);
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.tax.TaxCalculator;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tax engine: the fixed-point variant and the BigDecimal variant built on top of it, against the plain BigDecimal
+ * arithmetic they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxCalculatorBenchmark {
+    private static final BigDecimal TAX_RATE = BigDecimal.valueOf(12.5);
+
+    private final TaxCalculator taxCalculator = new TaxCalculatorImpl(TAX_RATE);
+    private final BigDecimal subTotal = new BigDecimal("1234.5678");
+    private final long subTotalUnits = 12_345_678L;
+
+    @Benchmark
+    public long fixedPoint() {
+        return taxCalculator.calculateTaxAmount(subTotalUnits);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalApi() {
+        return taxCalculator.calculateTaxAmount(subTotal);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalBaseline() {
+        return subTotal.multiply(TAX_RATE.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP))
+                .setScale(10, RoundingMode.HALF_UP)
+                .stripTrailingZeros();
+    }
+}
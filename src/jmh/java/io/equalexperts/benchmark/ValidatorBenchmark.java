@@ -0,0 +1,55 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.exception.CartException;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.validators.ValidatorProvider;
+import io.equalexperts.validators.wrapper.PriceWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean-validation of the client input and the Price API response, on the happy path and on a rejected input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    private final ProductIn validProduct = new ProductIn("cornflakes", 2);
+    private final ProductIn invalidProduct = new ProductIn("", -1);
+    private final PriceWrapper validPrice = new PriceWrapper(BigDecimal.valueOf(2.52));
+
+    @Benchmark
+    public ProductIn validProductIn() {
+        ValidatorProvider.validateData(validProduct);
+        return validProduct;
+    }
+
+    @Benchmark
+    public PriceWrapper validPriceWrapper() {
+        ValidatorProvider.validateData(validPrice);
+        return validPrice;
+    }
+
+    @Benchmark
+    public CartException invalidProductIn() {
+        try {
+            ValidatorProvider.validateData(invalidProduct);
+            return null;
+        } catch (CartException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.equalexperts.benchmark;
+
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.service.internal.cartengine.VirtualThreadCartService;
+import io.equalexperts.view.CartSummaryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Add-to-cart throughput of {@value #SHOPPERS} concurrent shoppers against a Price API with injected, blocking latency
+ * (like {@code HttpClient.send}). Each shopper's {@code validateAndAddToCartAsync} call runs on a virtual thread, or on
+ * a pool of platform threads the size of a typical request-handling pool; the blocking calls run on the caller's
+ * thread, so they are not measured here. Reported in shopper requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class VirtualThreadCartServiceBenchmark {
+    private static final int SHOPPERS = 10_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    @Param({"virtual", "platform"})
+    public String threads;
+
+    @Param({"20"})
+    public long latencyMillis;
+
+    private final ProductIn productIn = new ProductIn("cornflakes", 1);
+    private final CompletableFuture<?>[] requests = new CompletableFuture<?>[SHOPPERS];
+    private VirtualThreadCartService cartService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final Duration latency = Duration.ofMillis(latencyMillis);
+        final PriceApi priceApi = productName -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PRICE;
+        };
+        final var delegate = new CartServiceImpl(priceApi, new CartRegistryImpl(),
+                new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5))));
+        cartService = threads.equals("virtual")
+                ? new VirtualThreadCartService(delegate)
+                : new VirtualThreadCartService(delegate, Executors.newFixedThreadPool(PLATFORM_THREADS));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        cartService.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHOPPERS)
+    public CartSummaryView addToCartConcurrently() {
+        for (int shopper = 0; shopper < SHOPPERS; shopper++) {
+            requests[shopper] = cartService.validateAndAddToCartAsync("shopper-" + shopper, productIn);
+        }
+        CompletableFuture.allOf(requests).join();
+        return (CartSummaryView) requests[SHOPPERS - 1].join();
+    }
+}
@@ -3,6 +3,7 @@ package io.equalexperts.component.calculator;
 import io.equalexperts.model.CartTotals;
 import io.equalexperts.model.ItemMetadata;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 public interface CartCalculator {
@@ -16,4 +17,23 @@ public interface CartCalculator {
      * @return An instance of CartTotals containing the computed tax, subtotal, and total values for the cart.
      */
     CartTotals calculateTotals(Map<String, ItemMetadata> items);
+
+    /**
+     * Calculates and retrieves the totals for the cart from its running (incrementally maintained) subtotal,
+     * without iterating the cart's items.
+     *
+     * @param subTotal The exact, unrounded subtotal of the cart. Must not be null.
+     * @return An instance of CartTotals containing the computed tax, subtotal, and total values for the cart.
+     */
+    CartTotals calculateTotals(BigDecimal subTotal);
+
+    /**
+     * Recomputes the totals for the cart from scratch and checks them against its running subtotal.
+     * A mismatch is reported, and the exact recomputation always wins.
+     *
+     * @param items           A map containing item identifiers as keys and their associated metadata. Must not be null.
+     * @param runningSubTotal The incrementally maintained subtotal of the same cart. Must not be null.
+     * @return An instance of CartTotals computed from the items themselves.
+     */
+    CartTotals reconcile(Map<String, ItemMetadata> items, BigDecimal runningSubTotal);
 }
\ No newline at end of file
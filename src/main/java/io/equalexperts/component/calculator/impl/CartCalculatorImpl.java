@@ -4,12 +4,19 @@ import io.equalexperts.component.calculator.CartCalculator;
 import io.equalexperts.component.tax.TaxCalculator;
 import io.equalexperts.model.CartTotals;
 import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.util.MoneyUtil;
 import lombok.extern.log4j.Log4j2;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Map;
 
+import static io.equalexperts.util.MoneyUtil.CENT_SCALE;
+import static io.equalexperts.util.MoneyUtil.NOT_REPRESENTABLE;
+import static io.equalexperts.util.MoneyUtil.TAX_SCALE;
+import static io.equalexperts.util.MoneyUtil.UNIT_SCALE;
+import static java.util.Objects.isNull;
+
 @Log4j2
 public class CartCalculatorImpl implements CartCalculator {
     private final TaxCalculator taxCalculator;
@@ -21,6 +28,10 @@ public class CartCalculatorImpl implements CartCalculator {
     /**
      * Calculates and retrieves the totals for the cart, including tax, subtotal, and total amount
      * based on the provided items and their metadata.
+     * <p>
+     * The sums are taken in fixed-point (see {@link MoneyUtil}); only carts holding a price with more than 4 decimals,
+     * or amounts beyond the range of a long, fall back to BigDecimal arithmetic. Both yield identical totals.
+     * </p>
      *
      * @param items A map containing item identifiers as keys and their associated metadata
      *              (price and quantity) as values. Must not be null.
@@ -28,24 +39,127 @@ public class CartCalculatorImpl implements CartCalculator {
      */
     @Override
     public CartTotals calculateTotals(final Map<String, ItemMetadata> items) {
-        // Calculate totals
-        BigDecimal subTotal = BigDecimal.ZERO;
-        // Calculate total price
-        for (Map.Entry<String, ItemMetadata> entry : items.entrySet()) {
-            final ItemMetadata itemMetadata = entry.getValue();
-            subTotal = calculateItemSubTotal(subTotal, itemMetadata.price(), itemMetadata.quantity());
+        final CartTotals totals = calculateFixedPointTotals(calculateSubTotalUnits(items));
+        return isNull(totals) ? calculateExactTotals(calculateSubTotal(items)) : totals;
+    }
+
+    /**
+     * Calculates and retrieves the totals for the cart from its running (incrementally maintained) subtotal,
+     * without iterating the cart's items.
+     *
+     * @param subTotal The exact, unrounded subtotal of the cart. Must not be null.
+     * @return An instance of CartTotals containing the computed tax, subtotal, and total values for the cart.
+     */
+    @Override
+    public CartTotals calculateTotals(final BigDecimal subTotal) {
+        final CartTotals totals = calculateFixedPointTotals(MoneyUtil.toUnits(subTotal));
+        return isNull(totals) ? calculateExactTotals(subTotal) : totals;
+    }
+
+    /**
+     * Calculates the totals in fixed-point, rounding each of them HALF_UP to 2-decimal places.
+     *
+     * @param subTotalUnits The exact subtotal in units of 1/10,000, or {@code MoneyUtil.NOT_REPRESENTABLE}.
+     * @return An instance of CartTotals, or null if any of the amounts is not representable in fixed-point.
+     */
+    private CartTotals calculateFixedPointTotals(final long subTotalUnits) {
+        if (subTotalUnits == NOT_REPRESENTABLE) {
+            return null;
+        }
+        final long taxUnits = taxCalculator.calculateTaxAmount(subTotalUnits);
+        if (taxUnits == NOT_REPRESENTABLE) {
+            return null;
         }
+        final long subTotalTaxUnits = MoneyUtil.multiply(subTotalUnits, MoneyUtil.powerOfTen(TAX_SCALE - UNIT_SCALE));
+        final long totalUnits = subTotalTaxUnits == NOT_REPRESENTABLE ? NOT_REPRESENTABLE : MoneyUtil.add(subTotalTaxUnits, taxUnits);
+        if (totalUnits == NOT_REPRESENTABLE) {
+            return null;
+        }
+        final var totals = new CartTotals(
+                MoneyUtil.toAmount(MoneyUtil.roundHalfUp(taxUnits, TAX_SCALE, CENT_SCALE), CENT_SCALE),
+                MoneyUtil.toAmount(MoneyUtil.roundHalfUp(subTotalUnits, UNIT_SCALE, CENT_SCALE), CENT_SCALE),
+                MoneyUtil.toAmount(MoneyUtil.roundHalfUp(totalUnits, TAX_SCALE, CENT_SCALE), CENT_SCALE)
+        );
+        log.debug("Cart totals: {}", totals);
+        return totals;
+    }
 
+    /**
+     * Calculates the totals with BigDecimal arithmetic, for amounts that do not fit into fixed-point.
+     *
+     * @param subTotal The exact, unrounded subtotal of the cart. Must not be null.
+     * @return An instance of CartTotals containing the computed tax, subtotal, and total values for the cart.
+     */
+    private CartTotals calculateExactTotals(final BigDecimal subTotal) {
         final var taxAmount = taxCalculator.calculateTaxAmount(subTotal);
         final var total = subTotal.add(taxAmount);
         log.debug("Cart totals: Tax: {}, Subtotal: {}, Total: {}", taxAmount, subTotal, total);
         return new CartTotals(
-                taxAmount.setScale(2, RoundingMode.HALF_UP),
-                subTotal.setScale(2, RoundingMode.HALF_UP),
-                total.setScale(2, RoundingMode.HALF_UP)
+                taxAmount.setScale(CENT_SCALE, RoundingMode.HALF_UP),
+                subTotal.setScale(CENT_SCALE, RoundingMode.HALF_UP),
+                total.setScale(CENT_SCALE, RoundingMode.HALF_UP)
         );
     }
 
+    /**
+     * Recomputes the totals for the cart from scratch and checks them against its running subtotal.
+     * A mismatch is reported, and the exact recomputation always wins.
+     *
+     * @param items           A map containing item identifiers as keys and their associated metadata. Must not be null.
+     * @param runningSubTotal The incrementally maintained subtotal of the same cart. Must not be null.
+     * @return An instance of CartTotals computed from the items themselves.
+     */
+    @Override
+    public CartTotals reconcile(final Map<String, ItemMetadata> items, final BigDecimal runningSubTotal) {
+        final long subTotalUnits = calculateSubTotalUnits(items);
+        final var subTotal = subTotalUnits == NOT_REPRESENTABLE
+                ? calculateSubTotal(items)
+                : MoneyUtil.toAmount(subTotalUnits, UNIT_SCALE);
+        if (subTotal.compareTo(runningSubTotal) != 0) {
+            log.error("Cart subtotal drifted: Running: {}, Recomputed: {}", runningSubTotal, subTotal);
+        }
+        return calculateTotals(subTotal);
+    }
+
+    /**
+     * Recomputes the subtotal of the cart in fixed-point by iterating every item.
+     *
+     * @param items A map containing item identifiers as keys and their associated metadata. Must not be null.
+     * @return The exact subtotal in units of 1/10,000, or {@code MoneyUtil.NOT_REPRESENTABLE} if a price has more than
+     * 4 decimals or the subtotal does not fit into a long.
+     */
+    private long calculateSubTotalUnits(final Map<String, ItemMetadata> items) {
+        long subTotalUnits = 0;
+        for (ItemMetadata itemMetadata : items.values()) {
+            final long priceUnits = MoneyUtil.toUnits(itemMetadata.price());
+            final long lineUnits = priceUnits == NOT_REPRESENTABLE ? NOT_REPRESENTABLE : MoneyUtil.multiply(priceUnits, itemMetadata.quantity());
+            if (lineUnits == NOT_REPRESENTABLE) {
+                return NOT_REPRESENTABLE;
+            }
+            subTotalUnits = MoneyUtil.add(subTotalUnits, lineUnits);
+            if (subTotalUnits == NOT_REPRESENTABLE) {
+                return NOT_REPRESENTABLE;
+            }
+        }
+        return subTotalUnits;
+    }
+
+    /**
+     * Recomputes the subtotal of the cart by iterating every item.
+     *
+     * @param items A map containing item identifiers as keys and their associated metadata. Must not be null.
+     * @return The exact (unrounded) subtotal as a BigDecimal.
+     */
+    private BigDecimal calculateSubTotal(final Map<String, ItemMetadata> items) {
+        BigDecimal subTotal = BigDecimal.ZERO;
+        // Calculate total price
+        for (Map.Entry<String, ItemMetadata> entry : items.entrySet()) {
+            final ItemMetadata itemMetadata = entry.getValue();
+            subTotal = calculateItemSubTotal(subTotal, itemMetadata.price(), itemMetadata.quantity());
+        }
+        return subTotal;
+    }
+
     /**
      * Calculates the updated subtotal for an item based on its price and quantity,
      * and adds it to the current subtotal.
@@ -1,9 +1,14 @@
 package io.equalexperts.component.cart;
 
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
 import io.equalexperts.model.ItemMetadata;
 import io.equalexperts.model.ProductIn;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 
 public interface Cart {
@@ -14,18 +19,90 @@ public interface Cart {
      *
      * @param productIn The product information including name and quantity. Must not be null.
      * @param price     The price of the product. Must not be null and must be a non-negative value.
-     * @return A map representing the current state of the cart where the keys are product names and
-     * the values are ItemMetadata objects containing price and updated quantities of products.
+     * @return The snapshot the add published: the state of the cart right after it, whatever mutations follow.
      */
-    Map<String, ItemMetadata> addProduct(final ProductIn productIn, final BigDecimal price);
+    CartSnapshot addProduct(final ProductIn productIn, final BigDecimal price);
+
+    /**
+     * Conditional variant of {@link #addProduct(ProductIn, BigDecimal)}: the product is only added if the cart is
+     * still at the expected version, e.g. the version a device last showed to its shopper.
+     *
+     * @param productIn       The product information including name and quantity. Must not be null.
+     * @param price           The price of the product. Must not be null and must be a non-negative value.
+     * @param expectedVersion The version the cart is expected to be at.
+     * @return The snapshot the add published, at the version following the expected one.
+     * @throws CartVersionConflictException if the cart is at another version; the cart is left unchanged.
+     */
+    CartSnapshot addProductIfVersion(final ProductIn productIn, final BigDecimal price, final long expectedVersion);
+
+    /**
+     * Adds several products to the cart in one step, each with its own price, exactly as if they were added one by
+     * one. The prices and quantities are checked up-front, so an invalid line leaves the cart unchanged.
+     *
+     * @param lines The products to be added to the cart, with their prices. Must not be null.
+     * @return The snapshot the batch published: the state of the cart right after it.
+     */
+    CartSnapshot addProducts(final List<CartLine> lines);
 
     /**
      * Removes a product from the cart. If the product exists in the cart, it is removed, and the cart's
      * state is updated. If the product does not exist in the cart, no changes are made.
      *
      * @param productName The name of the product to be removed. Must not be null or blank.
-     * @return A map representing the updated state of the cart where the keys are product names and
-     * the values are ItemMetadata objects containing the price and remaining quantities of the products.
+     * @return The snapshot the removal published, or the current one if the product was not in the cart.
+     */
+    CartSnapshot removeProduct(final String productName);
+
+    /**
+     * Conditional variant of {@link #removeProduct(String)}: the product is only removed if the cart is still at the
+     * expected version.
+     *
+     * @param productName     The name of the product to be removed. Must not be null or blank.
+     * @param expectedVersion The version the cart is expected to be at.
+     * @return The snapshot the removal published, or the current one if the product was not in the cart.
+     * @throws CartVersionConflictException if the cart is at another version; the cart is left unchanged.
+     */
+    CartSnapshot removeProductIfVersion(final String productName, final long expectedVersion);
+
+    /**
+     * Decrements the quantity of a product in the cart. If the remaining quantity drops to zero (or below),
+     * the product is removed from the cart. If the product does not exist in the cart, no changes are made.
+     *
+     * @param productName The name of the product to be decremented. Must not be null or blank.
+     * @param quantity    The quantity to take off the product. Must be a positive integer.
+     * @return The snapshot the decrement published, or the current one if the product was not in the cart.
+     */
+    CartSnapshot removeProduct(final String productName, final int quantity);
+
+    /**
+     * Retrieves the current state of the cart without changing it.
+     *
+     * @return An immutable map where the keys are product names and the values are ItemMetadata objects containing
+     * the price and quantities of the products.
+     */
+    Map<String, ItemMetadata> items();
+
+    /**
+     * Retrieves the running subtotal of the cart: the sum of price x quantity over all lines. It is maintained as
+     * a delta by every add and remove, so reading it is O(1) regardless of the number of lines in the cart.
+     *
+     * @return The exact (unrounded) subtotal of the cart. Never null.
+     */
+    BigDecimal subTotal();
+
+    /**
+     * Retrieves the current state of the cart as one immutable snapshot: its lines and their subtotal, consistent
+     * with each other, as of the latest mutation.
+     *
+     * @return The current snapshot of the cart. Never null.
+     */
+    CartSnapshot snapshot();
+
+    /**
+     * Releases what the cart holds besides its own fields (e.g. off-heap lines). Called by its registry once the cart is
+     * removed; a cart that releases anything reads as empty afterwards, and fails any further mutation with a
+     * {@link CartClosedException}. Does nothing by default.
      */
-    Map<String, ItemMetadata> removeProduct(final String productName);
+    default void close() {
+    }
 }
@@ -0,0 +1,43 @@
+package io.equalexperts.component.cart;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface CartRegistry {
+
+    /**
+     * Retrieves the cart bound to the given cart/session identifier, creating an empty cart on first access.
+     * Concurrent callers for the same identifier always receive the same cart instance.
+     *
+     * @param cartId The identifier of the cart (e.g. the shopper's session id). Must not be null or blank.
+     * @return The cart bound to the given identifier.
+     */
+    Cart getOrCreate(final String cartId);
+
+    /**
+     * Looks up the cart bound to the given cart/session identifier without creating it.
+     *
+     * @param cartId The identifier of the cart. Must not be null or blank.
+     * @return An {@code Optional} containing the cart, or an empty {@code Optional} if no cart is bound to the identifier.
+     */
+    Optional<Cart> find(final String cartId);
+
+    /**
+     * Discards the cart bound to the given cart/session identifier, e.g. after checkout or session termination.
+     *
+     * @param cartId The identifier of the cart. Must not be null or blank.
+     * @return {@code true} if a cart was bound to the identifier and has been removed, otherwise {@code false}.
+     */
+    boolean remove(final String cartId);
+
+    /**
+     * @return A read-only, live view of the identifiers of the carts held by the registry. Iterating it while carts are
+     * created or removed does not fail, but may or may not see those carts.
+     */
+    Set<String> cartIds();
+
+    /**
+     * @return The number of live carts held by the registry.
+     */
+    int size();
+}
@@ -1,46 +1,137 @@
 package io.equalexperts.component.cart.impl;
 
 import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.ProductDictionary;
 import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
 import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
 import io.equalexperts.model.ItemMetadata;
 import io.equalexperts.model.ProductIn;
 import lombok.extern.log4j.Log4j2;
 
 import java.math.BigDecimal;
-import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Objects.isNull;
 
+/**
+ * A cart whose state is an immutable, versioned {@link CartSnapshot}.
+ * <p>
+ * Every mutation creates the next snapshot from the current one and publishes it with a compare-and-set, retrying
+ * if another mutation got there first. Readers never block writers, and a snapshot - its lines and its subtotal -
+ * never changes once handed out, so totals and views derived from it are always consistent.
+ * </p>
+ * <p>
+ * Lines are keyed by the canonical product names of the {@link ProductDictionary} of the registry, if any: a product
+ * added to a million carts is keyed by one and the same {@code String}, whose hash code is computed once.
+ * </p>
+ */
 @Log4j2
 public class CartImpl implements Cart {
-    private final Map<String, ItemMetadata> items = new ConcurrentHashMap<>();
+    private final AtomicReference<CartSnapshot> snapshot;
+    private final ProductDictionary products;
+
+    public CartImpl() {
+        this(CartSnapshot.empty());
+    }
+
+    /**
+     * A cart without a dictionary keys its lines by the product names as they are given.
+     *
+     * @param initial The state the cart resumes from, e.g. as recovered from a {@code CartStore}; the versions of its
+     *                later snapshots follow on from the version of this one.
+     */
+    public CartImpl(final CartSnapshot initial) {
+        this(initial, null);
+    }
+
+    /**
+     * @param initial  The state the cart resumes from.
+     * @param products The dictionary the product names of the lines are interned in, typically the one of the registry
+     *                 of the cart; {@code null} for none.
+     */
+    public CartImpl(final CartSnapshot initial, final ProductDictionary products) {
+        this.snapshot = new AtomicReference<>(initial);
+        this.products = products;
+    }
 
     /**
      * Adds a product to the cart with the specified price. If the product already exists in the cart,
      * its quantity is incremented by the provided quantity. Otherwise, a new product is added to the cart.
+     * <p>
+     * The insert-or-increment and the move of the running subtotal are published as one snapshot, so concurrent adds
+     * of the same product never lose an update.
+     * </p>
      *
      * @param productIn The product information including its name and quantity. Must not be null and must contain valid values.
      * @param price     The price of the product to be added. Must not be null and must represent a non-negative value.
-     * @return A map representing the current state of the cart, where the keys are product names and
-     * the values are {@code ItemMetadata} objects containing the price and the updated quantity of products.
+     * @return The snapshot the add published.
      */
-    public Map<String, ItemMetadata> addProduct(final ProductIn productIn, final BigDecimal price) {
-        if (price.compareTo(BigDecimal.ZERO) < 0) {
-            throw new CartException("Price must be non-negative");
-        }
-        // Add product to cart
-        if (items.containsKey(productIn.name())) {
-            final ItemMetadata updatedItemMetadata = items.get(productIn.name()).addQuantity(productIn.quantity());
-            items.put(productIn.name(), updatedItemMetadata);
-            return Collections.unmodifiableMap(items);
-        } else {
-            final var productCart = new ItemMetadata(price, productIn.quantity());
-            items.put(productIn.name(), productCart);
+    public CartSnapshot addProduct(final ProductIn productIn, final BigDecimal price) {
+        checkPrice(price);
+        final String productName = intern(productIn.name());
+        return snapshot.updateAndGet(current -> mergeLine(current, productName, productIn.quantity(), price));
+    }
+
+    /**
+     * Adds a product to the cart as by {@link #addProduct(ProductIn, BigDecimal)}, provided the cart is at the expected
+     * version. The version is checked against the very snapshot the add is applied to, so a concurrent mutation
+     * either comes before the check (and fails it) or after the add.
+     *
+     * @param productIn       The product information including its name and quantity. Must not be null and must contain valid values.
+     * @param price           The price of the product to be added. Must not be null and must represent a non-negative value.
+     * @param expectedVersion The version the cart is expected to be at.
+     * @return The snapshot the add published.
+     * @throws CartVersionConflictException if the cart is at another version; the cart is left unchanged.
+     */
+    @Override
+    public CartSnapshot addProductIfVersion(final ProductIn productIn, final BigDecimal price, final long expectedVersion) {
+        checkPrice(price);
+        final String productName = intern(productIn.name());
+        return snapshot.updateAndGet(current -> mergeLine(checkVersion(current, expectedVersion), productName, productIn.quantity(), price));
+    }
+
+    /**
+     * Adds several products to the cart in one step. All prices and quantities are checked before the first line is
+     * applied, so an invalid line leaves the cart unchanged. Each line is then merged as by
+     * {@link #addProduct(ProductIn, BigDecimal)}, and the whole batch is published as one snapshot: readers observe
+     * either none or all of it.
+     *
+     * @param lines The products to be added to the cart, with their prices. Must not be null.
+     * @return The snapshot the batch published.
+     */
+    @Override
+    public CartSnapshot addProducts(final List<CartLine> lines) {
+        final String[] productNames = new String[lines.size()];
+        for (int i = 0; i < productNames.length; i++) {
+            checkPrice(lines.get(i).price());
+            checkQuantity(lines.get(i).productIn().quantity());
+            productNames[i] = intern(lines.get(i).productIn().name());
         }
-        return Collections.unmodifiableMap(items);
+        return snapshot.updateAndGet(current -> {
+            CartSnapshot next = current;
+            for (int i = 0; i < productNames.length; i++) {
+                next = mergeLine(next, productNames[i], lines.get(i).productIn().quantity(), lines.get(i).price());
+            }
+            return next == current ? current : new CartSnapshot(current.version() + 1, next.items(), next.subTotal());
+        });
+    }
+
+    /**
+     * Adds a product to the cart, or increments the quantity of the existing line (which keeps its original price).
+     */
+    private static CartSnapshot mergeLine(final CartSnapshot current, final String productName, final Integer quantity, final BigDecimal price) {
+        final ItemMetadata existing = current.items().get(productName);
+        final ItemMetadata updated = isNull(existing)
+                ? new ItemMetadata(price, quantity)
+                : existing.addQuantity(quantity);
+        return new CartSnapshot(current.version() + 1, current.items().plus(productName, updated),
+                moveSubTotal(current.subTotal(), updated.price(), quantity));
     }
 
     /**
@@ -48,15 +139,117 @@ public class CartImpl implements Cart {
      * state is updated. If the product does not exist in the cart, no changes are made.
      *
      * @param productName The name of the product to be removed. Must not be null or blank.
-     * @return A map representing the updated state of the cart where the keys are product names and
-     * the values are ItemMetadata objects containing the price and remaining quantities of the products.
+     * @return The snapshot the removal published, or the current one if the product was not in the cart.
      */
     @Override
-    public Map<String, ItemMetadata> removeProduct(final String productName) {
+    public CartSnapshot removeProduct(final String productName) {
+        checkProductName(productName);
+        return snapshot.updateAndGet(current -> removeLine(current, productName));
+    }
+
+    /**
+     * Removes a product from the cart as by {@link #removeProduct(String)}, provided the cart is at the expected
+     * version.
+     *
+     * @param productName     The name of the product to be removed. Must not be null or blank.
+     * @param expectedVersion The version the cart is expected to be at.
+     * @return The snapshot the removal published, or the current one if the product was not in the cart.
+     * @throws CartVersionConflictException if the cart is at another version; the cart is left unchanged.
+     */
+    @Override
+    public CartSnapshot removeProductIfVersion(final String productName, final long expectedVersion) {
+        checkProductName(productName);
+        return snapshot.updateAndGet(current -> removeLine(checkVersion(current, expectedVersion), productName));
+    }
+
+    /**
+     * Removes a product from the cart; a product that is not in the cart leaves the snapshot as it is.
+     */
+    private static CartSnapshot removeLine(final CartSnapshot current, final String productName) {
+        final ItemMetadata removed = current.items().get(productName);
+        if (isNull(removed)) {
+            return current;
+        }
+        return new CartSnapshot(current.version() + 1, current.items().minus(productName),
+                moveSubTotal(current.subTotal(), removed.price(), -removed.quantity()));
+    }
+
+    /**
+     * Decrements the quantity of a product in the cart. If the remaining quantity drops to zero (or below),
+     * the product is removed from the cart. If the product does not exist in the cart, no changes are made.
+     * <p>
+     * The decrement-or-remove is published as one snapshot, the counterpart of the add path.
+     * </p>
+     *
+     * @param productName The name of the product to be decremented. Must not be null or blank.
+     * @param quantity    The quantity to take off the product. Must be a positive integer.
+     * @return The snapshot the removal published, or the current one if the product was not in the cart.
+     */
+    @Override
+    public CartSnapshot removeProduct(final String productName, final int quantity) {
+        checkProductName(productName);
+        checkQuantity(quantity);
+        return snapshot.updateAndGet(current -> {
+            final ItemMetadata existing = current.items().get(productName);
+            if (isNull(existing)) {
+                return current;
+            }
+            final int removed = Math.min(existing.quantity(), quantity);
+            final var items = existing.quantity() > quantity
+                    ? current.items().plus(productName, existing.subtractQuantity(quantity))
+                    : current.items().minus(productName);
+            return new CartSnapshot(current.version() + 1, items, moveSubTotal(current.subTotal(), existing.price(), -removed));
+        });
+    }
+
+    @Override
+    public Map<String, ItemMetadata> items() {
+        return snapshot.get().items();
+    }
+
+    @Override
+    public BigDecimal subTotal() {
+        return snapshot.get().subTotal();
+    }
+
+    @Override
+    public CartSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Applies the value of a line-delta (price x quantity) to a subtotal.
+     */
+    private static BigDecimal moveSubTotal(final BigDecimal subTotal, final BigDecimal price, final int quantityDelta) {
+        return subTotal.add(price.multiply(BigDecimal.valueOf(quantityDelta)));
+    }
+
+    private static CartSnapshot checkVersion(final CartSnapshot current, final long expectedVersion) {
+        if (current.version() != expectedVersion) {
+            throw new CartVersionConflictException(expectedVersion, current.version());
+        }
+        return current;
+    }
+
+    private String intern(final String productName) {
+        return isNull(products) ? productName : products.intern(productName);
+    }
+
+    private static void checkPrice(final BigDecimal price) {
+        if (price.compareTo(BigDecimal.ZERO) < 0) {
+            throw new CartException("Price must be non-negative");
+        }
+    }
+
+    private static void checkQuantity(final Integer quantity) {
+        if (isNull(quantity) || quantity <= 0) {
+            throw new InvalidCartParamsException("Quantity must not be null and must be positive integer");
+        }
+    }
+
+    private static void checkProductName(final String productName) {
         if (isNull(productName) || productName.isBlank()) {
             throw new InvalidProductRemovalException("Product name must not be null or blank");
         }
-        items.remove(productName);
-        return Collections.unmodifiableMap(items);
     }
 }
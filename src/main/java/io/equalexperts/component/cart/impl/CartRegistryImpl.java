@@ -0,0 +1,96 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.model.CartSnapshot;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Hands out one {@link Cart} per cart/session identifier.
+ * <p>
+ * Carts are held in a {@link ConcurrentHashMap}: look-ups are lock-free and creation only locks the hash-bin of the
+ * identifier being created, so shoppers working on different carts never contend with each other.
+ * </p>
+ */
+@Log4j2
+public class CartRegistryImpl implements CartRegistry {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 10;
+    private final Map<String, Cart> carts;
+    private final Supplier<Cart> cartFactory;
+
+    public CartRegistryImpl() {
+        this(new ProductDictionaryImpl());
+    }
+
+    /**
+     * @param products The dictionary the product names of the carts are interned in, shared by the carts of this
+     *                 registry only.
+     */
+    public CartRegistryImpl(final ProductDictionary products) {
+        this(() -> new CartImpl(CartSnapshot.empty(), products), DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param cartFactory     Creates a new, empty cart for an identifier seen for the first time.
+     * @param initialCapacity The expected number of live carts, used to pre-size the store and avoid re-hashing
+     *                        under load. Must be non-negative.
+     */
+    public CartRegistryImpl(final Supplier<Cart> cartFactory, final int initialCapacity) {
+        this.cartFactory = cartFactory;
+        this.carts = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    @Override
+    public Cart getOrCreate(final String cartId) {
+        checkCartId(cartId);
+        return carts.computeIfAbsent(cartId, id -> {
+            log.debug("Creating cart: {}", id);
+            return cartFactory.get();
+        });
+    }
+
+    @Override
+    public Optional<Cart> find(final String cartId) {
+        checkCartId(cartId);
+        return Optional.ofNullable(carts.get(cartId));
+    }
+
+    @Override
+    public boolean remove(final String cartId) {
+        checkCartId(cartId);
+        final Cart removed = carts.remove(cartId);
+        if (removed == null) {
+            return false;
+        }
+        removed.close();    // E.g. hands the lines of an off-heap cart back to its arena
+        return true;
+    }
+
+    @Override
+    public Set<String> cartIds() {
+        return Collections.unmodifiableSet(carts.keySet());
+    }
+
+    @Override
+    public int size() {
+        return carts.size();
+    }
+
+    static void checkCartId(final String cartId) {
+        if (isNull(cartId) || cartId.isBlank()) {
+            throw new InvalidCartParamsException("Cart-Id must not be null or blank");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.store.CartStore;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A cart whose mutations are recorded by a {@link CartStore}, so that it survives a restart.
+ * <p>
+ * A mutation is applied to a {@link CartImpl} staged from the committed snapshot of the cart, and its change appended
+ * to the store; the snapshot it left is committed - and seen by readers - only once the change is durable. A change
+ * that cannot be made durable fails the mutation and leaves the cart as it was. The lock of the cart is held until
+ * then, so the store receives the changes of a cart in the order of their versions; mutations of other carts waiting
+ * meanwhile are made durable with the same sync. The lock is a {@link ReentrantLock}, which a virtual thread waits on
+ * without pinning its carrier.
+ * </p>
+ * <p>
+ * Reads are served from the committed snapshot, without locking. A mutation that leaves the cart unchanged (e.g.
+ * removing a product that is not in the cart, or a version conflict) is not recorded.
+ * </p>
+ * <p>
+ * Once discarded or closed, the cart rejects mutations with a {@link CartClosedException}, so a caller still holding
+ * it cannot change it without the change being recorded.
+ * </p>
+ */
+public class DurableCart implements Cart {
+    private final String cartId;
+    private final CartStore store;
+    private final ProductDictionary products;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile CartSnapshot committed;    // Written under lock
+    private boolean discarded;                  // Guarded by lock
+    private boolean closed;                     // Guarded by lock
+
+    /**
+     * @param cartId  The identifier the changes of the cart are recorded under.
+     * @param initial The state the cart starts from (e.g. recovered from the store).
+     * @param store   The store the changes are recorded in.
+     */
+    public DurableCart(final String cartId, final CartSnapshot initial, final CartStore store) {
+        this(cartId, initial, store, null);
+    }
+
+    /**
+     * @param cartId   The identifier the changes of the cart are recorded under.
+     * @param initial  The state the cart starts from (e.g. recovered from the store).
+     * @param store    The store the changes are recorded in.
+     * @param products The dictionary the product names of the lines are interned in (see {@link CartImpl}).
+     */
+    public DurableCart(final String cartId, final CartSnapshot initial, final CartStore store,
+                       final ProductDictionary products) {
+        this.cartId = cartId;
+        this.committed = initial;
+        this.store = store;
+        this.products = products;
+    }
+
+    @Override
+    public CartSnapshot addProduct(final ProductIn productIn, final BigDecimal price) {
+        return record(cart -> cart.addProduct(productIn, price), () -> List.of(productIn.name()));
+    }
+
+    @Override
+    public CartSnapshot addProductIfVersion(final ProductIn productIn, final BigDecimal price, final long expectedVersion) {
+        return record(cart -> cart.addProductIfVersion(productIn, price, expectedVersion), () -> List.of(productIn.name()));
+    }
+
+    @Override
+    public CartSnapshot addProducts(final List<CartLine> lines) {
+        return record(cart -> cart.addProducts(lines), () -> lines.stream().map(line -> line.productIn().name()).toList());
+    }
+
+    @Override
+    public CartSnapshot removeProduct(final String productName) {
+        return record(cart -> cart.removeProduct(productName), () -> List.of(productName));
+    }
+
+    @Override
+    public CartSnapshot removeProductIfVersion(final String productName, final long expectedVersion) {
+        return record(cart -> cart.removeProductIfVersion(productName, expectedVersion), () -> List.of(productName));
+    }
+
+    @Override
+    public CartSnapshot removeProduct(final String productName, final int quantity) {
+        return record(cart -> cart.removeProduct(productName, quantity), () -> List.of(productName));
+    }
+
+    @Override
+    public Map<String, ItemMetadata> items() {
+        return committed.items();
+    }
+
+    @Override
+    public BigDecimal subTotal() {
+        return committed.subTotal();
+    }
+
+    @Override
+    public CartSnapshot snapshot() {
+        return committed;
+    }
+
+    /**
+     * Records that the cart has been discarded (e.g. after checkout), and closes it once that is durable. A discard that
+     * cannot be made durable leaves the cart open.
+     */
+    void discard() {
+        lock.lock();
+        try {
+            if (!discarded) {
+                await(store.append(CartChange.discard(cartId)));
+                discarded = true;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the cart without recording it as discarded: later mutations are rejected.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a mutation to a cart staged from the committed snapshot, records the lines of the given products as they
+     * are afterwards, and commits the snapshot the mutation left once that is durable.
+     */
+    private CartSnapshot record(final Function<Cart, CartSnapshot> mutation, final Supplier<List<String>> productNames) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new CartClosedException("Cart has been closed");
+            }
+            final CartSnapshot before = committed;
+            final CartSnapshot after = mutation.apply(new CartImpl(before, products));
+            if (after.version() != before.version()) {
+                await(store.append(changeOf(after, productNames.get())));
+                committed = after;
+            }
+            return after;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CartChange changeOf(final CartSnapshot after, final List<String> productNames) {
+        final Map<String, ItemMetadata> lines = new HashMap<>();
+        final Set<String> removedLines = new HashSet<>();
+        for (final String productName : productNames) {
+            final ItemMetadata line = after.items().get(productName);
+            if (isNull(line)) {
+                removedLines.add(productName);
+            } else {
+                lines.put(productName, line);
+            }
+        }
+        return new CartChange(cartId, after.version(), lines, removedLines, false);
+    }
+
+    private static void await(final CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;    // A checked cause stays wrapped
+        }
+    }
+}
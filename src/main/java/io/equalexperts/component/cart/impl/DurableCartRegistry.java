@@ -0,0 +1,91 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.component.store.CartStore;
+import io.equalexperts.model.CartSnapshot;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.equalexperts.component.cart.impl.CartRegistryImpl.checkCartId;
+
+/**
+ * Hands out one {@link DurableCart} per cart/session identifier, recording every cart in a {@link CartStore}.
+ * <p>
+ * On creation, the registry recovers the carts of the store, each at the version it had; carts are then created on
+ * first access as by {@link CartRegistryImpl}, and discarding a cart is recorded too, so it is not recovered again.
+ * The cart-id of a removed cart is only handed out again once its discard is durable, so the changes of a cart
+ * created again always follow the discard in the store.
+ * </p>
+ */
+@Log4j2
+public class DurableCartRegistry implements CartRegistry {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 10;
+    private final Map<String, DurableCart> carts;
+    private final CartStore store;
+    private final ProductDictionary products;
+
+    /**
+     * @param store The store to recover the carts from, and to record them in.
+     */
+    public DurableCartRegistry(final CartStore store) {
+        this(store, new ProductDictionaryImpl());
+    }
+
+    /**
+     * @param store    The store to recover the carts from, and to record them in.
+     * @param products The dictionary the product names of the carts are interned in.
+     */
+    public DurableCartRegistry(final CartStore store, final ProductDictionary products) {
+        final Map<String, CartSnapshot> recovered = store.recover();
+        this.store = store;
+        this.products = products;
+        this.carts = new ConcurrentHashMap<>(Math.max(DEFAULT_INITIAL_CAPACITY, recovered.size()));
+        recovered.forEach((cartId, snapshot) -> carts.put(cartId, new DurableCart(cartId, snapshot, store, products)));
+        log.info("Recovered {} carts", recovered.size());
+    }
+
+    @Override
+    public Cart getOrCreate(final String cartId) {
+        checkCartId(cartId);
+        return carts.computeIfAbsent(cartId, id -> {
+            log.debug("Creating cart: {}", id);
+            return new DurableCart(id, CartSnapshot.empty(), store, products);
+        });
+    }
+
+    @Override
+    public Optional<Cart> find(final String cartId) {
+        checkCartId(cartId);
+        return Optional.ofNullable(carts.get(cartId));
+    }
+
+    @Override
+    public boolean remove(final String cartId) {
+        checkCartId(cartId);
+        final boolean[] removed = {false};
+        carts.computeIfPresent(cartId, (id, cart) -> {
+            cart.discard();     // Durable before the cart-id can be taken again, so replay never drops a later cart
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public Set<String> cartIds() {
+        return Collections.unmodifiableSet(carts.keySet());
+    }
+
+    @Override
+    public int size() {
+        return carts.size();
+    }
+}
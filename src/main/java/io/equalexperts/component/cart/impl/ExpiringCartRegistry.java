@@ -0,0 +1,351 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.expiry.CartExpiryListener;
+import io.equalexperts.component.expiry.impl.TimerWheel;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ExpiryCause;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static io.equalexperts.component.cart.impl.CartRegistryImpl.checkCartId;
+import static java.util.Objects.isNull;
+
+/**
+ * Expires the carts of another registry once they are abandoned - not accessed for an idle timeout - or once they
+ * reach their time-to-live, whichever comes first.
+ * <p>
+ * Every {@link #getOrCreate(String)} and {@link #find(String)} - so every {@code CartService} call on a cart - touches
+ * the cart, which only writes its access time: there is no per-cart {@code ScheduledFuture}. The look-up and the touch
+ * are one atomic step, under the lock of the hash-bin of the cart-id the expiry of the cart takes too, so a cart is
+ * either touched in time or marked as being removed - never handed out as it expires. The cart is then removed from
+ * the other registry outside that lock, since removing it may have to wait for a store, and look-ups of its cart-id
+ * wait for the removal to be over. Instead of a future, each cart has one
+ * timer in a {@link TimerWheel}, scheduled when the cart is created. When the timer fires, the deadline of the cart is
+ * worked out again from its last access: a cart that has been touched in the meantime is rescheduled, in {@code O(1)},
+ * and any other is removed from the registry - discarded or closed as by {@link CartRegistry#remove(String)} - and
+ * reported to the {@link CartExpiryListener}. Carts are expired by a daemon thread, once per tick of the wheel.
+ * </p>
+ * <p>
+ * Carts the other registry holds already, e.g. recovered by a {@link DurableCartRegistry}, are tracked from the creation
+ * of this one, as if they were created then; carts it gains otherwise are tracked from their first access.
+ * </p>
+ */
+@Log4j2
+public final class ExpiringCartRegistry implements CartRegistry, AutoCloseable {
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final CartRegistry delegate;
+    private final long idleTimeoutNanos;
+    private final long timeToLiveNanos;
+    private final CartExpiryListener listener;
+    private final LongSupplier clock;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final TimerWheel wheel;     // Guarded by wheelLock
+    private final ScheduledExecutorService expirer;
+
+    /**
+     * A cart, and the timer of its deadline.
+     */
+    private static final class Entry extends TimerWheel.Timer {
+        private final String cartId;
+        private final Cart cart;
+        private final long createdAt;
+        private long accessedAt;    // Guarded by the hash-bin of the cart-id in entries
+        private volatile CompletableFuture<Void> removal;   // Set, under the hash-bin, while the cart is being removed
+
+        private Entry(final String cartId, final Cart cart, final long now) {
+            this.cartId = cartId;
+            this.cart = cart;
+            this.createdAt = now;
+            this.accessedAt = now;
+        }
+    }
+
+    public ExpiringCartRegistry(final CartRegistry delegate, final Duration idleTimeout, final Duration timeToLive, final CartExpiryListener listener) {
+        this(delegate, idleTimeout, timeToLive, listener, DEFAULT_TICK);
+    }
+
+    /**
+     * @param delegate    The registry holding the carts.
+     * @param idleTimeout The time a cart expires after its last access. Must be positive.
+     * @param timeToLive  The time a cart expires after its creation, however recently it was accessed. Must be positive.
+     * @param listener    Told about every cart that expires.
+     * @param tick        The resolution of the expiry: carts expire at most one tick after their deadline. Must be positive.
+     */
+    public ExpiringCartRegistry(final CartRegistry delegate, final Duration idleTimeout, final Duration timeToLive,
+                                final CartExpiryListener listener, final Duration tick) {
+        this(delegate, idleTimeout, timeToLive, listener, tick, System::nanoTime,
+                Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cart-expirer").daemon().factory()));
+    }
+
+    /**
+     * Without an expiry thread: carts only expire on calls to {@link #expire()}.
+     *
+     * @param clock The time, in nanoseconds.
+     */
+    ExpiringCartRegistry(final CartRegistry delegate, final Duration idleTimeout, final Duration timeToLive,
+                         final CartExpiryListener listener, final Duration tick, final LongSupplier clock) {
+        this(delegate, idleTimeout, timeToLive, listener, tick, clock, null);
+    }
+
+    private ExpiringCartRegistry(final CartRegistry delegate, final Duration idleTimeout, final Duration timeToLive,
+                                 final CartExpiryListener listener, final Duration tick, final LongSupplier clock,
+                                 final ScheduledExecutorService expirer) {
+        this.delegate = delegate;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.listener = listener;
+        this.clock = clock;
+        final long now = clock.getAsLong();
+        this.wheel = new TimerWheel(tick.toNanos(), now);
+        this.expirer = expirer;
+        for (final String cartId : delegate.cartIds()) {
+            delegate.find(cartId).ifPresent(cart -> entries.put(cartId, track(cartId, cart, now)));
+        }
+        if (!isNull(expirer)) {
+            expirer.scheduleWithFixedDelay(this::expire, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Cart getOrCreate(final String cartId) {
+        checkCartId(cartId);
+        Entry entry;
+        do {
+            entry = entries.compute(cartId, (id, current) -> {
+                final long now = clock.getAsLong();
+                return isNull(current) ? track(id, delegate.getOrCreate(id), now) : touch(current, now);
+            });
+        } while (awaitRemoval(entry));
+        return entry.cart;
+    }
+
+    @Override
+    public Optional<Cart> find(final String cartId) {
+        checkCartId(cartId);
+        Entry entry;
+        do {
+            entry = entries.compute(cartId, (id, current) -> {
+                final long now = clock.getAsLong();
+                return isNull(current) ? delegate.find(id).map(cart -> track(id, cart, now)).orElse(null) : touch(current, now);
+            });
+        } while (!isNull(entry) && awaitRemoval(entry));
+        return Optional.ofNullable(entry).map(found -> found.cart);
+    }
+
+    @Override
+    public boolean remove(final String cartId) {
+        checkCartId(cartId);
+        final boolean[] marked = {false};
+        while (true) {
+            final Entry entry = entries.compute(cartId, (id, current) -> {
+                if (!isNull(current) && !isNull(current.removal)) {
+                    return current;     // Being removed already: wait for it, and try again
+                }
+                final Entry removing = isNull(current) ? new Entry(id, null, clock.getAsLong()) : current;
+                if (!isNull(current)) {
+                    cancel(current);
+                }
+                removing.removal = new CompletableFuture<>();
+                marked[0] = true;
+                return removing;
+            });
+            if (marked[0]) {
+                return removeMarked(entry, deadline(entry));
+            }
+            awaitRemoval(entry);
+        }
+    }
+
+    @Override
+    public Set<String> cartIds() {
+        return delegate.cartIds();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Advances the timer wheel to the current time, and expires the carts that are due. Called once per tick by the
+     * expiry thread.
+     *
+     * @return The number of carts that expired.
+     */
+    public int expire() {
+        final List<Entry> due = new ArrayList<>();
+        wheelLock.lock();
+        try {
+            wheel.advance(clock.getAsLong(), timer -> due.add((Entry) timer));
+        } finally {
+            wheelLock.unlock();
+        }
+        int expired = 0;
+        for (final Entry entry : due) {
+            if (expireOrReschedule(entry)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.debug("Expired {} carts", expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Stops the expiry thread; carts no longer expire on their own.
+     */
+    @Override
+    public void close() {
+        if (!isNull(expirer)) {
+            expirer.shutdownNow();
+        }
+    }
+
+    /**
+     * Expires the cart of a timer that fired, unless it has been touched since the timer was scheduled, in which case
+     * the timer is rescheduled. A cart that cannot be removed is tried again on the next tick.
+     *
+     * @return {@code true} if the cart expired.
+     */
+    private boolean expireOrReschedule(final Entry entry) {
+        final long now = clock.getAsLong();
+        final ExpiryCause[] cause = {null};
+        final CartSnapshot[] snapshot = {null};
+        entries.computeIfPresent(entry.cartId, (cartId, current) -> {
+            if (current != entry || !isNull(entry.removal)) {
+                return current;     // Removed, or being removed, since the timer fired
+            }
+            cause[0] = causeAt(entry, now);
+            if (isNull(cause[0])) {
+                schedule(entry, deadline(entry));
+                return entry;
+            }
+            snapshot[0] = entry.cart.snapshot();
+            entry.removal = new CompletableFuture<>();
+            return entry;
+        });
+        if (isNull(snapshot[0])) {
+            return false;
+        }
+        try {
+            removeMarked(entry, now);
+        } catch (final RuntimeException e) {
+            log.error("Cannot expire cart {}, trying again: {}", entry.cartId, e.getMessage(), e);
+            return false;
+        }
+        try {
+            listener.onExpiry(entry.cartId, snapshot[0], cause[0]);
+        } catch (final RuntimeException e) {
+            log.error("Cart expiry listener failed for cart {}: {}", entry.cartId, e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the cart of an entry marked as being removed from the other registry, and then the entry, outside the lock
+     * of the hash-bin of its cart-id. Should the other registry fail, the entry is kept and its timer scheduled again.
+     * Either way, the look-ups waiting for the removal are then let go.
+     *
+     * @param retryAt When to try again, should the removal fail.
+     * @return Whether the other registry held the cart.
+     */
+    private boolean removeMarked(final Entry entry, final long retryAt) {
+        final CompletableFuture<Void> removal = entry.removal;
+        try {
+            final boolean removed = delegate.remove(entry.cartId);
+            entries.remove(entry.cartId, entry);
+            return removed;
+        } catch (final RuntimeException | Error e) {
+            entries.computeIfPresent(entry.cartId, (cartId, current) -> {
+                if (isNull(entry.cart)) {
+                    return null;    // Stood in for a cart that was never tracked
+                }
+                entry.removal = null;
+                schedule(entry, retryAt);
+                return entry;
+            });
+            throw e;
+        } finally {
+            removal.complete(null);
+        }
+    }
+
+    /**
+     * Waits for the removal of the cart of an entry, if it is being removed.
+     *
+     * @return {@code true} if the cart was being removed, so the look-up has to be tried again.
+     */
+    private static boolean awaitRemoval(final Entry entry) {
+        final CompletableFuture<Void> removal = entry.removal;
+        if (isNull(removal)) {
+            return false;
+        }
+        removal.join();
+        return true;
+    }
+
+    /**
+     * @return Why the cart of an entry has expired by now, or {@code null} if it has not.
+     */
+    private ExpiryCause causeAt(final Entry entry, final long now) {
+        if (now - entry.createdAt >= timeToLiveNanos) {
+            return ExpiryCause.TIME_TO_LIVE;
+        }
+        if (now - entry.accessedAt >= idleTimeoutNanos) {
+            return ExpiryCause.IDLE;
+        }
+        return null;
+    }
+
+    private long deadline(final Entry entry) {
+        return Math.min(entry.accessedAt + idleTimeoutNanos, entry.createdAt + timeToLiveNanos);
+    }
+
+    private static Entry touch(final Entry entry, final long now) {
+        if (isNull(entry.removal)) {
+            entry.accessedAt = now;
+        }
+        return entry;
+    }
+
+    private Entry track(final String cartId, final Cart cart, final long now) {
+        final Entry entry = new Entry(cartId, cart, now);
+        schedule(entry, deadline(entry));
+        return entry;
+    }
+
+    private void schedule(final Entry entry, final long deadline) {
+        wheelLock.lock();
+        try {
+            wheel.schedule(entry, deadline);
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+
+    private void cancel(final Entry entry) {
+        wheelLock.lock();
+        try {
+            wheel.cancel(entry);
+        } finally {
+            wheelLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import lombok.extern.log4j.Log4j2;
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.equalexperts.component.cart.impl.OffHeapCartArena.LINES_PER_BLOCK;
+import static io.equalexperts.component.cart.impl.OffHeapCartArena.NONE;
+import static java.util.Objects.isNull;
+
+/**
+ * A cart whose lines live off-heap, in an {@link OffHeapCartArena}, as fixed-width records: the id of the product,
+ * its quantity and its price as an unscaled {@code long}.
+ * <p>
+ * On the heap, the cart is a handful of fields - however many lines it holds - so a large number of live carts costs
+ * the garbage collector next to nothing to trace. The other side of the trade is on the read path: the lines are
+ * materialised into a {@link CartSnapshot} each time the cart is read, in {@code O(lines)}, where {@link CartImpl}
+ * hands out the snapshot it already holds. A mutation materialises the cart once, and returns that snapshot for the
+ * caller to reuse; {@link #subTotal()} sums the lines where they are. Prices must have an unscaled value that fits in
+ * a {@code long}.
+ * </p>
+ * <p>
+ * Mutations and reads are serialised on the cart itself; a lock object per cart would double its heap footprint, and
+ * the critical sections only read and write a few bytes of mapped memory.
+ * </p>
+ */
+@Log4j2
+public class OffHeapCart implements Cart {
+    private final OffHeapCartArena arena;
+    private final ProductDictionary products;
+    private int firstBlock = NONE;      // Guarded by this
+    private int lastBlock = NONE;       // Guarded by this
+    private long version;               // Guarded by this
+    private boolean closed;             // Guarded by this
+
+    /**
+     * @param arena The arena the lines of the cart are stored in.
+     */
+    public OffHeapCart(final OffHeapCartArena arena) {
+        this.arena = arena;
+        this.products = arena.products();
+    }
+
+    @Override
+    public CartSnapshot addProduct(final ProductIn productIn, final BigDecimal price) {
+        checkPrice(price);
+        checkQuantity(productIn.quantity());
+        final int productId = products.idOf(productIn.name());
+        synchronized (this) {
+            checkNotClosed();
+            mergeLine(productId, productIn.quantity(), price);
+            version++;
+            return materialise();
+        }
+    }
+
+    @Override
+    public CartSnapshot addProductIfVersion(final ProductIn productIn, final BigDecimal price, final long expectedVersion) {
+        checkPrice(price);
+        checkQuantity(productIn.quantity());
+        final int productId = products.idOf(productIn.name());
+        synchronized (this) {
+            checkNotClosed();
+            checkVersion(expectedVersion);
+            mergeLine(productId, productIn.quantity(), price);
+            version++;
+            return materialise();
+        }
+    }
+
+    /**
+     * Adds several products to the cart in one step, as one version. All prices and quantities are checked before the
+     * first line is applied, so an invalid line leaves the cart unchanged; so does a line whose quantity would overflow
+     * the line it is merged into, as the merged quantities are checked before they are written.
+     */
+    @Override
+    public CartSnapshot addProducts(final List<CartLine> lines) {
+        final int[] productIds = new int[lines.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            final CartLine line = lines.get(i);
+            checkPrice(line.price());
+            checkQuantity(line.productIn().quantity());
+            productIds[i] = products.idOf(line.productIn().name());
+        }
+        synchronized (this) {
+            checkNotClosed();
+            if (productIds.length == 0) {
+                return materialise();
+            }
+            for (int i = 0; i < productIds.length; i++) {
+                checkMergedQuantity(productIds, lines, i);
+            }
+            for (int i = 0; i < productIds.length; i++) {
+                mergeLine(productIds[i], lines.get(i).productIn().quantity(), lines.get(i).price());
+            }
+            version++;
+            return materialise();
+        }
+    }
+
+    @Override
+    public CartSnapshot removeProduct(final String productName) {
+        checkProductName(productName);
+        final int productId = products.find(productName);
+        synchronized (this) {
+            checkNotClosed();
+            if (removeLine(productId)) {
+                version++;
+            }
+            return materialise();
+        }
+    }
+
+    @Override
+    public CartSnapshot removeProductIfVersion(final String productName, final long expectedVersion) {
+        checkProductName(productName);
+        final int productId = products.find(productName);
+        synchronized (this) {
+            checkNotClosed();
+            checkVersion(expectedVersion);
+            if (removeLine(productId)) {
+                version++;
+            }
+            return materialise();
+        }
+    }
+
+    @Override
+    public CartSnapshot removeProduct(final String productName, final int quantity) {
+        checkProductName(productName);
+        checkQuantity(quantity);
+        final int productId = products.find(productName);
+        synchronized (this) {
+            checkNotClosed();
+            final long position = find(productId);
+            if (position == NONE) {
+                return materialise();
+            }
+            final int block = block(position);
+            final int line = line(position);
+            final int existing = arena.quantity(block, line);
+            if (existing > quantity) {
+                arena.setQuantity(block, line, existing - quantity);
+            } else {
+                removeAt(block, line);
+            }
+            version++;
+            return materialise();
+        }
+    }
+
+    @Override
+    public Map<String, ItemMetadata> items() {
+        return snapshot().items();
+    }
+
+    /**
+     * Sums the lines where they are, without materialising the cart.
+     */
+    @Override
+    public synchronized BigDecimal subTotal() {
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (int block = firstBlock; block != NONE; block = arena.next(block)) {
+            final int lineCount = arena.lineCount(block);
+            for (int line = 0; line < lineCount; line++) {
+                subTotal = subTotal.add(price(block, line).multiply(BigDecimal.valueOf(arena.quantity(block, line))));
+            }
+        }
+        return subTotal;
+    }
+
+    @Override
+    public synchronized CartSnapshot snapshot() {
+        return materialise();
+    }
+
+    /**
+     * Hands the blocks of the cart back to its arena, once the cart is removed from its registry. The cart reads as
+     * empty afterwards, and fails any further mutation with a {@link CartClosedException}.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int block = firstBlock; block != NONE; ) {
+            final int next = arena.next(block);
+            arena.free(block);
+            block = next;
+        }
+        firstBlock = NONE;
+        lastBlock = NONE;
+        log.debug("Closed cart at version {}", version);
+    }
+
+    /**
+     * Adds a product to the cart, or increments the quantity of the existing line (which keeps its original price).
+     */
+    private void mergeLine(final int productId, final int quantity, final BigDecimal price) {
+        final long position = find(productId);
+        if (position != NONE) {
+            final int existing = arena.quantity(block(position), line(position));
+            arena.setQuantity(block(position), line(position), addQuantity(existing, quantity));
+            return;
+        }
+        if (lastBlock == NONE || arena.lineCount(lastBlock) == LINES_PER_BLOCK) {
+            final int block = arena.allocate();
+            if (lastBlock == NONE) {
+                firstBlock = block;
+            } else {
+                arena.setNext(lastBlock, block);
+            }
+            lastBlock = block;
+        }
+        final int line = arena.lineCount(lastBlock);
+        arena.setLine(lastBlock, line, productId, quantity, price.unscaledValue().longValue(), price.scale());
+        arena.setLineCount(lastBlock, line + 1);
+    }
+
+    /**
+     * Checks that the quantity of a line of a batch, added to the quantities already in the cart and those of the
+     * earlier lines of the batch for the same product, does not overflow.
+     */
+    private void checkMergedQuantity(final int[] productIds, final List<CartLine> lines, final int index) {
+        final long position = find(productIds[index]);
+        int merged = position == NONE ? 0 : arena.quantity(block(position), line(position));
+        for (int i = 0; i <= index; i++) {
+            if (productIds[i] == productIds[index]) {
+                merged = addQuantity(merged, lines.get(i).productIn().quantity());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the product was in the cart and has been removed.
+     */
+    private boolean removeLine(final int productId) {
+        final long position = find(productId);
+        if (position == NONE) {
+            return false;
+        }
+        removeAt(block(position), line(position));
+        return true;
+    }
+
+    /**
+     * Removes a line by moving the very last line of the cart into its place, and frees the last block once empty.
+     */
+    private void removeAt(final int block, final int line) {
+        final int lastLine = arena.lineCount(lastBlock) - 1;
+        if (block != lastBlock || line != lastLine) {
+            arena.setLine(block, line, arena.productId(lastBlock, lastLine), arena.quantity(lastBlock, lastLine),
+                    arena.unscaledPrice(lastBlock, lastLine), arena.priceScale(lastBlock, lastLine));
+        }
+        arena.setLineCount(lastBlock, lastLine);
+        if (lastLine == 0) {
+            freeLastBlock();
+        }
+    }
+
+    private void freeLastBlock() {
+        final int freed = lastBlock;
+        if (firstBlock == freed) {
+            firstBlock = NONE;
+            lastBlock = NONE;
+        } else {
+            int previous = firstBlock;
+            while (arena.next(previous) != freed) {
+                previous = arena.next(previous);
+            }
+            arena.setNext(previous, NONE);
+            lastBlock = previous;
+        }
+        arena.free(freed);
+    }
+
+    /**
+     * @return The position of the line of the product (its block in the high, its line in the low half), or
+     * {@link OffHeapCartArena#NONE} if the product is not in the cart.
+     */
+    private long find(final int productId) {
+        if (productId == ProductDictionary.NO_ID) {
+            return NONE;
+        }
+        for (int block = firstBlock; block != NONE; block = arena.next(block)) {
+            final int lineCount = arena.lineCount(block);
+            for (int line = 0; line < lineCount; line++) {
+                if (arena.productId(block, line) == productId) {
+                    return ((long) block << Integer.SIZE) | line;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private CartSnapshot materialise() {
+        final Map<String, ItemMetadata> items = new HashMap<>();
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (int block = firstBlock; block != NONE; block = arena.next(block)) {
+            final int lineCount = arena.lineCount(block);
+            for (int line = 0; line < lineCount; line++) {
+                final BigDecimal price = price(block, line);
+                final int quantity = arena.quantity(block, line);
+                items.put(products.nameOf(arena.productId(block, line)), new ItemMetadata(price, quantity));
+                subTotal = subTotal.add(price.multiply(BigDecimal.valueOf(quantity)));
+            }
+        }
+        final PMap<String, ItemMetadata> lines = HashTreePMap.from(items);
+        return new CartSnapshot(version, lines, subTotal);
+    }
+
+    private BigDecimal price(final int block, final int line) {
+        return BigDecimal.valueOf(arena.unscaledPrice(block, line), arena.priceScale(block, line));
+    }
+
+    private static int block(final long position) {
+        return (int) (position >>> Integer.SIZE);
+    }
+
+    private static int line(final long position) {
+        return (int) position;
+    }
+
+    private static int addQuantity(final int existing, final int quantity) {
+        final int updated = existing + quantity;
+        checkQuantity(updated);     // Overflows to a negative quantity
+        return updated;
+    }
+
+    private void checkVersion(final long expectedVersion) {
+        if (version != expectedVersion) {
+            throw new CartVersionConflictException(expectedVersion, version);
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new CartClosedException("Cart has been closed");
+        }
+    }
+
+    private static void checkPrice(final BigDecimal price) {
+        if (price.compareTo(BigDecimal.ZERO) < 0) {
+            throw new CartException("Price must be non-negative");
+        }
+        if (price.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new CartException("Price is out of range");
+        }
+    }
+
+    private static void checkQuantity(final Integer quantity) {
+        if (isNull(quantity) || quantity <= 0) {
+            throw new InvalidCartParamsException("Quantity must not be null and must be positive integer");
+        }
+    }
+
+    private static void checkProductName(final String productName) {
+        if (isNull(productName) || productName.isBlank()) {
+            throw new InvalidProductRemovalException("Product name must not be null or blank");
+        }
+    }
+}
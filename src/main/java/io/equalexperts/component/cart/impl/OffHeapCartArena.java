@@ -0,0 +1,213 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.product.ProductDictionary;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Off-heap storage for the lines of {@link OffHeapCart}s: a memory-mapped file divided into fixed-size blocks.
+ * <p>
+ * A block holds up to {@value #LINES_PER_BLOCK} lines of a cart, and the blocks of a cart are chained. A line is a
+ * fixed-width record of {@value #LINE_BYTES} bytes - the id of the product in a {@link ProductDictionary}, the
+ * quantity, and the price as an unscaled {@code long} and its scale - so a line costs no objects on the heap at all.
+ * Freed blocks are kept in a free list and handed out again. The file is mapped in chunks, added as the carts grow, and
+ * deleted right after it is created: its pages are written back to disk only under memory pressure, and its space is
+ * released when the arena is closed.
+ * </p>
+ * <p>
+ * The arena locks only to allocate and free blocks. Reads and writes of the lines of a block are left to the cart
+ * owning it, which serialises them.
+ * </p>
+ */
+@Log4j2
+public class OffHeapCartArena implements AutoCloseable {
+    static final int NONE = -1;
+    static final int LINES_PER_BLOCK = 4;
+    static final int LINE_BYTES = 2 * Integer.BYTES + Long.BYTES + Integer.BYTES;     // Product id, quantity, price, scale
+    private static final int BLOCK_HEADER_BYTES = 2 * Integer.BYTES;                 // Next block, number of lines
+    private static final int BLOCK_BYTES = BLOCK_HEADER_BYTES + LINES_PER_BLOCK * LINE_BYTES;
+    private static final int DEFAULT_CHUNK_BLOCKS = 1 << 16;
+    private static final int NEXT_OFFSET = 0;
+    private static final int LINE_COUNT_OFFSET = Integer.BYTES;
+    private static final int PRODUCT_ID_OFFSET = 0;
+    private static final int QUANTITY_OFFSET = Integer.BYTES;
+    private static final int PRICE_OFFSET = 2 * Integer.BYTES;
+    private static final int SCALE_OFFSET = 2 * Integer.BYTES + Long.BYTES;
+
+    private final ProductDictionary products;
+    private final FileChannel file;
+    private final int chunkBlocks;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private int freeBlock = NONE;       // Guarded by lock
+    private int mappedBlocks;           // Guarded by lock
+    private int usedBlocks;             // Guarded by lock
+
+    /**
+     * @param products The dictionary the product names of the lines are encoded with.
+     * @throws UncheckedIOException if the backing file cannot be created.
+     */
+    public OffHeapCartArena(final ProductDictionary products) {
+        this(products, Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_CHUNK_BLOCKS);
+    }
+
+    /**
+     * @param products    The dictionary the product names of the lines are encoded with.
+     * @param directory   The directory the backing file is created in, e.g. on a local disk rather than a tmpfs, so
+     *                    the pages of the carts can be written back rather than swapped out under memory pressure.
+     * @param chunkBlocks The number of blocks mapped at a time. Must be positive.
+     * @throws UncheckedIOException if the backing file cannot be created.
+     */
+    public OffHeapCartArena(final ProductDictionary products, final Path directory, final int chunkBlocks) {
+        this.products = products;
+        this.chunkBlocks = chunkBlocks;
+        try {
+            final Path path = Files.createTempFile(directory, "cart-arena-", ".bin");
+            this.file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Files.delete(path);     // Kept for as long as it is open
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the cart arena", e);
+        }
+    }
+
+    /**
+     * @return The number of bytes of the blocks in use.
+     */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return (long) usedBlocks * BLOCK_BYTES;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the backing file; the carts of the arena must not be used anymore.
+     *
+     * @throws IOException if the backing file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    ProductDictionary products() {
+        return products;
+    }
+
+    /**
+     * @return An empty block, with no next block.
+     */
+    int allocate() {
+        lock.lock();
+        try {
+            final int block;
+            if (freeBlock != NONE) {
+                block = freeBlock;
+                freeBlock = next(block);
+            } else {
+                if (mappedBlocks % chunkBlocks == 0) {
+                    mapChunk();
+                }
+                block = mappedBlocks++;
+            }
+            usedBlocks++;
+            setNext(block, NONE);
+            setLineCount(block, 0);
+            return block;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void free(final int block) {
+        lock.lock();
+        try {
+            setNext(block, freeBlock);
+            freeBlock = block;
+            usedBlocks--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int next(final int block) {
+        return chunk(block).getInt(offset(block) + NEXT_OFFSET);
+    }
+
+    void setNext(final int block, final int next) {
+        chunk(block).putInt(offset(block) + NEXT_OFFSET, next);
+    }
+
+    int lineCount(final int block) {
+        return chunk(block).getInt(offset(block) + LINE_COUNT_OFFSET);
+    }
+
+    void setLineCount(final int block, final int lineCount) {
+        chunk(block).putInt(offset(block) + LINE_COUNT_OFFSET, lineCount);
+    }
+
+    int productId(final int block, final int line) {
+        return chunk(block).getInt(lineOffset(block, line) + PRODUCT_ID_OFFSET);
+    }
+
+    int quantity(final int block, final int line) {
+        return chunk(block).getInt(lineOffset(block, line) + QUANTITY_OFFSET);
+    }
+
+    void setQuantity(final int block, final int line, final int quantity) {
+        chunk(block).putInt(lineOffset(block, line) + QUANTITY_OFFSET, quantity);
+    }
+
+    long unscaledPrice(final int block, final int line) {
+        return chunk(block).getLong(lineOffset(block, line) + PRICE_OFFSET);
+    }
+
+    int priceScale(final int block, final int line) {
+        return chunk(block).getInt(lineOffset(block, line) + SCALE_OFFSET);
+    }
+
+    void setLine(final int block, final int line, final int productId, final int quantity, final long unscaledPrice, final int priceScale) {
+        final MappedByteBuffer chunk = chunk(block);
+        final int offset = lineOffset(block, line);
+        chunk.putInt(offset + PRODUCT_ID_OFFSET, productId);
+        chunk.putInt(offset + QUANTITY_OFFSET, quantity);
+        chunk.putLong(offset + PRICE_OFFSET, unscaledPrice);
+        chunk.putInt(offset + SCALE_OFFSET, priceScale);
+    }
+
+    private MappedByteBuffer chunk(final int block) {
+        return chunks[block / chunkBlocks];
+    }
+
+    private int offset(final int block) {
+        return (block % chunkBlocks) * BLOCK_BYTES;
+    }
+
+    private int lineOffset(final int block, final int line) {
+        return offset(block) + BLOCK_HEADER_BYTES + line * LINE_BYTES;
+    }
+
+    private void mapChunk() {
+        try {
+            final long position = (long) chunks.length * chunkBlocks * BLOCK_BYTES;
+            final MappedByteBuffer chunk = file.map(FileChannel.MapMode.READ_WRITE, position, (long) chunkBlocks * BLOCK_BYTES);
+            final MappedByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = chunk;
+            chunks = grown;
+            log.debug("Mapped chunk {} of the cart arena", chunks.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow the cart arena", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.equalexperts.component.expiry;
+
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ExpiryCause;
+
+@FunctionalInterface
+public interface CartExpiryListener {
+
+    /**
+     * Called once a cart has expired and has been removed from its registry, e.g. to follow up on an abandoned cart.
+     * Called on the thread that expires the carts, so it should hand anything slow off to another thread.
+     *
+     * @param cartId   The identifier of the expired cart.
+     * @param snapshot The last state of the cart.
+     * @param cause    Whether the cart was idle for too long, or reached its time-to-live.
+     */
+    void onExpiry(final String cartId, final CartSnapshot snapshot, final ExpiryCause cause);
+}
@@ -0,0 +1,197 @@
+package io.equalexperts.component.expiry.impl;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel: {@value #LEVELS} levels of {@value #BUCKETS} buckets, each bucket a doubly-linked list
+ * of {@link Timer}s.
+ * <p>
+ * A bucket of level {@code n} spans {@code 64^n} ticks: a timer is linked into the finest level its deadline fits in,
+ * so scheduling, rescheduling and cancelling a timer are {@code O(1)}, whatever the number of timers. As the wheel
+ * advances, the buckets of the coarser levels are cascaded - their timers placed again, into finer levels - and the
+ * timers of each bucket of the finest level fire together, on the tick of their deadline. Deadlines beyond the span of
+ * the wheel (about 194 days at a tick of one second) are parked in the farthest bucket, and placed again as it comes
+ * round.
+ * </p>
+ * <p>
+ * Timers fire no earlier than their deadline, and at most one tick later. The wheel is not thread-safe: its owner
+ * serialises the calls to it.
+ * </p>
+ */
+public class TimerWheel {
+    private static final int BITS = 6;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 4;
+    private static final Timer NO_TIMERS = sentinel();     // Detached from an empty bucket; never linked to
+
+    private final long tickNanos;
+    private final long originNanos;
+    private final Timer[][] buckets = new Timer[LEVELS][BUCKETS];
+    private long currentTick;       // The last tick whose timers have fired
+    private int size;
+
+    /**
+     * A timer of the wheel, linked into one of its buckets while it is scheduled. Meant to be extended by the entries
+     * the timer belongs to, so a timer costs no object of its own.
+     */
+    public static class Timer {
+        private Timer previous;
+        private Timer next;
+        private long tick;
+
+        /**
+         * @return {@code true} if the timer is scheduled and has not fired yet.
+         */
+        public boolean isScheduled() {
+            return previous != null;
+        }
+    }
+
+    /**
+     * @param tickNanos   The resolution of the wheel, in nanoseconds. Must be positive.
+     * @param originNanos The current time, in nanoseconds on the clock the deadlines are given on.
+     */
+    public TimerWheel(final long tickNanos, final long originNanos) {
+        this.tickNanos = tickNanos;
+        this.originNanos = originNanos;
+        for (final Timer[] level : buckets) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                level[bucket] = sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules a timer, or reschedules it if it is scheduled already. A deadline that has passed fires on the next
+     * tick.
+     *
+     * @param timer         The timer to schedule.
+     * @param deadlineNanos The time the timer is due at, on the clock of the wheel.
+     */
+    public void schedule(final Timer timer, final long deadlineNanos) {
+        cancel(timer);
+        timer.tick = Math.ceilDiv(deadlineNanos - originNanos, tickNanos);
+        place(timer);
+        size++;
+    }
+
+    /**
+     * Cancels a timer; a timer that is not scheduled is left as it is.
+     *
+     * @param timer The timer to cancel.
+     */
+    public void cancel(final Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Advances the wheel to the given time, firing every timer due by then.
+     *
+     * @param nowNanos The current time, on the clock of the wheel.
+     * @param expired  Called with each timer that fires, which is no longer scheduled by then; it may schedule or
+     *                 cancel any timer, including this one, but not advance the wheel.
+     */
+    public void advance(final long nowNanos, final Consumer<Timer> expired) {
+        final long targetTick = Math.floorDiv(nowNanos - originNanos, tickNanos);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;   // Nothing to cascade or fire on the way
+                return;
+            }
+            final long tick = currentTick + 1;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (level * BITS)) - 1)) == 0) {
+                    cascade(detach(buckets[level][(int) ((tick >> (level * BITS)) & MASK)]));
+                }
+            }
+            final Timer due = detach(buckets[0][(int) (tick & MASK)]);
+            currentTick = tick;
+            fire(due, expired);
+        }
+    }
+
+    /**
+     * @return The number of timers scheduled.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Links a timer into the finest level whose buckets reach its tick, relative to the current tick.
+     */
+    private void place(final Timer timer) {
+        final long tick = Math.max(timer.tick, currentTick + 1);
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = level * BITS;
+            if ((tick >> shift) - (currentTick >> shift) <= BUCKETS) {
+                link(buckets[level][(int) ((tick >> shift) & MASK)], timer);
+                return;
+            }
+        }
+        final int shift = (LEVELS - 1) * BITS;
+        link(buckets[LEVELS - 1][(int) (((currentTick >> shift) + BUCKETS) & MASK)], timer);   // Beyond the span
+    }
+
+    private void cascade(final Timer timers) {
+        while (timers.next != timers) {
+            final Timer timer = timers.next;
+            unlink(timer);
+            place(timer);
+        }
+    }
+
+    private void fire(final Timer timers, final Consumer<Timer> expired) {
+        while (timers.next != timers) {
+            final Timer timer = timers.next;
+            unlink(timer);
+            size--;
+            expired.accept(timer);
+        }
+    }
+
+    /**
+     * Moves the timers of a bucket to a list of their own, which the timers can still be cancelled from while it is
+     * worked through, and empties the bucket.
+     *
+     * @return The sentinel of the list.
+     */
+    private static Timer detach(final Timer bucket) {
+        if (bucket.next == bucket) {
+            return NO_TIMERS;
+        }
+        final Timer timers = sentinel();
+        timers.next = bucket.next;
+        timers.previous = bucket.previous;
+        timers.next.previous = timers;
+        timers.previous.next = timers;
+        bucket.next = bucket;
+        bucket.previous = bucket;
+        return timers;
+    }
+
+    private static Timer sentinel() {
+        final Timer sentinel = new Timer();
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    private static void link(final Timer sentinel, final Timer timer) {
+        timer.previous = sentinel.previous;
+        timer.next = sentinel;
+        sentinel.previous.next = timer;
+        sentinel.previous = timer;
+    }
+
+    private static void unlink(final Timer timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+    }
+}
@@ -0,0 +1,66 @@
+package io.equalexperts.component.metrics;
+
+import io.equalexperts.model.CartStage;
+
+/**
+ * Collects the latency of each stage of adding a product to a cart, and the outcome of the add.
+ * <p>
+ * Stages are timed back to back: the time a stage ends at is the time the next one starts at, so timing all stages of
+ * an add reads the clock once per stage, plus once to start.
+ * </p>
+ */
+public interface CartMetrics {
+
+    /**
+     * Collects nothing, and never reads the clock.
+     */
+    CartMetrics NONE = new CartMetrics() {
+        @Override
+        public long startNanos() {
+            return 0;
+        }
+
+        @Override
+        public long recordStage(final CartStage stage, final long startNanos) {
+            return 0;
+        }
+
+        @Override
+        public void recordSuccess() {
+            // Not collected
+        }
+
+        @Override
+        public void recordError(final String errorType) {
+            // Not collected
+        }
+    };
+
+    /**
+     * Retrieves the time the first stage of an add starts at.
+     *
+     * @return The current time, in nanoseconds.
+     */
+    long startNanos();
+
+    /**
+     * Records the latency of a stage that ends now.
+     *
+     * @param stage      The stage that ended.
+     * @param startNanos The time the stage started at, as returned by {@link #startNanos()} or by the previous stage.
+     * @return The current time, i.e. the start of the next stage.
+     */
+    long recordStage(final CartStage stage, final long startNanos);
+
+    /**
+     * Counts a product added to a cart.
+     */
+    void recordSuccess();
+
+    /**
+     * Counts an add that failed.
+     *
+     * @param errorType The type of the error reported, one of {@code ErrorConstants}.
+     */
+    void recordError(final String errorType);
+}
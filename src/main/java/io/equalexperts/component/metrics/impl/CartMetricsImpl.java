@@ -0,0 +1,188 @@
+package io.equalexperts.component.metrics.impl;
+
+import io.equalexperts.component.metrics.CartMetrics;
+import io.equalexperts.model.CartOutcomeStats;
+import io.equalexperts.model.CartStage;
+import io.equalexperts.model.LatencyStats;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static io.equalexperts.constant.ErrorConstants.CONFLICT_ERROR;
+import static io.equalexperts.constant.ErrorConstants.NOT_FOUND_ERROR;
+import static io.equalexperts.constant.ErrorConstants.PRICE_SERVICE_ERROR;
+import static io.equalexperts.constant.ErrorConstants.VALIDATION_ERROR;
+
+/**
+ * The metrics of the cart service: a {@link LatencyRecorder} per {@link CartStage}, and a striped counter
+ * ({@link LongAdder}) per outcome, so shoppers recording at the same time do not contend on one memory location.
+ * <p>
+ * Other components' stats, such as those of the price cache ({@code CachingPriceApi::stats}) and of the upstream
+ * Price API client ({@code InstrumentedHttpClient::stats}, {@code ResilientPriceApi::stats}), are registered by name,
+ * and read whenever the metrics are. All metrics can be read as a text snapshot ({@link #report()}), or through JMX
+ * once {@link #registerMBeans(MBeanServer)} exposes them as MBeans named
+ * {@code io.equalexperts:type=CartMetrics,name=<metric>}.
+ * </p>
+ */
+public class CartMetricsImpl implements CartMetrics {
+    private static final int SUCCEEDED = 0;
+    private static final int VALIDATION_ERRORS = 1;
+    private static final int NOT_FOUND_ERRORS = 2;
+    private static final int PRICE_SERVICE_ERRORS = 3;
+    private static final int CONFLICT_ERRORS = 4;
+    private static final int INTERNAL_ERRORS = 5;
+
+    private final LatencyRecorder[] stages = new LatencyRecorder[CartStage.values().length];
+    private final LongAdder[] outcomes = new LongAdder[INTERNAL_ERRORS + 1];
+    private final Map<String, Supplier<? extends Record>> registered = new ConcurrentSkipListMap<>();
+    private final LongSupplier clock;
+
+    /**
+     * Registers the metrics of a component with JMX, or unregisters them.
+     */
+    @FunctionalInterface
+    private interface MBeanAction {
+        void apply(final ObjectName name, final Supplier<? extends Record> stats) throws JMException;
+    }
+
+    public CartMetricsImpl() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param clock The time, in nanoseconds.
+     */
+    CartMetricsImpl(final LongSupplier clock) {
+        this.clock = clock;
+        for (int stage = 0; stage < stages.length; stage++) {
+            stages[stage] = new LatencyRecorder();
+        }
+        for (int outcome = 0; outcome < outcomes.length; outcome++) {
+            outcomes[outcome] = new LongAdder();
+        }
+    }
+
+    @Override
+    public long startNanos() {
+        return clock.getAsLong();
+    }
+
+    @Override
+    public long recordStage(final CartStage stage, final long startNanos) {
+        final long now = clock.getAsLong();
+        stages[stage.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    @Override
+    public void recordSuccess() {
+        outcomes[SUCCEEDED].increment();
+    }
+
+    /**
+     * Counts an add that failed; errors of a type that is not one of {@code ErrorConstants} count as internal errors.
+     */
+    @Override
+    public void recordError(final String errorType) {
+        final int outcome = switch (errorType) {
+            case VALIDATION_ERROR -> VALIDATION_ERRORS;
+            case NOT_FOUND_ERROR -> NOT_FOUND_ERRORS;
+            case PRICE_SERVICE_ERROR -> PRICE_SERVICE_ERRORS;
+            case CONFLICT_ERROR -> CONFLICT_ERRORS;
+            default -> INTERNAL_ERRORS;
+        };
+        outcomes[outcome].increment();
+    }
+
+    /**
+     * Registers the stats of another component, to be read along with the metrics of the cart service. Replaces the
+     * stats registered under the same name, if any.
+     *
+     * @param name  The name of the stats, e.g. {@code price-cache}; part of the name of their MBean.
+     * @param stats Supplies the current stats of the component.
+     */
+    public void register(final String name, final Supplier<? extends Record> stats) {
+        registered.put(name, stats);
+    }
+
+    /**
+     * Retrieves the latencies of a stage recorded so far.
+     *
+     * @param stage The stage of adding a product to a cart.
+     * @return The count, mean, percentiles and maximum of the latencies of the stage.
+     */
+    public LatencyStats stageStats(final CartStage stage) {
+        return stages[stage.ordinal()].stats();
+    }
+
+    /**
+     * Retrieves the outcomes counted so far.
+     *
+     * @return The successful adds, and the failed ones by the type of their error.
+     */
+    public CartOutcomeStats outcomeStats() {
+        return new CartOutcomeStats(outcomes[SUCCEEDED].sum(), outcomes[VALIDATION_ERRORS].sum(),
+                outcomes[NOT_FOUND_ERRORS].sum(), outcomes[PRICE_SERVICE_ERRORS].sum(), outcomes[CONFLICT_ERRORS].sum(),
+                outcomes[INTERNAL_ERRORS].sum());
+    }
+
+    /**
+     * Retrieves all metrics as text: one line per metric, its name followed by its stats. The stages come first, in
+     * the order they run in, then the outcomes, then the registered stats by name.
+     *
+     * @return The text snapshot of the metrics.
+     */
+    public String report() {
+        final StringBuilder report = new StringBuilder();
+        metrics().forEach((name, stats) -> report.append(name).append(' ').append(stats.get()).append(System.lineSeparator()));
+        return report.toString();
+    }
+
+    /**
+     * Exposes every metric, incl. the stats registered so far, as an MBean.
+     *
+     * @param server The MBean server to register the MBeans with, e.g. the platform MBean server.
+     * @throws IllegalStateException if an MBean cannot be registered, e.g. as one of the same name is registered already.
+     */
+    public void registerMBeans(final MBeanServer server) {
+        forEachMBean((name, stats) -> server.registerMBean(new RecordMBean(stats), name));
+    }
+
+    /**
+     * Removes the MBeans of {@link #registerMBeans(MBeanServer)}.
+     *
+     * @param server The MBean server the MBeans were registered with.
+     * @throws IllegalStateException if an MBean cannot be unregistered, e.g. as it is not registered.
+     */
+    public void unregisterMBeans(final MBeanServer server) {
+        forEachMBean((name, stats) -> server.unregisterMBean(name));
+    }
+
+    private void forEachMBean(final MBeanAction action) {
+        metrics().forEach((metric, stats) -> {
+            try {
+                action.apply(new ObjectName("io.equalexperts:type=CartMetrics,name=" + metric), stats);
+            } catch (final JMException e) {
+                throw new IllegalStateException("Cannot (un)register the MBean of metric " + metric, e);
+            }
+        });
+    }
+
+    private Map<String, Supplier<? extends Record>> metrics() {
+        final Map<String, Supplier<? extends Record>> metrics = new LinkedHashMap<>();
+        for (final CartStage stage : CartStage.values()) {
+            metrics.put(stage.name().toLowerCase(Locale.ROOT).replace('_', '-'), () -> stageStats(stage));
+        }
+        metrics.put("outcomes", this::outcomeStats);
+        metrics.putAll(registered);
+        return metrics;
+    }
+}
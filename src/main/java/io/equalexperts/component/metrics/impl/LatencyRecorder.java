@@ -0,0 +1,93 @@
+package io.equalexperts.component.metrics.impl;
+
+import io.equalexperts.model.LatencyStats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records latencies into log-linear buckets, as HdrHistogram does. Latencies below 128 ns each have a bucket of their
+ * own. Above that, every power of two is split into 64 buckets, so a bucket is less than 1/64 of its values wide.
+ * Latencies up to 2^36 ns (about 69 s) are told apart, and longer ones count as the longest.
+ * <p>
+ * Recording a latency is one atomic increment of its bucket, and allocates nothing. Reading the stats walks the 1,984
+ * buckets, and may miss latencies recorded while it does.
+ * </p>
+ */
+public class LatencyRecorder {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;    // Exact below this; 64 per power of two above
+    private static final long HIGHEST_TRACKABLE_NANOS = (1L << 36) - 1;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final AtomicLongArray counts = new AtomicLongArray(bucketOf(HIGHEST_TRACKABLE_NANOS) + 1);
+
+    /**
+     * @param nanos The latency to record. Negative latencies (from a clock that went back) count as zero.
+     */
+    public void record(final long nanos) {
+        counts.incrementAndGet(bucketOf(Math.clamp(nanos, 0, HIGHEST_TRACKABLE_NANOS)));
+    }
+
+    /**
+     * Retrieves the stats of the latencies recorded so far.
+     *
+     * @return The count, mean, percentiles and maximum of the latencies; all zero if none was recorded.
+     */
+    public LatencyStats stats() {
+        final long[] snapshot = new long[counts.length()];
+        long count = 0;
+        double total = 0;
+        int highest = 0;
+        for (int bucket = 0; bucket < snapshot.length; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            if (snapshot[bucket] > 0) {
+                count += snapshot[bucket];
+                total += snapshot[bucket] * ((lowestOf(bucket) + highestOf(bucket)) / 2.0);
+                highest = bucket;
+            }
+        }
+        if (count == 0) {
+            return new LatencyStats(0, 0, 0, 0, 0, 0, 0);
+        }
+        final long[] percentiles = new long[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            percentiles[i] = valueAt(snapshot, Math.max(1, (long) Math.ceil(PERCENTILES[i] * count)));
+        }
+        return new LatencyStats(count, Math.round(total / count), percentiles[0], percentiles[1], percentiles[2],
+                percentiles[3], highestOf(highest));
+    }
+
+    /**
+     * @param rank The rank of the latency, from 1 for the shortest.
+     * @return The highest value of the bucket holding the latency of the given rank.
+     */
+    private static long valueAt(final long[] snapshot, final long rank) {
+        long seen = 0;
+        int bucket = 0;
+        while (seen + snapshot[bucket] < rank) {
+            seen += snapshot[bucket];
+            bucket++;
+        }
+        return highestOf(bucket);
+    }
+
+    static int bucketOf(final long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        final int shift = 64 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (nanos >>> shift);
+    }
+
+    static long lowestOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket >>> (SUB_BUCKET_BITS - 1)) - 1;
+        return (long) (bucket - (shift << (SUB_BUCKET_BITS - 1))) << shift;
+    }
+
+    static long highestOf(final int bucket) {
+        return lowestOf(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,98 @@
+package io.equalexperts.component.metrics.impl;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Exposes a stats record through JMX: every component of the record is a read-only attribute, read from a fresh
+ * record on every access.
+ */
+final class RecordMBean implements DynamicMBean {
+    private final Supplier<? extends Record> stats;
+    private final Map<String, Method> accessors = new LinkedHashMap<>();
+    private final MBeanInfo info;
+
+    /**
+     * @param stats Supplies the current stats; called once to find out the components of the record.
+     */
+    RecordMBean(final Supplier<? extends Record> stats) {
+        this.stats = stats;
+        final Class<?> type = stats.get().getClass();
+        final RecordComponent[] components = type.getRecordComponents();
+        final MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[components.length];
+        for (int i = 0; i < components.length; i++) {
+            final String name = components[i].getName();
+            accessors.put(name, components[i].getAccessor());
+            attributes[i] = new MBeanAttributeInfo(name, components[i].getType().getName(), name, true, false, false);
+        }
+        info = new MBeanInfo(type.getName(), type.getSimpleName(), attributes, null, null, null);
+    }
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException, ReflectionException {
+        return read(stats.get(), attribute);
+    }
+
+    /**
+     * Reads several attributes from the same record, so they are consistent with each other. Attributes that cannot
+     * be read are left out.
+     */
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        final Record record = stats.get();
+        final AttributeList values = new AttributeList();
+        for (final String attribute : attributes) {
+            try {
+                values.add(new Attribute(attribute, read(record, attribute)));
+            } catch (final JMException e) {
+                // Left out, as the contract of DynamicMBean requires
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Read-only attribute: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+
+    private Object read(final Record record, final String attribute) throws AttributeNotFoundException, ReflectionException {
+        final Method accessor = accessors.get(attribute);
+        if (isNull(accessor)) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        try {
+            return accessor.invoke(record);
+        } catch (final ReflectiveOperationException e) {
+            throw new ReflectionException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.equalexperts.component.product;
+
+public interface ProductDictionary {
+    int NO_ID = -1;
+
+    /**
+     * Retrieves the id of a product, assigning the next free id on its first look-up. Ids are dense: the products
+     * seen so far have the ids {@code 0} to {@code size() - 1}, and a product keeps its id for good.
+     *
+     * @param productName The name of the product. Must not be null.
+     * @return The id of the product.
+     * @throws IllegalStateException if the product has no id, and the dictionary cannot hold any more products.
+     */
+    int idOf(final String productName);
+
+    /**
+     * Retrieves the canonical instance of a product name, assigning the product an id on its first look-up. Keying
+     * the lines of carts by canonical names stores each name once, however many carts hold the product, and lets
+     * look-ups compare names by identity and reuse their cached hash codes.
+     *
+     * @param productName The name of the product. Must not be null.
+     * @return The instance of the name held by the dictionary, equal to the given one - or the given one itself if the
+     * dictionary cannot hold any more products.
+     */
+    String intern(final String productName);
+
+    /**
+     * Looks up the id of a product without assigning one, e.g. for a product to be removed, which needs no id of its
+     * own if it has never been seen.
+     *
+     * @param productName The name of the product.
+     * @return The id of the product, or {@link #NO_ID} if it has none.
+     */
+    int find(final String productName);
+
+    /**
+     * Retrieves the name of a product from its id.
+     *
+     * @param productId An id handed out by {@link #idOf(String)}.
+     * @return The name of the product.
+     * @throws IllegalArgumentException if no product has the id.
+     */
+    String nameOf(final int productId);
+
+    /**
+     * @return The number of products that have an id.
+     */
+    int size();
+}
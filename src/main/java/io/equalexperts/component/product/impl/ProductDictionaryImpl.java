@@ -0,0 +1,132 @@
+package io.equalexperts.component.product.impl;
+
+import io.equalexperts.component.product.ProductDictionary;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A concurrent symbol table of product names.
+ * <p>
+ * Look-ups of known products are lock-free reads of a {@link ConcurrentHashMap}, and resolving an id is an index into
+ * an array; only assigning an id to a new product - once per product - takes a lock. The array of names grows by
+ * doubling and is published after the name is written, so a reader that was handed an id always finds its name.
+ * </p>
+ * <p>
+ * Ids are never taken back, so the dictionary is bounded: once it holds its maximum number of products, new names are
+ * no longer interned, and get no id. A dictionary is owned by a cart registry, and lives as long as its carts.
+ * </p>
+ */
+@Log4j2
+public class ProductDictionaryImpl implements ProductDictionary {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 6;
+    private static final int DEFAULT_MAX_SIZE = 1 << 16;
+    private final Map<String, Integer> ids;
+    private final int maxSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile String[] names;
+    private volatile int size;
+
+    public ProductDictionaryImpl() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The expected number of products, e.g. the size of the catalogue. Must be positive.
+     */
+    public ProductDictionaryImpl(final int initialCapacity) {
+        this(initialCapacity, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param initialCapacity The expected number of products, e.g. the size of the catalogue. Must be positive.
+     * @param maxSize         The number of products the dictionary holds at most. Must be positive.
+     */
+    public ProductDictionaryImpl(final int initialCapacity, final int maxSize) {
+        this.ids = new ConcurrentHashMap<>(initialCapacity);
+        this.names = new String[Math.min(initialCapacity, maxSize)];
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @throws IllegalStateException if the product has no id, and the dictionary is full.
+     */
+    @Override
+    public int idOf(final String productName) {
+        final Integer id = lookUp(productName);
+        if (isNull(id)) {
+            throw new IllegalStateException("The product dictionary is full, at %d products".formatted(maxSize));
+        }
+        return id;
+    }
+
+    /**
+     * @return The canonical instance of the name, or the given one if the product has no id and the dictionary is full.
+     */
+    @Override
+    public String intern(final String productName) {
+        final Integer id = lookUp(productName);
+        return isNull(id) ? productName : nameOf(id);
+    }
+
+    @Override
+    public int find(final String productName) {
+        final Integer id = ids.get(productName);
+        return isNull(id) ? NO_ID : id;
+    }
+
+    @Override
+    public String nameOf(final int productId) {
+        if (productId < 0 || productId >= size) {
+            throw new IllegalArgumentException("Unknown product id: " + productId);
+        }
+        return names[productId];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The id of the product, assigned on its first look-up, or {@code null} if it has none and the dictionary
+     * is full.
+     */
+    private Integer lookUp(final String productName) {
+        final Integer id = ids.get(productName);
+        return isNull(id) ? ids.computeIfAbsent(productName, this::assignId) : id;
+    }
+
+    /**
+     * Runs once per product, within {@link ConcurrentHashMap#computeIfAbsent}; the lock orders the ids of different
+     * products.
+     *
+     * @return The id assigned to the product, or {@code null} - no mapping - if the dictionary is full.
+     */
+    private Integer assignId(final String productName) {
+        lock.lock();
+        try {
+            final int id = size;
+            if (id == maxSize) {
+                log.debug("Product {} gets no id: the dictionary is full", productName);
+                return null;
+            }
+            String[] grown = names;
+            if (id == grown.length) {
+                grown = Arrays.copyOf(grown, Math.min(2 * grown.length, maxSize));
+            }
+            grown[id] = productName;
+            names = grown;
+            size = id + 1;
+            log.debug("Product {} has id {}", productName, id);
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.equalexperts.component.store;
+
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.CartStoreStats;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface CartStore extends AutoCloseable {
+
+    /**
+     * Records a change of a cart. Changes are recorded in the order they are appended, and the change of one call is
+     * recovered either as a whole or not at all.
+     *
+     * @param change The change to record. Must not be null.
+     * @return A future that completes once the change is durable, or completes exceptionally (with an
+     * {@link UncheckedIOException}, or an {@link IllegalStateException} if the store is closed) if it could not be
+     * made durable.
+     */
+    CompletableFuture<Void> append(final CartChange change);
+
+    /**
+     * Retrieves the state of all carts, as recorded by the changes appended so far (e.g. before a restart).
+     *
+     * @return The snapshot of every cart that has not been discarded, by cart identifier.
+     * @throws UncheckedIOException if the store could not be read.
+     */
+    Map<String, CartSnapshot> recover();
+
+    /**
+     * Folds the changes recorded so far into a snapshot of all carts, so that recovery does not have to replay them,
+     * and reclaims the space they take.
+     *
+     * @throws UncheckedIOException if the snapshot could not be written.
+     */
+    void compact();
+
+    /**
+     * @return The number of changes made durable, and of the syncs it took.
+     */
+    CartStoreStats stats();
+
+    /**
+     * Makes the changes appended so far durable and releases the store; later changes are refused.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,591 @@
+package io.equalexperts.component.store.impl;
+
+import io.equalexperts.component.store.CartStore;
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.CartStoreStats;
+import io.equalexperts.model.ItemMetadata;
+import lombok.extern.log4j.Log4j2;
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Records the changes of carts in an append-only log on disk, and folds them into snapshots.
+ * <p>
+ * The log is a sequence of numbered segment files, each a sequence of records of {@code [length][CRC32C][change]}.
+ * Appends are queued, and a single writer thread takes everything queued at once, writes it with one gathering
+ * {@link FileChannel#write(ByteBuffer[])} and makes it durable with one {@link FileChannel#force(boolean)}: under
+ * load, the cost of a sync is shared by all changes appended while the previous one ran (group commit).
+ * </p>
+ * <p>
+ * Compaction, run periodically, moves the writer on to a new segment, folds the previous snapshot and the sealed
+ * segments into a new snapshot - written to a temporary file, synced and atomically renamed - and then deletes those
+ * segments. Recovery loads the snapshot and replays the segments written since; a record that does not match its
+ * checksum (e.g. torn by a crash in the middle of a write, before its sync) ends the replay of its segment.
+ * </p>
+ */
+@Log4j2
+public final class FileCartStore implements CartStore {
+    static final String SNAPSHOT_FILE = "carts.snapshot";
+    static final String SNAPSHOT_TEMP_FILE = "carts.snapshot.tmp";
+    private static final String SEGMENT_PREFIX = "carts-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int SNAPSHOT_MAGIC = 0x43415254;                 // "CART"
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;     // Length and checksum of the change
+    private static final int MAX_BATCH = 1 << 12;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final Duration DEFAULT_COMPACTION_INTERVAL = Duration.ofMinutes(5);
+
+    private final Path directory;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ReadWriteLock openLock = new ReentrantReadWriteLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final ScheduledExecutorService compactor;
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    final Thread writer;
+    private boolean open = true;            // Guarded by openLock
+    private volatile long segmentNumber;    // Written by the writer only
+    FileChannel segment;                    // Used by the writer only
+    private boolean torn;                   // Used by the writer only: the segment may end in a torn record
+    private boolean stopped;                // Used by the writer only
+
+    public FileCartStore(final Path directory) {
+        this(directory, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    /**
+     * @param directory          The directory of the log and the snapshot; created if it does not exist.
+     * @param compactionInterval The time between two compactions. Must be positive.
+     * @throws UncheckedIOException if the directory cannot be opened.
+     */
+    public FileCartStore(final Path directory, final Duration compactionInterval) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.segmentNumber = Math.max(lastFoldedSegment(), segmentNumbers().stream().mapToLong(Long::longValue).max().orElse(0)) + 1;
+            this.segment = openSegment(segmentNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the cart store in " + directory, e);
+        }
+        this.writer = Thread.ofPlatform().name("cart-store-writer").daemon().start(this::writeLoop);
+        this.compactor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("cart-store-compactor").daemon().factory());
+        compactor.scheduleWithFixedDelay(this::compactQuietly, compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(final CartChange change) {
+        try {
+            return enqueue(new Pending(encode(change), null, new CompletableFuture<>()));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException("Cannot record a change of a cart", e));
+        }
+    }
+
+    /**
+     * Replays the snapshot and the whole log. Meant to be called on start-up, before carts are changed; the lines of a
+     * recovered cart are equal in value to those it had, and so is its subtotal, which is recomputed from them.
+     */
+    @Override
+    public Map<String, CartSnapshot> recover() {
+        compactionLock.lock();
+        try {
+            final Map<String, CartSnapshot> snapshots = fold(Long.MAX_VALUE).snapshots();
+            log.info("Recovered {} carts from {}", snapshots.size(), directory);
+            return snapshots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover the carts from " + directory, e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the writer on to a new segment, and folds all sealed segments into a new snapshot. Appends go on while the
+     * snapshot is written.
+     */
+    @Override
+    public void compact() {
+        compactionLock.lock();
+        try {
+            await(control(this::rotateSegment));
+            final long lastSealed = segmentNumber - 1;
+            writeSnapshot(fold(lastSealed).carts, lastSealed);
+            for (final long number : segmentNumbers()) {
+                if (number <= lastSealed) {
+                    Files.delete(segmentPath(number));
+                }
+            }
+            log.info("Compacted the cart store in {} up to segment {}", directory, lastSealed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact the cart store in " + directory, e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    @Override
+    public CartStoreStats stats() {
+        return new CartStoreStats(changes.sum(), syncs.sum());
+    }
+
+    @Override
+    public void close() {
+        final Pending closing = new Pending(null, this::closeSegment, new CompletableFuture<>());
+        openLock.writeLock().lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            queue.add(closing);     // The last one: appends are refused from now on
+        } finally {
+            openLock.writeLock().unlock();
+        }
+        compactor.shutdown();
+        await(closing.done());
+    }
+
+    /**
+     * Has the writer run an action on the log in between two batches of appends.
+     */
+    CompletableFuture<Void> control(final IoAction action) {
+        return enqueue(new Pending(null, action, new CompletableFuture<>()));
+    }
+
+    private CompletableFuture<Void> enqueue(final Pending pending) {
+        openLock.readLock().lock();
+        try {
+            if (open) {
+                queue.add(pending);
+            } else {
+                pending.done().completeExceptionally(new IllegalStateException("The cart store is closed"));
+            }
+        } finally {
+            openLock.readLock().unlock();
+        }
+        return pending.done();
+    }
+
+    private void writeLoop() {
+        final List<Pending> batch = new ArrayList<>(MAX_BATCH);
+        while (!stopped) {
+            batch.add(take());
+            queue.drainTo(batch, MAX_BATCH - 1);
+            int from = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (!isNull(batch.get(i).control())) {
+                    commit(batch.subList(from, i));
+                    runControl(batch.get(i));
+                    from = i + 1;
+                }
+            }
+            commit(batch.subList(from, batch.size()));
+            batch.clear();
+        }
+    }
+
+    private Pending take() {
+        while (true) {
+            try {
+                final Pending next = queue.take();
+                Thread.interrupted();       // An interrupt that raced with the take would close the channel on the next write
+                return next;
+            } catch (InterruptedException e) {
+                log.warn("Ignoring an interrupt of the cart store writer: it stops when the store is closed");
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of appends to the log and syncs it once. A failed write fails that batch only (though what of it
+     * reached the disk may still be recovered), and may leave a torn record behind, which ends the replay of its
+     * segment: the writer moves on to a new segment straight away - or, if it cannot, before the next batch.
+     */
+    private void commit(final List<Pending> appends) {
+        if (appends.isEmpty()) {
+            return;
+        }
+        try {
+            if (torn) {
+                rotateSegment();
+            }
+            final ByteBuffer[] records = new ByteBuffer[appends.size()];
+            long remaining = 0;
+            for (int i = 0; i < records.length; i++) {
+                records[i] = appends.get(i).record();
+                remaining += records[i].remaining();
+            }
+            while (remaining > 0) {
+                remaining -= segment.write(records);
+            }
+            segment.force(false);
+            changes.add(appends.size());
+            syncs.increment();
+            appends.forEach(append -> append.done().complete(null));
+        } catch (IOException e) {
+            log.error("Cannot write {} changes to the cart log in {}", appends.size(), directory, e);
+            torn = true;
+            moveOnQuietly();    // Before the batch is failed, so a change retried on failure goes to the new segment
+            appends.forEach(append -> append.done().completeExceptionally(new UncheckedIOException("Cannot write to the cart log", e)));
+        }
+    }
+
+    private void moveOnQuietly() {
+        try {
+            rotateSegment();
+        } catch (IOException e) {
+            log.error("Cannot move the cart log in {} on to a new segment; retrying before the next changes", directory, e);
+        }
+    }
+
+    private void runControl(final Pending pending) {
+        try {
+            pending.control().run();
+            pending.done().complete(null);
+        } catch (IOException e) {
+            log.error("Cannot update the cart log in {}", directory, e);
+            pending.done().completeExceptionally(new UncheckedIOException("Cannot update the cart log", e));
+        }
+    }
+
+    private void rotateSegment() throws IOException {
+        final FileChannel next = openSegment(segmentNumber + 1);
+        segment.close();
+        segment = next;
+        segmentNumber++;
+        torn = false;
+    }
+
+    private void closeSegment() throws IOException {
+        stopped = true;
+        segment.close();
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.error("Cannot compact the cart store in {}", directory, e);
+        }
+    }
+
+    private FileChannel openSegment(final long number) throws IOException {
+        final FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        syncDirectory();
+        return channel;
+    }
+
+    private Path segmentPath(final long number) {
+        return directory.resolve("%s%019d%s".formatted(SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Makes the creation, deletion and renaming of files in the directory durable.
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Loads the snapshot, and replays the segments written since, up to the given one.
+     */
+    private Replay fold(final long lastSegment) throws IOException {
+        final var replay = new Replay();
+        final long lastFolded = readSnapshot(replay);
+        for (final long number : segmentNumbers()) {
+            if (number > lastFolded && number <= lastSegment) {
+                replaySegment(segmentPath(number), replay);
+            }
+        }
+        return replay;
+    }
+
+    private static void replaySegment(final Path path, final Replay replay) throws IOException {
+        final long size = Files.size(path);
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES))) {
+            for (int length = replay.readRecord(in, size - offset); length >= 0; length = replay.readRecord(in, size - offset)) {
+                replay.applyRecord();
+                offset += RECORD_HEADER_BYTES + length;
+            }
+        }
+        if (offset < size) {
+            log.warn("Ignoring {} bytes of a torn record at the end of {}", size - offset, path);
+        }
+    }
+
+    private static ByteBuffer encode(final CartChange change) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(bytes);
+        out.writeLong(0);     // Room for the length and the checksum of the change
+        out.writeUTF(change.cartId());
+        out.writeLong(change.version());
+        out.writeBoolean(change.discarded());
+        out.writeInt(change.lines().size());
+        for (final Map.Entry<String, ItemMetadata> line : change.lines().entrySet()) {
+            out.writeUTF(line.getKey());
+            writeItem(out, line.getValue());
+        }
+        out.writeInt(change.removedLines().size());
+        for (final String productName : change.removedLines()) {
+            out.writeUTF(productName);
+        }
+        final ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        final var checksum = new CRC32C();
+        checksum.update(record.array(), RECORD_HEADER_BYTES, record.capacity() - RECORD_HEADER_BYTES);
+        return record.putInt(0, record.capacity() - RECORD_HEADER_BYTES).putInt(Integer.BYTES, (int) checksum.getValue());
+    }
+
+    private void writeSnapshot(final Map<String, CartSnapshot> carts, final long lastFolded) throws IOException {
+        final Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(lastFolded);
+            out.writeInt(carts.size());
+            for (final Map.Entry<String, CartSnapshot> cart : carts.entrySet()) {
+                out.writeUTF(cart.getKey());
+                out.writeLong(cart.getValue().version());
+                out.writeInt(cart.getValue().items().size());
+                for (final Map.Entry<String, ItemMetadata> line : cart.getValue().items().entrySet()) {
+                    out.writeUTF(line.getKey());
+                    writeItem(out, line.getValue());
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    /**
+     * @return The last segment folded into the snapshot, or 0 if there is no snapshot.
+     */
+    private long readSnapshot(final Replay replay) throws IOException {
+        final Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_BYTES))) {
+            final long lastFolded = readSnapshotHeader(in, path);
+            for (int count = in.readInt(); count > 0; count--) {
+                final String cartId = in.readUTF();
+                final long version = in.readLong();
+                replay.carts.put(cartId, new CartSnapshot(version, replay.readLines(in, HashTreePMap.empty()), BigDecimal.ZERO));
+            }
+            return lastFolded;
+        }
+    }
+
+    private long lastFoldedSegment() throws IOException {
+        final Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return readSnapshotHeader(in, path);
+        }
+    }
+
+    private static long readSnapshotHeader(final DataInputStream in, final Path path) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a cart snapshot: " + path);
+        }
+        return in.readLong();
+    }
+
+    private static void writeItem(final DataOutputStream out, final ItemMetadata item) throws IOException {
+        final byte[] unscaledPrice = item.price().unscaledValue().toByteArray();
+        out.writeInt(item.price().scale());
+        out.writeByte(unscaledPrice.length);
+        out.write(unscaledPrice);
+        out.writeInt(item.quantity());
+    }
+
+    private static ItemMetadata readItem(final DataInputStream in) throws IOException {
+        final int scale = in.readInt();
+        final BigDecimal price = new BigDecimal(new BigInteger(in.readNBytes(in.readUnsignedByte())), scale);
+        return new ItemMetadata(price, in.readInt());
+    }
+
+    private static void await(final CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * An action the writer runs on the log.
+     */
+    @FunctionalInterface
+    interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * An append (a record) or an action on the log (a control), and the future completed once it is done.
+     */
+    private record Pending(ByteBuffer record, IoAction control, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Replays a snapshot and segments into the snapshots of the carts.
+     * <p>
+     * The lines are put straight into the persistent maps of the snapshots, and the product names and lines, which
+     * carts have in common, are pooled: a recovered cart holds little more of its own than its identifier, which keeps
+     * the heap - and the work of the garbage collector - small when millions of carts are recovered. A record is read
+     * into a buffer that is reused, and decoded from it once its checksum matches; the subtotals are computed at the
+     * end, once per cart.
+     * </p>
+     */
+    private static final class Replay {
+        private final Map<String, CartSnapshot> carts = new HashMap<>();
+        private final Map<String, String> productNames = new HashMap<>();
+        private final Map<ItemMetadata, ItemMetadata> lines = new HashMap<>();
+        private final CRC32C checksum = new CRC32C();
+        private final RecordInput record = new RecordInput();
+        private final DataInputStream recordIn = new DataInputStream(record);
+        private byte[] buffer = new byte[1 << 8];
+
+        /**
+         * @param in        The segment, at the start of a record.
+         * @param available The number of bytes left in the segment.
+         * @return The length of the change of the next record, or -1 at the end of the segment or at a torn record.
+         */
+        private int readRecord(final DataInputStream in, final long available) throws IOException {
+            if (available < RECORD_HEADER_BYTES) {
+                return -1;
+            }
+            in.readFully(buffer, 0, RECORD_HEADER_BYTES);
+            final int length = ByteBuffer.wrap(buffer).getInt(0);
+            final int expectedChecksum = ByteBuffer.wrap(buffer).getInt(Integer.BYTES);
+            if (length < 0 || length > available - RECORD_HEADER_BYTES) {
+                return -1;
+            }
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, 2 * buffer.length)];
+            }
+            in.readFully(buffer, 0, length);
+            checksum.reset();
+            checksum.update(buffer, 0, length);
+            if ((int) checksum.getValue() != expectedChecksum) {
+                return -1;
+            }
+            record.reset(buffer, length);
+            return length;
+        }
+
+        private void applyRecord() throws IOException {
+            final String cartId = recordIn.readUTF();
+            final long version = recordIn.readLong();
+            if (recordIn.readBoolean()) {
+                carts.remove(cartId);
+                return;
+            }
+            final CartSnapshot current = carts.getOrDefault(cartId, CartSnapshot.empty());
+            PMap<String, ItemMetadata> items = readLines(recordIn, current.items());
+            for (int removedLines = recordIn.readInt(); removedLines > 0; removedLines--) {
+                items = items.minus(recordIn.readUTF());
+            }
+            carts.put(cartId, new CartSnapshot(version, items, BigDecimal.ZERO));
+        }
+
+        private PMap<String, ItemMetadata> readLines(final DataInputStream in, final PMap<String, ItemMetadata> items) throws IOException {
+            PMap<String, ItemMetadata> read = items;
+            for (int count = in.readInt(); count > 0; count--) {
+                final String productName = in.readUTF();
+                final ItemMetadata line = readItem(in);
+                read = read.plus(pooled(productNames, productName), pooled(lines, line));
+            }
+            return read;
+        }
+
+        private static <T> T pooled(final Map<T, T> pool, final T value) {
+            final T pooled = pool.putIfAbsent(value, value);
+            return isNull(pooled) ? value : pooled;
+        }
+
+        /**
+         * @return The snapshots of the carts, with their subtotals.
+         */
+        private Map<String, CartSnapshot> snapshots() {
+            carts.replaceAll((cartId, cart) -> {
+                BigDecimal subTotal = BigDecimal.ZERO;
+                for (final ItemMetadata line : cart.items().values()) {
+                    subTotal = subTotal.add(line.price().multiply(BigDecimal.valueOf(line.quantity())));
+                }
+                return new CartSnapshot(cart.version(), cart.items(), subTotal);
+            });
+            return carts;
+        }
+    }
+
+    /**
+     * Reads the change of a record from the buffer it was read into.
+     */
+    private static final class RecordInput extends ByteArrayInputStream {
+        private RecordInput() {
+            super(new byte[0]);
+        }
+
+        private void reset(final byte[] buffer, final int length) {
+            this.buf = buffer;
+            this.pos = 0;
+            this.count = length;
+        }
+    }
+}
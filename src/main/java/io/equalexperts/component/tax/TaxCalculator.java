@@ -10,4 +10,14 @@ public interface TaxCalculator {
      * @return The calculated tax amount as a BigDecimal.
      */
     BigDecimal calculateTaxAmount(BigDecimal subTotal);
+
+    /**
+     * Calculates the tax amount in fixed-point, allocation-free. Yields the same value as
+     * {@link #calculateTaxAmount(BigDecimal)}, scaled by {@code MoneyUtil.TAX_SCALE} decimals.
+     *
+     * @param subTotalUnits The subtotal in units of 1/10,000 ({@code MoneyUtil.UNIT_SCALE}). Must not be negative.
+     * @return The calculated tax amount in units of 1/10,000,000,000, or {@code MoneyUtil.NOT_REPRESENTABLE} if it
+     * does not fit into a {@code long}.
+     */
+    long calculateTaxAmount(long subTotalUnits);
 }
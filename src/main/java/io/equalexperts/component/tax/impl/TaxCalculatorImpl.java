@@ -2,16 +2,25 @@ package io.equalexperts.component.tax.impl;
 
 import io.equalexperts.component.tax.TaxCalculator;
 import io.equalexperts.exception.InvalidTaxException;
+import io.equalexperts.util.MoneyUtil;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+import static io.equalexperts.util.MoneyUtil.NOT_REPRESENTABLE;
+import static io.equalexperts.util.MoneyUtil.TAX_SCALE;
+import static io.equalexperts.util.MoneyUtil.UNIT_SCALE;
+
 public class TaxCalculatorImpl implements TaxCalculator {
-    private final BigDecimal taxRate;
+    // Keeps (remainder x rate) within a long: remainder < 10^4, so the rate must stay below 10^14 units (10^6 %)
+    private static final long MAX_FIXED_POINT_RATE = 100_000_000_000_000L;
+    private final BigDecimal taxFraction;
+    private final long taxFractionUnits;
 
     public TaxCalculatorImpl(final BigDecimal taxRate) {
         checkForNegativeValues(taxRate, "Tax-rate");
-        this.taxRate = taxRate;
+        this.taxFraction = taxRate.divide(BigDecimal.valueOf(100), TAX_SCALE, RoundingMode.HALF_UP);
+        this.taxFractionUnits = toTaxFractionUnits(taxFraction);
     }
 
     /**
@@ -27,12 +36,51 @@ public class TaxCalculatorImpl implements TaxCalculator {
      */
     public BigDecimal calculateTaxAmount(final BigDecimal subTotal) {
         checkForNegativeValues(subTotal, "Sub-total");
+        final long subTotalUnits = MoneyUtil.toUnits(subTotal);
+        final long taxUnits = subTotalUnits == NOT_REPRESENTABLE ? NOT_REPRESENTABLE : calculateTaxAmount(subTotalUnits);
+        if (taxUnits != NOT_REPRESENTABLE) {
+            return MoneyUtil.toAmount(taxUnits, TAX_SCALE).stripTrailingZeros();
+        }
         //only round-off the final result, otherwise the mathematical calculations will be incorrect
-        return subTotal.multiply(taxRate.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP))
-                .setScale(10, RoundingMode.HALF_UP)
+        return subTotal.multiply(taxFraction)
+                .setScale(TAX_SCALE, RoundingMode.HALF_UP)
                 .stripTrailingZeros();
     }
 
+    /**
+     * Calculates the tax amount in fixed-point: the exact product of the subtotal (4 decimals) and the tax fraction
+     * (10 decimals) has 14 decimals, and is rounded HALF_UP to 10 decimals - just like the BigDecimal variant.
+     * <p>
+     * The subtotal is split into its whole and fractional part, so that the intermediate products stay within a long
+     * for any cart the BigDecimal variant would be asked about in practice; the rest is reported as not representable.
+     * </p>
+     *
+     * @param subTotalUnits The subtotal in units of 1/10,000. Must not be negative.
+     * @return The tax amount in units of 1/10,000,000,000, or {@code MoneyUtil.NOT_REPRESENTABLE} on overflow.
+     */
+    @Override
+    public long calculateTaxAmount(final long subTotalUnits) {
+        if (subTotalUnits < 0) {
+            throw new InvalidTaxException("Sub-total must be a positive value");
+        }
+        if (taxFractionUnits == NOT_REPRESENTABLE) {
+            return NOT_REPRESENTABLE;
+        }
+        final long unit = MoneyUtil.powerOfTen(UNIT_SCALE);
+        final long wholeTax = MoneyUtil.multiply(subTotalUnits / unit, taxFractionUnits);
+        if (wholeTax == NOT_REPRESENTABLE) {
+            return NOT_REPRESENTABLE;
+        }
+        final long fractionTax = MoneyUtil.roundHalfUp((subTotalUnits % unit) * taxFractionUnits, TAX_SCALE + UNIT_SCALE, TAX_SCALE);
+        return MoneyUtil.add(wholeTax, fractionTax);
+    }
+
+    private static long toTaxFractionUnits(final BigDecimal taxFraction) {
+        return taxFraction.compareTo(MoneyUtil.toAmount(MAX_FIXED_POINT_RATE, TAX_SCALE)) < 0
+                ? taxFraction.unscaledValue().longValueExact()
+                : NOT_REPRESENTABLE;
+    }
+
     /**
      * Validates that the provided BigDecimal value is not negative. If the value is negative,
      * throws an InvalidTaxException with the specified error attribute.
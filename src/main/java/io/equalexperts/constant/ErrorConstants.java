@@ -9,4 +9,5 @@ public final class ErrorConstants {
     public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
     public static final String NOT_FOUND_ERROR = "NOT_FOUND_ERROR";
     public static final String PRICE_SERVICE_ERROR = "PRICE_SERVICE_ERROR";
+    public static final String CONFLICT_ERROR = "CONFLICT_ERROR";
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package io.equalexperts.constant;
+
+import lombok.experimental.UtilityClass;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+@UtilityClass
+public final class LogMarkers {
+    /**
+     * Marks errors caused by the client's request (invalid input, unknown products, version conflicts): expected, so
+     * they are rate-limited and logged without a stack trace.
+     */
+    public static final Marker CLIENT_ERROR = MarkerManager.getMarker("CLIENT_ERROR");
+}
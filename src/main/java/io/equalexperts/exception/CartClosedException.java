@@ -0,0 +1,17 @@
+package io.equalexperts.exception;
+
+/**
+ * A cart was changed after it had been closed, i.e. removed from its registry (e.g. on expiry) while a request still
+ * held it. Like a version conflict, the client has to read the cart again - it will get a new, empty one.
+ */
+public class CartClosedException extends CartException {
+    private static final long STATUS_CODE = 409L;
+
+    public CartClosedException(String message) {
+        super(message);
+    }
+
+    public static long getStatusCode() {
+        return STATUS_CODE;
+    }
+}
@@ -0,0 +1,29 @@
+package io.equalexperts.exception;
+
+/**
+ * A conditional mutation of a cart expected a version the cart is no longer at: another device or session has
+ * changed the cart in the meantime.
+ */
+public class CartVersionConflictException extends CartException {
+    private static final long STATUS_CODE = 409L;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public CartVersionConflictException(long expectedVersion, long actualVersion) {
+        super("Cart version %d was expected, but the cart is at version %d".formatted(expectedVersion, actualVersion));
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public static long getStatusCode() {
+        return STATUS_CODE;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
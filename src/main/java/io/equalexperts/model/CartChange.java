@@ -0,0 +1,25 @@
+package io.equalexperts.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutation of a cart as it is recorded by a {@code CartStore}: the state of the lines it touched, as of the version
+ * it took the cart to. Replaying a change sets those lines, so replaying it twice does no harm.
+ *
+ * @param cartId       The identifier of the cart.
+ * @param version      The version of the cart after the mutation.
+ * @param lines        The lines the mutation added or changed, with their new price and quantity, by product name.
+ * @param removedLines The names of the products the mutation removed from the cart.
+ * @param discarded    Whether the cart was discarded as a whole (e.g. after checkout); such a change holds no lines.
+ */
+public record CartChange(String cartId, long version, Map<String, ItemMetadata> lines, Set<String> removedLines, boolean discarded) {
+    public CartChange {
+        lines = Map.copyOf(lines);
+        removedLines = Set.copyOf(removedLines);
+    }
+
+    public static CartChange discard(final String cartId) {
+        return new CartChange(cartId, 0, Map.of(), Set.of(), true);
+    }
+}
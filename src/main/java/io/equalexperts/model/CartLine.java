@@ -0,0 +1,6 @@
+package io.equalexperts.model;
+
+import java.math.BigDecimal;
+
+public record CartLine(ProductIn productIn, BigDecimal price) {
+}
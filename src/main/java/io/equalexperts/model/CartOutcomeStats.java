@@ -0,0 +1,9 @@
+package io.equalexperts.model;
+
+/**
+ * The outcomes of adding a product to a cart: the successful adds, and the failed ones by the type of their error
+ * (see {@code ErrorConstants}).
+ */
+public record CartOutcomeStats(long succeeded, long validationErrors, long notFoundErrors, long priceServiceErrors,
+                               long conflictErrors, long internalErrors) {
+}
@@ -0,0 +1,26 @@
+package io.equalexperts.model;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+
+import java.math.BigDecimal;
+
+/**
+ * An immutable state of a cart: its lines and their subtotal, as of one version of the cart.
+ * <p>
+ * The lines are held in a persistent map: a mutation creates the next snapshot from the previous one in
+ * {@code O(log n)}, sharing all untouched lines with it, so snapshots are cheap to create and safe to read from any
+ * thread while the cart moves on.
+ * </p>
+ *
+ * @param version  The number of mutations applied to the cart (a batch counts as one), starting at 0 for the empty cart.
+ * @param items    The lines of the cart, by product name.
+ * @param subTotal The exact (unrounded) sum of price x quantity over all lines.
+ */
+public record CartSnapshot(long version, PMap<String, ItemMetadata> items, BigDecimal subTotal) {
+    private static final CartSnapshot EMPTY = new CartSnapshot(0, HashTreePMap.empty(), BigDecimal.ZERO);
+
+    public static CartSnapshot empty() {
+        return EMPTY;
+    }
+}
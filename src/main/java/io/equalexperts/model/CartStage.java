@@ -0,0 +1,27 @@
+package io.equalexperts.model;
+
+/**
+ * A stage of adding a product to a cart, timed on its own.
+ */
+public enum CartStage {
+    /**
+     * Validating the product, and resolving the cart of the shopper (which validates the cart-id).
+     */
+    VALIDATION,
+    /**
+     * Looking up the price of the product.
+     */
+    PRICE_FETCH,
+    /**
+     * Validating the price of the product, and adding the product to the cart.
+     */
+    CART_MUTATION,
+    /**
+     * Calculating the totals of the cart.
+     */
+    TOTALS,
+    /**
+     * Building the view of the cart.
+     */
+    VIEW
+}
@@ -0,0 +1,8 @@
+package io.equalexperts.model;
+
+/**
+ * @param changes The number of cart changes made durable.
+ * @param syncs   The number of times the log was forced to disk; group commit makes it (much) smaller than the changes.
+ */
+public record CartStoreStats(long changes, long syncs) {
+}
@@ -2,5 +2,11 @@ package io.equalexperts.model;
 
 import java.util.Map;
 
-public record ConsolidatedCart(CartError errors, Map<String, ItemMetadata> shoppingCart, CartTotals totals) {
+/**
+ * @param version The version of the cart the state was taken from; 0 for an empty or unknown cart, and for errors.
+ */
+public record ConsolidatedCart(CartError errors, Map<String, ItemMetadata> shoppingCart, CartTotals totals, long version) {
+    public ConsolidatedCart(CartError errors, Map<String, ItemMetadata> shoppingCart, CartTotals totals) {
+        this(errors, shoppingCart, totals, 0);
+    }
 }
@@ -0,0 +1,15 @@
+package io.equalexperts.model;
+
+/**
+ * The reason a cart expired.
+ */
+public enum ExpiryCause {
+    /**
+     * The cart was not accessed for its idle timeout: abandoned by its shopper.
+     */
+    IDLE,
+    /**
+     * The cart reached its time-to-live, however recently it was accessed.
+     */
+    TIME_TO_LIVE
+}
@@ -17,6 +17,12 @@ public record ItemMetadata(BigDecimal price, Integer quantity) {
         return new ItemMetadata(this.price, newQuantity);
     }
 
+    // Method to take off quantity; the result must still hold a positive quantity
+    public ItemMetadata subtractQuantity(int quantity) {
+        validateData(this.price, quantity);
+        return new ItemMetadata(this.price, this.quantity - quantity);
+    }
+
     private void validateData(final BigDecimal price, final Integer quantity) {
         if (price == null || price.doubleValue() < 0) {
             throw new InvalidCartParamsException("Price must not be null and must be non-negative");
@@ -0,0 +1,12 @@
+package io.equalexperts.model;
+
+/**
+ * The latencies recorded for one stage, in nanoseconds. Percentiles and the maximum are the highest value of their
+ * bucket, so they are within 1/64 of the latency recorded.
+ *
+ * @param count     The number of latencies recorded.
+ * @param meanNanos The mean latency.
+ */
+public record LatencyStats(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                           long maxNanos) {
+}
@@ -0,0 +1,6 @@
+package io.equalexperts.model;
+
+public record PriceApiResilienceStats(String circuitBreakerState, float failureRate, float slowCallRate,
+                                      long notPermittedCalls, int availableConcurrentCalls, long bulkheadRejections,
+                                      long timeouts, long hedgedRequests, long lastKnownPricesServed) {
+}
@@ -0,0 +1,4 @@
+package io.equalexperts.model;
+
+public record PriceCacheStats(long hits, long misses, long loads, long notFound, long evictions, long size) {
+}
@@ -0,0 +1,5 @@
+package io.equalexperts.model;
+
+public record PriceClientStats(String preferredVersion, long requests, long failures, int inFlight, int peakInFlight,
+                               long http2Responses, long http1Responses) {
+}
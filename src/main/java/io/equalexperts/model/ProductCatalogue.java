@@ -0,0 +1,42 @@
+package io.equalexperts.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The products whose prices are loaded on start-up, by name.
+ */
+public record ProductCatalogue(List<String> productNames) {
+    private static final List<String> KNOWN_PRODUCTS = List.of("cheerios", "cornflakes", "frosties", "shreddies", "weetabix");
+
+    public ProductCatalogue {
+        productNames = List.copyOf(productNames);
+    }
+
+    /**
+     * @return The catalogue of the products known to the Price API.
+     */
+    public static ProductCatalogue known() {
+        return new ProductCatalogue(KNOWN_PRODUCTS);
+    }
+
+    /**
+     * Reads a catalogue from a UTF-8 text file with a product name per line. Blank lines and lines starting with
+     * {@code #} are skipped, and duplicate names are read once.
+     *
+     * @param file The catalogue file. Must not be null.
+     * @return The catalogue, in the order of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ProductCatalogue from(final Path file) throws IOException {
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return new ProductCatalogue(lines.map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .distinct()
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.equalexperts.model;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of the start-up warm-up.
+ *
+ * @param productsLoaded    The number of products of the catalogue whose prices are cached.
+ * @param failedProducts    The products of the catalogue whose prices could not be loaded.
+ * @param iterations        The add/remove/totals rounds run to compile the hot paths.
+ * @param duration          The time from the start of the warm-up until the instance is ready.
+ * @param coldRequest       The time taken by the first add-to-cart, after the prices have been loaded.
+ * @param warmRequest       The average time taken by an add-to-cart over the last tenth of the warm-up.
+ * @param timeToFastRequest The time from the start of the warm-up until the end of the first add-to-cart that took
+ *                          no longer than twice the {@code warmRequest}.
+ */
+public record WarmUpReport(int productsLoaded, List<String> failedProducts, int iterations, Duration duration,
+                           Duration coldRequest, Duration warmRequest, Duration timeToFastRequest) {
+}
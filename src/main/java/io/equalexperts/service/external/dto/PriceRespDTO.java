@@ -1,11 +1,21 @@
 package io.equalexperts.service.external.dto;
 
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+
 /**
  * Sample Json Response:
  * <p>
@@ -24,4 +34,57 @@ public record PriceRespDTO(
         @DecimalMin(value = "0.0", message = "Price must be greater than or equal to {value}")
         BigDecimal price
 ) {
+
+    /**
+     * Reads a price response field by field, streaming from the bytes of the body, without reflection and without
+     * holding the body as a {@code String}. Unknown fields are skipped; the price is taken over exactly as sent.
+     * <p>
+     * Accepts what {@code Gson.fromJson} accepts: the JSON is read leniently (e.g. single-quoted or unquoted strings,
+     * comments), a boolean title is taken as its text, and nothing but whitespace may follow the object. Malformed
+     * UTF-8 is replaced, as decoding the body into a {@code String} did.
+     * </p>
+     *
+     * @param body The UTF-8 encoded JSON body. Must not be null. Closed once read.
+     * @return The price response.
+     * @throws IOException If the body is not JSON Gson would read, or cannot be read.
+     */
+    public static PriceRespDTO fromJson(final InputStream body) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, UTF_8))) {
+            reader.setStrictness(Strictness.LENIENT);
+            final PriceRespDTO priceResp = read(reader);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new MalformedJsonException("JSON document was not fully consumed.");
+            }
+            return priceResp;
+        }
+    }
+
+    private static PriceRespDTO read(final JsonReader reader) throws IOException {
+        String title = null;
+        BigDecimal price = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "title" -> title = nextStringOrNull(reader);
+                case "price" -> {
+                    final String value = nextStringOrNull(reader);
+                    price = isNull(value) ? null : new BigDecimal(value);
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new PriceRespDTO(title, price);
+    }
+
+    private static String nextStringOrNull(final JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            case BOOLEAN -> Boolean.toString(reader.nextBoolean());
+            default -> reader.nextString();
+        };
+    }
 }
@@ -0,0 +1,18 @@
+package io.equalexperts.service.external.priceclient;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncPriceApi {
+    /**
+     * Retrieves the price of a product given its name by interacting with the Price API, without blocking the caller.
+     * <p>
+     * Failures are reported through the returned future, with the same exceptions the blocking look-up throws:
+     * {@code Api400xError} for 404/400 responses, and {@code HttpAPIException} for any other failure.
+     * </p>
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a future of the price of the product as a {@code BigDecimal}
+     */
+    CompletableFuture<BigDecimal> getPriceAsync(String productName);
+}
@@ -0,0 +1,16 @@
+package io.equalexperts.service.external.priceclient;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+@FunctionalInterface
+public interface BulkPriceSource {
+    /**
+     * Retrieves the prices of several products in one look-up, e.g. one request against a bulk price endpoint.
+     *
+     * @param productNames the names of the products whose prices are to be fetched
+     * @return the price per product name; products unknown to the source are left out
+     */
+    Map<String, BigDecimal> getPrices(Set<String> productNames);
+}
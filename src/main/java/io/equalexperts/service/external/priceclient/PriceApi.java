@@ -1,8 +1,9 @@
 package io.equalexperts.service.external.priceclient;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
-public interface PriceApi {
+public interface PriceApi extends AsyncPriceApi {
     /**
      * Retrieves the price of a product given its name by interacting with the Price API.
      *
@@ -10,4 +11,20 @@ public interface PriceApi {
      * @return the price of the product as a {@code BigDecimal}
      */
     BigDecimal getPrice(String productName);
+
+    /**
+     * Retrieves the price of a product through the blocking {@link #getPrice(String)}, on the caller's thread.
+     * Implementations with a non-blocking transport should override this.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a completed future of the price of the product, or of the failure of the look-up
+     */
+    @Override
+    default CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+        try {
+            return CompletableFuture.completedFuture(getPrice(productName));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
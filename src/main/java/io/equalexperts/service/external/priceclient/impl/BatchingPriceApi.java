@@ -0,0 +1,209 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.service.external.priceclient.BulkPriceSource;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import lombok.extern.log4j.Log4j2;
+
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Coalesces concurrent price look-ups into batched look-ups against a {@link BulkPriceSource} (micro-batching).
+ * <p>
+ * Look-ups are collected into a batch until either the batch holds {@code maxBatchSize} products or {@code maxDelay}
+ * has passed since the first look-up of the batch, whichever comes first. The batch is then looked up in one go, and
+ * each caller's future is completed with the price of its own product. Concurrent look-ups of the same product within
+ * a batch share a single entry of it.
+ * </p>
+ * Products left out by the bulk source are reported as {@link Api400xError} (404); a failed bulk look-up fails every
+ * look-up of its batch.
+ */
+@Log4j2
+public class BatchingPriceApi implements PriceApi, AutoCloseable {
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(5);
+
+    private final BulkPriceSource bulkPriceSource;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService scheduler;   // Flushes a batch once its time window has passed
+    private final ExecutorService executor;  // Runs the bulk look-ups, off the callers' and the scheduler's threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, CompletableFuture<BigDecimal>> batch = new LinkedHashMap<>();  // Guarded by lock
+    private ScheduledFuture<?> flushTimer;  // Guarded by lock
+    private boolean closed;  // Guarded by lock
+
+    public BatchingPriceApi(final BulkPriceSource bulkPriceSource) {
+        this(bulkPriceSource, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * @param bulkPriceSource The source the batches are looked up against. Must not be null.
+     * @param maxBatchSize    The number of distinct products a batch is looked up at, at the latest.
+     * @param maxDelay        How long the first look-up of a batch waits for others to join it, at the most.
+     */
+    public BatchingPriceApi(final BulkPriceSource bulkPriceSource, final int maxBatchSize, final Duration maxDelay) {
+        this(bulkPriceSource, maxBatchSize, maxDelay,
+                Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("price-batch-timer").daemon().factory()),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("price-batch-", 0).factory()));
+    }
+
+    BatchingPriceApi(final BulkPriceSource bulkPriceSource, final int maxBatchSize, final Duration maxDelay,
+                     final ScheduledExecutorService scheduler, final ExecutorService executor) {
+        this.bulkPriceSource = bulkPriceSource;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Retrieves the price of a product as part of the next batch, blocking until the batch has been looked up.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return the price of the product as a {@code BigDecimal}
+     * @throws Api400xError if the product is not known to the bulk source.
+     */
+    @Override
+    public BigDecimal getPrice(final String productName) {
+        try {
+            return getPriceAsync(productName).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;    // A failed batch fails its look-ups with the Error of the bulk source
+            }
+            throw e;    // A checked cause stays wrapped
+        }
+    }
+
+    /**
+     * Adds the look-up of a product to the next batch. The batch is dispatched by the look-up that fills it, or by the
+     * timer started by the look-up that opened it.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a future of the price of the product as a {@code BigDecimal}
+     */
+    @Override
+    public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+        final CompletableFuture<BigDecimal> price;
+        Map<String, CompletableFuture<BigDecimal>> fullBatch = Map.of();
+        lock.lock();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Price batching has been closed"));
+            }
+            price = batch.computeIfAbsent(productName, name -> new CompletableFuture<>());
+            if (batch.size() >= maxBatchSize) {
+                fullBatch = takeBatch();
+            } else if (isNull(flushTimer)) {
+                flushTimer = scheduler.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        dispatch(fullBatch);
+        return price.copy();    // Callers sharing an entry cannot complete it for one another
+    }
+
+    /**
+     * Dispatches the look-ups collected so far, and fails any later look-up. Waits for the dispatched batches to
+     * complete.
+     */
+    @Override
+    public void close() {
+        final Map<String, CompletableFuture<BigDecimal>> lastBatch;
+        lock.lock();
+        try {
+            closed = true;
+            lastBatch = takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        scheduler.shutdownNow();
+        dispatch(lastBatch);
+        executor.close();
+    }
+
+    /**
+     * Dispatches the current batch once its time window has passed.
+     */
+    void flush() {
+        final Map<String, CompletableFuture<BigDecimal>> dueBatch;
+        lock.lock();
+        try {
+            dueBatch = takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(dueBatch);
+    }
+
+    /**
+     * Hands the current batch over to the caller and opens a new one. Must be called with the lock held.
+     */
+    private Map<String, CompletableFuture<BigDecimal>> takeBatch() {
+        if (!isNull(flushTimer)) {
+            flushTimer.cancel(false);
+            flushTimer = null;
+        }
+        final Map<String, CompletableFuture<BigDecimal>> taken = batch;
+        batch = new LinkedHashMap<>();
+        return taken;
+    }
+
+    private void dispatch(final Map<String, CompletableFuture<BigDecimal>> prices) {
+        if (prices.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> lookUp(prices));
+        } catch (RejectedExecutionException e) {
+            log.error("Price batch rejected: {}", e.getMessage(), e);
+            prices.values().forEach(price -> price.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Looks a batch up against the bulk source, and completes the look-up of each product of it.
+     */
+    private void lookUp(final Map<String, CompletableFuture<BigDecimal>> prices) {
+        log.debug("Looking up a batch of {} prices", prices.size());
+        try {
+            final Map<String, BigDecimal> found = bulkPriceSource.getPrices(Collections.unmodifiableSet(prices.keySet()));
+            prices.forEach((productName, price) -> {
+                final BigDecimal value = found.get(productName);
+                if (isNull(value)) {
+                    final var errorMsg = "Product %s was not Found. HTTP status: %d".formatted(productName, HttpURLConnection.HTTP_NOT_FOUND);
+                    price.completeExceptionally(new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, errorMsg));
+                } else {
+                    price.complete(value);
+                }
+            });
+        } catch (Throwable e) {    // Errors too: a batch left incomplete would hang every caller waiting on it
+            log.error("Bulk price look-up failed: {}", e.getMessage(), e);
+            prices.values().forEach(price -> price.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+}
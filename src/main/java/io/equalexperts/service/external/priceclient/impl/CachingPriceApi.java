@@ -0,0 +1,188 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.model.PriceCacheStats;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import lombok.extern.log4j.Log4j2;
+
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Caches the prices of a {@link PriceApi}, so that repeated look-ups of the same products do not each cost an
+ * upstream HTTP call.
+ * <ul>
+ *     <li>Entries expire after a fixed time-to-live, as prices may change upstream.</li>
+ *     <li>The cache is size-bounded, evicting by frequency and recency (W-TinyLFU), so one-off look-ups cannot flush
+ *     the popular products out.</li>
+ *     <li>Concurrent misses for the same product are single-flight: one caller loads, the others share its result.
+ *     This holds across the blocking and the async look-ups, as both share the same pending entry.</li>
+ *     <li>Unknown products (HTTP 404) are cached too, for a shorter time-to-live, and replayed as {@link Api400xError}.
+ *     Other failures are never cached.</li>
+ * </ul>
+ */
+@Log4j2
+public class CachingPriceApi implements PriceApi {
+    private static final Duration DEFAULT_PRICE_TTL = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_NOT_FOUND_TTL = Duration.ofSeconds(30);
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final PriceApi priceApi;
+    private final AsyncCache<String, CachedPrice> cache;
+    private final LongAdder notFoundResponses = new LongAdder();
+
+    public CachingPriceApi(final PriceApi priceApi) {
+        this(priceApi, DEFAULT_PRICE_TTL, DEFAULT_NOT_FOUND_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param priceApi    The Price API to cache the prices of. Must not be null.
+     * @param priceTtl    How long a price is served from the cache before it is fetched again.
+     * @param notFoundTtl How long an unknown product is remembered as such.
+     * @param maximumSize The maximum number of products held in the cache.
+     */
+    public CachingPriceApi(final PriceApi priceApi, final Duration priceTtl, final Duration notFoundTtl, final long maximumSize) {
+        this(priceApi, priceTtl, notFoundTtl, maximumSize, Ticker.systemTicker());
+    }
+
+    CachingPriceApi(final PriceApi priceApi, final Duration priceTtl, final Duration notFoundTtl, final long maximumSize, final Ticker ticker) {
+        this.priceApi = priceApi;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String productName, CachedPrice cachedPrice) ->
+                        cachedPrice.isNotFound() ? notFoundTtl : priceTtl))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Retrieves the price of a product from the cache, or from the Price API if it is not cached (yet).
+     * A miss is loaded through the blocking {@link PriceApi#getPrice(String)}, on the caller's thread.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return the price of the product as a {@code BigDecimal}
+     * @throws Api400xError if the product is not known to the Price API, incl. a cached 404.
+     */
+    @Override
+    public BigDecimal getPrice(final String productName) {
+        final CachedPrice cachedPrice;
+        try {
+            cachedPrice = lookUp(productName, name -> CompletableFuture.completedFuture(priceApi.getPrice(name))).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;    // Surface the Price API's own exception, as if it had been called directly
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return resolve(cachedPrice);
+    }
+
+    /**
+     * Retrieves the price of a product from the cache, or from the Price API if it is not cached (yet).
+     * A miss is loaded through the non-blocking {@link PriceApi#getPriceAsync(String)}.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a future of the price of the product as a {@code BigDecimal}
+     */
+    @Override
+    public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+        return lookUp(productName, priceApi::getPriceAsync).thenApply(this::resolve);
+    }
+
+    /**
+     * Drops a product from the cache, so that its price is fetched again on next access.
+     *
+     * @param productName the name of the product to be dropped
+     */
+    public void invalidate(final String productName) {
+        cache.synchronous().invalidate(productName);
+    }
+
+    /**
+     * Retrieves a snapshot of the cache counters, after any pending evictions have been carried out.
+     *
+     * @return The hit, miss, load, not-found and eviction counts, and the current number of cached products.
+     */
+    public PriceCacheStats stats() {
+        final var synchronous = cache.synchronous();
+        synchronous.cleanUp();
+        final var stats = synchronous.stats();
+        return new PriceCacheStats(stats.hitCount(), stats.missCount(), stats.loadCount(), notFoundResponses.sum(),
+                stats.evictionCount(), synchronous.estimatedSize());
+    }
+
+    /**
+     * Looks a product up in the cache. On a miss, a pending entry is published first, and only the caller that
+     * published it fetches the price - outside any lock of the cache - while concurrent callers share the entry.
+     * Failed and empty loads are dropped from the cache by Caffeine; the pending entry is completed however the fetch
+     * fails, even with an {@link Error}, so that no caller is left waiting on it.
+     */
+    private CompletableFuture<CachedPrice> lookUp(final String productName, final Function<String, CompletableFuture<BigDecimal>> upstream) {
+        final CompletableFuture<CachedPrice> pending = new CompletableFuture<>();
+        final CompletableFuture<CachedPrice> cached = cache.get(productName, (name, executor) -> pending);
+        if (cached == pending) {
+            fetch(productName, upstream)
+                    .handle((price, failure) -> toCachedPrice(productName, price, failure))
+                    .whenComplete((cachedPrice, failure) -> {
+                        if (failure != null) {
+                            pending.completeExceptionally(failure.getCause());
+                        } else {
+                            pending.complete(cachedPrice);
+                        }
+                    });
+        }
+        return cached;
+    }
+
+    private static CompletableFuture<BigDecimal> fetch(final String productName, final Function<String, CompletableFuture<BigDecimal>> upstream) {
+        try {
+            return upstream.apply(productName);
+        } catch (Throwable e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static CachedPrice toCachedPrice(final String productName, final BigDecimal price, final Throwable failure) {
+        if (failure == null) {
+            return isNull(price) ? null : new CachedPrice(price, null);    // Nothing to cache without a price
+        }
+        final Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof Api400xError notFound && notFound.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+            log.debug("Caching not-found product: {}", productName);
+            return new CachedPrice(null, notFound.getMessage());
+        }
+        throw new CompletionException(cause);
+    }
+
+    private BigDecimal resolve(final CachedPrice cachedPrice) {
+        if (isNull(cachedPrice)) {
+            return null;
+        }
+        if (cachedPrice.isNotFound()) {
+            notFoundResponses.increment();
+            throw new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, cachedPrice.notFoundMessage());
+        }
+        return cachedPrice.price();
+    }
+
+    private record CachedPrice(BigDecimal price, String notFoundMessage) {
+        boolean isNotFound() {
+            return isNull(price);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.model.PriceClientStats;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An {@link HttpClient} that counts the requests it sends: the requests (streams) in flight and at peak, the failures,
+ * and the protocol each response came back over. A response over HTTP/1.1 from a client that prefers HTTP/2 means the
+ * server did not upgrade, so every concurrent request needs a connection of its own.
+ * <p>
+ * The JDK does not expose its connection pool; connection counts are up to the server side.
+ * </p>
+ */
+public class InstrumentedHttpClient extends HttpClient {
+    private final HttpClient httpClient;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http1Responses = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public InstrumentedHttpClient(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(final HttpRequest request, final HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        onSend();
+        HttpResponse<T> response = null;
+        try {
+            response = httpClient.send(request, responseBodyHandler);
+            return response;
+        } finally {
+            onComplete(response);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+                                                            final HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+                                                            final HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            final HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        onSend();
+        try {
+            return httpClient.sendAsync(request, responseBodyHandler, pushPromiseHandler)
+                    .whenComplete((response, failure) -> onComplete(response));
+        } catch (RuntimeException e) {
+            onComplete(null);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves a snapshot of the request counters.
+     *
+     * @return The preferred protocol version, the requests sent, failed and in flight, and the responses per protocol.
+     */
+    public PriceClientStats stats() {
+        return new PriceClientStats(httpClient.version().name(), requests.sum(), failures.sum(), inFlight.get(),
+                peakInFlight.get(), http2Responses.sum(), http1Responses.sum());
+    }
+
+    private void onSend() {
+        requests.increment();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    private void onComplete(final HttpResponse<?> response) {
+        inFlight.decrementAndGet();
+        if (isNull(response)) {
+            failures.increment();
+        } else if (response.version() == Version.HTTP_2) {
+            http2Responses.increment();
+        } else {
+            http1Responses.increment();
+        }
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return httpClient.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return httpClient.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return httpClient.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return httpClient.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return httpClient.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return httpClient.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return httpClient.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return httpClient.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return httpClient.executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return httpClient.newWebSocketBuilder();
+    }
+
+    @Override
+    public void shutdown() {
+        httpClient.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        httpClient.shutdownNow();
+    }
+
+    @Override
+    public boolean awaitTermination(final Duration duration) throws InterruptedException {
+        return httpClient.awaitTermination(duration);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return httpClient.isTerminated();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+}
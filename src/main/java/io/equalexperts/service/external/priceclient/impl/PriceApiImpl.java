@@ -1,33 +1,58 @@
 package io.equalexperts.service.external.priceclient.impl;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
 import io.equalexperts.exception.Api400xError;
 import io.equalexperts.exception.HttpAPIException;
 import io.equalexperts.service.external.dto.PriceRespDTO;
 import io.equalexperts.service.external.priceclient.PriceApi;
 import lombok.extern.log4j.Log4j2;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Log4j2
 public class PriceApiImpl implements PriceApi {
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    /**
+     * Streams a 200 response body straight into the JSON reader; for the blocking look-up on the caller's thread.
+     */
+    private static final HttpResponse.BodyHandler<InputStream> STREAMED_BODY = responseInfo ->
+            responseInfo.statusCode() == HttpURLConnection.HTTP_OK ? BodySubscribers.ofInputStream() : discardedBody();
+    /**
+     * Buffers a 200 response body before it is read, as the async look-up must not block the client's threads on it.
+     */
+    private static final HttpResponse.BodyHandler<InputStream> BUFFERED_BODY = responseInfo ->
+            responseInfo.statusCode() == HttpURLConnection.HTTP_OK
+                    ? BodySubscribers.mapping(BodySubscribers.ofByteArray(), ByteArrayInputStream::new)
+                    : discardedBody();
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(5);
     private final String baseUrl;
     private final String priceApiUri;
     private final HttpClient httpClient;
+    private final Duration requestTimeout;
 
     public PriceApiImpl(final String priceApiUri, final String baseUrl, final HttpClient httpClient) {
+        this(priceApiUri, baseUrl, httpClient, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * @param requestTimeout How long to wait for the response of a request, before failing it with an
+     *                       {@code HttpAPIException}. Keeps a stalled Price API from holding on to callers indefinitely.
+     */
+    public PriceApiImpl(final String priceApiUri, final String baseUrl, final HttpClient httpClient, final Duration requestTimeout) {
         this.priceApiUri = priceApiUri;
         this.baseUrl = baseUrl;
         this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
     }
 
     /**
@@ -41,18 +66,40 @@ public class PriceApiImpl implements PriceApi {
         final String endpoint = buildEndpoint(productName);
         try {
             final HttpRequest request = buildRequest(endpoint);
-            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            final HttpResponse<InputStream> response = httpClient.send(request, STREAMED_BODY);
             return extractResponse(productName, response);
-        } catch (IOException e) {
-            log.error("Error occurred while making API call: {}", e.getMessage(), e);
-            throw new HttpAPIException("Error occurred while making API call: %s".formatted(e.getMessage()), e);
-        } catch (IllegalArgumentException | InterruptedException e) {
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt(); // Restore interrupt status
             }
-            log.error("Thread was interrupted during API call: {}", e.getMessage(), e);
-            throw new HttpAPIException("Thread was interrupted: %s".formatted(e.getMessage()), e);
+            throw toHttpAPIException(e);
+        }
+    }
+
+    /**
+     * Retrieves the price of a product given its name by interacting with the Price API, without blocking the caller:
+     * the request is sent with {@code HttpClient.sendAsync}, and the response is mapped on completion, exactly like
+     * the blocking {@link #getPrice(String)} does.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a future of the price of the product as a {@code BigDecimal}
+     */
+    @Override
+    public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+        final String endpoint = buildEndpoint(productName);
+        final HttpRequest request;
+        try {
+            request = buildRequest(endpoint);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(toHttpAPIException(e));
         }
+        return httpClient.sendAsync(request, BUFFERED_BODY)
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        throw toCompletionException(failure);
+                    }
+                    return extractResponse(productName, response);
+                });
     }
 
 
@@ -65,10 +112,38 @@ public class PriceApiImpl implements PriceApi {
         return HttpRequest.newBuilder()
                 .GET()
                 .uri(URI.create(endpoint))
+                .timeout(requestTimeout)
                 .build();
     }
 
-    private BigDecimal extractResponse(final String productName, final HttpResponse<String> response) {
+    /**
+     * Maps a transport failure of the async look-up the same way the blocking look-up maps it.
+     */
+    private static CompletionException toCompletionException(final Throwable failure) {
+        final Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof IOException || cause instanceof IllegalArgumentException) {
+            return new CompletionException(toHttpAPIException((Exception) cause));
+        }
+        return new CompletionException(cause);
+    }
+
+    private static HttpAPIException toHttpAPIException(final Exception e) {
+        if (e instanceof IOException) {
+            log.error("Error occurred while making API call: {}", e.getMessage(), e);
+            return new HttpAPIException("Error occurred while making API call: %s".formatted(e.getMessage()), e);
+        }
+        log.error("Thread was interrupted during API call: {}", e.getMessage(), e);
+        return new HttpAPIException("Thread was interrupted: %s".formatted(e.getMessage()), e);
+    }
+
+    /**
+     * The body of a non-200 response is never read, so it is drained and dropped as it arrives.
+     */
+    private static HttpResponse.BodySubscriber<InputStream> discardedBody() {
+        return BodySubscribers.replacing(InputStream.nullInputStream());
+    }
+
+    private BigDecimal extractResponse(final String productName, final HttpResponse<InputStream> response) {
         final int statusCode = response.statusCode();
 
         // Check response status and return the body
@@ -79,13 +154,14 @@ public class PriceApiImpl implements PriceApi {
                 return priceResp.price();
             }
             case HttpURLConnection.HTTP_NOT_FOUND -> {
+                // Unknown products are expected, and reported (rate-limited) by the cart service
+                log.debug("Product {} was not Found. HTTP status: {}", productName, response.statusCode());
                 final var errorMsg = "Product %s was not Found. HTTP status: %d".formatted(productName, response.statusCode());
-                log.warn(errorMsg);
                 throw new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, errorMsg);
             }
             case HttpURLConnection.HTTP_BAD_REQUEST -> {
+                log.error("Failed Product Request: {}. HTTP status: {}", productName, response.statusCode());
                 final var errorMsg = "Failed Product Request: %s. HTTP status: %d".formatted(productName, response.statusCode());
-                log.error(errorMsg);
                 throw new Api400xError(HttpURLConnection.HTTP_BAD_REQUEST, errorMsg);
             }
             default -> {
@@ -98,19 +174,17 @@ public class PriceApiImpl implements PriceApi {
 
     /**
      * Extracts and transforms the HTTP response into a PriceRespDTO object.
-     * Parses the body of the HTTP response as a JSON string and converts it into a PriceRespDTO.
-     * Logs the response body or the error in case of failure.
+     * Parses the body of the HTTP response with a streaming JSON reader, directly from its bytes, and closes it.
      *
      * @param response the HTTP response containing the data to be parsed and converted.
      * @return the PriceRespDTO object constructed from the HTTP response body.
      * @throws HttpAPIException if the HTTP response body cannot be processed due to its format or other errors.
      */
-    private PriceRespDTO getPriceRespDTO(HttpResponse<String> response) {
+    private PriceRespDTO getPriceRespDTO(final HttpResponse<InputStream> response) {
         try {
-            log.debug("Price response: \n{}", response.body());
-            return gson.fromJson(response.body(), PriceRespDTO.class);
-        } catch (JsonSyntaxException e) {
-            final var defaultMsg = "Failed to extract Response from Body. HTTP.Status: %d. HTTP.Body %s".formatted(response.statusCode(), e.getMessage());
+            return PriceRespDTO.fromJson(response.body());
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            final var defaultMsg = "Failed to extract Response from Body. HTTP.Status: %d. HTTP.Body %s".formatted(response.statusCode(), e);
             log.error("Malformed Response Body: Status: {}. Message: {}", response.statusCode(), defaultMsg);
             throw new HttpAPIException(defaultMsg, e);
         }
@@ -0,0 +1,91 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Builds the {@link HttpClient} for the {@link PriceApiImpl}. Build one client on start-up and share it: every client
+ * has a connection pool of its own, so a client per look-up (or per cart) opens a connection per look-up.
+ * <ul>
+ *     <li>HTTP/2: the client prefers HTTP/2 (ALPN over TLS, an {@code h2c} upgrade of the first request otherwise), so
+ *     concurrent look-ups are multiplexed as streams over one connection instead of a connection each.</li>
+ *     <li>Connect timeout: an unreachable Price API fails the look-up instead of hanging it until the OS gives up.</li>
+ *     <li>Executor: the JDK's own (a cached pool) unless one is given. A blocking look-up is handed its response by
+ *     the executor either way, and a virtual-thread executor measured slower under load
+ *     ({@code PriceClientLoadBenchmark}), so pass one only where responses are processed on it.</li>
+ *     <li>Keep-alive: see {@link #configureKeepAlive(Duration)}.</li>
+ * </ul>
+ * The clients count their requests; see {@link InstrumentedHttpClient#stats()}.
+ */
+@Log4j2
+public class PriceClientFactory {
+    static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    static final String H2_KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout.h2";
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+
+    private final HttpClient.Version version;
+    private final Duration connectTimeout;
+    private final Executor executor;
+
+    public PriceClientFactory() {
+        this(HttpClient.Version.HTTP_2, DEFAULT_CONNECT_TIMEOUT, null);
+    }
+
+    /**
+     * @param version        The preferred protocol version. Must not be null.
+     * @param connectTimeout How long opening a connection may take. Must not be null.
+     * @param executor       Handles the responses, or null for the JDK's default executor.
+     */
+    public PriceClientFactory(final HttpClient.Version version, final Duration connectTimeout, final Executor executor) {
+        this.version = version;
+        this.connectTimeout = connectTimeout;
+        this.executor = executor;
+    }
+
+    /**
+     * Builds a new client, with a connection pool of its own.
+     *
+     * @return The client, counting its requests.
+     */
+    public InstrumentedHttpClient create() {
+        log.debug("Building price client: {}, connect timeout {}", version, connectTimeout);
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (!isNull(executor)) {
+            builder.executor(executor);
+        }
+        return new InstrumentedHttpClient(builder.build());
+    }
+
+    /**
+     * Sets how long idle connections are kept open for re-use, over HTTP/1.1 and HTTP/2 alike. The JDK defaults to 30
+     * seconds: set it just below the idle timeout of the Price API (or its load balancer), so that connections outlive
+     * quiet spells without being closed by the server while the client still holds them for re-use.
+     * <p>
+     * These are settings of the JVM, not of a client, and the JDK reads them once, when it builds its first client:
+     * call this on start-up, before any client is built. Settings given on the command line ({@code -D}) are kept.
+     * </p>
+     *
+     * @param idleTimeout How long an idle connection is kept open. Whole seconds, at least 1.
+     */
+    public static void configureKeepAlive(final Duration idleTimeout) {
+        final String seconds = String.valueOf(Math.max(1, idleTimeout.toSeconds()));
+        setIfAbsent(KEEP_ALIVE_PROPERTY, seconds);
+        setIfAbsent(H2_KEEP_ALIVE_PROPERTY, seconds);
+    }
+
+    private static void setIfAbsent(final String property, final String value) {
+        if (isNull(System.getProperty(property))) {
+            System.setProperty(property, value);
+        } else {
+            log.info("Keeping {}={} from the command line", property, System.getProperty(property));
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.model.PriceApiResilienceStats;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.log4j.Log4j2;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Protects callers from a slow or failing Price API.
+ * <ul>
+ *     <li>Timeout: a look-up that takes longer than {@code timeout} fails with an {@link HttpAPIException}.</li>
+ *     <li>Bulkhead: at most a fixed number of requests are in flight; further look-ups fail fast instead of queueing
+ *     up behind a slow Price API.</li>
+ *     <li>Circuit breaker: once too many look-ups fail or are slow, look-ups fail fast for a while, giving the Price API
+ *     room to recover. Unknown products ({@link Api400xError}) are answers, not failures, and do not count.</li>
+ *     <li>Hedging: a look-up still pending after {@code hedgeDelay} is sent a second time, and the first price (or
+ *     unknown product) wins, cutting the tail latency of a single slow response. The look-up only fails once every
+ *     request sent for it has failed. A hedged request takes a bulkhead slot too, and is not sent without one.</li>
+ *     <li>Last-known prices: optionally, a look-up that fails fast is served the last price seen for the product.</li>
+ * </ul>
+ * Each request holds its bulkhead slot until it settles - past the timeout of its look-up, up to the request timeout of
+ * the {@link PriceApiImpl} - so the slots bound the requests in flight against the Price API. Requests are sent from a
+ * dedicated executor (a virtual thread per request by default), so that a blocking Price API is timed out and hedged
+ * like a non-blocking one, and never holds up the caller.
+ */
+@Log4j2
+public class ResilientPriceApi implements PriceApi {
+    private static final String NAME = "price-api";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration DEFAULT_HEDGE_DELAY = Duration.ofMillis(300);
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 64;
+    private static final long MAX_LAST_KNOWN_PRICES = 10_000;
+
+    private final PriceApi priceApi;
+    private final Duration timeout;
+    private final Duration hedgeDelay;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Executor executor;
+    private final Cache<String, BigDecimal> lastKnownPrices;
+    private final LongAdder circuitBreakerRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final LongAdder lastKnownPricesServed = new LongAdder();
+
+    public ResilientPriceApi(final PriceApi priceApi) {
+        this(priceApi, DEFAULT_TIMEOUT, DEFAULT_HEDGE_DELAY,
+                Bulkhead.of(NAME, BulkheadConfig.custom()
+                        .maxConcurrentCalls(DEFAULT_MAX_CONCURRENT_CALLS)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                        .slidingWindowSize(20)
+                        .minimumNumberOfCalls(10)
+                        .failureRateThreshold(50)
+                        .slowCallDurationThreshold(DEFAULT_TIMEOUT.dividedBy(2))
+                        .slowCallRateThreshold(80)
+                        .waitDurationInOpenState(Duration.ofSeconds(30))
+                        .permittedNumberOfCallsInHalfOpenState(3)
+                        .ignoreExceptions(Api400xError.class)
+                        .build()),
+                true);
+    }
+
+    /**
+     * @param priceApi             The Price API to protect. Must not be null.
+     * @param timeout              How long a look-up may take, incl. its hedged request.
+     * @param hedgeDelay           How long a look-up waits for a response before it is sent a second time, or null to
+     *                             never hedge.
+     * @param bulkhead             Limits the look-ups in flight. Look-ups are never queued for a permission.
+     * @param circuitBreaker       Decides when to fail fast. Should ignore {@link Api400xError}.
+     * @param serveLastKnownPrices Whether look-ups that fail fast are served the last price seen for the product.
+     */
+    public ResilientPriceApi(final PriceApi priceApi, final Duration timeout, final Duration hedgeDelay,
+                             final Bulkhead bulkhead, final CircuitBreaker circuitBreaker, final boolean serveLastKnownPrices) {
+        // A virtual thread per request: no pooled threads to shut down
+        this(priceApi, timeout, hedgeDelay, bulkhead, circuitBreaker, serveLastKnownPrices,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("price-api-", 0).factory()));
+    }
+
+    /**
+     * @param executor Sends the requests to the Price API, and the hedged requests once their delay has passed.
+     */
+    public ResilientPriceApi(final PriceApi priceApi, final Duration timeout, final Duration hedgeDelay,
+                             final Bulkhead bulkhead, final CircuitBreaker circuitBreaker, final boolean serveLastKnownPrices,
+                             final Executor executor) {
+        this.priceApi = priceApi;
+        this.timeout = timeout;
+        this.hedgeDelay = hedgeDelay;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.lastKnownPrices = serveLastKnownPrices ? Caffeine.newBuilder().maximumSize(MAX_LAST_KNOWN_PRICES).build() : null;
+        // Logged once per transition, instead of once per look-up failed fast while the circuit is open
+        circuitBreaker.getEventPublisher().onStateTransition(event -> log.warn("Price API circuit breaker: {}", event.getStateTransition()));
+    }
+
+    /**
+     * Retrieves the price of a product from the Price API, within the timeout, bulkhead and circuit breaker.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return the price of the product as a {@code BigDecimal}
+     * @throws HttpAPIException if the look-up timed out, or failed fast without a last-known price to serve.
+     */
+    @Override
+    public BigDecimal getPrice(final String productName) {
+        try {
+            return getPriceAsync(productName).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;    // Surface the Price API's own exception, as if it had been called directly
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the price of a product from the Price API, within the timeout, bulkhead and circuit breaker.
+     *
+     * @param productName the name of the product whose price is to be fetched
+     * @return a future of the price of the product as a {@code BigDecimal}
+     */
+    @Override
+    public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitBreakerRejections.increment();
+            return failFast(productName, CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            bulkheadRejections.increment();
+            return failFast(productName, BulkheadFullException.createBulkheadFullException(bulkhead));
+        }
+        final long start = circuitBreaker.getCurrentTimestamp();
+        return hedge(productName)
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .handle((price, failure) -> {
+                    final long duration = circuitBreaker.getCurrentTimestamp() - start;
+                    if (isNull(failure)) {
+                        circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                        rememberPrice(productName, price);
+                        return price;
+                    }
+                    final Throwable cause = toLookUpFailure(productName, failure);
+                    circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), cause);
+                    throw new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Retrieves a snapshot of the resilience counters.
+     *
+     * @return The circuit breaker state and rates, the free bulkhead slots, and the counts of each intervention.
+     */
+    public PriceApiResilienceStats stats() {
+        final var circuitBreakerMetrics = circuitBreaker.getMetrics();
+        return new PriceApiResilienceStats(circuitBreaker.getState().name(), circuitBreakerMetrics.getFailureRate(),
+                circuitBreakerMetrics.getSlowCallRate(), circuitBreakerRejections.sum(),
+                bulkhead.getMetrics().getAvailableConcurrentCalls(), bulkheadRejections.sum(), timeouts.sum(),
+                hedgedRequests.sum(), lastKnownPricesServed.sum());
+    }
+
+    /**
+     * Sends the look-up, and sends it a second time if it is still pending after the hedge delay and a bulkhead slot is
+     * free. The first price (or unknown product) completes the look-up; a failure only does once no other request for
+     * it is pending, so a fast failure cannot beat a slower price.
+     */
+    private CompletableFuture<BigDecimal> hedge(final String productName) {
+        final CompletableFuture<BigDecimal> response = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);    // Requests in flight; 0 once the look-up is over
+        response.whenComplete((price, failure) -> pending.set(0));  // Incl. by a timeout: no request is sent after it
+        fetch(productName).whenComplete((price, failure) -> complete(response, pending, price, failure));
+        if (!isNull(hedgeDelay)) {
+            CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS, executor).execute(() -> {
+                if (!bulkhead.tryAcquirePermission()) {
+                    log.debug("Not hedging price look-up of {}: the bulkhead is full", productName);
+                    return;
+                }
+                if (pending.getAndUpdate(inFlight -> inFlight == 0 ? 0 : inFlight + 1) > 0) {
+                    log.debug("Hedging price look-up: {}", productName);
+                    hedgedRequests.increment();
+                    fetch(productName).whenComplete((price, failure) -> complete(response, pending, price, failure));
+                } else {
+                    bulkhead.onComplete();
+                }
+            });
+        }
+        return response;
+    }
+
+    /**
+     * Sends a request on the executor, holding a bulkhead slot taken by the caller until the request settles.
+     */
+    private CompletableFuture<BigDecimal> fetch(final String productName) {
+        final CompletableFuture<BigDecimal> request;
+        try {
+            request = CompletableFuture.supplyAsync(() -> priceApi.getPriceAsync(productName), executor)
+                    .thenCompose(Function.identity());
+        } catch (RejectedExecutionException e) {
+            bulkhead.onComplete();
+            return CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((price, failure) -> bulkhead.onComplete());
+        return request;
+    }
+
+    private static void complete(final CompletableFuture<BigDecimal> response, final AtomicInteger pending,
+                                 final BigDecimal price, final Throwable failure) {
+        if (isNull(failure)) {
+            response.complete(price);
+        } else if (unwrap(failure) instanceof Api400xError || pending.decrementAndGet() == 0) {
+            response.completeExceptionally(failure);    // An unknown product is an answer, not a failure to wait out
+        }
+    }
+
+    private static Throwable unwrap(final Throwable failure) {
+        return failure instanceof CompletionException ? failure.getCause() : failure;
+    }
+
+    private Throwable toLookUpFailure(final String productName, final Throwable failure) {
+        final Throwable cause = unwrap(failure);
+        if (cause instanceof TimeoutException) {
+            timeouts.increment();
+            final var errorMsg = "Price look-up of %s timed out after %d ms".formatted(productName, timeout.toMillis());
+            log.error(errorMsg);
+            return new HttpAPIException(errorMsg, cause);
+        }
+        return cause;
+    }
+
+    private void rememberPrice(final String productName, final BigDecimal price) {
+        if (!isNull(lastKnownPrices) && !isNull(price)) {
+            lastKnownPrices.put(productName, price);
+        }
+    }
+
+    /**
+     * Serves the last price seen for a product whose look-up was not let through, or fails the look-up.
+     */
+    private CompletableFuture<BigDecimal> failFast(final String productName, final RuntimeException rejection) {
+        final BigDecimal lastKnownPrice = isNull(lastKnownPrices) ? null : lastKnownPrices.getIfPresent(productName);
+        if (isNull(lastKnownPrice)) {
+            log.debug("Price API unavailable: {}", rejection.getMessage());    // Counted in the stats
+            return CompletableFuture.failedFuture(new HttpAPIException("Price API unavailable: %s".formatted(rejection.getMessage()), rejection));
+        }
+        log.debug("Serving last-known price of {}: {}", productName, rejection.getMessage());
+        lastKnownPricesServed.increment();
+        return CompletableFuture.completedFuture(lastKnownPrice);
+    }
+}
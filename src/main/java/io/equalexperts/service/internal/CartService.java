@@ -2,25 +2,122 @@ package io.equalexperts.service.internal;
 
 import io.equalexperts.model.ProductIn;
 import io.equalexperts.model.ProductRm;
+import io.equalexperts.view.CartBatchSummaryView;
 import io.equalexperts.view.CartSummaryView;
+import io.equalexperts.view.CartViewDetail;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface CartService {
 
     /**
-     * Validates the given product information and adds it to the cart.
+     * Validates the given product information and adds it to the cart bound to the given cart id.
      * If the validation is successful, the product is added to the cart and the updated cart summary is returned.
      * If validation fails, the cart summary will include the details of any encountered errors.
      *
+     * @param cartId    the identifier of the shopper's cart (e.g. the session id); the cart is created on first use
      * @param productIn the product information, including name and quantity, to be validated and added to the cart
      * @return a {@code CartSummaryView} representing the current state of the cart, including totals, errors, quantities, and items
      */
-    CartSummaryView validateAndAddToCart(ProductIn productIn);
+    CartSummaryView validateAndAddToCart(String cartId, ProductIn productIn);
+
+    /**
+     * Variant of {@link #validateAndAddToCart(String, ProductIn)} that responds with the given level of detail, e.g.
+     * only the totals for a client that does not show the items of a large cart.
+     *
+     * @param cartId    the identifier of the shopper's cart (e.g. the session id); the cart is created on first use
+     * @param productIn the product information, including name and quantity, to be validated and added to the cart
+     * @param detail    the level of detail of the returned cart summary
+     * @return a {@code CartSummaryView} representing the current state of the cart, at the given level of detail
+     */
+    CartSummaryView validateAndAddToCart(String cartId, ProductIn productIn, CartViewDetail detail);
+
+    /**
+     * Conditional variant of {@link #validateAndAddToCart(String, ProductIn)}: the product is only added if the cart
+     * is still at the expected version, i.e. no other device or session has changed it since the shopper last saw it.
+     * A cart at another version is reported as a conflict (409) in the cart summary, before the price is looked up.
+     *
+     * @param cartId          the identifier of the shopper's cart (e.g. the session id); the cart is created on first use
+     * @param productIn       the product information, including name and quantity, to be validated and added to the cart
+     * @param expectedVersion the version of the cart the shopper last saw ({@link CartSummaryView#version()})
+     * @return a {@code CartSummaryView} representing the current state of the cart, or the encountered errors
+     */
+    CartSummaryView validateAndAddToCartIfVersion(String cartId, ProductIn productIn, long expectedVersion);
+
+    /**
+     * Non-blocking variant of {@link #validateAndAddToCart(String, ProductIn)}: the price look-up does not hold on to
+     * the caller's thread, and the product is added to the cart once the price arrives.
+     * The returned future never fails; errors are reported in the cart summary, exactly like the blocking variant.
+     *
+     * @param cartId    the identifier of the shopper's cart (e.g. the session id); the cart is created on first use
+     * @param productIn the product information, including name and quantity, to be validated and added to the cart
+     * @return a future of the {@code CartSummaryView} representing the state of the cart, or the encountered errors
+     */
+    CompletableFuture<CartSummaryView> validateAndAddToCartAsync(String cartId, ProductIn productIn);
+
+    /**
+     * Validates a batch of products and adds the valid ones to the cart bound to the given cart id in one step, e.g.
+     * for a checkout import or re-ordering a previous basket. The prices are looked up concurrently, and the totals
+     * and the cart summary are computed once for the whole batch.
+     * Lines that fail validation or the price look-up are skipped and reported per line; they do not fail the batch.
+     *
+     * @param cartId   the identifier of the shopper's cart (e.g. the session id); the cart is created on first use
+     * @param products the products, including name and quantity, to be validated and added to the cart
+     * @return a {@code CartBatchSummaryView} with the summary of the cart after the batch and the errors per line
+     */
+    CartBatchSummaryView addAllToCart(String cartId, List<ProductIn> products);
 
     /**
-     * Remove a product from the cart and return the updated cart totals
+     * Remove a product from the cart bound to the given cart id and return the updated cart totals
      *
+     * @param cartId    the identifier of the shopper's cart
      * @param productRm the product to remove
      * @return the updated cart totals
      */
-    CartSummaryView removeFromCartAndGetTotals(final ProductRm productRm);
+    CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm);
+
+    /**
+     * Remove a product from the cart bound to the given cart id and return the updated cart summary, at the given
+     * level of detail
+     *
+     * @param cartId    the identifier of the shopper's cart
+     * @param productRm the product to remove
+     * @param detail    the level of detail of the returned cart summary
+     * @return the updated cart summary
+     */
+    CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm, final CartViewDetail detail);
+
+    /**
+     * Remove a product from the cart bound to the given cart id, provided the cart is still at the expected version,
+     * and return the updated cart totals
+     *
+     * @param cartId          the identifier of the shopper's cart
+     * @param productRm       the product to remove
+     * @param expectedVersion the version of the cart the shopper last saw ({@link CartSummaryView#version()})
+     * @return the updated cart totals, or a conflict (409) in the cart summary if the cart is at another version (the
+     * cart is then left unchanged) or has been closed
+     */
+    CartSummaryView removeFromCartAndGetTotalsIfVersion(final String cartId, final ProductRm productRm, final long expectedVersion);
+
+    /**
+     * Recompute the totals of the cart bound to the given cart id from scratch, checking them against the
+     * incrementally maintained running totals, and return the reconciled cart summary
+     *
+     * @param cartId the identifier of the shopper's cart
+     * @return the cart summary with totals recomputed from every line of the cart
+     */
+    CartSummaryView reconcileAndGetTotals(final String cartId);
+
+    /**
+     * Return the cart summary of the cart bound to the given cart id, unless the cart is still at the version the
+     * caller already holds: an unchanged cart is answered without computing totals or building a view (like an HTTP
+     * {@code 304 Not Modified} for the version as entity tag)
+     *
+     * @param cartId       the identifier of the shopper's cart
+     * @param knownVersion the version of the cart the caller already holds ({@link CartSummaryView#version()})
+     * @return the cart summary if the cart has changed, or empty if it is still at the known version
+     */
+    Optional<CartSummaryView> getCartIfModified(final String cartId, final long knownVersion);
 }
@@ -0,0 +1,20 @@
+package io.equalexperts.service.internal;
+
+import io.equalexperts.model.WarmUpReport;
+
+public interface WarmUpService {
+
+    /**
+     * Loads the prices of the product catalogue into the price cache, and runs the add/remove/totals paths of the
+     * cart until they are compiled, so that the first shoppers after a deploy neither miss the cache nor run on the
+     * interpreter. Marks the instance ready once done, also if some prices could not be loaded.
+     *
+     * @return The products loaded and failed, and the timings of the warm-up.
+     */
+    WarmUpReport warmUp();
+
+    /**
+     * @return {@code true} once the warm-up has completed, e.g. for the readiness probe of the instance.
+     */
+    boolean isReady();
+}
@@ -2,85 +2,406 @@ package io.equalexperts.service.internal.cartengine;
 
 import io.equalexperts.component.calculator.CartCalculator;
 import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.metrics.CartMetrics;
 import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.CartClosedException;
 import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.exception.PriceServiceException;
 import io.equalexperts.model.CartError;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.CartStage;
 import io.equalexperts.model.ConsolidatedCart;
+import io.equalexperts.model.ItemMetadata;
 import io.equalexperts.model.ProductIn;
 import io.equalexperts.model.ProductRm;
 import io.equalexperts.service.external.priceclient.PriceApi;
 import io.equalexperts.service.internal.CartService;
+import io.equalexperts.util.LogRateLimiter;
 import io.equalexperts.validators.ValidatorProvider;
 import io.equalexperts.validators.wrapper.PriceWrapper;
+import io.equalexperts.view.CartBatchSummaryView;
+import io.equalexperts.view.CartLineErrorView;
 import io.equalexperts.view.CartSummaryView;
+import io.equalexperts.view.CartViewDetail;
 import lombok.extern.log4j.Log4j2;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
 
+import static io.equalexperts.constant.ErrorConstants.CONFLICT_ERROR;
 import static io.equalexperts.constant.ErrorConstants.INTERNAL_ERROR;
 import static io.equalexperts.constant.ErrorConstants.NOT_FOUND_ERROR;
+import static io.equalexperts.constant.LogMarkers.CLIENT_ERROR;
+import static java.util.Objects.isNull;
 
 @Log4j2
 public class CartServiceImpl implements CartService {
     private final PriceApi priceApi;    // For Price validation
-    private final Cart cart;
+    private final CartRegistry cartRegistry;  // One cart per shopper/session
     private final CartCalculator cartCalculator;
+    private final int maxConcurrentPriceLookups;    // Per batch, to stay within the rate-limit of the Price API
+    private final CartMetrics metrics;    // Stage latencies and outcomes of adding a product to a cart
+    private final LogRateLimiter clientErrorLogs;    // Errors caused by clients, logged at a bounded rate
 
     // Rule of Thumb: Max 3 dependencies in class.
-    public CartServiceImpl(final PriceApi priceApi, final Cart cart, CartCalculator cartCalculator) {
+    public CartServiceImpl(final PriceApi priceApi, final CartRegistry cartRegistry, CartCalculator cartCalculator) {
+        this(priceApi, cartRegistry, cartCalculator, CartServiceOptions.defaults());
+    }
+
+    /**
+     * @param options The limit on concurrent price look-ups, the metrics (of {@code validateAndAddToCart}, incl. its
+     *                asynchronous and conditional variants) and the client-error log limiter.
+     */
+    public CartServiceImpl(final PriceApi priceApi, final CartRegistry cartRegistry, CartCalculator cartCalculator,
+                           final CartServiceOptions options) {
         this.priceApi = priceApi;
-        this.cart = cart;
+        this.cartRegistry = cartRegistry;
         this.cartCalculator = cartCalculator;
+        this.maxConcurrentPriceLookups = options.maxConcurrentPriceLookups();
+        this.metrics = options.metrics();
+        this.clientErrorLogs = options.clientErrorLogs();
+    }
+
+    @Override
+    public CartSummaryView validateAndAddToCart(final String cartId, final ProductIn productIn) {
+        return validateAndAddToCart(cartId, productIn, CartViewDetail.FULL);
+    }
+
+    @Override
+    public CartSummaryView validateAndAddToCart(final String cartId, final ProductIn productIn, final CartViewDetail detail) {
+        try {
+            final long start = metrics.startNanos();
+            ValidatorProvider.validateData(productIn);    // Validate Client Input Data
+            final var cart = cartRegistry.getOrCreate(cartId);    // Resolve the shopper's cart (validates the cart-id)
+            final long priceStart = metrics.recordStage(CartStage.VALIDATION, start);
+            final var price = priceApi.getPrice(productIn.name());    // Get price from Price API
+            return validateAndAddToCart(cart::addProduct, productIn, price, detail, priceStart);
+        } catch (final Exception e) {
+            return buildFailedAddView(productIn, e);
+        }
     }
 
     @Override
-    public CartSummaryView validateAndAddToCart(final ProductIn productIn) {
+    public CartSummaryView validateAndAddToCartIfVersion(final String cartId, final ProductIn productIn, final long expectedVersion) {
         try {
+            final long start = metrics.startNanos();
             ValidatorProvider.validateData(productIn);    // Validate Client Input Data
+            final var cart = cartRegistry.getOrCreate(cartId);    // Resolve the shopper's cart (validates the cart-id)
+            checkVersion(cart.snapshot(), expectedVersion);    // Fail fast, before the price look-up
+            final long priceStart = metrics.recordStage(CartStage.VALIDATION, start);
             final var price = priceApi.getPrice(productIn.name());    // Get price from Price API
-            ValidatorProvider.validateData(new PriceWrapper(price));  // Validate Price Data - Protect CartService from potential API Failures/Bugs.
-            final var resp = addToCartAndGetTotals(productIn, price);    // Add product to cart and calculate totals
-            return CartSummaryView.from(resp);    // Return the consolidated view of the shopping cart and its totals
-        } catch (final CartException e) {
-            log.error("CartService Error: {}", e.getMessage(), e);
-            final CartError cartError = ValidatorProvider.buildErrors(e);
-            final var errResp = new ConsolidatedCart(cartError, null, null);
-            return CartSummaryView.from(errResp);
-        } catch (Api400xError notFound) {
-            log.error("CartService Error: {}", notFound.getMessage(), notFound);
-            final CartError cartError = new CartError(notFound.getStatus(), NOT_FOUND_ERROR, null, "Product %s not found".formatted(productIn.name()));
-            final var errResp = new ConsolidatedCart(cartError, null, null);
-            return CartSummaryView.from(errResp);
+            // Checked again, against the snapshot the add applies to
+            return validateAndAddToCart((product, productPrice) -> cart.addProductIfVersion(product, productPrice, expectedVersion),
+                    productIn, price, CartViewDetail.FULL, priceStart);
+        } catch (final Exception e) {
+            return buildFailedAddView(productIn, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<CartSummaryView> validateAndAddToCartAsync(final String cartId, final ProductIn productIn) {
+        final Cart cart;
+        final long priceStart;
+        try {
+            final long start = metrics.startNanos();
+            ValidatorProvider.validateData(productIn);    // Validate Client Input Data
+            cart = cartRegistry.getOrCreate(cartId);    // Resolve the shopper's cart (validates the cart-id)
+            priceStart = metrics.recordStage(CartStage.VALIDATION, start);
+        } catch (final Exception e) {
+            return CompletableFuture.completedFuture(buildFailedAddView(productIn, e));
+        }
+        return lookUpPrice(productIn.name())    // Get price from Price API, without blocking
+                .thenApply(price -> validateAndAddToCart(cart::addProduct, productIn, price, CartViewDetail.FULL, priceStart))
+                .exceptionally(failure -> buildFailedAddView(productIn, failure.getCause()));   // Dependent stages fail with a CompletionException
+    }
+
+    /**
+     * Validates the price of a product and adds the product to the cart, timing each stage.
+     *
+     * @param add        Adds a product at a price to the shopper's cart, returning the snapshot the add published.
+     * @param productIn  The (validated) product to be added to the cart, including its name and quantity.
+     * @param price      The price of the product, as returned by the Price API.
+     * @param detail     The level of detail of the returned view.
+     * @param priceStart The time the price look-up started at.
+     * @return The consolidated view of the shopping cart and its totals.
+     */
+    private CartSummaryView validateAndAddToCart(final BiFunction<ProductIn, BigDecimal, CartSnapshot> add, final ProductIn productIn,
+                                                 final BigDecimal price, final CartViewDetail detail, final long priceStart) {
+        final long mutationStart = metrics.recordStage(CartStage.PRICE_FETCH, priceStart);
+        ValidatorProvider.validateData(new PriceWrapper(price));  // Validate Price Data - Protect CartService from potential API Failures/Bugs.
+        final var added = add.apply(productIn, price);    // Add product to cart
+        final long totalsStart = metrics.recordStage(CartStage.CART_MUTATION, mutationStart);
+        final var resp = getTotals(added);    // Calculate the totals, from the snapshot the add published
+        final long viewStart = metrics.recordStage(CartStage.TOTALS, totalsStart);
+        final var view = CartSummaryView.from(resp, detail);    // Return the consolidated view of the shopping cart and its totals
+        metrics.recordStage(CartStage.VIEW, viewStart);
+        metrics.recordSuccess();
+        return view;
+    }
+
+    /**
+     * Validates a line of a batch the way a single add-to-cart would, incl. the positive quantity the cart requires.
+     */
+    private static void validateLine(final ProductIn productIn) {
+        if (isNull(productIn)) {
+            throw new InvalidCartParamsException("Product must not be null");
+        }
+        ValidatorProvider.validateData(productIn);
+        if (productIn.quantity() == 0) {
+            throw new InvalidCartParamsException("Quantity must not be null and must be positive integer");
+        }
+    }
+
+    /**
+     * Starts the price look-ups of a batch concurrently, with at most {@code maxConcurrentPriceLookups} in flight
+     * at any time: a new look-up is only started once an earlier one has completed.
+     *
+     * @param productNames The distinct names of the products to look up.
+     * @return The pending price per product name.
+     */
+    private Map<String, CompletableFuture<BigDecimal>> lookUpPrices(final Set<String> productNames) {
+        final Semaphore inFlight = new Semaphore(maxConcurrentPriceLookups);
+        final Map<String, CompletableFuture<BigDecimal>> prices = new HashMap<>();
+        for (final String productName : productNames) {
+            inFlight.acquireUninterruptibly();
+            prices.put(productName, lookUpPrice(productName).whenComplete((value, failure) -> inFlight.release()));
+        }
+        return prices;
+    }
+
+    /**
+     * Starts the price look-up of a product, turning a Price API that throws instead of returning a failed future
+     * into a failed future, so callers only ever have to handle the latter.
+     *
+     * @param productName The name of the product to look up.
+     * @return The pending price of the product.
+     */
+    private CompletableFuture<BigDecimal> lookUpPrice(final String productName) {
+        try {
+            return priceApi.getPriceAsync(productName);
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Maps a failure of {@code validateAndAddToCart} to the cart summary reporting it, and counts it by its error type.
+     *
+     * @param productIn The product that was to be added to the cart.
+     * @param failure   The failure of the add-to-cart flow.
+     * @return The cart summary with the error details.
+     */
+    private CartSummaryView buildFailedAddView(final ProductIn productIn, final Throwable failure) {
+        final var error = buildError(productIn, failure);
+        metrics.recordError(error.errorType());
+        return CartSummaryView.from(new ConsolidatedCart(error, null, null));
+    }
+
+    /**
+     * Maps a failure of the add-to-cart flow to the cart summary reporting it.
+     *
+     * @param productIn The product that was to be added to the cart.
+     * @param failure   The failure of the add-to-cart flow.
+     * @return The cart summary with the error details.
+     */
+    private CartSummaryView buildErrorView(final ProductIn productIn, final Throwable failure) {
+        final var errResp = new ConsolidatedCart(buildError(productIn, failure), null, null);
+        return CartSummaryView.from(errResp);
+    }
+
+    /**
+     * Maps a failure of the add-to-cart flow to its error details: validation errors (400), unknown products (404),
+     * version conflicts and carts closed in the meantime (409), and anything else as an internal error (500). Only internal errors are logged with their
+     * stack trace; errors caused by the client are expected, and rate-limited.
+     *
+     * @param productIn The product that was to be added to the cart.
+     * @param failure   The failure of the add-to-cart flow.
+     * @return The error details.
+     */
+    private CartError buildError(final ProductIn productIn, final Throwable failure) {
+        if (failure instanceof CartVersionConflictException conflict) {
+            logClientError(conflict);
+            return new CartError(CartVersionConflictException.getStatusCode(), CONFLICT_ERROR, null, conflict.getMessage());
+        }
+        if (failure instanceof CartClosedException closed) {
+            logClientError(closed);
+            return new CartError(CartClosedException.getStatusCode(), CONFLICT_ERROR, null, closed.getMessage());
+        }
+        if (failure instanceof PriceServiceException e) {
+            log.error("CartService Error: {}", e.getMessage());
+            return ValidatorProvider.buildErrors(e);
+        }
+        if (failure instanceof CartException e) {
+            logClientError(e);
+            return ValidatorProvider.buildErrors(e);
+        }
+        if (failure instanceof Api400xError notFound) {
+            logClientError(notFound);
+            return new CartError(notFound.getStatus(), NOT_FOUND_ERROR, null, "Product %s not found".formatted(productIn.name()));
+        }
+        log.error("Exception: {}", failure.getMessage(), failure);
+        return new CartError(500L, INTERNAL_ERROR, null, "Internal Server Error");
+    }
+
+    /**
+     * Logs an error caused by the client, without its stack trace, unless the rate of such errors exceeds the limit. The
+     * next error logged reports how many were not.
+     *
+     * @param failure The error caused by the client.
+     */
+    private void logClientError(final RuntimeException failure) {
+        if (clientErrorLogs.tryAcquire()) {
+            log.warn(CLIENT_ERROR, "CartService Error: {} ({} similar errors not logged)", failure.getMessage(),
+                    clientErrorLogs.takeSuppressed());
+        }
+    }
+
+    @Override
+    public CartBatchSummaryView addAllToCart(final String cartId, final List<ProductIn> products) {
+        final Cart cart;
+        try {
+            if (isNull(products)) {
+                throw new InvalidCartParamsException("Products must not be null");
+            }
+            cart = cartRegistry.getOrCreate(cartId);    // Resolve the shopper's cart (validates the cart-id)
         } catch (final Exception e) {
-            log.error("Exception: {}", e.getMessage(), e);
-            final CartError cartError = new CartError(500L, INTERNAL_ERROR, null, "Internal Server Error");
-            final var errResp = new ConsolidatedCart(cartError, null, null);
-            return CartSummaryView.from(errResp);
+            return new CartBatchSummaryView(buildErrorView(null, e), List.of());
+        }
+
+        // Validate Client Input Data, and look up every distinct product once
+        final int size = products.size();
+        final CartError[] errors = new CartError[size];
+        final Set<String> productNames = new LinkedHashSet<>();
+        for (int line = 0; line < size; line++) {
+            try {
+                validateLine(products.get(line));
+                productNames.add(products.get(line).name());
+            } catch (final Exception e) {
+                errors[line] = buildError(products.get(line), e);
+            }
         }
+        final Map<String, CompletableFuture<BigDecimal>> prices = lookUpPrices(productNames);
+
+        // Validate Price Data, in the order of the batch
+        final List<CartLine> lines = new ArrayList<>(size);
+        final List<CartLineErrorView> lineErrors = new ArrayList<>();
+        for (int line = 0; line < size; line++) {
+            final ProductIn productIn = products.get(line);
+            if (isNull(errors[line])) {
+                try {
+                    final BigDecimal price = prices.get(productIn.name()).join();
+                    ValidatorProvider.validateData(new PriceWrapper(price));
+                    lines.add(new CartLine(productIn, price));
+                } catch (final CompletionException e) {
+                    errors[line] = buildError(productIn, e.getCause());
+                } catch (final Exception e) {
+                    errors[line] = buildError(productIn, e);
+                }
+            }
+            if (!isNull(errors[line])) {
+                lineErrors.add(CartLineErrorView.from(line, productIn, errors[line]));
+            }
+        }
+
+        // Apply all lines at once, and derive the totals and the view once, from the snapshot the batch published
+        final var resp = getTotals(cart.addProducts(lines));
+        return new CartBatchSummaryView(CartSummaryView.from(resp), List.copyOf(lineErrors));
     }
 
     @Override
-    public CartSummaryView removeFromCartAndGetTotals(final ProductRm productRm) {
+    public CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm) {
+        return removeFromCartAndGetTotals(cartId, productRm, CartViewDetail.FULL);
+    }
+
+    @Override
+    public CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm, final CartViewDetail detail) {
+        ValidatorProvider.validateData(productRm);    // Validate Client Input Data
+        final var resp = cartRegistry.find(cartId)    // Nothing to remove from a cart that was never created
+                .map(cart -> getTotals(cart.removeProduct(productRm.name())))
+                .orElseGet(() -> getTotals(Map.of(), BigDecimal.ZERO));
+        return CartSummaryView.from(resp, detail);
+    }
+
+    @Override
+    public CartSummaryView removeFromCartAndGetTotalsIfVersion(final String cartId, final ProductRm productRm, final long expectedVersion) {
         ValidatorProvider.validateData(productRm);    // Validate Client Input Data
-        final var shoppingCart = cart.removeProduct(productRm.name());
-        final var totals = cartCalculator.calculateTotals(shoppingCart);
-        final var resp = new ConsolidatedCart(null, shoppingCart, totals);
+        try {
+            final var snapshot = cartRegistry.find(cartId)    // A cart that was never created is at version 0
+                    .map(cart -> cart.removeProductIfVersion(productRm.name(), expectedVersion))
+                    .orElseGet(() -> checkVersion(CartSnapshot.empty(), expectedVersion));
+            return CartSummaryView.from(getTotals(snapshot));
+        } catch (final CartVersionConflictException | CartClosedException e) {
+            return buildErrorView(null, e);
+        }
+    }
+
+    @Override
+    public CartSummaryView reconcileAndGetTotals(final String cartId) {
+        final var resp = cartRegistry.find(cartId)
+                .map(Cart::snapshot)
+                .map(snapshot -> new ConsolidatedCart(null, snapshot.items(), cartCalculator.reconcile(snapshot.items(), snapshot.subTotal()), snapshot.version()))
+                .orElseGet(() -> getTotals(Map.of(), BigDecimal.ZERO));
         return CartSummaryView.from(resp);
     }
 
+    @Override
+    public Optional<CartSummaryView> getCartIfModified(final String cartId, final long knownVersion) {
+        final var snapshot = cartRegistry.find(cartId).map(Cart::snapshot).orElseGet(CartSnapshot::empty);
+        if (snapshot.version() == knownVersion) {
+            return Optional.empty();    // Not modified: no totals to compute, no view to build
+        }
+        return Optional.of(CartSummaryView.from(getTotals(snapshot)));
+    }
+
+    /**
+     * Fails a conditional call on a cart that is not at the version the caller expects.
+     *
+     * @param snapshot        The current snapshot of the cart.
+     * @param expectedVersion The version of the cart the caller expects.
+     * @return The snapshot, if it is at the expected version.
+     * @throws CartVersionConflictException if the snapshot is at another version.
+     */
+    private static CartSnapshot checkVersion(final CartSnapshot snapshot, final long expectedVersion) {
+        if (snapshot.version() != expectedVersion) {
+            throw new CartVersionConflictException(expectedVersion, snapshot.version());
+        }
+        return snapshot;
+    }
+
+
+    /**
+     * Builds the consolidated view of a cart from one snapshot of it, so the lines and the totals always match.
+     *
+     * @param snapshot The state of the shopping cart and its running subtotal. Must not be null.
+     * @return A ConsolidatedCart object containing the state of the shopping cart and its totals.
+     */
+    private ConsolidatedCart getTotals(final CartSnapshot snapshot) {
+        return new ConsolidatedCart(null, snapshot.items(), cartCalculator.calculateTotals(snapshot.subTotal()), snapshot.version());
+    }
 
     /**
-     * Adds a product to the shopping cart, calculates the cart totals, and returns a consolidated view
-     * of the shopping cart and its totals. Much like a teller in the physical grocery-store checkout process.
+     * Builds the consolidated view of a cart from its state and running subtotal. The totals are derived from the
+     * running subtotal in O(1), instead of re-summing every line of the cart on each mutation.
      *
-     * @param productIn The product to be added to the cart, including its name and quantity. Must not be null.
-     * @param price     The price of the product being added to the cart. Must not be null and must be a non-negative value.
-     * @return A ConsolidatedCart object containing potential errors (if any), the updated state of the
-     * shopping cart, and the calculated totals including tax, subtotal, and total.
+     * @param shoppingCart The current state of the shopping cart. Must not be null.
+     * @param subTotal     The running subtotal of the same cart. Must not be null.
+     * @return A ConsolidatedCart object containing the state of the shopping cart and its totals.
      */
-    private ConsolidatedCart addToCartAndGetTotals(final ProductIn productIn, final BigDecimal price) {
-        final var shoppingCart = cart.addProduct(productIn, price);
-        final var totals = cartCalculator.calculateTotals(shoppingCart);
-        return new ConsolidatedCart(null, shoppingCart, totals);
+    private ConsolidatedCart getTotals(final Map<String, ItemMetadata> shoppingCart, final BigDecimal subTotal) {
+        return new ConsolidatedCart(null, shoppingCart, cartCalculator.calculateTotals(subTotal));
     }
 }
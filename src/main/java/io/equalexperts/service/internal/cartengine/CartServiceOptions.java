@@ -0,0 +1,36 @@
+package io.equalexperts.service.internal.cartengine;
+
+import io.equalexperts.component.metrics.CartMetrics;
+import io.equalexperts.util.LogRateLimiter;
+
+/**
+ * The optional settings and collaborators of a {@link CartServiceImpl}; {@link #defaults()} holds the value of each.
+ *
+ * @param maxConcurrentPriceLookups The price look-ups of a batch in flight at any time, to stay within the rate-limit of
+ *                                  the Price API. Must be positive; 16 by default.
+ * @param metrics                   Collects the latency of each stage of an add to a cart, and the outcome of each
+ *                                  call; {@link CartMetrics#NONE} by default.
+ * @param clientErrorLogs           Limits the rate at which errors caused by clients are logged; by default, a burst of
+ *                                  100, then 10 per second.
+ */
+public record CartServiceOptions(int maxConcurrentPriceLookups, CartMetrics metrics, LogRateLimiter clientErrorLogs) {
+
+    /**
+     * @return The default options, with a log rate limiter of their own.
+     */
+    public static CartServiceOptions defaults() {
+        return new CartServiceOptions(16, CartMetrics.NONE, new LogRateLimiter(10, 100));
+    }
+
+    public CartServiceOptions withMaxConcurrentPriceLookups(final int maxConcurrentPriceLookups) {
+        return new CartServiceOptions(maxConcurrentPriceLookups, metrics, clientErrorLogs);
+    }
+
+    public CartServiceOptions withMetrics(final CartMetrics metrics) {
+        return new CartServiceOptions(maxConcurrentPriceLookups, metrics, clientErrorLogs);
+    }
+
+    public CartServiceOptions withClientErrorLogs(final LogRateLimiter clientErrorLogs) {
+        return new CartServiceOptions(maxConcurrentPriceLookups, metrics, clientErrorLogs);
+    }
+}
@@ -0,0 +1,114 @@
+package io.equalexperts.service.internal.cartengine;
+
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.model.ProductRm;
+import io.equalexperts.service.internal.CartService;
+import io.equalexperts.view.CartBatchSummaryView;
+import io.equalexperts.view.CartSummaryView;
+import io.equalexperts.view.CartViewDetail;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in execution mode that runs each asynchronous add-to-cart call on a virtual thread of its own.
+ * <p>
+ * The add-to-cart flow blocks on the Price API ({@code HttpClient.send}). On a platform thread every in-flight look-up
+ * holds on to an OS thread, which caps the number of concurrent shoppers at the size of the thread pool. A virtual
+ * thread unmounts from its carrier while it waits, so thousands of shoppers can wait on the Price API at once.
+ * </p>
+ * <p>
+ * Only {@link #validateAndAddToCartAsync} hands the call over to a virtual thread. The blocking calls run on the
+ * caller's thread: handing them over would still park a platform-thread caller until the call completes, so it would
+ * not lift the cap. Callers that block should run on virtual threads themselves, e.g. a virtual thread per request.
+ * </p>
+ * The call paths of the cart engine are kept free of carrier pinning: no {@code synchronized} section blocks or
+ * waits (the cart publishes its snapshots with a lock-free compare-and-set, the registry only locks a hash-bin for a
+ * CPU-only update, and the price cache fetches and waits outside of its locks).
+ */
+@Log4j2
+public class VirtualThreadCartService implements CartService, AutoCloseable {
+    private final CartService cartService;
+    private final ExecutorService executor;
+
+    public VirtualThreadCartService(final CartService cartService) {
+        this(cartService, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cart-", 0).factory()));
+    }
+
+    /**
+     * @param cartService The cart service the calls are delegated to.
+     * @param executor    Runs the asynchronous calls, e.g. a pool of platform threads to compare against. Closed with
+     *                    this service.
+     */
+    public VirtualThreadCartService(final CartService cartService, final ExecutorService executor) {
+        this.cartService = cartService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CartSummaryView validateAndAddToCart(final String cartId, final ProductIn productIn) {
+        return cartService.validateAndAddToCart(cartId, productIn);
+    }
+
+    @Override
+    public CartSummaryView validateAndAddToCart(final String cartId, final ProductIn productIn, final CartViewDetail detail) {
+        return cartService.validateAndAddToCart(cartId, productIn, detail);
+    }
+
+    @Override
+    public CartSummaryView validateAndAddToCartIfVersion(final String cartId, final ProductIn productIn, final long expectedVersion) {
+        return cartService.validateAndAddToCartIfVersion(cartId, productIn, expectedVersion);
+    }
+
+    /**
+     * Runs the blocking add-to-cart flow on a virtual thread of its own (thread-per-request), instead of chaining
+     * callbacks on the price look-up.
+     */
+    @Override
+    public CompletableFuture<CartSummaryView> validateAndAddToCartAsync(final String cartId, final ProductIn productIn) {
+        return CompletableFuture.supplyAsync(() -> cartService.validateAndAddToCart(cartId, productIn), executor);
+    }
+
+    @Override
+    public CartBatchSummaryView addAllToCart(final String cartId, final List<ProductIn> products) {
+        return cartService.addAllToCart(cartId, products);
+    }
+
+    @Override
+    public CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm) {
+        return cartService.removeFromCartAndGetTotals(cartId, productRm);
+    }
+
+    @Override
+    public CartSummaryView removeFromCartAndGetTotals(final String cartId, final ProductRm productRm, final CartViewDetail detail) {
+        return cartService.removeFromCartAndGetTotals(cartId, productRm, detail);
+    }
+
+    @Override
+    public CartSummaryView removeFromCartAndGetTotalsIfVersion(final String cartId, final ProductRm productRm, final long expectedVersion) {
+        return cartService.removeFromCartAndGetTotalsIfVersion(cartId, productRm, expectedVersion);
+    }
+
+    @Override
+    public CartSummaryView reconcileAndGetTotals(final String cartId) {
+        return cartService.reconcileAndGetTotals(cartId);
+    }
+
+    @Override
+    public Optional<CartSummaryView> getCartIfModified(final String cartId, final long knownVersion) {
+        return cartService.getCartIfModified(cartId, knownVersion);
+    }
+
+    /**
+     * Stops accepting calls and waits for the calls in flight to complete.
+     */
+    @Override
+    public void close() {
+        log.debug("Closing the cart service executor");
+        executor.close();
+    }
+}
@@ -0,0 +1,159 @@
+package io.equalexperts.service.internal.warmup;
+
+import io.equalexperts.component.calculator.CartCalculator;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.model.ProductCatalogue;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.model.ProductRm;
+import io.equalexperts.model.WarmUpReport;
+import io.equalexperts.service.internal.CartService;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.equalexperts.service.internal.WarmUpService;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.view.CartLineErrorView;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Warms the instance up before it reports ready, in two stages, on a cart of its own that is discarded afterwards:
+ * <ol>
+ *     <li>The prices of the catalogue are loaded in one batch add-to-cart, i.e. concurrently and within the look-up
+ *     limit of the cart service, through the (caching) Price API of the instance.</li>
+ *     <li>The loaded products are added, removed and reconciled, round after round, so that the JIT compiles the
+ *     validation, cart and totals paths. The rounds are served from the price cache.</li>
+ * </ol>
+ * <p>
+ * The warm-up runs on a cart service of its own, which shares the Price API and the calculator of the instance but
+ * keeps its carts in memory and collects no metrics: its rounds are neither counted in the cart metrics nor recorded
+ * by a durable registry.
+ * </p>
+ */
+@Log4j2
+public class WarmUpServiceImpl implements WarmUpService {
+    static final String WARM_UP_CART_ID = "warm-up";    // Shoppers are only let in once the warm-up is done
+    private static final int DEFAULT_ITERATIONS = 20_000;   // Comfortably beyond the C2 compile thresholds
+    private static final int RECONCILE_EVERY = 100;
+    private final CartService cartService;
+    private final CartRegistry cartRegistry;
+    private final ProductCatalogue catalogue;
+    private final int iterations;
+    private final LongSupplier nanoTime;
+    private volatile boolean ready;
+
+    public WarmUpServiceImpl(final PriceApi priceApi, final CartCalculator cartCalculator, final ProductCatalogue catalogue) {
+        this(priceApi, cartCalculator, catalogue, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * @param priceApi       The (caching) Price API of the instance, to load the prices into. Must not be null.
+     * @param cartCalculator The calculator of the instance. Must not be null.
+     * @param catalogue      The products to load the prices of. Must not be null.
+     * @param iterations     The add/remove rounds to run after the prices are loaded.
+     */
+    public WarmUpServiceImpl(final PriceApi priceApi, final CartCalculator cartCalculator, final ProductCatalogue catalogue,
+                             final int iterations) {
+        this(new CartRegistryImpl(), priceApi, cartCalculator, catalogue, iterations);
+    }
+
+    private WarmUpServiceImpl(final CartRegistry cartRegistry, final PriceApi priceApi, final CartCalculator cartCalculator,
+                              final ProductCatalogue catalogue, final int iterations) {
+        this(new CartServiceImpl(priceApi, cartRegistry, cartCalculator), cartRegistry, catalogue, iterations, System::nanoTime);
+    }
+
+    /**
+     * @param cartService  The cart service to warm up. Must not be null.
+     * @param cartRegistry The registry of the cart service, to discard the warm-up cart from. Must not be null.
+     */
+    WarmUpServiceImpl(final CartService cartService, final CartRegistry cartRegistry, final ProductCatalogue catalogue,
+                      final int iterations, final LongSupplier nanoTime) {
+        this.cartService = cartService;
+        this.cartRegistry = cartRegistry;
+        this.catalogue = catalogue;
+        this.iterations = iterations;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public WarmUpReport warmUp() {
+        final long start = nanoTime.getAsLong();
+        final List<String> failedProducts = preload();
+        final List<String> loadedProducts = new ArrayList<>(catalogue.productNames());
+        loadedProducts.removeAll(failedProducts);
+        cartRegistry.remove(WARM_UP_CART_ID);
+
+        final int rounds = loadedProducts.isEmpty() ? 0 : iterations;
+        final long[] requestNanos = new long[rounds];
+        final long[] requestEnds = new long[rounds];
+        for (int round = 0; round < rounds; round++) {
+            final String productName = loadedProducts.get(round % loadedProducts.size());
+            final long requestStart = nanoTime.getAsLong();
+            cartService.validateAndAddToCart(WARM_UP_CART_ID, new ProductIn(productName, 1));
+            requestEnds[round] = nanoTime.getAsLong();
+            requestNanos[round] = requestEnds[round] - requestStart;
+            cartService.removeFromCartAndGetTotals(WARM_UP_CART_ID, new ProductRm(productName));
+            if (round % RECONCILE_EVERY == 0) {
+                cartService.reconcileAndGetTotals(WARM_UP_CART_ID);
+            }
+        }
+        cartRegistry.remove(WARM_UP_CART_ID);
+
+        final long warmNanos = averageOfLastTenth(requestNanos);
+        final var report = new WarmUpReport(loadedProducts.size(), failedProducts, rounds,
+                Duration.ofNanos(nanoTime.getAsLong() - start), Duration.ofNanos(rounds == 0 ? 0 : requestNanos[0]),
+                Duration.ofNanos(warmNanos), Duration.ofNanos(firstFastRequestEnd(requestNanos, requestEnds, 2 * warmNanos, start)));
+        if (!failedProducts.isEmpty()) {
+            log.warn("Prices not loaded on warm-up: {}", failedProducts);
+        }
+        log.info("Warm-up done: {}", report);
+        ready = true;
+        return report;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static long averageOfLastTenth(final long[] requestNanos) {
+        if (requestNanos.length == 0) {
+            return 0;
+        }
+        final int from = requestNanos.length - Math.max(1, requestNanos.length / 10);
+        long sum = 0;
+        for (int round = from; round < requestNanos.length; round++) {
+            sum += requestNanos[round];
+        }
+        return sum / (requestNanos.length - from);
+    }
+
+    /**
+     * @return The time from the start of the warm-up until the end of the first request within the limit, or 0.
+     */
+    private static long firstFastRequestEnd(final long[] requestNanos, final long[] requestEnds, final long limitNanos, final long start) {
+        for (int round = 0; round < requestNanos.length; round++) {
+            if (requestNanos[round] <= limitNanos) {
+                return requestEnds[round] - start;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Loads the prices of the catalogue in one batch.
+     *
+     * @return The products whose prices could not be loaded.
+     */
+    private List<String> preload() {
+        final List<ProductIn> products = catalogue.productNames().stream()
+                .map(productName -> new ProductIn(productName, 1))
+                .toList();
+        return cartService.addAllToCart(WARM_UP_CART_ID, products).lineErrors().stream()
+                .map(CartLineErrorView::productName)
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package io.equalexperts.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate-limits log events, so that a flood of expected errors (e.g. a bot adding unknown products) cannot flood the log.
+ * <p>
+ * A lock-free token bucket (generic cell rate algorithm): up to {@code burst} events are let through at once, then one
+ * every {@code 1 / eventsPerSecond} seconds. An event that is not let through is counted, for the next one that is to
+ * report how many were suppressed.
+ */
+public final class LogRateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival;
+    private final LongAdder suppressed = new LongAdder();
+    private final LongBinaryOperator admit = this::admit;
+
+    public LogRateLimiter(final int eventsPerSecond, final int burst) {
+        this(eventsPerSecond, burst, System::nanoTime);
+    }
+
+    LogRateLimiter(final int eventsPerSecond, final int burst, final LongSupplier clock) {
+        if (eventsPerSecond < 1 || burst < 1) {
+            throw new IllegalArgumentException("Events per second and burst must be positive");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond;
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Retrieves whether an event may be logged now, counting it as suppressed if not.
+     *
+     * @return true if the event may be logged
+     */
+    public boolean tryAcquire() {
+        final long now = clock.getAsLong();
+        if (isAdmitted(theoreticalArrival.getAndAccumulate(now, admit), now)) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    private long admit(final long arrival, final long now) {
+        return isAdmitted(arrival, now) ? Math.max(arrival, now) + intervalNanos : arrival;
+    }
+
+    private boolean isAdmitted(final long arrival, final long now) {
+        return Math.max(arrival, now) + intervalNanos - now <= burstNanos;
+    }
+
+    /**
+     * Retrieves the number of events suppressed since the last call, and resets it.
+     *
+     * @return the number of events suppressed
+     */
+    public long takeSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,97 @@
+package io.equalexperts.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money arithmetic on scaled {@code long} values, used on the totals hot path instead of {@link BigDecimal}.
+ * <p>
+ * Amounts are held in units of 1/10,000 ({@link #UNIT_SCALE}), matching the 4 fraction digits a price may carry
+ * (see {@code PriceWrapper}). Tax amounts are held in units of 1/10,000,000,000 ({@link #TAX_SCALE}), the precision
+ * the tax engine rounds to before the final 2-decimal-place rounding.
+ * </p>
+ * Values that cannot be represented (too many decimals, or out of {@code long} range) are reported as
+ * {@link #NOT_REPRESENTABLE}, so callers can fall back to exact {@link BigDecimal} arithmetic without exceptions.
+ */
+@UtilityClass
+public final class MoneyUtil {
+    public static final int UNIT_SCALE = 4;
+    public static final int TAX_SCALE = 10;
+    public static final int CENT_SCALE = 2;
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L
+    };
+
+    /**
+     * Converts an amount to units of 1/10,000.
+     *
+     * @param amount The amount to convert. Must not be null.
+     * @return The amount in units of 1/10,000, or {@link #NOT_REPRESENTABLE} if the amount has more than 4
+     * (non-zero) decimals or does not fit into a {@code long}.
+     */
+    public static long toUnits(final BigDecimal amount) {
+        try {
+            return amount.movePointRight(UNIT_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            return NOT_REPRESENTABLE;
+        }
+    }
+
+    /**
+     * Converts a scaled value back to an amount.
+     *
+     * @param value The scaled value.
+     * @param scale The number of decimals the value is scaled by.
+     * @return The amount as a BigDecimal with the given scale.
+     */
+    public static BigDecimal toAmount(final long value, final int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * Rescales a non-negative value from one scale down to a smaller one, rounding HALF_UP, i.e. the fixed-point
+     * equivalent of {@code BigDecimal.setScale(toScale, RoundingMode.HALF_UP)}.
+     *
+     * @param value     The non-negative scaled value.
+     * @param fromScale The number of decimals the value is scaled by.
+     * @param toScale   The number of decimals to round to. Between {@code fromScale - 10} and {@code fromScale}.
+     * @return The value scaled by {@code toScale} decimals.
+     */
+    public static long roundHalfUp(final long value, final int fromScale, final int toScale) {
+        final long divisor = POWERS_OF_TEN[fromScale - toScale];
+        final long remainder = value % divisor;
+        return value / divisor + (remainder * 2 >= divisor ? 1 : 0);
+    }
+
+    /**
+     * Multiplies two non-negative values, reporting an overflow instead of throwing.
+     *
+     * @return The product, or {@link #NOT_REPRESENTABLE} if it does not fit into a {@code long}.
+     */
+    public static long multiply(final long left, final long right) {
+        final long product = left * right;
+        return Math.multiplyHigh(left, right) != 0 || product < 0 ? NOT_REPRESENTABLE : product;
+    }
+
+    /**
+     * Adds two non-negative values, reporting an overflow instead of throwing.
+     *
+     * @return The sum, or {@link #NOT_REPRESENTABLE} if it does not fit into a {@code long}.
+     */
+    public static long add(final long left, final long right) {
+        final long sum = left + right;
+        return sum < 0 ? NOT_REPRESENTABLE : sum;
+    }
+
+    /**
+     * @param exponent Between 0 and 10.
+     * @return 10 raised to the given exponent.
+     */
+    public static long powerOfTen(final int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+}
@@ -0,0 +1,68 @@
+package io.equalexperts.validators;
+
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.model.ProductRm;
+import io.equalexperts.validators.wrapper.PriceWrapper;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Checks the bean-validation constraints of the request and price models in plain code, without reflection and
+ * without allocating, for the valid inputs that make up nearly all requests.
+ * <p>
+ * A {@code true} verdict is only given if Hibernate Validator would find no violation. Anything else - an invalid
+ * input, or a type this check does not know - is left to Hibernate Validator, which reports the violations with its
+ * messages. The constraints mirror the annotations of the models, as Hibernate Validator evaluates them:
+ * </p>
+ * <ul>
+ *     <li>Product names: {@code @NotBlank} and {@code @Size(min = 3, max = 50)}.</li>
+ *     <li>Quantities: {@code @NotNull}, {@code @Min(0)} and {@code @Digits(integer = 6, fraction = 0)}.</li>
+ *     <li>Prices: {@code @DecimalMin("0.00")} and {@code @Digits(integer = 18, fraction = 4)}; null is valid.</li>
+ * </ul>
+ */
+@UtilityClass
+class FastPathValidator {
+    private static final int MIN_NAME_LENGTH = 3;
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_QUANTITY = 999_999;    // 6 integer digits
+    private static final int MAX_PRICE_INTEGER_DIGITS = 18;
+    private static final int MAX_PRICE_FRACTION_DIGITS = 4;
+
+    /**
+     * @param input The model to check.
+     * @return {@code true} if the model is known to be valid, otherwise {@code false} (invalid, or not known).
+     */
+    static boolean isValid(final Object input) {
+        if (input instanceof ProductIn productIn) {
+            return isValidName(productIn.name()) && isValidQuantity(productIn.quantity());
+        }
+        if (input instanceof ProductRm productRm) {
+            return isValidName(productRm.name());
+        }
+        if (input instanceof PriceWrapper priceWrapper) {
+            return isValidPrice(priceWrapper.price());
+        }
+        return false;
+    }
+
+    private static boolean isValidName(final String name) {
+        return !isNull(name) && name.length() >= MIN_NAME_LENGTH && name.length() <= MAX_NAME_LENGTH && !name.isBlank();
+    }
+
+    private static boolean isValidQuantity(final Integer quantity) {
+        return !isNull(quantity) && quantity >= 0 && quantity <= MAX_QUANTITY;
+    }
+
+    /**
+     * {@code @Digits} counts the digits of a {@code BigDecimal} as it is, trailing zeros included: the integer digits
+     * are {@code precision - scale}, and the fraction digits the scale (none if negative).
+     */
+    private static boolean isValidPrice(final BigDecimal price) {
+        return isNull(price) || price.signum() >= 0
+                && price.scale() <= MAX_PRICE_FRACTION_DIGITS
+                && price.precision() - price.scale() <= MAX_PRICE_INTEGER_DIGITS;
+    }
+}
@@ -38,17 +38,31 @@ public class ValidatorProvider {
         validator = factory.getValidator();
     }
 
+    /**
+     * Validates a model against its bean-validation constraints. Valid request and price models are passed by the
+     * {@link FastPathValidator}; only the others run through Hibernate Validator, to report their violations.
+     *
+     * @param input The model to validate.
+     * @throws CartValidationException if the model is invalid.
+     * @throws PriceServiceException   if the model is an invalid {@link PriceWrapper}.
+     */
     public static <Y> void validateData(final Y input) throws ConstraintViolationException {
+        if (FastPathValidator.isValid(input)) {
+            return;
+        }
         final var violations = validate(input);
 
         if (!violations.isEmpty()) {
-            log.warn("Validation Errors: {}", getFormattedErrors(violations));
+            final var errors = getFormattedErrors(violations);
 
             if (input instanceof PriceWrapper) {
-                throw new PriceServiceException(PRICE_SERVICE_ERROR, formatErrors(getFormattedErrors(violations)));
+                log.warn("Invalid price from the Price API: {}", errors);
+                throw new PriceServiceException(PRICE_SERVICE_ERROR, formatErrors(errors));
             }
 
-            throw new CartValidationException(VALIDATION_ERROR, getFormattedErrors(violations));
+            // Invalid client input is expected, and reported (rate-limited) by the cart service
+            log.debug("Validation Errors: {}", errors);
+            throw new CartValidationException(VALIDATION_ERROR, errors);
         }
     }
 
@@ -66,7 +80,6 @@ public class ValidatorProvider {
 
         for (final ConstraintViolation<T> violation : violations) {
             errorMap.put(violation.getPropertyPath().toString(), violation.getMessage());
-            log.warn("Validation Error: {}", violation.getMessage());
         }
         return errorMap;
     }
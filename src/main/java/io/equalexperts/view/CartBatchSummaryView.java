@@ -0,0 +1,12 @@
+package io.equalexperts.view;
+
+import java.util.List;
+
+public record CartBatchSummaryView(
+        CartSummaryView cart,
+        List<CartLineErrorView> lineErrors
+) {
+    public boolean hasLineErrors() {
+        return !lineErrors.isEmpty();
+    }
+}
@@ -0,0 +1,16 @@
+package io.equalexperts.view;
+
+import io.equalexperts.model.CartError;
+import io.equalexperts.model.ProductIn;
+
+public record CartLineErrorView(int line, String productName, String errorMessage, String errorType, long statusCode) {
+    public static CartLineErrorView from(int line, ProductIn productIn, CartError error) {
+        return new CartLineErrorView(
+                line,
+                productIn == null ? null : productIn.name(),
+                error.message(),
+                error.errorType(),
+                error.statusCode()
+        );
+    }
+}
@@ -4,18 +4,51 @@ import io.equalexperts.model.ConsolidatedCart;
 
 import java.util.List;
 
+/**
+ * The client-facing summary of a cart, built on every add/remove.
+ *
+ * @param version The version of the cart the summary was taken from, e.g. to be sent back with a conditional mutation
+ *                or as the entity tag of the cart; 0 for an empty or unknown cart, and for errors.
+ */
 public record CartSummaryView(
         CartTotalsView totals,
         CartErrorView errors,
         CartQuantityView quantities,
-        List<CartItemView> items
+        List<CartItemView> items,
+        long version
 ) {
+    public CartSummaryView(final CartTotalsView totals, final CartErrorView errors, final CartQuantityView quantities,
+                           final List<CartItemView> items) {
+        this(totals, errors, quantities, items, 0);
+    }
+
     public static CartSummaryView from(ConsolidatedCart cart) {
         return new CartSummaryView(
                 CartTotalsView.from(cart),
                 CartErrorView.from(cart),
                 CartQuantityView.from(cart),
-                CartItemView.fromAll(cart)
+                CartItemView.fromAll(cart),
+                cart.version()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Summarises the totals of a cart only, for clients that do not show its items: unlike {@link #from(ConsolidatedCart)},
+     * it does not walk the lines of the cart.
+     *
+     * @param cart The cart to summarise.
+     * @return The summary of the cart, with no quantities (null) and no items.
+     */
+    public static CartSummaryView totalsOnly(final ConsolidatedCart cart) {
+        return new CartSummaryView(CartTotalsView.from(cart), CartErrorView.from(cart), null, List.of(), cart.version());
+    }
+
+    /**
+     * @param cart   The cart to summarise.
+     * @param detail The level of detail of the summary.
+     * @return The full summary of the cart, or its {@link #totalsOnly(ConsolidatedCart)} summary.
+     */
+    public static CartSummaryView from(final ConsolidatedCart cart, final CartViewDetail detail) {
+        return detail == CartViewDetail.TOTALS_ONLY ? totalsOnly(cart) : from(cart);
+    }
+}
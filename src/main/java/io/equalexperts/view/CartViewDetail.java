@@ -0,0 +1,15 @@
+package io.equalexperts.view;
+
+/**
+ * The level of detail of the cart summary a {@code CartService} call responds with.
+ */
+public enum CartViewDetail {
+    /**
+     * Totals, errors, quantities and the items of the cart.
+     */
+    FULL,
+    /**
+     * Totals and errors only, for clients that do not show the items: nothing is derived from the lines of the cart.
+     */
+    TOTALS_ONLY
+}
@@ -1,17 +1,23 @@
 package io.equalexperts.component.calculator.impl;
 
 import io.equalexperts.component.calculator.CartCalculator;
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.impl.CartImpl;
 import io.equalexperts.component.tax.TaxCalculator;
 import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.model.CartTotals;
 import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -112,4 +118,180 @@ class CartCalculatorTest {
             assertEquals(233.00, totals.total().doubleValue());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("When totals are maintained incrementally")
+    class WhenTotalsAreMaintainedIncrementally {
+        private static final String[] PRODUCTS = {"cheerios", "cornflakes", "frosties", "shreddies", "weetabix"};
+
+        @Test
+        @DisplayName("Then totals from the running subtotal match the full recomputation")
+        void shouldMatchFullRecomputation() {
+            // Given
+            final Map<String, ItemMetadata> items = new HashMap<>();
+            items.put("cheerios", new ItemMetadata(BigDecimal.valueOf(19.09), 1));
+            items.put("cornflakes", new ItemMetadata(BigDecimal.valueOf(34.99), 5));
+            final var runningSubTotal = BigDecimal.valueOf(19.09).add(BigDecimal.valueOf(34.99 * 5));
+
+            // When
+            final var incremental = cartCalculator.calculateTotals(runningSubTotal);
+            final var full = cartCalculator.calculateTotals(items);
+
+            // Then
+            assertEquals(full, incremental);
+        }
+
+        @Test
+        @DisplayName("Then reconciliation agrees with the running subtotal of a cart")
+        void shouldReconcileRunningSubTotal() {
+            // Given
+            final Cart cart = new CartImpl();
+            cart.addProduct(new ProductIn("cornflakes", 2), BigDecimal.valueOf(2.52));
+            cart.addProduct(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98));
+
+            // When
+            final var reconciled = cartCalculator.reconcile(cart.items(), cart.subTotal());
+
+            // Then
+            assertEquals(cartCalculator.calculateTotals(cart.subTotal()), reconciled);
+            assertEquals(15.02, reconciled.subTotal().doubleValue());
+        }
+
+        @Test
+        @DisplayName("Then the exact recomputation wins when the running subtotal drifted")
+        void shouldPreferRecomputationOnDrift() {
+            // Given
+            final Map<String, ItemMetadata> items = Map.of("weetabix", new ItemMetadata(BigDecimal.valueOf(9.98), 1));
+
+            // When
+            final var reconciled = cartCalculator.reconcile(items, BigDecimal.valueOf(1000));
+
+            // Then
+            assertEquals(9.98, reconciled.subTotal().doubleValue());
+            assertEquals(cartCalculator.calculateTotals(items), reconciled);
+        }
+
+        @Test
+        @DisplayName("Then random add/decrement/remove sequences never drift from the full recomputation")
+        void shouldNeverDriftOverRandomMutations() {
+            final Random random = new Random(20250215L);    // Seeded: failures are reproducible
+            final Cart cart = new CartImpl();
+
+            for (int step = 0; step < 5_000; step++) {
+                // Given
+                final String product = PRODUCTS[random.nextInt(PRODUCTS.length)];
+                final int operation = random.nextInt(10);
+
+                // When
+                if (operation < 6) {
+                    final var price = BigDecimal.valueOf(random.nextInt(1_000_000), 4);
+                    cart.addProduct(new ProductIn(product, 1 + random.nextInt(20)), price);
+                } else if (operation < 9) {
+                    cart.removeProduct(product, 1 + random.nextInt(20));
+                } else {
+                    cart.removeProduct(product);
+                }
+
+                // Then
+                assertEquals(cartCalculator.calculateTotals(cart.items()), cartCalculator.calculateTotals(cart.subTotal()));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When totals are calculated in fixed-point")
+    class WhenTotalsAreCalculatedInFixedPoint {
+
+        @Test
+        @DisplayName("Then random carts yield the same rounded totals as BigDecimal arithmetic")
+        void shouldMatchBigDecimalArithmetic() {
+            final Random random = new Random(20250302L);    // Seeded: failures are reproducible
+
+            for (int run = 0; run < 10_000; run++) {
+                // Given
+                final var taxRate = BigDecimal.valueOf(random.nextInt(10_000), random.nextInt(3));
+                final CartCalculator calculator = new CartCalculatorImpl(new TaxCalculatorImpl(taxRate));
+                final Map<String, ItemMetadata> items = new HashMap<>();
+                final int lines = random.nextInt(6);
+                for (int line = 0; line < lines; line++) {
+                    final var price = BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(5));
+                    items.put("product-" + line, new ItemMetadata(price, 1 + random.nextInt(1_000)));
+                }
+                final var subTotal = referenceSubTotal(items);
+
+                // When
+                final var fromItems = calculator.calculateTotals(items);
+                final var fromSubTotal = calculator.calculateTotals(subTotal);
+
+                // Then
+                final var expected = referenceTotals(subTotal, taxRate);
+                assertEquals(expected, fromItems);
+                assertEquals(expected, fromSubTotal);
+            }
+        }
+
+        @Test
+        @DisplayName("Then half-cent amounts are rounded up")
+        void shouldRoundHalfCentsUp() {
+            // Given - 0.0250 at 10% is 0.0025 tax, 0.0275 total
+            final CartCalculator calculator = new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.TEN));
+
+            // When
+            final var totals = calculator.calculateTotals(new BigDecimal("0.0250"));
+
+            // Then
+            assertEquals(new CartTotals(new BigDecimal("0.00"), new BigDecimal("0.03"), new BigDecimal("0.03")), totals);
+            assertEquals(referenceTotals(new BigDecimal("0.0250"), BigDecimal.TEN), totals);
+        }
+
+        @Test
+        @DisplayName("Then amounts beyond fixed-point fall back to BigDecimal arithmetic")
+        void shouldFallBackToBigDecimalArithmetic() {
+            // Given - the tax overflows beyond 10^12, the total (at 10 decimals) beyond 10^9
+            final var taxRate = BigDecimal.valueOf(16.5);
+            final var hugeTax = new BigDecimal("1000000000000");
+            final var hugeTotal = new BigDecimal("1000000000");
+            final var precise = new BigDecimal("19.123456");
+
+            // When / Then
+            assertEquals(referenceTotals(hugeTax, taxRate), cartCalculator.calculateTotals(hugeTax));
+            assertEquals(referenceTotals(hugeTotal, taxRate), cartCalculator.calculateTotals(hugeTotal));
+            assertEquals(referenceTotals(precise, taxRate), cartCalculator.calculateTotals(precise));
+        }
+
+        @Test
+        @DisplayName("Then carts beyond fixed-point fall back to BigDecimal arithmetic")
+        void shouldFallBackForCartsBeyondFixedPoint() {
+            // Given
+            final var taxRate = BigDecimal.valueOf(16.5);
+            final Map<String, ItemMetadata> overflowingLine = Map.of("gold", new ItemMetadata(new BigDecimal("1000000000000"), 1_000_000));
+            final Map<String, ItemMetadata> overflowingSum = new HashMap<>();
+            overflowingSum.put("gold", new ItemMetadata(new BigDecimal("900000000000000"), 1));
+            overflowingSum.put("platinum", new ItemMetadata(new BigDecimal("900000000000000"), 1));
+            final Map<String, ItemMetadata> precise = Map.of("premium-item", new ItemMetadata(new BigDecimal("99.999999"), 2));
+
+            // When / Then
+            assertEquals(referenceTotals(referenceSubTotal(overflowingLine), taxRate), cartCalculator.calculateTotals(overflowingLine));
+            assertEquals(referenceTotals(referenceSubTotal(overflowingSum), taxRate), cartCalculator.calculateTotals(overflowingSum));
+            assertEquals(referenceTotals(referenceSubTotal(precise), taxRate), cartCalculator.reconcile(precise, referenceSubTotal(precise)));
+        }
+    }
+
+    // The BigDecimal arithmetic the fixed-point calculator must reproduce
+    private static BigDecimal referenceSubTotal(final Map<String, ItemMetadata> items) {
+        return items.values().stream()
+                .map(item -> item.price().multiply(BigDecimal.valueOf(item.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static CartTotals referenceTotals(final BigDecimal subTotal, final BigDecimal taxRate) {
+        final var taxAmount = subTotal.multiply(taxRate.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP))
+                .setScale(10, RoundingMode.HALF_UP)
+                .stripTrailingZeros();
+        return new CartTotals(
+                taxAmount.setScale(2, RoundingMode.HALF_UP),
+                subTotal.setScale(2, RoundingMode.HALF_UP),
+                subTotal.add(taxAmount).setScale(2, RoundingMode.HALF_UP)
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package io.equalexperts.component.cart;
 
 import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.exception.InvalidCartParamsException;
 import io.equalexperts.exception.InvalidProductRemovalException;
 import io.equalexperts.model.ProductIn;
 import org.junit.jupiter.api.AfterEach;
@@ -54,14 +55,54 @@ class CartRemoveTest {
             cart.addProduct(productIn, price);
 
             // When
-            final var cartSummaryView = cart.removeProduct("cornflakes");
-
+            final var cartSummaryView = cart.removeProduct("cornflakes").items();
             // Then
             assertNotNull(cartSummaryView);
             assertFalse(cartSummaryView.containsKey("cornflakes"));
             assertTrue(cartSummaryView.isEmpty());
             verify(cart, times(1)).removeProduct("cornflakes");
         }
+
+        @Test
+        @DisplayName("When decrementing the quantity of a product in the cart")
+        void decrementProductInCart() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 3), BigDecimal.valueOf(2.99));
+
+            // When
+            final var items = cart.removeProduct("cornflakes", 2).items();
+            // Then
+            assertEquals(1, items.get("cornflakes").quantity());
+            assertEquals(2.99, items.get("cornflakes").price().doubleValue());
+        }
+
+        @Test
+        @DisplayName("When decrementing the full quantity of a product, the line is removed")
+        void decrementFullQuantityRemovesLine() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 3), BigDecimal.valueOf(2.99));
+            cart.addProduct(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98));
+
+            // When
+            final var exact = cart.removeProduct("cornflakes", 3).items();
+            final var beyond = cart.removeProduct("weetabix", 5).items();
+            // Then
+            assertFalse(exact.containsKey("cornflakes"));
+            assertTrue(beyond.isEmpty());
+        }
+
+        @Test
+        @DisplayName("When decrementing a product that is not in the cart, nothing changes")
+        void decrementUnknownProduct() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 3), BigDecimal.valueOf(2.99));
+
+            // When
+            final var items = cart.removeProduct("weetabix", 1).items();
+            // Then
+            assertEquals(1, items.size());
+            assertEquals(3, items.get("cornflakes").quantity());
+        }
     }
 
     @Nested
@@ -78,8 +119,7 @@ class CartRemoveTest {
             cart.addProduct(productIn, price);
 
             // When
-            final var cartSummaryView = cart.removeProduct("Corn Flakes");
-
+            final var cartSummaryView = cart.removeProduct("Corn Flakes").items();
             // Then
             assertNotNull(cartSummaryView);
             assertTrue(cartSummaryView.containsKey("cornflakes"));
@@ -122,5 +162,26 @@ class CartRemoveTest {
             verify(cart, atMost(0)).removeProduct("cornflakes");
             verify(cart, atMost(1)).removeProduct("");
         }
+
+        @Test
+        @DisplayName("When decrementing a product (with Blank name) from the cart")
+        void whenDecrementingProductWithBlankName() {
+            final var cartException = assertThrows(InvalidProductRemovalException.class, () -> cart.removeProduct(" ", 1));
+
+            assertEquals("Product name must not be null or blank", cartException.getMessage());
+        }
+
+        @Test
+        @DisplayName("When decrementing a product by a non-positive quantity")
+        void whenDecrementingProductWithNonPositiveQuantity() {
+            // Given
+            final var items = cart.addProduct(new ProductIn("cornflakes", 3), BigDecimal.valueOf(2.99)).items();
+            // When
+            final var cartException = assertThrows(InvalidCartParamsException.class, () -> cart.removeProduct("cornflakes", 0));
+
+            // Then
+            assertEquals("Quantity must not be null and must be positive integer", cartException.getMessage());
+            assertEquals(3, items.get("cornflakes").quantity());
+        }
     }
 }
\ No newline at end of file
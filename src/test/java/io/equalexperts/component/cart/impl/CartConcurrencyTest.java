@@ -0,0 +1,198 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Hammers a single SKU from many threads at once. With a check-then-act add path these tests drop quantities;
+ * the atomic compare-and-set of the snapshots must account for every single update, and never publish a torn one.
+ */
+@Tag("unit")
+@DisplayName("Unit-Tests - Given a Cart under concurrent mutation")
+class CartConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final String SKU = "cornflakes";
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    private final Cart cart = new CartImpl();
+
+    @Nested
+    @DisplayName("When many threads mutate the same product")
+    class WhenManyThreadsMutateTheSameProduct {
+
+        @Test
+        @DisplayName("Then no concurrent add is lost")
+        void shouldNotLoseConcurrentAdds() throws Exception {
+            // When
+            runConcurrently(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    cart.addProduct(new ProductIn(SKU, 1), PRICE);
+                }
+                return null;
+            });
+
+            // Then
+            final var items = currentItems();
+            assertEquals(THREADS * OPERATIONS_PER_THREAD, items.get(SKU).quantity());
+            assertEquals(PRICE, items.get(SKU).price());
+        }
+
+        @Test
+        @DisplayName("Then concurrent adds and decrements balance out exactly")
+        void shouldBalanceConcurrentAddsAndDecrements() throws Exception {
+            // Given - enough stock that decrements never empty the line
+            final int stock = THREADS * OPERATIONS_PER_THREAD;
+            cart.addProduct(new ProductIn(SKU, stock), PRICE);
+
+            // When - half of the threads add, the other half decrement, by the same amount
+            runConcurrently(new Callable<>() {
+                private final AtomicInteger threadIndex = new AtomicInteger();
+
+                @Override
+                public Void call() {
+                    final boolean adder = threadIndex.getAndIncrement() % 2 == 0;
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (adder) {
+                            cart.addProduct(new ProductIn(SKU, 1), PRICE);
+                        } else {
+                            cart.removeProduct(SKU, 1);
+                        }
+                    }
+                    return null;
+                }
+            });
+
+            // Then
+            assertEquals(stock, currentItems().get(SKU).quantity());
+        }
+
+        @Test
+        @DisplayName("Then concurrent decrements remove the line exactly once it is used up")
+        void shouldRemoveLineWhenConcurrentDecrementsUseItUp() throws Exception {
+            // Given
+            cart.addProduct(new ProductIn(SKU, THREADS * OPERATIONS_PER_THREAD), PRICE);
+
+            // When
+            runConcurrently(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    cart.removeProduct(SKU, 1);
+                }
+                return null;
+            });
+
+            // Then
+            assertFalse(currentItems().containsKey(SKU));
+        }
+    }
+
+    @Nested
+    @DisplayName("When threads read the cart while others mutate it")
+    class WhenThreadsReadWhileOthersMutate {
+
+        @Test
+        @DisplayName("Then every snapshot read holds a subtotal that matches its lines")
+        void shouldReadConsistentSnapshots() throws Exception {
+            // Given
+            final AtomicInteger threadIndex = new AtomicInteger();
+            final AtomicInteger tornReads = new AtomicInteger();
+
+            // When - half of the threads add and decrement two products, the other half read snapshots
+            runConcurrently(() -> {
+                final boolean writer = threadIndex.getAndIncrement() % 2 == 0;
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    if (writer) {
+                        cart.addProduct(new ProductIn(SKU, 2), PRICE);
+                        cart.addProduct(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98));
+                        cart.removeProduct(SKU, 1);
+                    } else {
+                        final var snapshot = cart.snapshot();
+                        final BigDecimal linesTotal = snapshot.items().values().stream()
+                                .map(item -> item.price().multiply(BigDecimal.valueOf(item.quantity())))
+                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                        if (linesTotal.compareTo(snapshot.subTotal()) != 0) {
+                            tornReads.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+
+            // Then
+            assertEquals(0, tornReads.get());
+            assertEquals(THREADS / 2 * OPERATIONS_PER_THREAD, currentItems().get(SKU).quantity());
+            assertEquals(THREADS / 2 * OPERATIONS_PER_THREAD * 3L, cart.snapshot().version());
+        }
+    }
+
+    @Nested
+    @DisplayName("When many threads mutate the same version of the cart")
+    class WhenManyThreadsMutateTheSameVersion {
+
+        @Test
+        @DisplayName("Then exactly one conditional add wins, and the others conflict")
+        void shouldLetOneConditionalAddWin() throws Exception {
+            // Given
+            final AtomicInteger conflicts = new AtomicInteger();
+
+            // When
+            runConcurrently(() -> {
+                try {
+                    cart.addProductIfVersion(new ProductIn(SKU, 1), PRICE, 0);
+                } catch (final CartVersionConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+
+            // Then
+            assertEquals(THREADS - 1, conflicts.get());
+            assertEquals(1, currentItems().get(SKU).quantity());
+            assertEquals(1, cart.snapshot().version());
+        }
+    }
+
+    private Map<String, ItemMetadata> currentItems() {
+        return cart.items();
+    }
+
+    private static void runConcurrently(final Callable<Void> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
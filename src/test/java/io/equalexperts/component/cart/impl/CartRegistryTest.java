@@ -0,0 +1,210 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given CartRegistry")
+class CartRegistryTest {
+    private final CartRegistry cartRegistry = new CartRegistryImpl();
+
+    @Nested
+    @DisplayName("When carts are requested - Positive Scenarios")
+    class WhenCartsAreRequestedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then the same cart is handed out for the same cart-id")
+        void shouldReturnSameCartForSameId() {
+            // When
+            final Cart first = cartRegistry.getOrCreate("session-1");
+            final Cart second = cartRegistry.getOrCreate("session-1");
+
+            // Then
+            assertSame(first, second);
+            assertEquals(1, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then different cart-ids get isolated carts")
+        void shouldIsolateCartsPerId() {
+            // Given
+            final Cart first = cartRegistry.getOrCreate("session-1");
+            final Cart second = cartRegistry.getOrCreate("session-2");
+
+            // When
+            first.addProduct(new ProductIn("cheerios", 2), BigDecimal.valueOf(8.43));
+            final var secondItems = second.addProduct(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98)).items();
+            // Then
+            assertNotSame(first, second);
+            assertEquals(1, secondItems.size());
+            assertFalse(secondItems.containsKey("cheerios"));
+            assertEquals(2, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then the carts of a registry intern product names in its dictionary")
+        void shouldInternInRegistryDictionary() {
+            // Given
+            final ProductDictionary products = new ProductDictionaryImpl();
+            final CartRegistry interning = new CartRegistryImpl(products);
+
+            // When
+            final var items = interning.getOrCreate("session-1")
+                    .addProduct(new ProductIn(new String("cheerios"), 2), BigDecimal.valueOf(8.43)).items();
+
+            // Then
+            assertSame(products.nameOf(products.find("cheerios")), items.keySet().iterator().next());
+        }
+
+        @Test
+        @DisplayName("Then find does not create a cart")
+        void shouldFindWithoutCreating() {
+            // When
+            final var missing = cartRegistry.find("session-1");
+            final Cart created = cartRegistry.getOrCreate("session-1");
+
+            // Then
+            assertTrue(missing.isEmpty());
+            assertSame(created, cartRegistry.find("session-1").orElseThrow());
+            assertEquals(1, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then a removed cart is replaced by a new, empty cart on next access")
+        void shouldRemoveCart() {
+            // Given
+            final Cart removed = cartRegistry.getOrCreate("session-1");
+
+            // When
+            final boolean wasRemoved = cartRegistry.remove("session-1");
+            final boolean removedTwice = cartRegistry.remove("session-1");
+
+            // Then
+            assertTrue(wasRemoved);
+            assertFalse(removedTwice);
+            assertEquals(0, cartRegistry.size());
+            assertNotSame(removed, cartRegistry.getOrCreate("session-1"));
+        }
+
+        @Test
+        @DisplayName("Then the configured cart factory is used once per cart-id")
+        void shouldUseCartFactory() {
+            // Given
+            final AtomicInteger created = new AtomicInteger();
+            final CartRegistry registry = new CartRegistryImpl(() -> {
+                created.incrementAndGet();
+                return new CartImpl();
+            }, 16);
+
+            // When
+            registry.getOrCreate("session-1");
+            registry.getOrCreate("session-1");
+            registry.getOrCreate("session-2");
+
+            // Then
+            assertEquals(2, created.get());
+        }
+
+        @Test
+        @DisplayName("Then a removed cart is closed: an off-heap one hands its lines back to its arena")
+        void shouldCloseRemovedCart() throws IOException {
+            // Given
+            try (OffHeapCartArena arena = new OffHeapCartArena(new ProductDictionaryImpl())) {
+                final CartRegistry registry = new CartRegistryImpl(() -> new OffHeapCart(arena), 16);
+                final Cart removed = registry.getOrCreate("session-1");
+                removed.addProduct(new ProductIn("cheerios", 2), BigDecimal.valueOf(8.43));
+                final long usedBytes = arena.usedBytes();
+
+                // When
+                registry.remove("session-1");
+
+                // Then
+                assertTrue(usedBytes > 0);
+                assertEquals(0, arena.usedBytes());
+                assertThrows(CartClosedException.class, () -> removed.addProduct(new ProductIn("cheerios", 1), BigDecimal.valueOf(8.43)));
+            }
+        }
+
+        @Test
+        @DisplayName("Then concurrent shoppers on the same cart-id share exactly one cart")
+        void shouldCreateOneCartUnderContention() throws Exception {
+            // Given
+            final int threads = 16;
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Cart>> futures = new ArrayList<>();
+
+            try {
+                // When
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return cartRegistry.getOrCreate("hot-session");
+                    }));
+                }
+                start.countDown();
+
+                final Set<Cart> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (final Future<Cart> future : futures) {
+                    distinct.add(future.get());
+                }
+
+                // Then
+                assertEquals(1, distinct.size());
+                assertEquals(1, cartRegistry.size());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When carts are requested - Negative Scenarios")
+    class WhenCartsAreRequestedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then a null cart-id is rejected")
+        void shouldRejectNullCartId() {
+            final var exception = assertThrows(InvalidCartParamsException.class, () -> cartRegistry.getOrCreate(null));
+
+            assertEquals("Cart-Id must not be null or blank", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Then a blank cart-id is rejected")
+        void shouldRejectBlankCartId() {
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.find(" "));
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.remove(""));
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+}
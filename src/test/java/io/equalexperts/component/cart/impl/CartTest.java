@@ -1,7 +1,15 @@
 package io.equalexperts.component.cart.impl;
 
 import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
 import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
 import io.equalexperts.model.ProductIn;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,9 +17,13 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Tag("unit")
 @DisplayName("Unit-Tests - Given Cart State")
@@ -29,7 +41,7 @@ class CartTest {
             final var productIn = new ProductIn("cheerios", 3);
             final var price = BigDecimal.valueOf(199.09);
             // When
-            final var items = cart.addProduct(productIn, price);
+            final var items = cart.addProduct(productIn, price).items();
             // Then
             assertEquals(1, items.size());
             assertEquals(199.09, items.get("cheerios").price().doubleValue());
@@ -50,8 +62,7 @@ class CartTest {
             // When
             cart.addProduct(cheerios, cheeriosPrice);
             cart.addProduct(chocolates, chocolatesPrice);
-            final var items = cart.addProduct(cornflakes, cornflakesPrice);
-
+            final var items = cart.addProduct(cornflakes, cornflakesPrice).items();
             // Then
             assertEquals(3, items.size());
             assertEquals(19.09, items.get("cheerios").price().doubleValue());
@@ -80,8 +91,7 @@ class CartTest {
             cart.addProduct(chocolate, chocolatesPrice);
             cart.addProduct(cheerios, cheeriosPrice);
             cart.addProduct(chocolates, chocolatesPrice);
-            final var items = cart.addProduct(cornflakes, cornflakesPrice);
-
+            final var items = cart.addProduct(cornflakes, cornflakesPrice).items();
             // Then
             assertEquals(3, items.size());
             assertEquals(19.09, items.get("cheerios").price().doubleValue());
@@ -93,6 +103,107 @@ class CartTest {
             assertEquals(37.79, items.get("chocolates").price().doubleValue());
             assertEquals(16, items.get("chocolates").quantity());
         }
+
+        @Test
+        @DisplayName("Then the running subtotal follows every add, decrement and removal")
+        void shouldMaintainRunningSubTotal() {
+            // Given
+            final var cornflakes = new ProductIn("cornflakes", 2);
+            final var weetabix = new ProductIn("weetabix", 1);
+
+            // When & Then
+            assertEquals(0, BigDecimal.ZERO.compareTo(cart.subTotal()));
+            cart.addProduct(cornflakes, BigDecimal.valueOf(2.52));
+            cart.addProduct(cornflakes, BigDecimal.valueOf(2.52));
+            cart.addProduct(weetabix, BigDecimal.valueOf(9.98));
+            assertEquals(0, new BigDecimal("20.06").compareTo(cart.subTotal()));
+
+            cart.removeProduct("cornflakes", 3);
+            assertEquals(0, new BigDecimal("12.50").compareTo(cart.subTotal()));
+
+            cart.removeProduct("weetabix");
+            cart.removeProduct("weetabix");
+            assertEquals(0, new BigDecimal("2.52").compareTo(cart.subTotal()));
+
+            cart.removeProduct("cornflakes", 5);
+            assertEquals(0, BigDecimal.ZERO.compareTo(cart.subTotal()));
+            assertTrue(cart.items().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then an existing line keeps its original price")
+        void shouldKeepOriginalPriceOfExistingLine() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), BigDecimal.valueOf(2.52));
+
+            // When
+            final var items = cart.addProduct(new ProductIn("cornflakes", 1), BigDecimal.valueOf(3.00)).items();
+            // Then
+            assertEquals(2.52, items.get("cornflakes").price().doubleValue());
+            assertEquals(0, new BigDecimal("5.04").compareTo(cart.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then every mutation publishes a new snapshot, and earlier snapshots never change")
+        void shouldPublishImmutableVersionedSnapshots() {
+            // Given
+            final var empty = cart.snapshot();
+            final var added = cart.addProduct(new ProductIn("cornflakes", 2), BigDecimal.valueOf(2.52)).items();
+            final var afterAdd = cart.snapshot();
+
+            // When
+            cart.addProduct(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98));
+            cart.removeProduct("cornflakes", 1);
+
+            // Then
+            assertEquals(0, empty.version());
+            assertTrue(empty.items().isEmpty());
+            assertEquals(1, afterAdd.version());
+            assertSame(added, afterAdd.items());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(BigDecimal.valueOf(2.52), 2)), added);
+            assertEquals(0, new BigDecimal("5.04").compareTo(afterAdd.subTotal()));
+            assertEquals(3, cart.snapshot().version());
+            assertEquals(0, new BigDecimal("12.50").compareTo(cart.snapshot().subTotal()));
+            final Map<String, ItemMetadata> addedLines = added;
+            assertThrows(UnsupportedOperationException.class, () -> addedLines.put("frosties", new ItemMetadata(BigDecimal.ONE, 1)));
+            assertEquals(2, added.plus("frosties", new ItemMetadata(BigDecimal.ONE, 1)).size());
+            assertEquals(1, added.size());
+        }
+
+        @Test
+        @DisplayName("Then the lines of all carts are keyed by one canonical instance of each product name")
+        void shouldKeyLinesByCanonicalProductNames() {
+            // Given
+            final ProductDictionary products = new ProductDictionaryImpl();
+            final Cart first = new CartImpl(CartSnapshot.empty(), products);
+            final Cart second = new CartImpl(CartSnapshot.empty(), products);
+
+            // When
+            first.addProduct(new ProductIn(new String("cornflakes"), 1), BigDecimal.valueOf(2.52));
+            second.addProducts(List.of(new CartLine(new ProductIn(new String("cornflakes"), 1), BigDecimal.valueOf(2.52))));
+            second.addProductIfVersion(new ProductIn(new String("weetabix"), 1), BigDecimal.valueOf(9.98), 1);
+
+            // Then
+            final String canonical = products.nameOf(products.find("cornflakes"));
+            assertSame(canonical, first.items().keySet().iterator().next());
+            assertSame(canonical, second.items().keySet().stream().filter("cornflakes"::equals).findFirst().orElseThrow());
+            assertEquals(2, products.size());
+        }
+
+        @Test
+        @DisplayName("Then removing a product that is not in the cart keeps the snapshot")
+        void shouldKeepSnapshotOnRemovingAbsentProduct() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 2), BigDecimal.valueOf(2.52));
+            final var before = cart.snapshot();
+
+            // When
+            cart.removeProduct("weetabix");
+            cart.removeProduct("weetabix", 1);
+
+            // Then
+            assertSame(before, cart.snapshot());
+        }
     }
 
     @Nested
@@ -110,6 +221,21 @@ class CartTest {
 
             // Then throw
             assertThrows(CartException.class, () -> cart.addProduct(productIn, price), "Price must be non-negative");
+            assertEquals(0, BigDecimal.ZERO.compareTo(cart.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then a rejected quantity leaves the running subtotal untouched")
+        void shouldNotMoveSubTotalOnRejectedQuantity() {
+            // Given
+            cart.addProduct(new ProductIn("chocolates", 1), BigDecimal.valueOf(9.39));
+
+            // When
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("chocolates", 0), BigDecimal.valueOf(9.39)));
+
+            // Then
+            assertEquals(1, cart.items().get("chocolates").quantity());
+            assertEquals(0, BigDecimal.valueOf(9.39).compareTo(cart.subTotal()));
         }
 
         @Test
@@ -120,8 +246,7 @@ class CartTest {
 
             // When
             final var price = BigDecimal.valueOf(9.39);
-            final var cartState = cart.addProduct(productIn, price);
-
+            final var cartState = cart.addProduct(productIn, price).items();
             // Then
             assertEquals(1, cartState.size());
             assertEquals(1, cartState.get("chocolates").quantity());
@@ -141,12 +266,127 @@ class CartTest {
 
             // When
             final var price = BigDecimal.valueOf(0.00);
-            final var cartState = cart.addProduct(productIn, price);
-
+            final var cartState = cart.addProduct(productIn, price).items();
             // Then
             assertEquals(1, cartState.size());
             assertEquals(1, cartState.get("chocolates").quantity());
             assertEquals(0.00, cartState.get("chocolates").price().doubleValue());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("When addProducts is called")
+    class WhenAddProductsIsCalled {
+
+        @Test
+        @DisplayName("Then every line is added, merging lines of the same product")
+        void shouldAddAllLines() {
+            // Given
+            cart.addProduct(new ProductIn("cheerios", 1), BigDecimal.valueOf(8.43));
+
+            // When
+            final var items = cart.addProducts(List.of(
+                    new CartLine(new ProductIn("cheerios", 2), BigDecimal.valueOf(9.99)),
+                    new CartLine(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98)),
+                    new CartLine(new ProductIn("weetabix", 3), BigDecimal.valueOf(9.98))
+            )).items();
+
+            // Then
+            assertEquals(2, items.size());
+            assertEquals(3, items.get("cheerios").quantity());
+            assertEquals(8.43, items.get("cheerios").price().doubleValue());    // The existing line keeps its price
+            assertEquals(4, items.get("weetabix").quantity());
+            assertEquals(0, new BigDecimal("65.21").compareTo(cart.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then the whole batch is published as one snapshot")
+        void shouldPublishBatchAsOneSnapshot() {
+            // When
+            cart.addProducts(List.of(
+                    new CartLine(new ProductIn("cheerios", 2), BigDecimal.valueOf(8.43)),
+                    new CartLine(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98))
+            ));
+
+            // Then
+            assertEquals(1, cart.snapshot().version());
+            assertEquals(2, cart.snapshot().items().size());
+        }
+
+        @Test
+        @DisplayName("Then an empty batch keeps the snapshot")
+        void shouldKeepSnapshotOnEmptyBatch() {
+            // When
+            cart.addProducts(List.of());
+
+            // Then
+            assertSame(CartSnapshot.empty(), cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then an invalid line leaves the cart unchanged")
+        void shouldRejectBatchWithInvalidLine() {
+            // Given
+            final var valid = new CartLine(new ProductIn("cheerios", 2), BigDecimal.valueOf(8.43));
+            final var negativePrice = new CartLine(new ProductIn("choco", 1), BigDecimal.valueOf(-1));
+            final var zeroQuantity = new CartLine(new ProductIn("frosties", 0), BigDecimal.ONE);
+            final var nullQuantity = new CartLine(new ProductIn("frosties", null), BigDecimal.ONE);
+
+            // When
+            assertThrows(CartException.class, () -> cart.addProducts(List.of(valid, negativePrice)));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, zeroQuantity)));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, nullQuantity)));
+
+            // Then
+            assertTrue(cart.items().isEmpty());
+            assertEquals(0, BigDecimal.ZERO.compareTo(cart.subTotal()));
+        }
+    }
+
+    @Nested
+    @DisplayName("When a conditional mutation is called")
+    class WhenConditionalMutationIsCalled {
+
+        @Test
+        @DisplayName("Then the cart is changed if it is at the expected version")
+        void shouldMutateAtExpectedVersion() {
+            // When
+            cart.addProductIfVersion(new ProductIn("cornflakes", 2), BigDecimal.valueOf(2.52), 0);
+            final var items = cart.addProductIfVersion(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98), 1).items();
+            final var removed = cart.removeProductIfVersion("weetabix", 2).items();
+            // Then
+            assertEquals(2, items.size());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(BigDecimal.valueOf(2.52), 2)), removed);
+            assertEquals(3, cart.snapshot().version());
+            assertEquals(0, new BigDecimal("5.04").compareTo(cart.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then the cart is left unchanged if it is at another version")
+        void shouldRejectMutationAtOtherVersion() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 2), BigDecimal.valueOf(2.52));
+            final var before = cart.snapshot();
+
+            // When
+            final var addConflict = assertThrows(CartVersionConflictException.class,
+                    () -> cart.addProductIfVersion(new ProductIn("weetabix", 1), BigDecimal.valueOf(9.98), 0));
+            final var removeConflict = assertThrows(CartVersionConflictException.class, () -> cart.removeProductIfVersion("cornflakes", 2));
+
+            // Then
+            assertSame(before, cart.snapshot());
+            assertEquals(0, addConflict.getExpectedVersion());
+            assertEquals(1, addConflict.getActualVersion());
+            assertEquals("Cart version 2 was expected, but the cart is at version 1", removeConflict.getMessage());
+            assertEquals(409L, CartVersionConflictException.getStatusCode());
+        }
+
+        @Test
+        @DisplayName("Then invalid input is rejected before the version is checked")
+        void shouldRejectInvalidInput() {
+            assertThrows(CartException.class, () -> cart.addProductIfVersion(new ProductIn("cornflakes", 1), BigDecimal.valueOf(-1), 0));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProductIfVersion(" ", 0));
+            assertSame(CartSnapshot.empty(), cart.snapshot());
+        }
+    }
+}
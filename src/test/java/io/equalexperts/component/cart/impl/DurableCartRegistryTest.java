@@ -0,0 +1,213 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.store.CartStore;
+import io.equalexperts.component.store.impl.FileCartStore;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given DurableCartRegistry")
+class DurableCartRegistryTest {
+    private static final BigDecimal CORNFLAKES_PRICE = new BigDecimal("2.52");
+
+    @TempDir
+    private Path directory;
+    private FileCartStore store;
+    private CartRegistry cartRegistry;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileCartStore(directory);
+        cartRegistry = new DurableCartRegistry(store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private CartRegistry restart() {
+        store.close();
+        store = new FileCartStore(directory);
+        return new DurableCartRegistry(store);
+    }
+
+    @Nested
+    @DisplayName("When carts are requested - Positive Scenarios")
+    class WhenCartsAreRequestedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then the carts are recovered on restart, at their versions")
+        void shouldRecoverCarts() {
+            // Given
+            cartRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 2), CORNFLAKES_PRICE);
+            cartRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            cartRegistry.getOrCreate("session-2").addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            cartRegistry.getOrCreate("session-3");
+
+            // When
+            final CartRegistry restarted = restart();
+
+            // Then
+            assertEquals(Set.of("session-1", "session-2"), restarted.cartIds());
+            final Cart cart = restarted.find("session-1").orElseThrow();
+            assertEquals(2, cart.snapshot().version());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 3)), cart.items());
+            assertSame(cart, restarted.getOrCreate("session-1"));
+            assertTrue(restarted.find("session-3").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a removed cart is not recovered on restart")
+        void shouldNotRecoverRemovedCart() {
+            // Given
+            cartRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 2), CORNFLAKES_PRICE);
+
+            // When
+            final boolean removed = cartRegistry.remove("session-1");
+            final boolean removedTwice = cartRegistry.remove("session-1");
+
+            // Then
+            assertTrue(removed);
+            assertFalse(removedTwice);
+            assertEquals(0, restart().size());
+        }
+
+        @Test
+        @DisplayName("Then a cart created again after a removal is recovered, and the removed one is closed")
+        void shouldRecoverCartCreatedAgain() {
+            // Given
+            final Cart removed = cartRegistry.getOrCreate("session-1");
+            removed.addProduct(new ProductIn("cornflakes", 2), CORNFLAKES_PRICE);
+            cartRegistry.remove("session-1");
+
+            // When
+            cartRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // Then
+            assertThrows(CartClosedException.class, () -> removed.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            final Cart recovered = restart().find("session-1").orElseThrow();
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 1)), recovered.items());
+        }
+
+        @Test
+        @DisplayName("Then no change of the cart-id reaches the store until the removal of its cart is durable")
+        void shouldNotRecordChangesBeforeDiscardIsDurable() throws Exception {
+            // Given
+            final CartStore slowStore = mock(CartStore.class);
+            final CompletableFuture<Void> durable = new CompletableFuture<>();
+            when(slowStore.recover()).thenReturn(Map.of());
+            when(slowStore.append(any())).thenReturn(CompletableFuture.completedFuture(null));
+            when(slowStore.append(CartChange.discard("session-1"))).thenReturn(durable);
+            final CartRegistry slowRegistry = new DurableCartRegistry(slowStore);
+            slowRegistry.getOrCreate("session-1");
+
+            // When
+            final CompletableFuture<Boolean> removing = CompletableFuture.supplyAsync(() -> slowRegistry.remove("session-1"));
+            verify(slowStore, timeout(5_000)).append(CartChange.discard("session-1"));
+            final Thread adding = Thread.ofPlatform().start(() -> {
+                try {
+                    slowRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+                } catch (CartClosedException e) {
+                    // Handed the cart being removed: rejected, as by any caller still holding it
+                }
+            });
+            while (adding.getState() == Thread.State.NEW || adding.getState() == Thread.State.RUNNABLE) {
+                Thread.onSpinWait();
+            }
+            final long appendsBeforeDurable = mockingDetails(slowStore).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals("append")).count();
+            durable.complete(null);
+            adding.join(5_000);
+
+            // Then
+            assertEquals(1, appendsBeforeDurable);
+            assertTrue(removing.get(5, TimeUnit.SECONDS));
+            assertFalse(adding.isAlive());
+        }
+
+        @Test
+        @DisplayName("Then concurrent shoppers on different carts all have their changes recovered")
+        void shouldRecoverConcurrentChanges() throws Exception {
+            // Given
+            final int shoppers = 64;
+            final List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < shoppers; i++) {
+                    final String cartId = "session-" + i;
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 10; j++) {
+                            cartRegistry.getOrCreate(cartId).addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+                        }
+                    }));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            final long changes = store.stats().changes();
+            final long syncs = store.stats().syncs();
+            final CartRegistry restarted = restart();
+
+            // Then
+            assertEquals(shoppers * 10, changes);
+            assertTrue(syncs <= changes);
+            assertEquals(shoppers, restarted.size());
+            for (int i = 0; i < shoppers; i++) {
+                assertEquals(10, restarted.find("session-" + i).orElseThrow().snapshot().version());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When carts are requested - Negative Scenarios")
+    class WhenCartsAreRequestedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then a blank cart-id is rejected")
+        void shouldRejectBlankCartId() {
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.getOrCreate(null));
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.find(" "));
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.remove(""));
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+}
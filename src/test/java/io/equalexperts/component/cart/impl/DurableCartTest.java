@@ -0,0 +1,233 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.store.CartStore;
+import io.equalexperts.component.store.impl.FileCartStore;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given DurableCart")
+class DurableCartTest {
+    private static final BigDecimal CORNFLAKES_PRICE = new BigDecimal("2.52");
+    private static final BigDecimal WEETABIX_PRICE = new BigDecimal("9.98");
+
+    @TempDir
+    private Path directory;
+    private FileCartStore store;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileCartStore(directory);
+        cart = new DurableCart("session-1", CartSnapshot.empty(), store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private CartSnapshot recovered() {
+        store.close();
+        store = new FileCartStore(directory);
+        return store.recover().get("session-1");
+    }
+
+    @Nested
+    @DisplayName("When the cart is changed - Positive")
+    class WhenChangingCartPositive {
+
+        @Test
+        @DisplayName("Then every mutation is recorded, and the cart is recovered as it was left, at its version")
+        void shouldRecordMutations() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 3), CORNFLAKES_PRICE);
+            cart.addProductIfVersion(new ProductIn("weetabix", 1), WEETABIX_PRICE, 1);
+            cart.addProducts(List.of(new CartLine(new ProductIn("frosties", 1), BigDecimal.ONE), new CartLine(new ProductIn("cheerios", 1), BigDecimal.TEN)));
+            cart.removeProduct("cornflakes", 1);
+            cart.removeProduct("frosties");
+            cart.removeProductIfVersion("cheerios", 5);
+
+            // When
+            final CartSnapshot snapshot = recovered();
+
+            // Then
+            assertEquals(6, snapshot.version());
+            assertEquals(cart.snapshot().version(), snapshot.version());
+            assertEquals(cart.items(), snapshot.items());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 2), "weetabix", new ItemMetadata(WEETABIX_PRICE, 1)), snapshot.items());
+            assertEquals(0, cart.subTotal().compareTo(snapshot.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then a cart resumes from its recovered snapshot")
+        void shouldResumeFromRecoveredSnapshot() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final Cart resumed = new DurableCart("session-1", recovered(), store);
+
+            // When
+            final Map<String, ItemMetadata> items = resumed.addProductIfVersion(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE, 1).items();
+            // Then
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 2)), items);
+            assertEquals(2, recovered().version());
+        }
+    }
+
+    @Nested
+    @DisplayName("When the cart is changed - Negative")
+    class WhenChangingCartNegative {
+        private final CartStore mockStore = mock(CartStore.class);
+        private final DurableCart mockedCart = new DurableCart("session-1", CartSnapshot.empty(), mockStore);
+
+        @Test
+        @DisplayName("Then mutations that leave the cart unchanged are not recorded")
+        void shouldNotRecordUnchangedCart() {
+            // When
+            mockedCart.removeProduct("cornflakes");
+            mockedCart.removeProduct("cornflakes", 1);
+            assertThrows(CartVersionConflictException.class, () -> mockedCart.addProductIfVersion(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE, 3));
+            assertThrows(InvalidProductRemovalException.class, () -> mockedCart.removeProduct(" "));
+
+            // Then
+            verifyNoInteractions(mockStore);
+            assertEquals(0, mockedCart.snapshot().version());
+        }
+
+        @Test
+        @DisplayName("Then a change that cannot be made durable fails the mutation, and leaves the cart as it was")
+        void shouldFailOnStoreFailure() {
+            // Given
+            when(mockStore.append(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Disk full"))))
+                    .thenReturn(CompletableFuture.completedFuture(null));
+
+            // When
+            assertThrows(UncheckedIOException.class, () -> mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            final CartSnapshot unchanged = mockedCart.snapshot();
+            final CartSnapshot added = mockedCart.addProduct(new ProductIn("weetabix", 1), WEETABIX_PRICE);
+
+            // Then
+            assertEquals(CartSnapshot.empty(), unchanged);
+            assertEquals(1, added.version());
+            assertEquals(Map.of("weetabix", new ItemMetadata(WEETABIX_PRICE, 1)), mockedCart.items());
+            assertEquals(0, WEETABIX_PRICE.compareTo(mockedCart.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then a change is seen by readers only once it is durable")
+        void shouldCommitOnceDurable() throws Exception {
+            // Given
+            final CompletableFuture<Void> durable = new CompletableFuture<>();
+            when(mockStore.append(any())).thenReturn(durable);
+
+            // When
+            final CompletableFuture<CartSnapshot> adding = CompletableFuture.supplyAsync(() -> mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            verify(mockStore, timeout(5_000)).append(any());
+            final CartSnapshot whileSyncing = mockedCart.snapshot();
+            durable.complete(null);
+
+            // Then
+            assertEquals(0, whileSyncing.version());
+            assertEquals(adding.get(5, TimeUnit.SECONDS), mockedCart.snapshot());
+            assertEquals(1, mockedCart.snapshot().version());
+        }
+
+        @Test
+        @DisplayName("Then a store that fails with a checked exception or an error fails the mutation with it")
+        void shouldPassOnStoreFailureCauses() {
+            // Given
+            when(mockStore.append(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new IOException("Disk full")))
+                    .thenReturn(CompletableFuture.failedFuture(new StackOverflowError()));
+
+            // When
+            final var checked = assertThrows(CompletionException.class, () -> mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            assertThrows(StackOverflowError.class, () -> mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+
+            // Then
+            assertInstanceOf(IOException.class, checked.getCause());
+            assertEquals(0, mockedCart.snapshot().version());
+        }
+
+        @Test
+        @DisplayName("Then a discarded cart is recorded once, and its later mutations are rejected")
+        void shouldRecordDiscardOnce() {
+            // Given
+            when(mockStore.append(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+            // When
+            mockedCart.discard();
+            mockedCart.discard();
+
+            // Then
+            assertThrows(CartClosedException.class, () -> mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            verify(mockStore, times(1)).append(CartChange.discard("session-1"));
+            verify(mockStore, times(1)).append(any());
+            assertTrue(mockedCart.items().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a closed cart rejects mutations without recording them")
+        void shouldRejectMutationsOnceClosed() {
+            // When
+            mockedCart.close();
+
+            // Then
+            assertThrows(CartClosedException.class, () -> mockedCart.removeProduct("cornflakes"));
+            verifyNoInteractions(mockStore);
+        }
+
+        @Test
+        @DisplayName("Then a discard that cannot be made durable leaves the cart open")
+        void shouldStayOpenOnFailedDiscard() {
+            // Given
+            when(mockStore.append(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new UncheckedIOException(new IOException("Disk full"))))
+                    .thenReturn(CompletableFuture.completedFuture(null));
+
+            // When
+            assertThrows(UncheckedIOException.class, mockedCart::discard);
+            final CartSnapshot added = mockedCart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // Then
+            assertEquals(1, added.version());
+        }
+    }
+}
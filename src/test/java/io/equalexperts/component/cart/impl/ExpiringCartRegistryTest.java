@@ -0,0 +1,417 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.expiry.CartExpiryListener;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ExpiryCause;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given ExpiringCartRegistry")
+class ExpiringCartRegistryTest {
+    private static final BigDecimal CORNFLAKES_PRICE = new BigDecimal("2.52");
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration TIME_TO_LIVE = Duration.ofHours(24);
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<Expired> expired = new CopyOnWriteArrayList<>();
+    private final CartExpiryListener listener = (cartId, snapshot, cause) -> expired.add(new Expired(cartId, snapshot, cause));
+    private final CartRegistry delegate = new CartRegistryImpl();
+    private final ExpiringCartRegistry cartRegistry = new ExpiringCartRegistry(delegate, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get);
+
+    private record Expired(String cartId, CartSnapshot snapshot, ExpiryCause cause) {
+    }
+
+    private void passTime(final Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * @return A registry that signals {@code removing} as it removes a cart, and then waits for {@code stored}.
+     */
+    private static CartRegistry slowToRemove(final CountDownLatch removing, final CountDownLatch stored) {
+        return new CartRegistryImpl() {
+            @Override
+            public boolean remove(final String cartId) {
+                removing.countDown();
+                try {
+                    stored.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.remove(cartId);
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("When carts are left alone - Positive Scenarios")
+    class WhenCartsAreLeftAlonePositiveScenarios {
+
+        @Test
+        @DisplayName("Then an abandoned cart expires after its idle timeout, and a touched cart lives on")
+        void shouldExpireIdleCart() {
+            // Given
+            cartRegistry.getOrCreate("session-1").addProduct(new ProductIn("cornflakes", 2), CORNFLAKES_PRICE);
+            cartRegistry.getOrCreate("session-2");
+            passTime(Duration.ofMinutes(20));
+            cartRegistry.find("session-2");
+
+            // When
+            passTime(Duration.ofMinutes(10).plus(TICK));
+            final int firstRound = cartRegistry.expire();
+            final int size = cartRegistry.size();
+            passTime(Duration.ofMinutes(20));
+            final int secondRound = cartRegistry.expire();
+
+            // Then
+            assertEquals(1, firstRound);
+            assertEquals(1, size);
+            assertEquals(1, secondRound);
+            assertEquals(0, cartRegistry.size());
+            assertEquals(List.of("session-1", "session-2"), expired.stream().map(Expired::cartId).toList());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 2)), expired.getFirst().snapshot().items());
+            assertTrue(expired.stream().allMatch(cart -> cart.cause() == ExpiryCause.IDLE));
+            assertTrue(cartRegistry.getOrCreate("session-1").items().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a cart expires at its time-to-live, however often it is touched")
+        void shouldExpireCartAtTimeToLive() {
+            // Given
+            final Cart cart = cartRegistry.getOrCreate("session-1");
+
+            // When
+            int expiredCarts = 0;
+            for (int minutes = 0; minutes < TIME_TO_LIVE.toMinutes(); minutes += 10) {
+                assertSame(cart, cartRegistry.getOrCreate("session-1"));
+                passTime(Duration.ofMinutes(10));
+                expiredCarts += cartRegistry.expire();
+            }
+
+            // Then
+            assertEquals(1, expiredCarts);
+            assertEquals(ExpiryCause.TIME_TO_LIVE, expired.getFirst().cause());
+            assertNotSame(cart, cartRegistry.getOrCreate("session-1"));
+        }
+
+        @Test
+        @DisplayName("Then a removed cart is not expired")
+        void shouldNotExpireRemovedCart() {
+            // Given
+            cartRegistry.getOrCreate("session-1");
+
+            // When
+            final boolean removed = cartRegistry.remove("session-1");
+            final boolean removedTwice = cartRegistry.remove("session-1");
+            passTime(TIME_TO_LIVE);
+
+            // Then
+            assertTrue(removed);
+            assertFalse(removedTwice);
+            assertEquals(0, cartRegistry.expire());
+            assertTrue(expired.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a cart the other registry holds already is tracked from its first access, and find does not create carts")
+        void shouldTrackExistingCartOnFind() {
+            // Given
+            final Cart existing = delegate.getOrCreate("recovered");
+
+            // When
+            final Cart found = cartRegistry.find("recovered").orElseThrow();
+            final boolean missing = cartRegistry.find("session-1").isEmpty();
+            passTime(IDLE_TIMEOUT.plus(TICK));
+
+            // Then
+            assertSame(existing, found);
+            assertTrue(missing);
+            assertEquals(1, cartRegistry.expire());
+            assertEquals(0, delegate.size());
+        }
+
+        @Test
+        @DisplayName("Then carts the other registry holds already, e.g. recovered ones, expire without ever being accessed")
+        void shouldExpireExistingCarts() {
+            // Given
+            final CartRegistry recovered = new CartRegistryImpl();
+            recovered.getOrCreate("recovered-1");
+            recovered.getOrCreate("recovered-2");
+            final ExpiringCartRegistry registry = new ExpiringCartRegistry(recovered, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get);
+
+            // When
+            final Set<String> cartIds = Set.copyOf(registry.cartIds());
+            passTime(IDLE_TIMEOUT.plus(TICK));
+            final int expiredCarts = registry.expire();
+
+            // Then
+            assertEquals(Set.of("recovered-1", "recovered-2"), cartIds);
+            assertEquals(2, expiredCarts);
+            assertEquals(0, recovered.size());
+        }
+
+        @Test
+        @DisplayName("Then a cart is removed outside the lock of its hash-bin, and look-ups of its cart-id wait for the removal")
+        void shouldWaitForRemoval() throws InterruptedException {
+            // Given - the other registry takes its time to remove a cart, as a store would
+            final CountDownLatch removing = new CountDownLatch(1);
+            final CountDownLatch stored = new CountDownLatch(1);
+            final ExpiringCartRegistry registry = new ExpiringCartRegistry(slowToRemove(removing, stored), IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get);
+            registry.getOrCreate("session-1");
+            final AtomicBoolean removed = new AtomicBoolean();
+            final Thread remover = Thread.ofPlatform().start(() -> removed.set(registry.remove("session-1")));
+            removing.await();
+
+            // When
+            final AtomicReference<Optional<Cart>> found = new AtomicReference<>();
+            final AtomicBoolean removedTwice = new AtomicBoolean(true);
+            final Thread finder = Thread.ofPlatform().start(() -> found.set(registry.find("session-1")));
+            final Thread secondRemover = Thread.ofPlatform().start(() -> removedTwice.set(registry.remove("session-1")));
+            awaitTrue(() -> finder.getState() == Thread.State.WAITING && secondRemover.getState() == Thread.State.WAITING);
+            stored.countDown();
+            remover.join(5_000);
+            finder.join(5_000);
+            secondRemover.join(5_000);
+
+            // Then
+            assertTrue(removed.get());
+            assertFalse(removedTwice.get());
+            assertTrue(found.get().isEmpty());
+            assertEquals(0, registry.size());
+        }
+
+        @Test
+        @DisplayName("Then a cart removed and created again as its timer fires is kept, as the new cart it is")
+        void shouldKeepCartCreatedAgain() {
+            // Given
+            final AtomicInteger reads = new AtomicInteger();
+            final AtomicReference<ExpiringCartRegistry> registry = new AtomicReference<>();
+            registry.set(new ExpiringCartRegistry(delegate, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, () -> {
+                if (reads.incrementAndGet() == 4) {     // As the cart is expired, after the wheel advanced
+                    registry.get().remove("session-1");
+                    registry.get().getOrCreate("session-1");
+                }
+                return now.get();
+            }));
+            final Cart cart = registry.get().getOrCreate("session-1");
+            passTime(IDLE_TIMEOUT.plus(TICK));
+
+            // When
+            final int expiredCarts = registry.get().expire();
+
+            // Then
+            assertEquals(0, expiredCarts);
+            assertTrue(expired.isEmpty());
+            assertNotSame(cart, registry.get().find("session-1").orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Then a cart being removed as its timer fires is left to the removal")
+        void shouldLeaveCartBeingRemoved() throws InterruptedException {
+            // Given
+            final CountDownLatch removing = new CountDownLatch(1);
+            final CountDownLatch stored = new CountDownLatch(1);
+            final AtomicInteger reads = new AtomicInteger();
+            final AtomicReference<ExpiringCartRegistry> registry = new AtomicReference<>();
+            final AtomicReference<Thread> remover = new AtomicReference<>();
+            registry.set(new ExpiringCartRegistry(slowToRemove(removing, stored), IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, () -> {
+                if (reads.incrementAndGet() == 4) {     // As the cart is expired, after the wheel advanced
+                    remover.set(Thread.ofPlatform().start(() -> registry.get().remove("session-1")));
+                    try {
+                        removing.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return now.get();
+            }));
+            registry.get().getOrCreate("session-1");
+            passTime(IDLE_TIMEOUT.plus(TICK));
+
+            // When
+            final int expiredCarts = registry.get().expire();
+            stored.countDown();
+            remover.get().join(5_000);
+
+            // Then
+            assertEquals(0, expiredCarts);
+            assertTrue(expired.isEmpty());
+            assertEquals(0, registry.get().size());
+        }
+
+        @Test
+        @DisplayName("Then a cart touched as it expires is not handed out: the touch waits for the expiry, and gets a new cart")
+        void shouldNotHandOutExpiringCart() throws InterruptedException {
+            // Given - the look-up of another shopper races the expiry, as it removes the cart
+            final AtomicReference<ExpiringCartRegistry> registry = new AtomicReference<>();
+            final AtomicReference<Cart> touched = new AtomicReference<>();
+            final AtomicReference<Thread> shopper = new AtomicReference<>();
+            final CartRegistry racedDelegate = new CartRegistryImpl() {
+                @Override
+                public boolean remove(final String cartId) {
+                    shopper.set(Thread.ofPlatform().start(() -> touched.set(registry.get().getOrCreate(cartId))));
+                    try {
+                        awaitTrue(() -> shopper.get().getState() == Thread.State.WAITING || !shopper.get().isAlive());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.remove(cartId);
+                }
+            };
+            registry.set(new ExpiringCartRegistry(racedDelegate, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get));
+            final Cart cart = registry.get().getOrCreate("session-1");
+            passTime(IDLE_TIMEOUT.plus(TICK));
+
+            // When
+            final int expiredCarts = registry.get().expire();
+            shopper.get().join(5_000);
+
+            // Then
+            assertEquals(1, expiredCarts);
+            assertNotSame(cart, touched.get());
+            assertSame(touched.get(), registry.get().find("session-1").orElseThrow());
+            assertEquals(1, registry.get().size());
+        }
+
+        @Test
+        @DisplayName("Then carts expire on their own, on the expiry thread")
+        void shouldExpireCartsPeriodically() throws InterruptedException {
+            // Given
+            try (ExpiringCartRegistry registry = new ExpiringCartRegistry(new CartRegistryImpl(), Duration.ofMillis(50), TIME_TO_LIVE, listener, Duration.ofMillis(10))) {
+
+                // When
+                registry.getOrCreate("session-1");
+
+                // Then
+                awaitTrue(() -> expired.size() == 1);
+                assertEquals(0, registry.size());
+            }
+            try (ExpiringCartRegistry registry = new ExpiringCartRegistry(new CartRegistryImpl(), IDLE_TIMEOUT, TIME_TO_LIVE, listener)) {
+                assertEquals(0, registry.size());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When carts are left alone - Negative Scenarios")
+    class WhenCartsAreLeftAloneNegativeScenarios {
+
+        @Test
+        @DisplayName("Then a cart that cannot be removed is tried again on the next tick")
+        void shouldRetryFailedExpiry() {
+            // Given
+            final CartRegistry failing = mock(CartRegistry.class);
+            when(failing.getOrCreate(anyString())).thenReturn(new CartImpl());
+            when(failing.remove(anyString())).thenThrow(new IllegalStateException("Store unavailable")).thenReturn(true);
+            final ExpiringCartRegistry registry = new ExpiringCartRegistry(failing, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get);
+            registry.getOrCreate("session-1");
+            passTime(IDLE_TIMEOUT.plus(TICK));
+
+            // When
+            final int firstRound = registry.expire();
+            passTime(TICK);
+            final int secondRound = registry.expire();
+
+            // Then
+            assertEquals(0, firstRound);
+            assertEquals(1, secondRound);
+            assertEquals(1, expired.size());
+        }
+
+        @Test
+        @DisplayName("Then a cart that cannot be removed is kept, and still expires")
+        void shouldKeepCartOnFailedRemoval() {
+            // Given
+            final CartRegistry failing = mock(CartRegistry.class);
+            when(failing.getOrCreate(anyString())).thenReturn(new CartImpl());
+            when(failing.remove(anyString()))
+                    .thenThrow(new IllegalStateException("Store unavailable"))
+                    .thenThrow(new IllegalStateException("Store unavailable"))
+                    .thenReturn(true);
+            final ExpiringCartRegistry registry = new ExpiringCartRegistry(failing, IDLE_TIMEOUT, TIME_TO_LIVE, listener, TICK, now::get);
+            final Cart cart = registry.getOrCreate("session-1");
+
+            // When
+            assertThrows(IllegalStateException.class, () -> registry.remove("session-1"));
+            assertThrows(IllegalStateException.class, () -> registry.remove("session-2"));     // Never tracked
+            final Cart kept = registry.getOrCreate("session-1");
+            final boolean untrackedFound = registry.find("session-2").isPresent();
+            passTime(IDLE_TIMEOUT.plus(TICK));
+            final int expiredCarts = registry.expire();
+
+            // Then
+            assertSame(cart, kept);
+            assertFalse(untrackedFound);
+            assertEquals(1, expiredCarts);
+            assertEquals(List.of("session-1"), expired.stream().map(Expired::cartId).toList());
+        }
+
+        @Test
+        @DisplayName("Then a failing listener does not stop the cart from expiring")
+        void shouldExpireDespiteFailingListener() {
+            // Given
+            try (ExpiringCartRegistry registry = new ExpiringCartRegistry(delegate, IDLE_TIMEOUT, TIME_TO_LIVE, (cartId, snapshot, cause) -> {
+                throw new IllegalStateException("Hook unavailable");
+            }, TICK, now::get)) {
+                registry.getOrCreate("session-1");
+                passTime(IDLE_TIMEOUT.plus(TICK));
+
+                // When
+                final int expiredCarts = registry.expire();
+
+                // Then
+                assertEquals(1, expiredCarts);
+                assertEquals(0, registry.size());
+            }
+        }
+
+        @Test
+        @DisplayName("Then a blank cart-id is rejected")
+        void shouldRejectBlankCartId() {
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.getOrCreate(null));
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.find(" "));
+            assertThrows(InvalidCartParamsException.class, () -> cartRegistry.remove(""));
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given OffHeapCart")
+class OffHeapCartTest {
+    private static final BigDecimal CORNFLAKES_PRICE = new BigDecimal("2.52");
+    private static final BigDecimal WEETABIX_PRICE = new BigDecimal("9.98");
+    private static final int CHUNK_BLOCKS = 4;
+    private static final long BLOCK_BYTES = 88;
+
+    @TempDir
+    private Path directory;
+    private OffHeapCartArena arena;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        arena = new OffHeapCartArena(new ProductDictionaryImpl(), directory, CHUNK_BLOCKS);
+        cart = new OffHeapCart(arena);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        arena.close();
+    }
+
+    @Nested
+    @DisplayName("When the cart is changed - Positive Scenarios")
+    class WhenCartIsChangedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then the lines, the subtotal and the version follow every mutation, as for the on-heap cart")
+        void shouldBehaveAsOnHeapCart() {
+            // Given
+            final Cart onHeap = new CartImpl();
+            final List<Cart> carts = List.of(cart, onHeap);
+
+            // When
+            for (final Cart each : carts) {
+                each.addProduct(new ProductIn("cornflakes", 3), CORNFLAKES_PRICE);
+                each.addProduct(new ProductIn("cornflakes", 2), WEETABIX_PRICE);
+                each.addProductIfVersion(new ProductIn("weetabix", 1), WEETABIX_PRICE, 2);
+                each.addProducts(List.of(new CartLine(new ProductIn("frosties", 1), BigDecimal.ONE),
+                        new CartLine(new ProductIn("frosties", 4), BigDecimal.ONE), new CartLine(new ProductIn("cheerios", 1), BigDecimal.TEN)));
+                each.removeProduct("cornflakes", 1);
+                each.removeProduct("cheerios", 5);
+                each.removeProduct("weetabix");
+                each.removeProductIfVersion("frosties", 7);
+            }
+
+            // Then
+            final CartSnapshot snapshot = cart.snapshot();
+            assertEquals(onHeap.snapshot(), snapshot);
+            assertEquals(8, snapshot.version());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 4)), cart.items());
+            assertEquals(new BigDecimal("10.08"), cart.subTotal());
+        }
+
+        @Test
+        @DisplayName("Then removing an absent product, or an empty batch, leaves the version as it is")
+        void shouldKeepVersionWhenUnchanged() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // When
+            cart.removeProduct("weetabix");
+            cart.removeProduct("never-seen", 1);
+            cart.removeProductIfVersion("never-seen", 1);
+            cart.addProducts(List.of());
+
+            // Then
+            assertEquals(1, cart.snapshot().version());
+            assertEquals(1, cart.items().size());
+        }
+
+        @Test
+        @DisplayName("Then lines span several blocks and chunks, and every line can be removed in any order")
+        void shouldSpanBlocks() {
+            // Given
+            final Map<String, ItemMetadata> expected = new HashMap<>();
+            for (int i = 0; i < 50; i++) {
+                cart.addProduct(new ProductIn("product-" + i, i + 1), BigDecimal.valueOf(i, 2));
+                expected.put("product-" + i, new ItemMetadata(BigDecimal.valueOf(i, 2), i + 1));
+            }
+
+            // When
+            final Map<String, ItemMetadata> items = cart.items();
+            final long usedBytes = arena.usedBytes();
+            for (int i = 0; i < 50; i += 3) {
+                cart.removeProduct("product-" + i);
+                expected.remove("product-" + i);
+            }
+            final Map<String, ItemMetadata> remaining = cart.items();
+            for (int i = 49; i >= 0; i--) {
+                cart.removeProduct("product-" + i, Integer.MAX_VALUE);
+            }
+
+            // Then
+            assertEquals(50, items.size());
+            assertEquals(13 * BLOCK_BYTES, usedBytes);
+            assertEquals(expected, remaining);
+            assertTrue(cart.items().isEmpty());
+            assertEquals(BigDecimal.ZERO, cart.subTotal());
+            assertEquals(0, arena.usedBytes());
+        }
+
+        @Test
+        @DisplayName("Then a closed cart hands its blocks back to the arena, to be reused by other carts")
+        void shouldReuseReleasedBlocks() {
+            // Given
+            final OffHeapCart released = new OffHeapCart(arena);
+            for (int i = 0; i < 10; i++) {
+                released.addProduct(new ProductIn("product-" + i, 1), BigDecimal.ONE);
+            }
+            final long usedBytes = arena.usedBytes();
+
+            // When
+            released.close();
+            released.close();
+            for (int i = 0; i < 10; i++) {
+                cart.addProduct(new ProductIn("product-" + i, 1), BigDecimal.ONE);
+            }
+
+            // Then
+            assertEquals(3 * BLOCK_BYTES, usedBytes);
+            assertEquals(usedBytes, arena.usedBytes());
+            assertTrue(released.items().isEmpty());
+            assertEquals(10, cart.items().size());
+        }
+
+        @Test
+        @DisplayName("Then prices keep their scale, up to the largest unscaled long")
+        void shouldKeepPrices() {
+            // Given
+            final BigDecimal largest = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+            final BigDecimal precise = new BigDecimal("0.000000001");
+
+            // When
+            cart.addProduct(new ProductIn("largest", 1), largest);
+            final Map<String, ItemMetadata> items = cart.addProduct(new ProductIn("precise", 3), precise).items();
+            // Then
+            assertEquals(largest, items.get("largest").price());
+            assertEquals(precise, items.get("precise").price());
+            assertEquals(largest.add(new BigDecimal("0.000000003")), cart.subTotal());
+        }
+
+        @Test
+        @DisplayName("Then concurrent shoppers adding the same product never lose an update")
+        void shouldNotLoseConcurrentUpdates() throws Exception {
+            // Given
+            final List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(executor.submit(() -> cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE)));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            // Then
+            assertEquals(100, cart.items().get("cornflakes").quantity());
+            assertEquals(100, cart.snapshot().version());
+        }
+    }
+
+    @Nested
+    @DisplayName("When the cart is changed - Negative Scenarios")
+    class WhenCartIsChangedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then invalid prices, quantities and product names are rejected, leaving the cart unchanged")
+        void shouldRejectInvalidInput() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+            final BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE);
+
+            // When - Then
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE.negate()));
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("cornflakes", 1), tooLarge));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", 0), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", null), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", Integer.MAX_VALUE), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.removeProduct("cornflakes", 0));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProduct(" "));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProduct(null, 1));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProductIfVersion("", 1));
+            assertEquals(before, cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then a batch with an invalid or overflowing line leaves the cart unchanged")
+        void shouldRejectInvalidBatch() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+            final CartLine valid = new CartLine(new ProductIn("weetabix", 1), WEETABIX_PRICE);
+            final CartLine half = new CartLine(new ProductIn("frosties", Integer.MAX_VALUE / 2 + 1), BigDecimal.ONE);
+
+            // When - Then
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("frosties", 0), BigDecimal.ONE))));
+            assertThrows(CartException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("frosties", 1), BigDecimal.ONE.negate()))));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, half, half)));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("cornflakes", Integer.MAX_VALUE), BigDecimal.ONE))));
+            assertEquals(before, cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then a mutation at another version is rejected, leaving the cart unchanged")
+        void shouldRejectMutationAtOtherVersion() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+
+            // When
+            final CartVersionConflictException added = assertThrows(CartVersionConflictException.class,
+                    () -> cart.addProductIfVersion(new ProductIn("weetabix", 1), WEETABIX_PRICE, 0));
+            assertThrows(CartVersionConflictException.class, () -> cart.removeProductIfVersion("cornflakes", 2));
+
+            // Then
+            assertEquals(0, added.getExpectedVersion());
+            assertEquals(1, added.getActualVersion());
+            assertEquals(before, cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then a closed cart fails any mutation with a client error")
+        void shouldRejectMutationOfClosedCart() {
+            // Given
+            final OffHeapCart released = new OffHeapCart(arena);
+            released.close();
+
+            // When - Then
+            assertThrows(CartClosedException.class, () -> released.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            assertThrows(CartClosedException.class, () -> released.addProductIfVersion(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE, 0));
+            assertThrows(CartClosedException.class, () -> released.addProducts(List.of()));
+            assertThrows(CartClosedException.class, () -> released.removeProduct("cornflakes"));
+            assertThrows(CartClosedException.class, () -> released.removeProductIfVersion("cornflakes", 0));
+            assertThrows(CartClosedException.class, () -> released.removeProduct("cornflakes", 1));
+        }
+
+        @Test
+        @DisplayName("Then an arena that cannot create or grow its backing file fails")
+        void shouldFailOnArenaFailure() throws IOException {
+            // Given
+            final Path missing = directory.resolve("missing");
+            arena.close();
+
+            // When - Then
+            assertThrows(UncheckedIOException.class, () -> new OffHeapCartArena(new ProductDictionaryImpl(), missing, CHUNK_BLOCKS));
+            assertThrows(UncheckedIOException.class, () -> cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE));
+            assertEquals(0, arena.usedBytes());
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package io.equalexperts.component.cart.impl;
+
+import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.product.ProductDictionary;
+import io.equalexperts.component.product.impl.ProductDictionaryImpl;
+import io.equalexperts.exception.CartException;
+import io.equalexperts.exception.CartVersionConflictException;
+import io.equalexperts.exception.InvalidCartParamsException;
+import io.equalexperts.exception.InvalidProductRemovalException;
+import io.equalexperts.model.CartLine;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import io.equalexperts.model.ProductIn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.pcollections.HashTreePMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given PrimitiveCart")
+class PrimitiveCartTest {
+    private static final BigDecimal CORNFLAKES_PRICE = new BigDecimal("2.52");
+    private static final BigDecimal WEETABIX_PRICE = new BigDecimal("9.98");
+
+    private final ProductDictionary products = new ProductDictionaryImpl();
+    private final PrimitiveCart cart = new PrimitiveCart(products);
+
+    @Nested
+    @DisplayName("When the cart is changed - Positive Scenarios")
+    class WhenCartIsChangedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then the lines, the subtotal and the version follow every mutation, as for the on-heap cart")
+        void shouldBehaveAsOnHeapCart() {
+            // Given
+            final Cart onHeap = new CartImpl();
+            final List<Cart> carts = List.of(cart, onHeap);
+
+            // When
+            for (final Cart each : carts) {
+                each.addProduct(new ProductIn("cornflakes", 3), CORNFLAKES_PRICE);
+                each.addProduct(new ProductIn("cornflakes", 2), WEETABIX_PRICE);
+                each.addProductIfVersion(new ProductIn("weetabix", 1), WEETABIX_PRICE, 2);
+                each.addProducts(List.of(new CartLine(new ProductIn("frosties", 1), BigDecimal.ONE),
+                        new CartLine(new ProductIn("frosties", 4), BigDecimal.ONE), new CartLine(new ProductIn("cheerios", 1), BigDecimal.TEN)));
+                each.removeProduct("cornflakes", 1);
+                each.removeProduct("cheerios", 5);
+                each.removeProduct("weetabix");
+                each.removeProductIfVersion("frosties", 7);
+            }
+
+            // Then
+            final CartSnapshot snapshot = cart.snapshot();
+            assertEquals(onHeap.snapshot(), snapshot);
+            assertEquals(8, snapshot.version());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 4)), cart.items());
+            assertEquals(new BigDecimal("10.08"), cart.subTotal());
+        }
+
+        @Test
+        @DisplayName("Then a long run of random mutations leaves the same lines and subtotal as the on-heap cart")
+        void shouldMatchOnHeapCartUnderRandomMutations() {
+            // Given
+            final Cart onHeap = new CartImpl();
+            final Random random = new Random(42);
+
+            // When - Then
+            for (int i = 0; i < 5_000; i++) {
+                final String product = "product-" + random.nextInt(40);
+                final int quantity = random.nextInt(5) + 1;
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        final BigDecimal price = BigDecimal.valueOf(random.nextInt(10_000), random.nextInt(5));
+                        cart.addProduct(new ProductIn(product, quantity), price);
+                        onHeap.addProduct(new ProductIn(product, quantity), price);
+                    }
+                    case 1 -> {
+                        cart.removeProduct(product, quantity);
+                        onHeap.removeProduct(product, quantity);
+                    }
+                    default -> {
+                        cart.removeProduct(product);
+                        onHeap.removeProduct(product);
+                    }
+                }
+                assertEquals(onHeap.items(), cart.items());
+                assertEquals(onHeap.subTotal(), cart.subTotal());
+            }
+            assertEquals(onHeap.snapshot(), cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then removing an absent product, or an empty batch, leaves the version as it is")
+        void shouldKeepVersionWhenUnchanged() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // When
+            cart.removeProduct("weetabix");
+            cart.removeProduct("never-seen", 1);
+            cart.removeProductIfVersion("never-seen", 1);
+            cart.addProducts(List.of());
+
+            // Then
+            assertEquals(1, cart.snapshot().version());
+            assertEquals(1, cart.items().size());
+        }
+
+        @Test
+        @DisplayName("Then the table grows with the lines, and every line can be removed in any order")
+        void shouldGrowAndShrink() {
+            // Given
+            final Map<String, ItemMetadata> expected = new HashMap<>();
+            for (int i = 0; i < 50; i++) {
+                cart.addProduct(new ProductIn("product-" + i, i + 1), BigDecimal.valueOf(i, 2));
+                expected.put("product-" + i, new ItemMetadata(BigDecimal.valueOf(i, 2), i + 1));
+            }
+
+            // When
+            final int size = cart.items().size();
+            for (int i = 0; i < 50; i += 3) {
+                cart.removeProduct("product-" + i);
+                expected.remove("product-" + i);
+            }
+            final Map<String, ItemMetadata> remaining = Map.copyOf(cart.items());
+            for (int i = 49; i >= 0; i--) {
+                cart.removeProduct("product-" + i, Integer.MAX_VALUE);
+            }
+
+            // Then
+            assertEquals(50, size);
+            assertEquals(expected, remaining);
+            assertTrue(cart.items().isEmpty());
+            assertEquals(new BigDecimal("0.00"), cart.subTotal());
+        }
+
+        @Test
+        @DisplayName("Then the lines can be visited as product ids, price units and quantities")
+        void shouldVisitLines() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 3), CORNFLAKES_PRICE);
+            cart.addProduct(new ProductIn("weetabix", 1), WEETABIX_PRICE);
+            final Map<String, String> lines = new HashMap<>();
+
+            // When
+            cart.forEachLine((productId, priceUnits, quantity) -> lines.put(products.nameOf(productId), priceUnits + " x " + quantity));
+
+            // Then
+            assertEquals(Map.of("cornflakes", "25200 x 3", "weetabix", "99800 x 1"), lines);
+        }
+
+        @Test
+        @DisplayName("Then items() is one read-only view that follows the cart, and each change returns what it published")
+        void shouldHandOutLiveView() {
+            // Given
+            final Map<String, ItemMetadata> items = cart.items();
+            final var added = cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // When
+            cart.addProduct(new ProductIn("weetabix", 2), WEETABIX_PRICE);
+
+            // Then
+            assertSame(items, cart.items());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 1)), added.items());
+            assertEquals(1, added.version());
+            assertEquals(items, cart.removeProduct("frosties").items());
+            assertEquals(2, items.size());
+            assertEquals(new ItemMetadata(WEETABIX_PRICE, 2), items.get("weetabix"));
+            assertTrue(items.containsKey("cornflakes"));
+            assertFalse(items.containsKey("frosties"));
+            assertNull(items.get(42));
+            assertThrows(UnsupportedOperationException.class, () -> items.put("frosties", new ItemMetadata(BigDecimal.ONE, 1)));
+        }
+
+        @Test
+        @DisplayName("Then a snapshot keeps the lines of its version, as a persistent map built once they are read")
+        void shouldSnapshotLines() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final var snapshot = cart.addProduct(new ProductIn("weetabix", 2), WEETABIX_PRICE);
+
+            // When
+            cart.removeProduct("cornflakes");
+            final var lines = snapshot.items();
+
+            // Then
+            assertEquals(2, lines.size());
+            assertEquals(0, WEETABIX_PRICE.multiply(BigDecimal.valueOf(2)).add(CORNFLAKES_PRICE).compareTo(snapshot.subTotal()));
+            assertTrue(lines.containsKey("cornflakes"));
+            assertEquals(new ItemMetadata(WEETABIX_PRICE, 2), lines.get("weetabix"));
+            assertEquals(Map.of("weetabix", new ItemMetadata(WEETABIX_PRICE, 2)), lines.minus("cornflakes"));
+            assertEquals(Map.of("weetabix", new ItemMetadata(WEETABIX_PRICE, 2)), lines.minusAll(Set.of("cornflakes")));
+            assertEquals(3, lines.plus("frosties", new ItemMetadata(BigDecimal.ONE, 1)).size());
+            assertEquals(3, lines.plusAll(Map.of("frosties", new ItemMetadata(BigDecimal.ONE, 1))).size());
+            assertEquals(2, lines.size());
+            assertEquals(snapshot, new CartSnapshot(2, HashTreePMap.from(lines), snapshot.subTotal()));
+        }
+
+        @Test
+        @DisplayName("Then prices keep their scale, whatever it is")
+        void shouldKeepPrices() {
+            // Given
+            final BigDecimal round = new BigDecimal("1E+2");
+            final BigDecimal padded = new BigDecimal("2.520000");
+            final BigDecimal precise = new BigDecimal("0.0001");
+
+            // When
+            cart.addProduct(new ProductIn("round", 1), round);
+            cart.addProduct(new ProductIn("padded", 1), padded);
+            final Map<String, ItemMetadata> items = cart.addProduct(new ProductIn("precise", 3), precise).items();
+            // Then
+            assertEquals(round, items.get("round").price());
+            assertEquals(padded, items.get("padded").price());
+            assertEquals(precise, items.get("precise").price());
+            assertEquals(new BigDecimal("102.520300"), cart.subTotal());
+        }
+
+        @Test
+        @DisplayName("Then concurrent shoppers adding the same product never lose an update")
+        void shouldNotLoseConcurrentUpdates() throws Exception {
+            // Given
+            final List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(executor.submit(() -> cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE)));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            // Then
+            assertEquals(100, cart.items().get("cornflakes").quantity());
+            assertEquals(100, cart.snapshot().version());
+        }
+
+        @Test
+        @DisplayName("Then a cart without a dictionary uses one of its own")
+        void shouldUseOwnDictionary() {
+            // Given
+            final PrimitiveCart owning = new PrimitiveCart();
+
+            // When
+            owning.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+
+            // Then
+            assertEquals(ProductDictionary.NO_ID, products.find("cornflakes"));
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 1)), owning.items());
+        }
+    }
+
+    @Nested
+    @DisplayName("When the cart is changed - Negative Scenarios")
+    class WhenCartIsChangedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then invalid prices, quantities and product names are rejected, leaving the cart unchanged")
+        void shouldRejectInvalidInput() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+            final BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE);
+            final BigDecimal tooPrecise = new BigDecimal("0.00001");
+            final BigDecimal tooLongScale = BigDecimal.ONE.setScale(200);
+
+            // When - Then
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE.negate()));
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("weetabix", 1), tooLarge));
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("weetabix", 1), tooPrecise));
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("weetabix", 1), tooLongScale));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", 0), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", null), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProduct(new ProductIn("cornflakes", Integer.MAX_VALUE), CORNFLAKES_PRICE));
+            assertThrows(InvalidCartParamsException.class, () -> cart.removeProduct("cornflakes", 0));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProduct(" "));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProduct(null, 1));
+            assertThrows(InvalidProductRemovalException.class, () -> cart.removeProductIfVersion("", 1));
+            assertEquals(before, cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then a subtotal that would not fit is rejected, leaving the cart unchanged")
+        void shouldRejectOverflowingSubTotal() {
+            // Given
+            final BigDecimal expensive = BigDecimal.valueOf(Long.MAX_VALUE / 2, 4);
+            cart.addProduct(new ProductIn("caviar", 1), expensive);
+            final CartSnapshot before = cart.snapshot();
+
+            // When - Then
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("caviar", 2), expensive));
+            assertThrows(CartException.class, () -> cart.addProduct(new ProductIn("truffles", 3), expensive));
+            assertEquals(before, cart.snapshot());
+        }
+
+        @Test
+        @DisplayName("Then a batch with an invalid or overflowing line leaves the cart unchanged")
+        void shouldRejectInvalidBatch() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+            final CartLine valid = new CartLine(new ProductIn("weetabix", 1), WEETABIX_PRICE);
+            final CartLine half = new CartLine(new ProductIn("frosties", Integer.MAX_VALUE / 2 + 1), BigDecimal.ONE);
+            final CartLine expensive = new CartLine(new ProductIn("caviar", 3), BigDecimal.valueOf(Long.MAX_VALUE / 2, 4));
+
+            // When - Then
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("frosties", 0), BigDecimal.ONE))));
+            assertThrows(CartException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("frosties", 1), BigDecimal.ONE.negate()))));
+            assertThrows(CartException.class, () -> cart.addProducts(List.of(valid, new CartLine(new ProductIn("frosties", 1), new BigDecimal("0.00001")))));
+            assertThrows(InvalidCartParamsException.class, () -> cart.addProducts(List.of(valid, half, half)));
+            assertThrows(CartException.class, () -> cart.addProducts(List.of(valid, expensive)));
+            assertEquals(before, cart.snapshot());
+            assertEquals(Map.of("cornflakes", new ItemMetadata(CORNFLAKES_PRICE, 1)), cart.items());
+        }
+
+        @Test
+        @DisplayName("Then a mutation at another version is rejected, leaving the cart unchanged")
+        void shouldRejectMutationAtOtherVersion() {
+            // Given
+            cart.addProduct(new ProductIn("cornflakes", 1), CORNFLAKES_PRICE);
+            final CartSnapshot before = cart.snapshot();
+
+            // When
+            final CartVersionConflictException added = assertThrows(CartVersionConflictException.class,
+                    () -> cart.addProductIfVersion(new ProductIn("weetabix", 1), WEETABIX_PRICE, 0));
+            assertThrows(CartVersionConflictException.class, () -> cart.removeProductIfVersion("cornflakes", 2));
+
+            // Then
+            assertEquals(0, added.getExpectedVersion());
+            assertEquals(1, added.getActualVersion());
+            assertEquals(before, cart.snapshot());
+        }
+    }
+}
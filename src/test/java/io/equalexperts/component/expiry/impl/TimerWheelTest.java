@@ -0,0 +1,144 @@
+package io.equalexperts.component.expiry.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given TimerWheel")
+class TimerWheelTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final long ORIGIN = 42 * SECOND;
+
+    private final TimerWheel wheel = new TimerWheel(SECOND, ORIGIN);
+    private final List<TimerWheel.Timer> fired = new ArrayList<>();
+
+    @Nested
+    @DisplayName("When timers are scheduled - Positive Scenarios")
+    class WhenTimersAreScheduledPositiveScenarios {
+
+        @Test
+        @DisplayName("Then a timer fires on the first tick at or after its deadline, and only once")
+        void shouldFireOnDeadline() {
+            // Given
+            final TimerWheel.Timer timer = new TimerWheel.Timer();
+            wheel.schedule(timer, ORIGIN + 5 * SECOND + 1);
+
+            // When
+            wheel.advance(ORIGIN + 6 * SECOND - 1, fired::add);
+            final List<TimerWheel.Timer> early = List.copyOf(fired);
+            wheel.advance(ORIGIN + 6 * SECOND, fired::add);
+            wheel.advance(ORIGIN + 600 * SECOND, fired::add);
+
+            // Then
+            assertTrue(early.isEmpty());
+            assertEquals(List.of(timer), fired);
+            assertFalse(timer.isScheduled());
+            assertEquals(0, wheel.size());
+        }
+
+        @Test
+        @DisplayName("Then timers fire neither before their deadline nor after the tick of it, up to beyond the span of the wheel")
+        void shouldFireInOrderAcrossLevels() {
+            // Given
+            final TimerWheel fine = new TimerWheel(1, 0);
+            final Random random = new Random(7);
+            final Map<TimerWheel.Timer, Long> deadlines = new HashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                final TimerWheel.Timer timer = new TimerWheel.Timer();
+                final long deadline = i % 10 == 0 ? -random.nextInt(100) : random.nextLong(40_000_000);
+                fine.schedule(timer, deadline);
+                deadlines.put(timer, deadline);
+            }
+
+            // When - Then
+            long previous = 0;
+            while (fine.size() > 0) {
+                final long now = previous + 1 + random.nextInt(100_000);
+                final long since = previous;
+                fine.advance(now, timer -> {
+                    final long deadline = deadlines.remove(timer);
+                    assertTrue(deadline <= now);
+                    assertTrue(deadline > since || deadline <= 0);
+                });
+                previous = now;
+            }
+            assertTrue(deadlines.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a cancelled timer never fires, and a rescheduled one fires at its new deadline")
+        void shouldCancelAndReschedule() {
+            // Given
+            final TimerWheel.Timer cancelled = new TimerWheel.Timer();
+            final TimerWheel.Timer rescheduled = new TimerWheel.Timer();
+            wheel.schedule(cancelled, ORIGIN + 10 * SECOND);
+            wheel.schedule(rescheduled, ORIGIN + 10 * SECOND);
+
+            // When
+            wheel.cancel(cancelled);
+            wheel.cancel(cancelled);
+            wheel.schedule(rescheduled, ORIGIN + 3_000 * SECOND);
+            wheel.advance(ORIGIN + 2_999 * SECOND, fired::add);
+            final int pending = wheel.size();
+            wheel.advance(ORIGIN + 3_000 * SECOND, fired::add);
+
+            // Then
+            assertEquals(1, pending);
+            assertEquals(List.of(rescheduled), fired);
+        }
+
+        @Test
+        @DisplayName("Then a timer that fires can reschedule itself and cancel the other timers due with it")
+        void shouldAllowChangesWhileFiring() {
+            // Given
+            final TimerWheel.Timer first = new TimerWheel.Timer();
+            final TimerWheel.Timer second = new TimerWheel.Timer();
+            wheel.schedule(first, ORIGIN + SECOND);
+            wheel.schedule(second, ORIGIN + SECOND);
+
+            // When
+            wheel.advance(ORIGIN + SECOND, timer -> {
+                fired.add(timer);
+                wheel.cancel(timer == first ? second : first);
+                wheel.schedule(timer, ORIGIN + 65 * SECOND);
+            });
+            final int pending = wheel.size();
+            wheel.advance(ORIGIN + 65 * SECOND, fired::add);
+
+            // Then
+            assertEquals(1, pending);
+            assertEquals(2, fired.size());
+            assertEquals(fired.get(0), fired.get(1));
+        }
+
+        @Test
+        @DisplayName("Then an empty wheel skips ahead, and timers are scheduled relative to where it stands")
+        void shouldSkipAheadWhenEmpty() {
+            // Given
+            final TimerWheel.Timer timer = new TimerWheel.Timer();
+            wheel.advance(ORIGIN + 1_000_000 * SECOND, fired::add);
+
+            // When
+            wheel.schedule(timer, ORIGIN + 1_000_100 * SECOND);
+            wheel.advance(ORIGIN + 1_000_099 * SECOND, fired::add);
+            final boolean early = !fired.isEmpty();
+            wheel.advance(ORIGIN + 1_000_100 * SECOND, fired::add);
+
+            // Then
+            assertFalse(early);
+            assertEquals(List.of(timer), fired);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package io.equalexperts.component.metrics.impl;
+
+import io.equalexperts.model.CartOutcomeStats;
+import io.equalexperts.model.CartStage;
+import io.equalexperts.model.LatencyStats;
+import io.equalexperts.model.PriceCacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.equalexperts.constant.ErrorConstants.CONFLICT_ERROR;
+import static io.equalexperts.constant.ErrorConstants.INTERNAL_ERROR;
+import static io.equalexperts.constant.ErrorConstants.NOT_FOUND_ERROR;
+import static io.equalexperts.constant.ErrorConstants.PRICE_SERVICE_ERROR;
+import static io.equalexperts.constant.ErrorConstants.VALIDATION_ERROR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given CartMetrics")
+class CartMetricsTest {
+    private static final PriceCacheStats CACHE_STATS = new PriceCacheStats(7, 3, 3, 1, 0, 2);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CartMetricsImpl metrics = new CartMetricsImpl(() -> now.addAndGet(100));
+    private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+    private record Unavailable(long value) {
+        @Override
+        public long value() {
+            throw new IllegalStateException("Stats unavailable");
+        }
+    }
+
+    private static ObjectName name(final String metric) throws Exception {
+        return new ObjectName("io.equalexperts:type=CartMetrics,name=" + metric);
+    }
+
+    @Nested
+    @DisplayName("When metrics are recorded - Positive Scenarios")
+    class WhenMetricsAreRecordedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then each stage is timed from the end of the one before it")
+        void shouldTimeStagesBackToBack() {
+            // Given
+            final long start = metrics.startNanos();
+
+            // When
+            long stageStart = start;
+            for (final CartStage stage : CartStage.values()) {
+                stageStart = metrics.recordStage(stage, stageStart);
+            }
+
+            // Then
+            assertEquals(1_100, start);
+            assertEquals(1_600, stageStart);
+            for (final CartStage stage : CartStage.values()) {
+                assertEquals(new LatencyStats(1, 100, 100, 100, 100, 100, 100), metrics.stageStats(stage));
+            }
+        }
+
+        @Test
+        @DisplayName("Then outcomes are counted by error type, with unknown types as internal errors")
+        void shouldCountOutcomes() {
+            // When
+            metrics.recordSuccess();
+            metrics.recordSuccess();
+            for (final String errorType : List.of(VALIDATION_ERROR, NOT_FOUND_ERROR, PRICE_SERVICE_ERROR, CONFLICT_ERROR, INTERNAL_ERROR, "OTHER")) {
+                metrics.recordError(errorType);
+            }
+
+            // Then
+            assertEquals(new CartOutcomeStats(2, 1, 1, 1, 1, 2), metrics.outcomeStats());
+        }
+
+        @Test
+        @DisplayName("Then the text snapshot lists the stages in order, then the outcomes and the registered stats")
+        void shouldReportAsText() {
+            // Given
+            metrics.register("price-cache", () -> CACHE_STATS);
+            metrics.recordSuccess();
+
+            // When
+            final List<String> lines = metrics.report().lines().toList();
+
+            // Then
+            assertEquals(List.of("validation", "price-fetch", "cart-mutation", "totals", "view", "outcomes", "price-cache"),
+                    lines.stream().map(line -> line.substring(0, line.indexOf(' '))).toList());
+            assertEquals("outcomes " + new CartOutcomeStats(1, 0, 0, 0, 0, 0), lines.get(5));
+            assertEquals("price-cache " + CACHE_STATS, lines.get(6));
+        }
+
+        @Test
+        @DisplayName("Then every metric is an MBean, whose attributes are the components of its stats")
+        void shouldExposeMBeans() throws Exception {
+            // Given
+            metrics.register("price-cache", () -> CACHE_STATS);
+            metrics.recordStage(CartStage.PRICE_FETCH, metrics.startNanos());
+            metrics.recordError(NOT_FOUND_ERROR);
+
+            // When
+            metrics.registerMBeans(server);
+
+            // Then
+            assertEquals(7, server.queryNames(new ObjectName("io.equalexperts:type=CartMetrics,*"), null).size());
+            assertEquals(1L, server.getAttribute(name("price-fetch"), "count"));
+            assertEquals(1L, server.getAttribute(name("outcomes"), "notFoundErrors"));
+            assertEquals(7L, server.getAttribute(name("price-cache"), "hits"));
+            final MBeanAttributeInfo[] attributes = server.getMBeanInfo(name("price-cache")).getAttributes();
+            assertEquals(List.of("hits", "misses", "loads", "notFound", "evictions", "size"),
+                    Arrays.stream(attributes).map(MBeanAttributeInfo::getName).toList());
+            assertTrue(Arrays.stream(attributes).allMatch(attribute -> attribute.isReadable() && !attribute.isWritable()));
+            final AttributeList values = server.getAttributes(name("price-cache"), new String[]{"hits", "unknown", "size"});
+            assertEquals(List.of(new Attribute("hits", 7L), new Attribute("size", 2L)), values.asList());
+        }
+
+        @Test
+        @DisplayName("Then the MBeans can be removed")
+        void shouldUnregisterMBeans() throws Exception {
+            // Given
+            metrics.registerMBeans(server);
+
+            // When
+            metrics.unregisterMBeans(server);
+
+            // Then
+            assertTrue(server.queryNames(new ObjectName("io.equalexperts:type=CartMetrics,*"), null).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("When metrics are recorded - Negative Scenarios")
+    class WhenMetricsAreRecordedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then the MBeans are read-only, and have no operations")
+        void shouldRejectWritesAndOperations() throws Exception {
+            // Given
+            metrics.registerMBeans(server);
+            final ObjectName outcomes = name("outcomes");
+
+            // When - Then
+            assertThrows(AttributeNotFoundException.class, () -> server.getAttribute(outcomes, "unknown"));
+            assertThrows(AttributeNotFoundException.class, () -> server.setAttribute(outcomes, new Attribute("succeeded", 5L)));
+            assertTrue(server.setAttributes(outcomes, new AttributeList(List.of(new Attribute("succeeded", 5L)))).isEmpty());
+            assertThrows(ReflectionException.class, () -> server.invoke(outcomes, "reset", null, null));
+            assertEquals(0L, server.getAttribute(outcomes, "succeeded"));
+        }
+
+        @Test
+        @DisplayName("Then stats whose components cannot be read fail to be read")
+        void shouldFailOnUnavailableStats() throws Exception {
+            // Given
+            metrics.register("unavailable", () -> new Unavailable(1));
+            metrics.registerMBeans(server);
+
+            // When - Then
+            assertThrows(ReflectionException.class, () -> server.getAttribute(name("unavailable"), "value"));
+            assertTrue(server.getAttributes(name("unavailable"), new String[]{"value"}).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then MBeans that are registered twice, not registered or badly named fail")
+        void shouldFailOnBadRegistration() {
+            // Given
+            metrics.registerMBeans(server);
+            final CartMetricsImpl badlyNamed = new CartMetricsImpl();
+            badlyNamed.register("price,cache", () -> CACHE_STATS);
+
+            // When - Then
+            assertThrows(IllegalStateException.class, () -> metrics.registerMBeans(server));
+            metrics.unregisterMBeans(server);
+            assertThrows(IllegalStateException.class, () -> metrics.unregisterMBeans(server));
+            assertThrows(IllegalStateException.class, () -> badlyNamed.registerMBeans(MBeanServerFactory.newMBeanServer()));
+        }
+    }
+}
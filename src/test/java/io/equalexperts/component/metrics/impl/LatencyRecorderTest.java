@@ -0,0 +1,128 @@
+package io.equalexperts.component.metrics.impl;
+
+import io.equalexperts.model.LatencyStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given LatencyRecorder")
+class LatencyRecorderTest {
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 64, () -> actual + " is not within 1/64 above " + expected);
+    }
+
+    @Nested
+    @DisplayName("When latencies are recorded - Positive Scenarios")
+    class WhenLatenciesAreRecordedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then latencies below 128 ns are exact")
+        void shouldKeepShortLatenciesExact() {
+            // Given
+            for (int nanos = 1; nanos <= 100; nanos++) {
+                recorder.record(nanos);
+            }
+
+            // When
+            final LatencyStats stats = recorder.stats();
+
+            // Then
+            assertEquals(new LatencyStats(100, 51, 50, 90, 99, 100, 100), stats);
+        }
+
+        @Test
+        @DisplayName("Then percentiles of longer latencies are within 1/64 of the latency recorded")
+        void shouldBoundRelativeError() {
+            // Given
+            for (long micros = 1; micros <= 10_000; micros++) {
+                recorder.record(micros * 1_000);
+            }
+
+            // When
+            final LatencyStats stats = recorder.stats();
+
+            // Then
+            assertEquals(10_000, stats.count());
+            assertWithin(5_000_000, stats.p50Nanos());
+            assertWithin(9_000_000, stats.p90Nanos());
+            assertWithin(9_900_000, stats.p99Nanos());
+            assertWithin(9_990_000, stats.p999Nanos());
+            assertWithin(10_000_000, stats.maxNanos());
+            assertTrue(Math.abs(stats.meanNanos() - 5_000_500) <= 5_000_500 / 64);
+        }
+
+        @Test
+        @DisplayName("Then every bucket starts where the one before it ends")
+        void shouldCoverEveryValueOnce() {
+            for (int bucket = 1; bucket < LatencyRecorder.bucketOf((1L << 36) - 1); bucket++) {
+                assertEquals(LatencyRecorder.highestOf(bucket - 1) + 1, LatencyRecorder.lowestOf(bucket));
+                assertEquals(bucket, LatencyRecorder.bucketOf(LatencyRecorder.lowestOf(bucket)));
+                assertEquals(bucket, LatencyRecorder.bucketOf(LatencyRecorder.highestOf(bucket)));
+            }
+        }
+
+        @Test
+        @DisplayName("Then nothing recorded reads as zeros")
+        void shouldReadZerosWhenEmpty() {
+            assertEquals(new LatencyStats(0, 0, 0, 0, 0, 0, 0), recorder.stats());
+        }
+
+        @Test
+        @DisplayName("Then concurrent recorders never lose a latency")
+        void shouldNotLoseConcurrentRecords() throws Exception {
+            // Given
+            final List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 1_000; j++) {
+                            recorder.record(j);
+                        }
+                    }));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            // Then
+            assertEquals(100_000, recorder.stats().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("When latencies are recorded - Negative Scenarios")
+    class WhenLatenciesAreRecordedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then negative latencies count as zero, and latencies beyond the range as the longest")
+        void shouldClampLatencies() {
+            // Given
+            recorder.record(-5);
+            recorder.record(Long.MAX_VALUE);
+
+            // When
+            final LatencyStats stats = recorder.stats();
+
+            // Then
+            assertEquals(2, stats.count());
+            assertEquals(0, stats.p50Nanos());
+            assertEquals((1L << 36) - 1, stats.maxNanos());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.equalexperts.component.product.impl;
+
+import io.equalexperts.component.product.ProductDictionary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given ProductDictionary")
+class ProductDictionaryTest {
+    private final ProductDictionary dictionary = new ProductDictionaryImpl(2);
+
+    @Nested
+    @DisplayName("When products are looked up - Positive Scenarios")
+    class WhenProductsAreLookedUpPositiveScenarios {
+
+        @Test
+        @DisplayName("Then products get dense ids, which they keep, and which resolve back to their names")
+        void shouldAssignDenseIds() {
+            // When
+            final int cornflakes = dictionary.idOf("cornflakes");
+            final int weetabix = dictionary.idOf("weetabix");
+            final int frosties = dictionary.idOf(new String("frosties"));
+
+            // Then
+            assertEquals(0, cornflakes);
+            assertEquals(1, weetabix);
+            assertEquals(2, frosties);
+            assertEquals(cornflakes, dictionary.idOf("cornflakes"));
+            assertEquals(weetabix, dictionary.find("weetabix"));
+            assertEquals("frosties", dictionary.nameOf(frosties));
+            assertSame(dictionary.nameOf(frosties), dictionary.nameOf(dictionary.idOf("frosties")));
+            assertEquals(3, dictionary.size());
+        }
+
+        @Test
+        @DisplayName("Then equal product names are interned to one instance")
+        void shouldInternProductNames() {
+            // Given
+            final String first = new String("cornflakes");
+            final String second = new String("cornflakes");
+
+            // When
+            final String interned = dictionary.intern(first);
+
+            // Then
+            assertSame(first, interned);
+            assertSame(interned, dictionary.intern(second));
+        }
+
+        @Test
+        @DisplayName("Then a product that is only searched for gets no id")
+        void shouldNotAssignIdOnFind() {
+            // When
+            final int id = dictionary.find("cornflakes");
+
+            // Then
+            assertEquals(ProductDictionary.NO_ID, id);
+            assertEquals(0, dictionary.size());
+        }
+
+        @Test
+        @DisplayName("Then concurrent look-ups of the same products agree on their ids")
+        void shouldAssignOneIdUnderContention() throws Exception {
+            // Given
+            final List<Future<int[]>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 16; i++) {
+                    futures.add(executor.submit(() -> {
+                        final int[] ids = new int[100];
+                        for (int j = 0; j < ids.length; j++) {
+                            ids[j] = dictionary.idOf("product-" + j);
+                        }
+                        return ids;
+                    }));
+                }
+                final int[] expected = futures.getFirst().get();
+                final Set<Integer> distinct = new HashSet<>();
+                for (final Future<int[]> future : futures) {
+                    final int[] ids = future.get();
+                    for (int j = 0; j < ids.length; j++) {
+                        assertEquals(expected[j], ids[j]);
+                        assertEquals("product-" + j, dictionary.nameOf(ids[j]));
+                        distinct.add(ids[j]);
+                    }
+                }
+
+                // Then
+                assertEquals(100, distinct.size());
+                assertEquals(100, dictionary.size());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When products are looked up - Negative Scenarios")
+    class WhenProductsAreLookedUpNegativeScenarios {
+
+        @Test
+        @DisplayName("Then an id that was never handed out is rejected")
+        void shouldRejectUnknownId() {
+            // Given
+            dictionary.idOf("cornflakes");
+
+            // When - Then
+            assertThrows(IllegalArgumentException.class, () -> dictionary.nameOf(1));
+            assertThrows(IllegalArgumentException.class, () -> dictionary.nameOf(ProductDictionary.NO_ID));
+            assertThrows(IllegalArgumentException.class, () -> new ProductDictionaryImpl().nameOf(0));
+        }
+
+        @Test
+        @DisplayName("Then a full dictionary takes no more products, and keeps the ones it holds")
+        void shouldStopGrowingWhenFull() {
+            // Given
+            final ProductDictionary full = new ProductDictionaryImpl(1, 2);
+            final int cornflakes = full.idOf("cornflakes");
+            final String weetabix = full.intern("weetabix");
+            final String frosties = new String("frosties");
+
+            // When - Then
+            assertSame(frosties, full.intern(frosties));
+            assertThrows(IllegalStateException.class, () -> full.idOf("frosties"));
+            assertEquals(ProductDictionary.NO_ID, full.find("frosties"));
+            assertEquals(2, full.size());
+            assertEquals(cornflakes, full.idOf("cornflakes"));
+            assertSame(weetabix, full.intern(new String("weetabix")));
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package io.equalexperts.component.store.impl;
+
+import io.equalexperts.model.CartChange;
+import io.equalexperts.model.CartSnapshot;
+import io.equalexperts.model.ItemMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given FileCartStore")
+class FileCartStoreTest {
+    private static final ItemMetadata CORNFLAKES = new ItemMetadata(new BigDecimal("2.52"), 2);
+    private static final ItemMetadata WEETABIX = new ItemMetadata(new BigDecimal("9.98"), 1);
+    private static final Duration NEVER = Duration.ofDays(1);
+
+    @TempDir
+    private Path directory;
+    private final List<FileCartStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(FileCartStore::close);
+    }
+
+    private FileCartStore open(final Duration compactionInterval) {
+        final var store = new FileCartStore(directory, compactionInterval);
+        stores.add(store);
+        return store;
+    }
+
+    private FileCartStore reopen(final FileCartStore store) {
+        store.close();
+        return open(NEVER);
+    }
+
+    private static CartChange change(final String cartId, final long version, final Map<String, ItemMetadata> lines, final Set<String> removedLines) {
+        return new CartChange(cartId, version, lines, removedLines, false);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        final List<String> files = files();
+        return directory.resolve(files.stream().filter(name -> name.endsWith(".wal")).toList().getLast());
+    }
+
+    private static void awaitTrue(final BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Nested
+    @DisplayName("When changes are recorded and recovered - Positive")
+    class WhenRecordingAndRecoveringPositive {
+
+        @Test
+        @DisplayName("Then the carts are recovered as the changes left them, at their versions")
+        void shouldRecoverCarts() {
+            // Given
+            var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of()));
+            store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of()));
+            store.append(change("session-1", 3, Map.of(), Set.of("cornflakes")));
+            store.append(change("session-2", 1, Map.of("cornflakes", CORNFLAKES), Set.of()));
+            store.append(change("session-3", 1, Map.of("weetabix", WEETABIX), Set.of()));
+            store.append(CartChange.discard("session-3"));
+            final Map<String, ItemMetadata> largeBatch = IntStream.range(0, 100).boxed().collect(Collectors.toMap(i -> "cereal-" + i, i -> WEETABIX));
+            store.append(change("session-4", 1, largeBatch, Set.of())).join();
+
+            // When
+            final long changes = store.stats().changes();
+            store = reopen(store);
+            final Map<String, CartSnapshot> carts = store.recover();
+
+            // Then
+            assertEquals(7, changes);
+            assertEquals(Set.of("session-1", "session-2", "session-4"), carts.keySet());
+            assertEquals(3, carts.get("session-1").version());
+            assertEquals(Map.of("weetabix", WEETABIX), carts.get("session-1").items());
+            assertEquals(0, new BigDecimal("9.98").compareTo(carts.get("session-1").subTotal()));
+            assertEquals(1, carts.get("session-2").version());
+            assertEquals(0, new BigDecimal("5.04").compareTo(carts.get("session-2").subTotal()));
+            assertEquals(largeBatch, carts.get("session-4").items());
+        }
+
+        @Test
+        @DisplayName("Then appends queued during a sync are written and synced together")
+        void shouldGroupCommit() throws InterruptedException {
+            // Given
+            final var store = open(NEVER);
+            final var syncing = new CountDownLatch(1);
+            final var release = new CountDownLatch(1);
+            final CompletableFuture<Void> blocked = store.control(() -> {
+                syncing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            syncing.await();
+
+            // When
+            final List<CompletableFuture<Void>> appends = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                appends.add(store.append(change("session-" + i, 1, Map.of("cornflakes", CORNFLAKES), Set.of())));
+            }
+            release.countDown();
+            blocked.join();
+            appends.forEach(CompletableFuture::join);
+
+            // Then
+            assertEquals(100, store.stats().changes());
+            assertEquals(1, store.stats().syncs());
+            assertEquals(100, store.recover().size());
+        }
+
+        @Test
+        @DisplayName("Then compaction folds the log into a snapshot, and recovery replays the log written since")
+        void shouldCompact() throws IOException {
+            // Given
+            var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of()));
+            store.append(change("session-2", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            store.compact();
+            store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of())).join();
+
+            // When
+            store.compact();
+            store.append(CartChange.discard("session-2")).join();
+            final List<String> files = files();
+            store = reopen(store);
+            final Map<String, CartSnapshot> carts = store.recover();
+
+            // Then
+            assertEquals(List.of("carts-0000000000000000003.wal", FileCartStore.SNAPSHOT_FILE), files);
+            assertEquals(Set.of("session-1"), carts.keySet());
+            assertEquals(2, carts.get("session-1").version());
+            assertEquals(Map.of("cornflakes", CORNFLAKES, "weetabix", WEETABIX), carts.get("session-1").items());
+        }
+
+        @Test
+        @DisplayName("Then the log goes on after the snapshot, also once all its segments are folded")
+        void shouldNumberSegmentsAfterSnapshot() throws IOException {
+            // Given
+            var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            store.compact();
+            store.close();
+            Files.delete(directory.resolve("carts-0000000000000000002.wal"));
+
+            // When
+            store = open(NEVER);
+            store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of())).join();
+
+            // Then
+            assertEquals(List.of("carts-0000000000000000002.wal", FileCartStore.SNAPSHOT_FILE), files());
+            assertEquals(2, store.recover().get("session-1").version());
+        }
+
+        @Test
+        @DisplayName("Then a segment left behind by an interrupted compaction is not replayed again, and is deleted")
+        void shouldSkipFoldedSegment() throws IOException {
+            // Given
+            final var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            final Path folded = lastSegment();
+            final byte[] foldedRecords = Files.readAllBytes(folded);
+            store.compact();
+            store.append(change("session-1", 2, Map.of(), Set.of("cornflakes"))).join();
+            store.compact();
+            Files.write(folded, foldedRecords);
+
+            // When
+            final CartSnapshot cart = store.recover().get("session-1");
+            store.compact();
+
+            // Then
+            assertEquals(2, cart.version());
+            assertEquals(Map.of(), cart.items());
+            assertFalse(Files.exists(folded));
+        }
+
+        @Test
+        @DisplayName("Then compaction runs periodically")
+        void shouldCompactPeriodically() throws InterruptedException {
+            // Given
+            final var store = open(Duration.ofMillis(20));
+
+            // When
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+
+            // Then
+            awaitTrue(() -> Files.exists(directory.resolve(FileCartStore.SNAPSHOT_FILE)));
+            assertEquals(1, store.recover().get("session-1").version());
+        }
+
+        @Test
+        @DisplayName("Then files other than segments and snapshots are left alone")
+        void shouldIgnoreOtherFiles() throws IOException {
+            // Given
+            Files.writeString(directory.resolve("carts-notes.txt"), "notes");
+            Files.writeString(directory.resolve("notes.wal"), "notes");
+            final var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+
+            // When
+            store.compact();
+
+            // Then
+            assertEquals(List.of("carts-0000000000000000002.wal", FileCartStore.SNAPSHOT_FILE, "carts-notes.txt", "notes.wal").stream().sorted().toList(), files());
+            assertEquals(Set.of("session-1"), store.recover().keySet());
+        }
+
+        @Test
+        @DisplayName("Then an interrupt of the writer is ignored")
+        void shouldIgnoreInterrupt() throws InterruptedException {
+            // Given
+            final var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            awaitTrue(() -> store.writer.getState() == Thread.State.WAITING);   // Waiting for the next append
+
+            // When
+            store.writer.interrupt();
+            Thread.sleep(100);      // Lets the writer wake up from the interrupt, before it is woken up by the append
+            store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of())).join();
+
+            // Then
+            assertTrue(store.writer.isAlive());
+            assertEquals(2, store.recover().get("session-1").version());
+        }
+
+        @Test
+        @DisplayName("Then closing the store twice does no harm")
+        void shouldCloseOnce() throws InterruptedException {
+            // Given
+            final var store = open(NEVER);
+
+            // When
+            store.close();
+            store.close();
+
+            // Then
+            store.writer.join(5_000);
+            assertFalse(store.writer.isAlive());
+        }
+    }
+
+    @Nested
+    @DisplayName("When changes are recorded and recovered - Negative")
+    class WhenRecordingAndRecoveringNegative {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"00", "000000", "ffffffff00000000", "0000006400000000abcdef", "0000000400000000cafebabe"})
+        @DisplayName("Then a torn record at the end of the log is ignored")
+        void shouldIgnoreTornRecord(final String tornRecord) throws IOException {
+            // Given
+            var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            final Path segment = lastSegment();
+            store.close();
+            Files.write(segment, HexFormat.of().parseHex(tornRecord), StandardOpenOption.APPEND);
+
+            // When
+            store = open(NEVER);
+            final Map<String, CartSnapshot> carts = store.recover();
+
+            // Then
+            assertEquals(1, carts.get("session-1").version());
+        }
+
+        @Test
+        @DisplayName("Then changes are refused once the store is closed")
+        void shouldRefuseChangesWhenClosed() {
+            // Given
+            final var store = open(NEVER);
+            store.close();
+
+            // When
+            final var exception = assertThrows(CompletionException.class,
+                    () -> store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join());
+
+            // Then
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertThrows(IllegalStateException.class, store::compact);
+        }
+
+        @Test
+        @DisplayName("Then a change that cannot be encoded is refused")
+        void shouldRefuseUnencodableChange() {
+            // Given
+            final var store = open(NEVER);
+
+            // When
+            final var exception = assertThrows(CompletionException.class,
+                    () -> store.append(change("x".repeat(70_000), 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join());
+
+            // Then
+            assertInstanceOf(UncheckedIOException.class, exception.getCause());
+        }
+
+        @Test
+        @DisplayName("Then a failed write fails its batch only, and the writer moves on to a new segment straight away")
+        void shouldMoveOnAfterFailedWrite() throws IOException {
+            // Given
+            final var store = open(NEVER);
+            store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join();
+            store.control(() -> store.segment.close()).join();
+
+            // When
+            final var failed = assertThrows(CompletionException.class,
+                    () -> store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of())).join());
+            store.append(change("session-1", 2, Map.of("weetabix", WEETABIX), Set.of())).join();
+
+            // Then
+            assertInstanceOf(UncheckedIOException.class, failed.getCause());
+            assertEquals(List.of("carts-0000000000000000001.wal", "carts-0000000000000000002.wal"), files());
+            assertEquals(Map.of("cornflakes", CORNFLAKES, "weetabix", WEETABIX), store.recover().get("session-1").items());
+        }
+
+        @Test
+        @DisplayName("Then a writer that cannot move on to a new segment retries before each batch, and fails only those")
+        void shouldRetryMovingOnBeforeNextBatch() throws IOException {
+            // Given
+            final var store = open(NEVER);
+            final Path blocked = Files.createFile(directory.resolve("carts-0000000000000000002.wal"));
+            store.control(() -> store.segment.close()).join();
+            assertThrows(CompletionException.class, () -> store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join());
+
+            // When
+            final var stillBlocked = assertThrows(CompletionException.class,
+                    () -> store.append(change("session-1", 1, Map.of("cornflakes", CORNFLAKES), Set.of())).join());
+            Files.delete(blocked);
+            store.append(change("session-1", 1, Map.of("weetabix", WEETABIX), Set.of())).join();
+
+            // Then
+            assertInstanceOf(UncheckedIOException.class, stillBlocked.getCause());
+            assertEquals(Map.of("weetabix", WEETABIX), store.recover().get("session-1").items());
+        }
+
+        @Test
+        @DisplayName("Then compaction fails if the writer cannot move on to a new segment")
+        void shouldFailCompactionOnRotation() throws IOException {
+            // Given
+            final var store = open(NEVER);
+            Files.createFile(directory.resolve("carts-0000000000000000002.wal"));
+
+            // When - Then
+            assertThrows(UncheckedIOException.class, store::compact);
+        }
+
+        @Test
+        @DisplayName("Then compaction fails if the snapshot cannot be written, and periodic compaction carries on")
+        void shouldFailCompactionOnSnapshot() throws IOException, InterruptedException {
+            // Given
+            Files.createDirectories(directory.resolve(FileCartStore.SNAPSHOT_TEMP_FILE).resolve("blocked"));
+            final var store = open(NEVER);
+            final var periodicStore = new FileCartStore(directory.resolve("periodic"), Duration.ofMillis(20));
+            stores.add(periodicStore);
+            Files.createDirectories(directory.resolve("periodic").resolve(FileCartStore.SNAPSHOT_TEMP_FILE).resolve("blocked"));
+
+            // When - Then
+            assertThrows(UncheckedIOException.class, store::compact);
+            awaitTrue(() -> countSegments(directory.resolve("periodic")) >= 3);
+            assertFalse(Files.exists(directory.resolve("periodic").resolve(FileCartStore.SNAPSHOT_FILE)));
+        }
+
+        private static long countSegments(final Path directory) {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.toString().endsWith(".wal")).count();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Test
+        @DisplayName("Then a file that is not a snapshot fails opening and recovery")
+        void shouldFailOnCorruptSnapshot() throws IOException {
+            // Given
+            final var store = open(NEVER);
+            Files.write(directory.resolve(FileCartStore.SNAPSHOT_FILE), ByteBuffer.allocate(12).putInt(42).array());
+
+            // When - Then
+            assertThrows(UncheckedIOException.class, store::recover);
+            assertThrows(UncheckedIOException.class, () -> open(NEVER));
+        }
+
+        @Test
+        @DisplayName("Then a store cannot be opened in a regular file")
+        void shouldFailOnFile() throws IOException {
+            // Given
+            final Path file = Files.createFile(directory.resolve("file"));
+
+            // When - Then
+            assertThrows(UncheckedIOException.class, () -> new FileCartStore(file));
+        }
+    }
+}
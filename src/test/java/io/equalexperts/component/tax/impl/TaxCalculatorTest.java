@@ -8,7 +8,10 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
 
+import static io.equalexperts.util.MoneyUtil.NOT_REPRESENTABLE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -58,4 +61,70 @@ class TaxCalculatorTest {
             assertEquals("Sub-total must be a positive value", exc.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("When calculateTaxAmount is called in fixed-point")
+    class WhenCalculateTaxAmountIsCalledInFixedPoint {
+
+        @Test
+        @DisplayName("Then random sub-totals and tax-rates yield the same tax amount as BigDecimal arithmetic")
+        void shouldMatchBigDecimalArithmetic() {
+            final Random random = new Random(20250301L);    // Seeded: failures are reproducible
+
+            for (int run = 0; run < 20_000; run++) {
+                // Given
+                final var taxRate = BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4));
+                final var subTotal = BigDecimal.valueOf(random.nextLong(1_000_000_000_000L), random.nextInt(5));
+                taxCalculator = new TaxCalculatorImpl(taxRate);
+
+                // When
+                final var taxAmount = taxCalculator.calculateTaxAmount(subTotal);
+                final long taxUnits = taxCalculator.calculateTaxAmount(subTotal.movePointRight(4).longValueExact());
+
+                // Then
+                assertEquals(referenceTaxAmount(subTotal, taxRate), taxAmount);
+                if (taxUnits != NOT_REPRESENTABLE) {
+                    assertEquals(0, taxAmount.compareTo(BigDecimal.valueOf(taxUnits, 10)));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Then amounts beyond fixed-point fall back to BigDecimal arithmetic")
+        void shouldFallBackToBigDecimalArithmetic() {
+            // Given
+            final var hugeRate = new BigDecimal("12000000.5");
+            final var precise = new BigDecimal("99.999999");
+            final var huge = new BigDecimal("1e12");
+            taxCalculator = new TaxCalculatorImpl(BigDecimal.valueOf(12.5));
+
+            // When / Then
+            assertEquals(referenceTaxAmount(precise, BigDecimal.valueOf(12.5)), taxCalculator.calculateTaxAmount(precise));
+            assertEquals(referenceTaxAmount(huge, BigDecimal.valueOf(12.5)), taxCalculator.calculateTaxAmount(huge));
+            assertEquals(NOT_REPRESENTABLE, taxCalculator.calculateTaxAmount(huge.movePointRight(4).longValueExact()));
+            assertEquals(NOT_REPRESENTABLE, taxCalculator.calculateTaxAmount(Long.MAX_VALUE - 1));
+            assertEquals(NOT_REPRESENTABLE, new TaxCalculatorImpl(hugeRate).calculateTaxAmount(10_000));
+            assertEquals(referenceTaxAmount(BigDecimal.TEN, hugeRate), new TaxCalculatorImpl(hugeRate).calculateTaxAmount(BigDecimal.TEN));
+        }
+
+        @Test
+        @DisplayName("Then the negative sub-total should fail")
+        void shouldFailNegativeSubtotalUnits() {
+            // Given
+            taxCalculator = new TaxCalculatorImpl(BigDecimal.valueOf(12.5));
+
+            // When
+            final Exception exc = assertThrows(InvalidTaxException.class, () -> taxCalculator.calculateTaxAmount(-1L));
+
+            // Then
+            assertEquals("Sub-total must be a positive value", exc.getMessage());
+        }
+    }
+
+    // The BigDecimal arithmetic the fixed-point tax engine must reproduce
+    private static BigDecimal referenceTaxAmount(final BigDecimal subTotal, final BigDecimal taxRate) {
+        return subTotal.multiply(taxRate.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP))
+                .setScale(10, RoundingMode.HALF_UP)
+                .stripTrailingZeros();
+    }
+}
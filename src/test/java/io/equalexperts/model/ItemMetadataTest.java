@@ -84,4 +84,32 @@ class ItemMetadataTest {
         // Then
         assertEquals("Price must not be null and must be non-negative", exception.getMessage());
     }
+
+    @DisplayName("When subtracting quantity from ItemMetadata")
+    @Test
+    void shouldSubtractQuantityFromItemMetadata() {
+        // Given
+        final var itemMetadata = new ItemMetadata(BigDecimal.valueOf(199.09), 3);
+
+        // When
+        final var updated = itemMetadata.subtractQuantity(2);
+
+        // Then
+        assertEquals(199.09, updated.price().doubleValue());
+        assertEquals(1, updated.quantity());
+        assertEquals(3, itemMetadata.quantity());
+    }
+
+    @DisplayName("When subtracting the full quantity from ItemMetadata")
+    @Test
+    void shouldNotSubtractFullQuantityFromItemMetadata() {
+        // Given
+        final var itemMetadata = new ItemMetadata(BigDecimal.valueOf(199.09), 3);
+
+        // When
+        final var exception = assertThrows(InvalidCartParamsException.class, () -> itemMetadata.subtractQuantity(3));
+
+        // Then
+        assertEquals("Quantity must not be null and must be positive integer", exception.getMessage());
+    }
 }
\ No newline at end of file
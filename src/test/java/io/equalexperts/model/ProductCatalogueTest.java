@@ -0,0 +1,73 @@
+package io.equalexperts.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given ProductCatalogue")
+class ProductCatalogueTest {
+
+    @Nested
+    @DisplayName("When creating a catalogue - Positive")
+    class WhenCreatingCataloguePositive {
+
+        @Test
+        @DisplayName("Then the known catalogue holds the products of the Price API")
+        void shouldHoldKnownProducts() {
+            assertEquals(List.of("cheerios", "cornflakes", "frosties", "shreddies", "weetabix"), ProductCatalogue.known().productNames());
+        }
+
+        @Test
+        @DisplayName("Then a catalogue file is read a product per line, without blanks, comments and duplicates")
+        void shouldReadCatalogueFile(@TempDir final Path dir) throws IOException {
+            // Given
+            final var file = Files.writeString(dir.resolve("catalogue.txt"),
+                    "# Breakfast cereals\ncornflakes\n\n  weetabix  \ncornflakes\n", StandardCharsets.UTF_8);
+
+            // When
+            final var catalogue = ProductCatalogue.from(file);
+
+            // Then
+            assertEquals(List.of("cornflakes", "weetabix"), catalogue.productNames());
+        }
+
+        @Test
+        @DisplayName("Then the catalogue does not change with the list it was created from")
+        void shouldCopyProductNames() {
+            // Given
+            final List<String> productNames = new ArrayList<>(List.of("cornflakes"));
+            final var catalogue = new ProductCatalogue(productNames);
+
+            // When
+            productNames.add("weetabix");
+
+            // Then
+            assertEquals(List.of("cornflakes"), catalogue.productNames());
+        }
+    }
+
+    @Nested
+    @DisplayName("When creating a catalogue - Negative")
+    class WhenCreatingCatalogueNegative {
+
+        @Test
+        @DisplayName("Then a missing catalogue file fails")
+        void shouldFailOnMissingFile(@TempDir final Path dir) {
+            assertThrows(NoSuchFileException.class, () -> ProductCatalogue.from(dir.resolve("missing.txt")));
+        }
+    }
+}
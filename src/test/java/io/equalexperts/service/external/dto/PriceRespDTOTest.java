@@ -0,0 +1,101 @@
+package io.equalexperts.service.external.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.MalformedJsonException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given PriceRespDTO")
+class PriceRespDTOTest {
+    private static final Gson GSON = new Gson();
+
+    private static PriceRespDTO fromJson(final String json) throws IOException {
+        return PriceRespDTO.fromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Nested
+    @DisplayName("When reading a price response - Positive Scenarios")
+    class WhenReadingPositiveScenarios {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "{\"title\": \"Corn Flakes\", \"price\": 2.52}",
+                "{'title': 'Corn Flakes', 'price': '2.52'}",                    // Single-quoted strings
+                "{title: Corn_Flakes, price: 2.52}",                            // Unquoted names and values
+                "{\"title\": \"Corn Flakes\", /* on sale */ \"price\": 2.52}",  // Comments
+                "{\"title\": \"Corn Flakes\"; \"price\": 2.52}",                // Semicolon separators
+                "{\"title\": true, \"price\": 2.52, \"stock\": {\"count\": 3}}", // Boolean title, unknown fields
+                "{\"title\": null, \"price\": null}",
+                "  {\"price\": 2.520}  \n"
+        })
+        @DisplayName("Then whatever Gson reads is read the same way")
+        void shouldReadLikeGson(final String json) throws IOException {
+            assertEquals(GSON.fromJson(json, PriceRespDTO.class), fromJson(json));
+        }
+
+        @Test
+        @DisplayName("Then the price is taken over exactly as sent")
+        void shouldKeepPriceAsSent() throws IOException {
+            assertEquals(new BigDecimal("2.520"), fromJson("{\"title\": \"Corn Flakes\", \"price\": 2.520}").price());
+        }
+
+        @Test
+        @DisplayName("Then malformed UTF-8 is replaced, as decoding the body into a String did")
+        void shouldReplaceMalformedUtf8() throws IOException {
+            // Given
+            final byte[] body = {'{', '"', 't', 'i', 't', 'l', 'e', '"', ':', '"', 'C', (byte) 0xC3, '"', '}'};
+
+            // When
+            final var priceResp = PriceRespDTO.fromJson(new ByteArrayInputStream(body));
+
+            // Then
+            assertEquals(GSON.fromJson(new String(body, StandardCharsets.UTF_8), PriceRespDTO.class), priceResp);
+            assertEquals("C�", priceResp.title());
+        }
+    }
+
+    @Nested
+    @DisplayName("When reading a price response - Negative Scenarios")
+    class WhenReadingNegativeScenarios {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "{\"title\": \"Corn Flakes\", \"price\": 2.52} {}",   // Trailing document
+                "{\"title\": \"Corn Flakes\", \"price\": "            // Truncated
+        })
+        @DisplayName("Then what Gson rejects is rejected too")
+        void shouldRejectLikeGson(final String json) {
+            assertThrows(JsonSyntaxException.class, () -> GSON.fromJson(json, PriceRespDTO.class));
+            assertThrows(IOException.class, () -> fromJson(json));
+        }
+
+        @Test
+        @DisplayName("Then a document followed by another one is not fully consumed")
+        void shouldRejectTrailingDocument() {
+            final var exception = assertThrows(MalformedJsonException.class, () -> fromJson("{\"price\": 2.52} 3"));
+            assertEquals("JSON document was not fully consumed.", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Then a price that is not a number, or a body that is not an object, is rejected")
+        void shouldRejectValuesOfTheWrongType() {
+            assertThrows(NumberFormatException.class, () -> fromJson("{\"price\": \"two\"}"));
+            assertThrows(NumberFormatException.class, () -> fromJson("{\"price\": true}"));
+            assertThrows(IllegalStateException.class, () -> fromJson("[2.52]"));
+        }
+    }
+}
@@ -13,11 +13,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.HttpURLConnection;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
@@ -27,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,7 +46,7 @@ class PriceApiImplTest {
     @Mock
     private HttpClient httpClient;
     @Mock
-    private HttpResponse<String> httpResponse;
+    private HttpResponse<InputStream> httpResponse;
     private final String baseUrl = "http://wrong-base-url";
     private final String priceApiUri = "wrong-price-api-uri";
     private PriceApi priceApi;
@@ -164,7 +171,7 @@ class PriceApiImplTest {
         @DisplayName("Then handle Fake HTTP.200 malformed response body - Verify Mock Invocation")
         void handleFakeHTTP_OKMalformedResponseBody() throws Exception {
             // Given
-            final String mockResponse = readJsonFromFile("data/json/negative/fail_malformed_resp.json");
+            final InputStream mockResponse = readJsonFromFile("data/json/negative/fail_malformed_resp.json");
 
             // When
             when(httpResponse.body()).thenReturn(mockResponse);
@@ -186,7 +193,7 @@ class PriceApiImplTest {
         @DisplayName("Then handle HTTP.200 NULL Price - Verify Mock Invocation")
         void handleHTTP200NullPriceResponseBody() throws Exception {
             // Given
-            final String mockResponse = readJsonFromFile("data/json/negative/fail_null_price_resp.json");
+            final InputStream mockResponse = readJsonFromFile("data/json/negative/fail_null_price_resp.json");
 
             // When
             when(httpResponse.body()).thenReturn(mockResponse);
@@ -212,7 +219,7 @@ class PriceApiImplTest {
         @DisplayName("Then handle HTTP.200 NULL Title - Verify Mock Invocation")
         void handleHTTP200NullTitleResponseBody() throws Exception {
             // Given
-            final String mockResponse = readJsonFromFile("data/json/negative/fail_null_title_resp.json");
+            final InputStream mockResponse = readJsonFromFile("data/json/negative/fail_null_title_resp.json");
 
             // When
             when(httpResponse.body()).thenReturn(mockResponse);
@@ -231,6 +238,39 @@ class PriceApiImplTest {
             verify(httpResponse, atLeastOnce()).statusCode();
             verify(httpResponse, atLeastOnce()).body(); // Ensure body() is invoked
         }
+
+        @Test
+        @DisplayName("Then handle HTTP.200 response with unknown fields - Verify Mock Invocation")
+        void handleHTTP200UnknownFieldsResponseBody() throws Exception {
+            // Given
+            final InputStream mockResponse = toBody("{\"title\": \"Corn Flakes\", \"tags\": [\"cereal\"], \"price\": 2.5200, \"currency\": \"GBP\"}");
+
+            // When
+            when(httpResponse.body()).thenReturn(mockResponse);
+            when(httpResponse.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            when(httpClient.send(any(), any(HttpResponse.BodyHandler.class))).thenReturn(httpResponse);
+            final var price = priceApi.getPrice("cornflakes");
+
+            // Then - the price is taken over exactly as sent
+            assertEquals(new BigDecimal("2.5200"), price);
+        }
+
+        @Test
+        @DisplayName("Then handle HTTP.200 non-numeric price and empty body - Verify Mock Invocation")
+        void handleHTTP200InvalidResponseBody() throws Exception {
+            // When
+            when(httpResponse.body()).thenReturn(toBody("{\"title\": \"Corn Flakes\", \"price\": \"free\"}"), toBody(""), toBody("[2.52]"));
+            when(httpResponse.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            when(httpClient.send(any(), any(HttpResponse.BodyHandler.class))).thenReturn(httpResponse);
+
+            // Then
+            final var nonNumeric = assertThrows(HttpAPIException.class, () -> priceApi.getPrice("cornflakes"));
+            final var empty = assertThrows(HttpAPIException.class, () -> priceApi.getPrice("cornflakes"));
+            final var notAnObject = assertThrows(HttpAPIException.class, () -> priceApi.getPrice("cornflakes"));
+            assertInstanceOf(NumberFormatException.class, nonNumeric.getCause());
+            assertTrue(empty.getMessage().contains("Failed to extract Response from Body. HTTP.Status: 200. HTTP.Body java.io.EOFException: End of input"));
+            assertTrue(notAnObject.getMessage().contains("java.lang.IllegalStateException: Expected BEGIN_OBJECT but was BEGIN_ARRAY"));
+        }
     }
 
     @Nested
@@ -242,7 +282,7 @@ class PriceApiImplTest {
         void shouldReturnCorrectPriceForCornflakes() throws Exception {
             // Given
             final var productName = "cornflakes";
-            final String mockResponse = readJsonFromFile("data/json/positive/success_resp.json");
+            final InputStream mockResponse = readJsonFromFile("data/json/positive/success_resp.json");
 
             // When
             when(httpResponse.body()).thenReturn(mockResponse);
@@ -258,12 +298,118 @@ class PriceApiImplTest {
         }
     }
 
-    private String readJsonFromFile(final String resourceFilePath) throws IOException {
+    @Nested
+    @DisplayName("When fetching price asynchronously")
+    class WhenFetchingPriceAsynchronously {
+
+        @Test
+        @DisplayName("Then the price of cornflakes should be 2.52")
+        void shouldReturnCorrectPriceForCornflakes() throws Exception {
+            // Given
+            final InputStream mockResponse = readJsonFromFile("data/json/positive/success_resp.json");
+            when(httpResponse.body()).thenReturn(mockResponse);
+            when(httpResponse.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+            stubSendAsync(CompletableFuture.completedFuture(httpResponse));
+
+            // When
+            final var price = priceApi.getPriceAsync("cornflakes").join();
+
+            // Then
+            assertEquals(2.52, price.doubleValue());
+            verify(httpClient, times(0)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        @Test
+        @DisplayName("Then 404 and 400 responses fail with Api400xError")
+        void shouldFailWithApi400xError() {
+            // Given
+            when(httpResponse.statusCode()).thenReturn(404, 404, 400, 400);
+            stubSendAsync(CompletableFuture.completedFuture(httpResponse));
+
+            // When
+            final var notFound = awaitFailure(priceApi.getPriceAsync("nonexistent"));
+            final var badRequest = awaitFailure(priceApi.getPriceAsync("nonexistent"));
+
+            // Then
+            assertEquals(404, assertInstanceOf(Api400xError.class, notFound).getStatus());
+            assertEquals(400, assertInstanceOf(Api400xError.class, badRequest).getStatus());
+        }
+
+        @Test
+        @DisplayName("Then unexpected status codes fail with HttpAPIException")
+        void shouldFailWithHttpAPIExceptionOnUnexpectedStatusCode() {
+            // Given
+            when(httpResponse.statusCode()).thenReturn(500);
+            stubSendAsync(CompletableFuture.completedFuture(httpResponse));
+
+            // When
+            final var failure = awaitFailure(priceApi.getPriceAsync("cornflakes"));
+
+            // Then
+            assertTrue(assertInstanceOf(HttpAPIException.class, failure).getMessage().contains("Failed to fetch product details"));
+        }
+
+        @Test
+        @DisplayName("Then transport failures fail with HttpAPIException, like the blocking look-up")
+        void shouldMapTransportFailures() {
+            // Given
+            stubSendAsync(CompletableFuture.failedFuture(new IOException("Connection refused")));
+            final var ioFailure = awaitFailure(priceApi.getPriceAsync("cornflakes"));
+            stubSendAsync(CompletableFuture.failedFuture(new CompletionException(new IllegalArgumentException("Bad header"))));
+            final var argumentFailure = awaitFailure(priceApi.getPriceAsync("cornflakes"));
+
+            // Then
+            assertTrue(assertInstanceOf(HttpAPIException.class, ioFailure).getMessage().contains("Error occurred while making API call: Connection refused"));
+            assertInstanceOf(IOException.class, ioFailure.getCause());
+            assertTrue(assertInstanceOf(HttpAPIException.class, argumentFailure).getMessage().contains("Thread was interrupted: Bad header"));
+        }
+
+        @Test
+        @DisplayName("Then other failures are passed on as they are")
+        void shouldPassOnOtherFailures() {
+            // Given
+            stubSendAsync(CompletableFuture.failedFuture(new IllegalStateException("Client closed")));
+
+            // When
+            final var failure = awaitFailure(priceApi.getPriceAsync("cornflakes"));
+
+            // Then
+            assertInstanceOf(IllegalStateException.class, failure);
+        }
+
+        @Test
+        @DisplayName("Then a malformed URI fails without sending a request")
+        void shouldFailOnMalformedUri() {
+            // Given
+            priceApi = new PriceApiImpl(priceApiUri, "*from user%&", httpClient);
+
+            // When
+            final var failure = awaitFailure(priceApi.getPriceAsync("cornflakes"));
+
+            // Then
+            assertTrue(assertInstanceOf(HttpAPIException.class, failure).getMessage().contains("Illegal character in path at index"));
+            verify(httpClient, times(0)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        private void stubSendAsync(final CompletableFuture<HttpResponse<InputStream>> response) {
+            doReturn(response).when(httpClient).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        }
+
+        private static Throwable awaitFailure(final CompletableFuture<?> future) {
+            return assertThrows(CompletionException.class, future::join).getCause();
+        }
+    }
+
+    private static InputStream toBody(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private InputStream readJsonFromFile(final String resourceFilePath) throws IOException {
         try (var inputStream = getClass().getClassLoader().getResourceAsStream(resourceFilePath)) {
             if (inputStream == null) {
                 throw new IOException("File not found in classpath: " + resourceFilePath);
             }
-            return new String(inputStream.readAllBytes());
+            return new ByteArrayInputStream(inputStream.readAllBytes());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package io.equalexperts.service.external.priceclient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.service.external.priceclient.impl.PriceApiImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the blocking and the async look-ups against a local stub of the Price API, and checks that both map every
+ * response the same way.
+ */
+@Tag("unit")
+@DisplayName("Unit-Tests - Given PriceApi against a local stub server")
+class PriceApiStubServerTest {
+    private static final String PRICE_API_URI = "prices";
+    private HttpServer server;
+    private ExecutorService clientExecutor;
+    private PriceApiImpl priceApi;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/" + PRICE_API_URI, PriceApiStubServerTest::respond);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+
+        clientExecutor = Executors.newFixedThreadPool(2);   // A small pool, shared by every in-flight look-up
+        final var httpClient = HttpClient.newBuilder().executor(clientExecutor).build();
+        final var baseUrl = "http://%s:%d".formatted(server.getAddress().getHostString(), server.getAddress().getPort());
+        priceApi = new PriceApiImpl(PRICE_API_URI, baseUrl, httpClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Positive")
+    class WhenFetchingPricePositive {
+
+        @Test
+        @DisplayName("Then the blocking and the async look-ups return the same price")
+        void shouldReturnSamePrice() {
+            // When
+            final var price = priceApi.getPrice("cornflakes");
+            final var asyncPrice = priceApi.getPriceAsync("cornflakes").join();
+
+            // Then
+            assertEquals(new BigDecimal("2.52"), price);
+            assertEquals(price, asyncPrice);
+        }
+
+        @Test
+        @DisplayName("Then many async look-ups are in flight at once on a small thread-pool")
+        void shouldKeepManyLookUpsInFlight() {
+            // Given
+            final List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
+
+            // When
+            for (int i = 0; i < 200; i++) {
+                futures.add(priceApi.getPriceAsync("cornflakes"));
+            }
+
+            // Then
+            for (final CompletableFuture<BigDecimal> future : futures) {
+                assertEquals(new BigDecimal("2.52"), future.join());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Negative")
+    class WhenFetchingPriceNegative {
+
+        @Test
+        @DisplayName("Then unknown products fail with the same 404 Api400xError")
+        void shouldMapNotFound() {
+            assertSameFailure(Api400xError.class, "unknown");
+            assertEquals(404, assertThrows(Api400xError.class, () -> priceApi.getPrice("unknown")).getStatus());
+        }
+
+        @Test
+        @DisplayName("Then bad requests fail with the same 400 Api400xError")
+        void shouldMapBadRequest() {
+            assertSameFailure(Api400xError.class, "bad");
+            assertEquals(400, assertThrows(Api400xError.class, () -> priceApi.getPrice("bad")).getStatus());
+        }
+
+        @Test
+        @DisplayName("Then server errors fail with the same HttpAPIException")
+        void shouldMapServerError() {
+            assertSameFailure(HttpAPIException.class, "broken");
+        }
+
+        @Test
+        @DisplayName("Then malformed bodies fail with the same HttpAPIException")
+        void shouldMapMalformedBody() {
+            assertSameFailure(HttpAPIException.class, "malformed");
+        }
+
+        private void assertSameFailure(final Class<? extends RuntimeException> type, final String productName) {
+            // When
+            final var blocking = assertThrows(type, () -> priceApi.getPrice(productName));
+            final var async = assertThrows(CompletionException.class, () -> priceApi.getPriceAsync(productName).join()).getCause();
+
+            // Then
+            assertInstanceOf(type, async);
+            assertEquals(blocking.getMessage(), async.getMessage());
+        }
+    }
+
+    private static void respond(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final String product = path.substring(path.lastIndexOf('/') + 1).replace(".json", "");
+        final var response = switch (product) {
+            case "cornflakes" -> new StubResponse(200, "{\"title\": \"Corn Flakes\", \"price\": 2.52}");
+            case "bad" -> new StubResponse(400, "");
+            case "broken" -> new StubResponse(500, "");
+            case "malformed" -> new StubResponse(200, "{\"title\": \"Corn Flakes\", \"price\": ");
+            default -> new StubResponse(404, "");
+        };
+        final byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record StubResponse(int status, String body) {
+    }
+}
@@ -11,9 +11,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import io.equalexperts.exception.Api400xError;
+
 import java.math.BigDecimal;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 @Tag("unit")
@@ -63,4 +68,37 @@ class PriceApiTest {
             assertEquals(199.09, price.doubleValue());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("When getPriceAsync is called on a blocking PriceApi")
+    class WhenGetPriceAsyncIsCalledOnBlockingPriceApi {
+        @Test
+        @DisplayName("Then the future is completed with the price")
+        void shouldCompleteWithPrice() {
+            // Given
+            final PriceApi blockingPriceApi = productName -> BigDecimal.valueOf(34.99);
+
+            // When
+            final var price = blockingPriceApi.getPriceAsync("cornflakes");
+
+            // Then
+            assertEquals(34.99, price.join().doubleValue());
+        }
+
+        @Test
+        @DisplayName("Then the future is completed with the failure of the look-up")
+        void shouldCompleteWithFailure() {
+            // Given
+            final PriceApi blockingPriceApi = productName -> {
+                throw new Api400xError(404, "Product %s was not Found".formatted(productName));
+            };
+
+            // When
+            final var price = blockingPriceApi.getPriceAsync("unknown");
+
+            // Then
+            final var failure = assertThrows(CompletionException.class, price::join).getCause();
+            assertEquals(404, assertInstanceOf(Api400xError.class, failure).getStatus());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.equalexperts.service.external.priceclient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.service.external.priceclient.impl.PriceApiImpl;
+import io.equalexperts.service.external.priceclient.impl.ResilientPriceApi;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the resilience layer against a local stub of the Price API that is slow or flaky on demand.
+ */
+@Tag("unit")
+@DisplayName("Unit-Tests - Given ResilientPriceApi against a slow/flaky local stub server")
+class ResilientPriceApiStubServerTest {
+    private static final String PRICE_API_URI = "prices";
+    private static final BigDecimal PRICE = new BigDecimal("2.52");
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger flakyRequests = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/" + PRICE_API_URI, this::respond);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://%s:%d".formatted(server.getAddress().getHostString(), server.getAddress().getPort());
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+        httpClient.close();
+    }
+
+    private ResilientPriceApi resilientPriceApi(final Duration timeout, final Duration hedgeDelay) {
+        final var priceApi = new PriceApiImpl(PRICE_API_URI, baseUrl, httpClient, Duration.ofSeconds(1));
+        final var circuitBreaker = CircuitBreaker.of("stub", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(Api400xError.class)
+                .build());
+        final var bulkhead = Bulkhead.of("stub", BulkheadConfig.custom().maxConcurrentCalls(8).maxWaitDuration(Duration.ZERO).build());
+        return new ResilientPriceApi(priceApi, timeout, hedgeDelay, bulkhead, circuitBreaker, true);
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Positive")
+    class WhenFetchingPricePositive {
+
+        @Test
+        @DisplayName("Then an occasional slow response is cut short by a hedged request")
+        void shouldHedgeTailLatency() {
+            // Given
+            final var resilientPriceApi = resilientPriceApi(Duration.ofSeconds(5), Duration.ofMillis(50));
+
+            // When
+            final long start = System.nanoTime();
+            final var price = resilientPriceApi.getPrice("sometimes-slow");
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then
+            assertEquals(PRICE, price);
+            assertTrue(elapsed.compareTo(Duration.ofMillis(800)) < 0, "Elapsed: " + elapsed);
+            assertEquals(1, resilientPriceApi.stats().hedgedRequests());
+        }
+
+        @Test
+        @DisplayName("Then the last-known price is served once a flaky Price API has opened the circuit")
+        void shouldServeLastKnownPriceFromOpenCircuit() {
+            // Given - every other response of the flaky product fails
+            final var resilientPriceApi = resilientPriceApi(Duration.ofSeconds(5), null);
+
+            // When
+            for (int i = 0; i < 4; i++) {
+                try {
+                    assertEquals(PRICE, resilientPriceApi.getPrice("flaky"));
+                } catch (HttpAPIException e) {
+                    assertEquals("Failed to fetch product details. HTTP status: 503", e.getMessage());
+                }
+            }
+            final int requestsWhenOpened = requests.get();
+            final var price = resilientPriceApi.getPrice("flaky");
+
+            // Then
+            assertEquals(PRICE, price);
+            assertEquals("OPEN", resilientPriceApi.stats().circuitBreakerState());
+            assertEquals(requestsWhenOpened, requests.get());   // Served without calling the Price API
+            assertEquals(1, resilientPriceApi.stats().lastKnownPricesServed());
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Negative")
+    class WhenFetchingPriceNegative {
+
+        @Test
+        @DisplayName("Then a stalled Price API times out")
+        void shouldTimeOutStalledPriceApi() {
+            // Given
+            final var resilientPriceApi = resilientPriceApi(Duration.ofMillis(200), null);
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice("slow"));
+
+            // Then
+            assertEquals("Price look-up of slow timed out after 200 ms", exception.getMessage());
+            assertEquals(1, resilientPriceApi.stats().timeouts());
+        }
+
+        @Test
+        @DisplayName("Then the request timeout of the client fails a stalled request")
+        void shouldTimeOutStalledRequest() {
+            // Given
+            final var priceApi = new PriceApiImpl(PRICE_API_URI, baseUrl, httpClient, Duration.ofMillis(100));
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> priceApi.getPrice("slow"));
+
+            // Then
+            assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+            assertEquals("Error occurred while making API call: request timed out", exception.getMessage());
+        }
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        final String path = exchange.getRequestURI().getPath();
+        final String product = path.substring(path.lastIndexOf('/') + 1).replace(".json", "");
+        final int status = switch (product) {
+            case "slow" -> delay(Duration.ofSeconds(2), 200);
+            case "sometimes-slow" -> requests.get() == 1 ? delay(Duration.ofSeconds(2), 200) : 200;
+            case "flaky" -> flakyRequests.incrementAndGet() % 2 == 0 ? 503 : 200;
+            default -> 404;
+        };
+        final byte[] body = (status == 200 ? "{\"title\": \"Corn Flakes\", \"price\": 2.52}" : "").getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // The client has given up on the request already
+        }
+    }
+
+    private static int delay(final Duration duration, final int status) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return status;
+    }
+}
@@ -0,0 +1,276 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.service.external.priceclient.BulkPriceSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given BatchingPriceApi")
+class BatchingPriceApiTest {
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final Map<String, BigDecimal> CATALOGUE = IntStream.range(0, 100).boxed()
+            .collect(Collectors.toMap(i -> "product-" + i, i -> BigDecimal.valueOf(i, 2)));
+
+    private final StubBulkEndpoint bulkEndpoint = new StubBulkEndpoint();
+    private BatchingPriceApi batchingPriceApi;
+
+    @AfterEach
+    void tearDown() {
+        batchingPriceApi.close();
+    }
+
+    /**
+     * In-process stand-in for a bulk price endpoint, recording every batch it is asked for.
+     */
+    /**
+     * Throws a checked exception from a {@link BulkPriceSource}, which cannot declare one.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> Map<String, BigDecimal> sneakyThrow(final Throwable failure) throws T {
+        throw (T) failure;
+    }
+
+    private static class StubBulkEndpoint implements BulkPriceSource {
+        private final List<Set<String>> requests = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Map<String, BigDecimal> getPrices(final Set<String> productNames) {
+            requests.add(Set.copyOf(productNames));
+            return productNames.stream().filter(CATALOGUE::containsKey).collect(Collectors.toMap(name -> name, CATALOGUE::get));
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching prices - Positive")
+    class WhenFetchingPricesPositive {
+
+        @Test
+        @DisplayName("Then a full batch is looked up at once, without waiting for its time window")
+        void shouldLookUpFullBatch() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 3, NEVER);
+
+            // When
+            final var first = batchingPriceApi.getPriceAsync("product-1");
+            final var second = batchingPriceApi.getPriceAsync("product-2");
+            final var third = batchingPriceApi.getPriceAsync("product-3");
+
+            // Then
+            assertEquals(BigDecimal.valueOf(1, 2), first.join());
+            assertEquals(BigDecimal.valueOf(2, 2), second.join());
+            assertEquals(BigDecimal.valueOf(3, 2), third.join());
+            assertEquals(List.of(Set.of("product-1", "product-2", "product-3")), bulkEndpoint.requests);
+        }
+
+        @Test
+        @DisplayName("Then a partial batch is looked up once its time window has passed")
+        void shouldLookUpBatchAfterTimeWindow() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 100, Duration.ofMillis(20));
+
+            // When
+            final var first = batchingPriceApi.getPriceAsync("product-1");
+            final var second = batchingPriceApi.getPrice("product-2");
+
+            // Then
+            assertEquals(BigDecimal.valueOf(1, 2), first.join());
+            assertEquals(BigDecimal.valueOf(2, 2), second);
+            assertEquals(List.of(Set.of("product-1", "product-2")), bulkEndpoint.requests);
+        }
+
+        @Test
+        @DisplayName("Then concurrent look-ups of the same product share an entry of the batch")
+        void shouldCoalesceSameProduct() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 2, NEVER);
+
+            // When
+            final var first = batchingPriceApi.getPriceAsync("product-1");
+            final var second = batchingPriceApi.getPriceAsync("product-1");
+            first.complete(BigDecimal.TEN);    // Completing one caller's future leaves the others alone
+            final var third = batchingPriceApi.getPriceAsync("product-2");
+
+            // Then
+            assertEquals(BigDecimal.valueOf(1, 2), second.join());
+            assertEquals(BigDecimal.valueOf(2, 2), third.join());
+            assertEquals(List.of(Set.of("product-1", "product-2")), bulkEndpoint.requests);
+        }
+
+        @Test
+        @DisplayName("Then many concurrent shoppers cost a handful of bulk look-ups")
+        void shouldCutUpstreamRequestRate() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint);
+            final int shoppers = 10_000;
+            final List<CompletableFuture<BigDecimal>> prices = new ArrayList<>();
+
+            // When
+            try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < shoppers; i++) {
+                    final String productName = "product-" + (i % 100);
+                    prices.add(CompletableFuture.supplyAsync(() -> batchingPriceApi.getPrice(productName), executor));
+                }
+                CompletableFuture.allOf(prices.toArray(CompletableFuture[]::new)).join();
+            }
+
+            // Then
+            for (int i = 0; i < shoppers; i++) {
+                assertEquals(BigDecimal.valueOf(i % 100, 2), prices.get(i).join());
+            }
+            assertTrue(bulkEndpoint.requests.size() * 10 < shoppers);
+            assertTrue(bulkEndpoint.requests.stream().allMatch(request -> request.size() <= 100));
+        }
+
+        @Test
+        @DisplayName("Then closing looks up the pending batch, and an empty batch is never looked up")
+        void shouldLookUpPendingBatchOnClose() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 100, NEVER);
+            batchingPriceApi.flush();
+            final var pending = batchingPriceApi.getPriceAsync("product-1");
+
+            // When
+            batchingPriceApi.close();
+
+            // Then
+            assertEquals(BigDecimal.valueOf(1, 2), pending.join());
+            assertEquals(List.of(Set.of("product-1")), bulkEndpoint.requests);
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching prices - Negative")
+    class WhenFetchingPricesNegative {
+
+        @Test
+        @DisplayName("Then a product left out by the bulk source is not found, without failing the rest of the batch")
+        void shouldReportProductNotFound() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 2, NEVER);
+            final var found = batchingPriceApi.getPriceAsync("product-1");
+
+            // When
+            final var exception = assertThrows(Api400xError.class, () -> batchingPriceApi.getPrice("nonexistent-product"));
+
+            // Then
+            assertEquals(HttpURLConnection.HTTP_NOT_FOUND, exception.getStatus());
+            assertEquals("Product nonexistent-product was not Found. HTTP status: 404", exception.getMessage());
+            assertEquals(BigDecimal.valueOf(1, 2), found.join());
+        }
+
+        @Test
+        @DisplayName("Then a failed bulk look-up fails every look-up of its batch")
+        void shouldFailWholeBatch() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(productNames -> {
+                throw new HttpAPIException("Failed to fetch product details. HTTP status: 503");
+            }, 2, NEVER);
+            final var first = batchingPriceApi.getPriceAsync("product-1");
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> batchingPriceApi.getPrice("product-2"));
+
+            // Then
+            assertEquals("Failed to fetch product details. HTTP status: 503", exception.getMessage());
+            final var failure = assertThrows(CompletionException.class, first::join);
+            assertInstanceOf(HttpAPIException.class, failure.getCause());
+        }
+
+        @Test
+        @DisplayName("Then a bulk look-up that fails with an Error still fails every look-up of its batch")
+        void shouldFailWholeBatchOnError() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(productNames -> {
+                throw new StackOverflowError("Stubbed bulk source");
+            }, 2, NEVER);
+            final var first = batchingPriceApi.getPriceAsync("product-1");
+
+            // When
+            final var second = batchingPriceApi.getPriceAsync("product-2");
+
+            // Then
+            final var failure = assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+            assertInstanceOf(StackOverflowError.class, assertThrows(CompletionException.class, second::join).getCause());
+            batchingPriceApi.getPriceAsync("product-3");
+            assertThrows(StackOverflowError.class, () -> batchingPriceApi.getPrice("product-4"));
+        }
+
+        @Test
+        @DisplayName("Then a bulk look-up that fails with a checked exception fails a blocking look-up with it, wrapped")
+        void shouldWrapCheckedFailure() {
+            // Given
+            batchingPriceApi = new BatchingPriceApi(productNames -> sneakyThrow(new IOException("Stubbed bulk source")), 2, NEVER);
+            batchingPriceApi.getPriceAsync("product-1");
+
+            // When
+            final var failure = assertThrows(CompletionException.class, () -> batchingPriceApi.getPrice("product-2"));
+
+            // Then
+            assertInstanceOf(IOException.class, failure.getCause());
+        }
+
+        @Test
+        @DisplayName("Then a batch rejected by the executor fails its look-ups")
+        void shouldFailRejectedBatch() {
+            // Given
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            executor.shutdown();
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 1, NEVER, Executors.newSingleThreadScheduledExecutor(), executor);
+
+            // When
+            final var exception = assertThrows(RejectedExecutionException.class, () -> batchingPriceApi.getPrice("product-1"));
+
+            // Then
+            assertFalse(exception.getMessage().isEmpty());
+            assertTrue(bulkEndpoint.requests.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then look-ups after closing are rejected")
+        void shouldRejectLookUpsAfterClose() throws InterruptedException {
+            // Given
+            final var scheduler = Executors.newSingleThreadScheduledExecutor();
+            batchingPriceApi = new BatchingPriceApi(bulkEndpoint, 100, NEVER, scheduler, Executors.newVirtualThreadPerTaskExecutor());
+            batchingPriceApi.close();
+
+            // When
+            final var exception = assertThrows(IllegalStateException.class, () -> batchingPriceApi.getPrice("product-1"));
+
+            // Then
+            assertEquals("Price batching has been closed", exception.getMessage());
+            assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+            assertTrue(bulkEndpoint.requests.isEmpty());
+        }
+    }
+}
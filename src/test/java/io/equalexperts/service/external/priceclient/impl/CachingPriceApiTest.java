@@ -0,0 +1,390 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-Tests - Given CachingPriceApi")
+class CachingPriceApiTest {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+    private static final String PRODUCT = "cornflakes";
+
+    @Mock
+    private PriceApi priceApi;
+    private final AtomicLong nanos = new AtomicLong();
+    private CachingPriceApi cachingPriceApi;
+
+    @BeforeEach
+    void setUp() {
+        cachingPriceApi = new CachingPriceApi(priceApi, Duration.ofMinutes(5), Duration.ofSeconds(30), 100, nanos::get);
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Positive")
+    class WhenFetchingPricePositive {
+
+        @Test
+        @DisplayName("Then repeated look-ups are served from the cache")
+        void shouldServeRepeatedLookUpsFromCache() {
+            // Given
+            when(priceApi.getPrice(PRODUCT)).thenReturn(PRICE);
+
+            // When
+            final var first = cachingPriceApi.getPrice(PRODUCT);
+            final var second = cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(PRICE, first);
+            assertEquals(PRICE, second);
+            verify(priceApi, times(1)).getPrice(PRODUCT);
+            final var stats = cachingPriceApi.stats();
+            assertEquals(1, stats.hits());
+            assertEquals(1, stats.misses());
+            assertEquals(1, stats.loads());
+            assertEquals(1, stats.size());
+        }
+
+        @Test
+        @DisplayName("Then prices are fetched again once their time-to-live has passed")
+        void shouldExpirePrices() {
+            // Given
+            when(priceApi.getPrice(PRODUCT)).thenReturn(PRICE, BigDecimal.TEN);
+            cachingPriceApi.getPrice(PRODUCT);
+
+            // When
+            nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+            final var beforeExpiry = cachingPriceApi.getPrice(PRODUCT);
+            nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+            final var afterExpiry = cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(PRICE, beforeExpiry);
+            assertEquals(BigDecimal.TEN, afterExpiry);
+            verify(priceApi, times(2)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then the cache never holds more products than its maximum size")
+        void shouldEvictBeyondMaximumSize() {
+            // Given
+            final CachingPriceApi smallCache = new CachingPriceApi(priceApi, Duration.ofMinutes(5), Duration.ofSeconds(30), 2, nanos::get);
+            when(priceApi.getPrice(anyString())).thenReturn(PRICE);
+
+            // When
+            for (int i = 0; i < 10; i++) {
+                smallCache.getPrice("product-" + i);
+            }
+
+            // Then
+            final var stats = smallCache.stats();
+            assertEquals(8, stats.evictions());
+            assertEquals(2, stats.size());
+        }
+
+        @Test
+        @DisplayName("Then an invalidated product is fetched again")
+        void shouldFetchInvalidatedProductAgain() {
+            // Given
+            when(priceApi.getPrice(PRODUCT)).thenReturn(PRICE);
+            cachingPriceApi.getPrice(PRODUCT);
+
+            // When
+            cachingPriceApi.invalidate(PRODUCT);
+            cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            verify(priceApi, times(2)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then concurrent misses for the same product issue a single upstream call")
+        void shouldLoadConcurrentMissesOnce() throws Exception {
+            // Given
+            final int threads = 8;
+            final AtomicInteger upstreamCalls = new AtomicInteger();
+            final CountDownLatch release = new CountDownLatch(1);
+            final CachingPriceApi singleFlight = new CachingPriceApi(productName -> {
+                upstreamCalls.incrementAndGet();
+                await(release);
+                return PRICE;
+            });
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final List<Future<BigDecimal>> futures = new ArrayList<>();
+
+            try {
+                // When
+                for (int i = 0; i < threads; i++) {
+                    futures.add(executor.submit(() -> singleFlight.getPrice(PRODUCT)));
+                }
+                TimeUnit.MILLISECONDS.sleep(100);   // Let every thread pile up behind the first miss
+                release.countDown();
+
+                // Then
+                for (final Future<BigDecimal> future : futures) {
+                    assertEquals(PRICE, future.get());
+                }
+                assertEquals(1, upstreamCalls.get());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Negative")
+    class WhenFetchingPriceNegative {
+
+        @Test
+        @DisplayName("Then unknown products are cached and replayed as not-found")
+        void shouldCacheNotFound() {
+            // Given
+            when(priceApi.getPrice(PRODUCT)).thenThrow(new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, "Product cornflakes was not Found. HTTP status: 404"));
+
+            // When
+            final var first = assertThrows(Api400xError.class, () -> cachingPriceApi.getPrice(PRODUCT));
+            final var second = assertThrows(Api400xError.class, () -> cachingPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertEquals(HttpURLConnection.HTTP_NOT_FOUND, second.getStatus());
+            assertEquals(first.getMessage(), second.getMessage());
+            verify(priceApi, times(1)).getPrice(PRODUCT);
+            assertEquals(2, cachingPriceApi.stats().notFound());
+        }
+
+        @Test
+        @DisplayName("Then unknown products are looked up again after their shorter time-to-live")
+        void shouldExpireNotFound() {
+            // Given
+            when(priceApi.getPrice(PRODUCT))
+                    .thenThrow(new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, "Not Found"))
+                    .thenReturn(PRICE);
+            assertThrows(Api400xError.class, () -> cachingPriceApi.getPrice(PRODUCT));
+
+            // When
+            nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+            final var price = cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(PRICE, price);
+            verify(priceApi, times(2)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then bad requests and API failures are never cached")
+        void shouldNotCacheOtherFailures() {
+            // Given
+            when(priceApi.getPrice(PRODUCT))
+                    .thenThrow(new Api400xError(HttpURLConnection.HTTP_BAD_REQUEST, "Bad Request"))
+                    .thenThrow(new HttpAPIException("Failed to fetch product details. HTTP status: 500"))
+                    .thenReturn(PRICE);
+
+            // When
+            final var badRequest = assertThrows(Api400xError.class, () -> cachingPriceApi.getPrice(PRODUCT));
+            assertThrows(HttpAPIException.class, () -> cachingPriceApi.getPrice(PRODUCT));
+            final var price = cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, badRequest.getStatus());
+            assertEquals(PRICE, price);
+            verify(priceApi, times(3)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then an upstream error fails the look-up, and leaves no pending entry behind")
+        void shouldNotCacheUpstreamError() throws Exception {
+            // Given
+            when(priceApi.getPrice(PRODUCT))
+                    .thenThrow(new StackOverflowError())
+                    .thenReturn(PRICE);
+
+            // When
+            assertThrows(StackOverflowError.class, () -> cachingPriceApi.getPrice(PRODUCT));
+            final var price = CompletableFuture.supplyAsync(() -> cachingPriceApi.getPrice(PRODUCT)).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(PRICE, price);
+            verify(priceApi, times(2)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then a missing price is passed on, but not cached")
+        void shouldNotCacheMissingPrice() {
+            // Given
+            when(priceApi.getPrice(PRODUCT)).thenReturn(null);
+
+            // When
+            final var first = cachingPriceApi.getPrice(PRODUCT);
+            final var second = cachingPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertNull(first);
+            assertNull(second);
+            verify(priceApi, times(2)).getPrice(PRODUCT);
+            assertEquals(0, cachingPriceApi.stats().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching price asynchronously")
+    class WhenFetchingPriceAsynchronously {
+
+        @Test
+        @DisplayName("Then an async load is shared with later blocking and async look-ups")
+        void shouldShareAsyncLoad() {
+            // Given
+            final CompletableFuture<BigDecimal> upstream = new CompletableFuture<>();
+            when(priceApi.getPriceAsync(PRODUCT)).thenReturn(upstream);
+
+            // When
+            final var first = cachingPriceApi.getPriceAsync(PRODUCT);
+            final var second = cachingPriceApi.getPriceAsync(PRODUCT);
+            upstream.complete(PRICE);
+
+            // Then
+            assertEquals(PRICE, first.join());
+            assertEquals(PRICE, second.join());
+            assertEquals(PRICE, cachingPriceApi.getPrice(PRODUCT));
+            verify(priceApi, times(1)).getPriceAsync(PRODUCT);
+            verify(priceApi, times(0)).getPrice(PRODUCT);
+        }
+
+        @Test
+        @DisplayName("Then unknown products are cached and replayed as not-found")
+        void shouldCacheNotFound() {
+            // Given - a not-found straight from the upstream future, and one from a dependent stage of it
+            when(priceApi.getPriceAsync(PRODUCT))
+                    .thenReturn(CompletableFuture.failedFuture(new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, "Not Found")));
+            when(priceApi.getPriceAsync("frosties"))
+                    .thenReturn(CompletableFuture.<BigDecimal>failedFuture(new Api400xError(HttpURLConnection.HTTP_NOT_FOUND, "Not Found")).thenApply(price -> price));
+
+            // When
+            final var first = awaitFailure(cachingPriceApi.getPriceAsync(PRODUCT));
+            final var second = awaitFailure(cachingPriceApi.getPriceAsync(PRODUCT));
+            final var dependent = awaitFailure(cachingPriceApi.getPriceAsync("frosties"));
+
+            // Then
+            assertEquals(HttpURLConnection.HTTP_NOT_FOUND, assertInstanceOf(Api400xError.class, first).getStatus());
+            assertEquals(HttpURLConnection.HTTP_NOT_FOUND, assertInstanceOf(Api400xError.class, second).getStatus());
+            assertInstanceOf(Api400xError.class, dependent);
+            assertThrows(Api400xError.class, () -> cachingPriceApi.getPrice("frosties"));
+            verify(priceApi, times(1)).getPriceAsync(PRODUCT);
+            verify(priceApi, times(1)).getPriceAsync("frosties");
+        }
+
+        @Test
+        @DisplayName("Then failures, incl. upstream exceptions thrown instead of returned, are never cached")
+        void shouldNotCacheFailures() {
+            // Given
+            final var failure = new HttpAPIException("Failed to fetch product details. HTTP status: 500");
+            when(priceApi.getPriceAsync(PRODUCT))
+                    .thenReturn(CompletableFuture.failedFuture(failure))
+                    .thenThrow(new IllegalStateException("Client closed"))
+                    .thenReturn(CompletableFuture.completedFuture(PRICE));
+
+            // When
+            final var first = awaitFailure(cachingPriceApi.getPriceAsync(PRODUCT));
+            final var second = awaitFailure(cachingPriceApi.getPriceAsync(PRODUCT));
+            final var price = cachingPriceApi.getPriceAsync(PRODUCT).join();
+
+            // Then
+            assertSame(failure, first);
+            assertInstanceOf(IllegalStateException.class, second);
+            assertEquals(PRICE, price);
+        }
+
+        @Test
+        @DisplayName("Then a blocking look-up sharing a failed async load sees its failure")
+        void shouldPassSharedCheckedFailureToBlockingLookUp() throws Exception {
+            // Given
+            final CompletableFuture<BigDecimal> upstream = new CompletableFuture<>();
+            when(priceApi.getPriceAsync(PRODUCT)).thenReturn(upstream);
+            final var asyncLookUp = cachingPriceApi.getPriceAsync(PRODUCT);
+            final AtomicReference<Thread> worker = new AtomicReference<>();
+            final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+                worker.set(new Thread(task));
+                return worker.get();
+            });
+
+            try {
+                // When
+                final Future<BigDecimal> blockingLookUp = executor.submit(() -> cachingPriceApi.getPrice(PRODUCT));
+                while (worker.get() == null || worker.get().getState() != Thread.State.WAITING) {
+                    Thread.onSpinWait();    // Until the blocking look-up is parked on the shared, pending entry
+                }
+                upstream.completeExceptionally(new IOException("Connection reset"));
+
+                // Then
+                final var failure = assertThrows(ExecutionException.class, blockingLookUp::get).getCause();
+                assertInstanceOf(CompletionException.class, failure);
+                assertInstanceOf(IOException.class, failure.getCause());
+                assertInstanceOf(IOException.class, awaitFailure(asyncLookUp));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Then a missing price is passed on, but not cached")
+        void shouldNotCacheMissingPrice() {
+            // Given
+            when(priceApi.getPriceAsync(PRODUCT)).thenReturn(CompletableFuture.completedFuture(null));
+
+            // When
+            final var price = cachingPriceApi.getPriceAsync(PRODUCT).join();
+
+            // Then
+            assertNull(price);
+            assertEquals(0, cachingPriceApi.stats().size());
+        }
+
+        private static Throwable awaitFailure(final CompletableFuture<?> future) {
+            return assertThrows(CompletionException.class, future::join).getCause();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieManager;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit-Tests - Given InstrumentedHttpClient")
+class InstrumentedHttpClientTest {
+    private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("http://localhost/prices/cornflakes.json")).build();
+
+    @Mock
+    private HttpClient httpClient;
+    private InstrumentedHttpClient instrumentedHttpClient;
+
+    @BeforeEach
+    void setUp() {
+        instrumentedHttpClient = new InstrumentedHttpClient(httpClient);
+    }
+
+    @Nested
+    @DisplayName("When sending requests - Positive")
+    class WhenSendingRequestsPositive {
+
+        @Test
+        @DisplayName("Then blocking responses are counted per protocol version")
+        @SuppressWarnings("unchecked")
+        void shouldCountResponsesPerVersion() throws Exception {
+            // Given
+            final HttpResponse<String> http2Response = mock(HttpResponse.class);
+            final HttpResponse<String> http1Response = mock(HttpResponse.class);
+            when(http2Response.version()).thenReturn(HttpClient.Version.HTTP_2);
+            when(http1Response.version()).thenReturn(HttpClient.Version.HTTP_1_1);
+            when(httpClient.send(any(), any(HttpResponse.BodyHandler.class))).thenReturn(http2Response, http1Response);
+            when(httpClient.version()).thenReturn(HttpClient.Version.HTTP_2);
+
+            // When
+            final var first = instrumentedHttpClient.send(REQUEST, HttpResponse.BodyHandlers.ofString());
+            final var second = instrumentedHttpClient.send(REQUEST, HttpResponse.BodyHandlers.ofString());
+
+            // Then
+            assertSame(http2Response, first);
+            assertSame(http1Response, second);
+            final var stats = instrumentedHttpClient.stats();
+            assertEquals("HTTP_2", stats.preferredVersion());
+            assertEquals(2, stats.requests());
+            assertEquals(1, stats.http2Responses());
+            assertEquals(1, stats.http1Responses());
+            assertEquals(0, stats.failures());
+            assertEquals(0, stats.inFlight());
+            assertEquals(1, stats.peakInFlight());
+        }
+
+        @Test
+        @DisplayName("Then the settings and the life-cycle calls are those of the wrapped client")
+        void shouldDelegateToWrappedClient() throws InterruptedException {
+            // Given
+            final var cookieHandler = new CookieManager();
+            final var sslContext = mock(SSLContext.class);
+            final var sslParameters = new SSLParameters();
+            final var webSocketBuilder = mock(WebSocket.Builder.class);
+            final var authenticator = new Authenticator() {
+            };
+            when(httpClient.cookieHandler()).thenReturn(Optional.of(cookieHandler));
+            when(httpClient.proxy()).thenReturn(Optional.of(ProxySelector.getDefault()));
+            when(httpClient.sslContext()).thenReturn(sslContext);
+            when(httpClient.sslParameters()).thenReturn(sslParameters);
+            when(httpClient.authenticator()).thenReturn(Optional.of(authenticator));
+            when(httpClient.newWebSocketBuilder()).thenReturn(webSocketBuilder);
+            when(httpClient.awaitTermination(Duration.ofSeconds(1))).thenReturn(true);
+            when(httpClient.isTerminated()).thenReturn(false);
+
+            // When / Then
+            assertEquals(Optional.of(cookieHandler), instrumentedHttpClient.cookieHandler());
+            assertEquals(Optional.of(ProxySelector.getDefault()), instrumentedHttpClient.proxy());
+            assertSame(sslContext, instrumentedHttpClient.sslContext());
+            assertSame(sslParameters, instrumentedHttpClient.sslParameters());
+            assertEquals(Optional.of(authenticator), instrumentedHttpClient.authenticator());
+            assertSame(webSocketBuilder, instrumentedHttpClient.newWebSocketBuilder());
+            assertTrue(instrumentedHttpClient.awaitTermination(Duration.ofSeconds(1)));
+            assertFalse(instrumentedHttpClient.isTerminated());
+            instrumentedHttpClient.shutdown();
+            instrumentedHttpClient.shutdownNow();
+            instrumentedHttpClient.close();
+            verify(httpClient).shutdown();
+            verify(httpClient).shutdownNow();
+            verify(httpClient).close();
+        }
+    }
+
+    @Nested
+    @DisplayName("When sending requests - Negative")
+    class WhenSendingRequestsNegative {
+
+        @Test
+        @DisplayName("Then failed blocking requests are counted as failures")
+        @SuppressWarnings("unchecked")
+        void shouldCountFailedRequests() throws Exception {
+            // Given
+            when(httpClient.send(any(), any(HttpResponse.BodyHandler.class))).thenThrow(new IOException("Connection refused"));
+            when(httpClient.version()).thenReturn(HttpClient.Version.HTTP_2);
+
+            // When
+            assertThrows(IOException.class, () -> instrumentedHttpClient.send(REQUEST, HttpResponse.BodyHandlers.ofString()));
+
+            // Then
+            final var stats = instrumentedHttpClient.stats();
+            assertEquals(1, stats.requests());
+            assertEquals(1, stats.failures());
+            assertEquals(0, stats.inFlight());
+        }
+    }
+}
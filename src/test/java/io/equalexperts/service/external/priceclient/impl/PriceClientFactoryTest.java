@@ -0,0 +1,223 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.exception.HttpAPIException;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.Callback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the price clients against a local HTTP/2 ({@code h2c}) stub of the Price API, which tells the connections
+ * apart by their client port.
+ */
+@Tag("unit")
+@DisplayName("Unit-Tests - Given PriceClientFactory against a local HTTP/2 stub server")
+class PriceClientFactoryTest {
+    private static final String PRICE_API_URI = "prices";
+    private static final int CONCURRENT_LOOK_UPS = 50;
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+    private Server server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new Server();
+        final var config = new HttpConfiguration();
+        final var connector = new ServerConnector(server, new HttpConnectionFactory(config), new HTTP2CServerConnectionFactory(config));
+        connector.setHost("127.0.0.1");
+        server.addConnector(connector);
+        server.setHandler(new Handler.Abstract() {
+            @Override
+            public boolean handle(final Request request, final Response response, final Callback callback) throws Exception {
+                connections.add(Request.getRemotePort(request));
+                Thread.sleep(20);   // Keeps the concurrent look-ups in flight together
+                response.write(true, ByteBuffer.wrap("{\"title\": \"Corn Flakes\", \"price\": 2.52}".getBytes(StandardCharsets.UTF_8)), callback);
+                return true;
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:%d".formatted(connector.getLocalPort());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop();
+    }
+
+    @Nested
+    @DisplayName("When building a price client - Positive")
+    class WhenBuildingPriceClientPositive {
+
+        @Test
+        @DisplayName("Then the default client prefers HTTP/2, with a connect timeout and the JDK's executor")
+        void shouldBuildTunedClient() {
+            // When
+            try (var httpClient = new PriceClientFactory().create()) {
+                // Then
+                assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+                assertEquals(Optional.of(Duration.ofSeconds(2)), httpClient.connectTimeout());
+                assertEquals(HttpClient.Redirect.NEVER, httpClient.followRedirects());
+                assertTrue(httpClient.executor().isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Then concurrent look-ups are multiplexed over a single HTTP/2 connection")
+        void shouldMultiplexLookUpsOverOneConnection() {
+            // Given
+            try (var httpClient = new PriceClientFactory().create()) {
+                final var priceApi = new PriceApiImpl(PRICE_API_URI, baseUrl, httpClient);
+                assertEquals(new BigDecimal("2.52"), priceApi.getPrice("cornflakes"));  // Upgrades the connection
+
+                // When
+                final var prices = lookUpConcurrently(priceApi);
+
+                // Then
+                prices.forEach(price -> assertEquals(new BigDecimal("2.52"), price.join()));
+                assertEquals(1, connections.size());
+                final var stats = httpClient.stats();
+                assertEquals("HTTP_2", stats.preferredVersion());
+                assertEquals(CONCURRENT_LOOK_UPS + 1, stats.requests());
+                assertEquals(CONCURRENT_LOOK_UPS + 1, stats.http2Responses());   // Incl. the upgraded request
+                assertEquals(0, stats.http1Responses());
+                assertEquals(0, stats.failures());
+                assertEquals(0, stats.inFlight());
+                assertTrue(stats.peakInFlight() > 1, "Peak in flight: " + stats.peakInFlight());
+            }
+        }
+
+        @Test
+        @DisplayName("Then an HTTP/1.1 client opens a connection per concurrent look-up")
+        void shouldOpenConnectionPerLookUpOverHttp1() {
+            // Given
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try (var httpClient = new PriceClientFactory(HttpClient.Version.HTTP_1_1, Duration.ofSeconds(1), executor).create()) {
+                final var priceApi = new PriceApiImpl(PRICE_API_URI, baseUrl, httpClient);
+
+                // When
+                final var prices = lookUpConcurrently(priceApi);
+
+                // Then
+                prices.forEach(price -> assertEquals(new BigDecimal("2.52"), price.join()));
+                assertTrue(connections.size() > 1, "Connections: " + connections.size());
+                assertEquals(CONCURRENT_LOOK_UPS, httpClient.stats().http1Responses());
+                assertEquals(Optional.of(executor), httpClient.executor());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Then the keep-alive settings are set once, and settings from the command line are kept")
+        void shouldConfigureKeepAlive() {
+            // Given
+            final String keepAlive = System.getProperty(PriceClientFactory.KEEP_ALIVE_PROPERTY);
+            final String h2KeepAlive = System.getProperty(PriceClientFactory.H2_KEEP_ALIVE_PROPERTY);
+            System.clearProperty(PriceClientFactory.KEEP_ALIVE_PROPERTY);
+            System.setProperty(PriceClientFactory.H2_KEEP_ALIVE_PROPERTY, "90");
+            try {
+                // When
+                PriceClientFactory.configureKeepAlive(Duration.ofMillis(500));
+
+                // Then
+                assertEquals("1", System.getProperty(PriceClientFactory.KEEP_ALIVE_PROPERTY));
+                assertEquals("90", System.getProperty(PriceClientFactory.H2_KEEP_ALIVE_PROPERTY));
+            } finally {
+                restore(PriceClientFactory.KEEP_ALIVE_PROPERTY, keepAlive);
+                restore(PriceClientFactory.H2_KEEP_ALIVE_PROPERTY, h2KeepAlive);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When building a price client - Negative")
+    class WhenBuildingPriceClientNegative {
+
+        @Test
+        @DisplayName("Then look-ups that cannot connect are counted as failures")
+        void shouldCountFailures() throws Exception {
+            // Given
+            final int closedPort;
+            try (var socket = new ServerSocket(0)) {
+                closedPort = socket.getLocalPort();
+            }
+            try (var httpClient = new PriceClientFactory().create()) {
+                final var priceApi = new PriceApiImpl(PRICE_API_URI, "http://127.0.0.1:%d".formatted(closedPort), httpClient);
+
+                // When
+                assertThrows(HttpAPIException.class, () -> priceApi.getPrice("cornflakes"));
+                final var failure = priceApi.getPriceAsync("cornflakes").exceptionally(e -> null).join();
+
+                // Then
+                assertNull(failure);
+                final var stats = httpClient.stats();
+                assertEquals(2, stats.requests());
+                assertEquals(2, stats.failures());
+                assertEquals(0, stats.inFlight());
+            }
+        }
+
+        @Test
+        @DisplayName("Then requests rejected up-front are counted as failures")
+        void shouldCountRejectedRequests() {
+            // Given
+            try (var httpClient = new PriceClientFactory().create()) {
+                // When
+                final var exception = assertThrows(NullPointerException.class, () -> httpClient.sendAsync(null, null));
+
+                // Then
+                assertInstanceOf(NullPointerException.class, exception);
+                assertEquals(1, httpClient.stats().failures());
+                assertEquals(0, httpClient.stats().inFlight());
+            }
+        }
+    }
+
+    private static List<CompletableFuture<BigDecimal>> lookUpConcurrently(final PriceApiImpl priceApi) {
+        final List<CompletableFuture<BigDecimal>> prices = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_LOOK_UPS; i++) {
+            prices.add(priceApi.getPriceAsync("cornflakes"));
+        }
+        return prices;
+    }
+
+    private static void restore(final String property, final String value) {
+        if (value == null) {
+            System.clearProperty(property);
+        } else {
+            System.setProperty(property, value);
+        }
+    }
+}
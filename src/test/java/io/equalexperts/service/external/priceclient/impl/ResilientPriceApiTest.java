@@ -0,0 +1,498 @@
+package io.equalexperts.service.external.priceclient.impl;
+
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.HttpAPIException;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given ResilientPriceApi")
+class ResilientPriceApiTest {
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+    private static final String PRODUCT = "cornflakes";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private static Bulkhead bulkhead(final int maxConcurrentCalls) {
+        return Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(maxConcurrentCalls).maxWaitDuration(Duration.ZERO).build());
+    }
+
+    private static CircuitBreaker circuitBreaker() {
+        return CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(Api400xError.class)
+                .build());
+    }
+
+    /**
+     * A Price API answering every look-up with the given future, counting the look-ups.
+     */
+    private PriceApi upstream(final CompletableFuture<BigDecimal> response) {
+        return new PriceApi() {
+            @Override
+            public BigDecimal getPrice(final String productName) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+                upstreamCalls.incrementAndGet();
+                return response;
+            }
+        };
+    }
+
+    /**
+     * A Price API answering the first look-up with the first future, and every later one with the second.
+     */
+    private PriceApi upstream(final CompletableFuture<BigDecimal> first, final CompletableFuture<BigDecimal> later) {
+        return new PriceApi() {
+            @Override
+            public BigDecimal getPrice(final String productName) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+                return upstreamCalls.incrementAndGet() == 1 ? first : later;
+            }
+        };
+    }
+
+    private static void awaitAvailableConcurrentCalls(final ResilientPriceApi resilientPriceApi, final int calls) {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (resilientPriceApi.stats().availableConcurrentCalls() < calls && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(calls, resilientPriceApi.stats().availableConcurrentCalls());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitUpstreamCalls(final int calls) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (upstreamCalls.get() < calls && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(calls, upstreamCalls.get());
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Positive")
+    class WhenFetchingPricePositive {
+
+        @Test
+        @DisplayName("Then the price of the Price API is returned")
+        void shouldReturnPrice() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(productName -> PRICE);
+
+            // When
+            final var price = resilientPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(PRICE, price);
+            final var stats = resilientPriceApi.stats();
+            assertEquals("CLOSED", stats.circuitBreakerState());
+            assertEquals(-1.0f, stats.failureRate());   // Not enough calls for a rate yet
+            assertEquals(-1.0f, stats.slowCallRate());
+            assertEquals(64, stats.availableConcurrentCalls());
+            assertEquals(0, stats.notPermittedCalls());
+            assertEquals(0, stats.bulkheadRejections());
+            assertEquals(0, stats.timeouts());
+            assertEquals(0, stats.hedgedRequests());
+            assertEquals(0, stats.lastKnownPricesServed());
+        }
+
+        @Test
+        @DisplayName("Then a slow response is hedged, and the first response wins")
+        void shouldHedgeSlowResponse() {
+            // Given - the first request never answers, the hedged one does
+            final CompletableFuture<BigDecimal> stalled = new CompletableFuture<>();
+            final var resilientPriceApi = new ResilientPriceApi(new PriceApi() {
+                @Override
+                public BigDecimal getPrice(final String productName) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+                    return upstreamCalls.incrementAndGet() == 1 ? stalled : CompletableFuture.completedFuture(PRICE);
+                }
+            }, TIMEOUT, Duration.ofMillis(20), bulkhead(2), circuitBreaker(), false);
+
+            // When
+            final var price = resilientPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertEquals(PRICE, price);
+            assertEquals(2, upstreamCalls.get());
+            assertEquals(1, resilientPriceApi.stats().hedgedRequests());
+            assertEquals(1, resilientPriceApi.stats().availableConcurrentCalls());    // Held by the stalled request
+        }
+
+        @Test
+        @DisplayName("Then a failure does not beat a slower hedged price")
+        void shouldWaitForHedgedPriceAfterFailure() throws InterruptedException {
+            // Given
+            final CompletableFuture<BigDecimal> first = new CompletableFuture<>();
+            final CompletableFuture<BigDecimal> hedged = new CompletableFuture<>();
+            final var resilientPriceApi = new ResilientPriceApi(upstream(first, hedged), TIMEOUT, Duration.ofMillis(20),
+                    bulkhead(2), circuitBreaker(), false);
+            final var price = resilientPriceApi.getPriceAsync(PRODUCT);
+            awaitUpstreamCalls(2);
+
+            // When
+            first.completeExceptionally(new HttpAPIException("Failed to fetch product details. HTTP status: 503"));
+            final boolean doneOnFailure = price.isDone();
+            hedged.complete(PRICE);
+
+            // Then
+            assertFalse(doneOnFailure);
+            assertEquals(PRICE, price.join());
+            assertEquals(1, resilientPriceApi.stats().hedgedRequests());
+        }
+
+        @Test
+        @DisplayName("Then an unknown product answered by the hedged request wins, without waiting for the first")
+        void shouldPassOnHedgedNotFound() throws InterruptedException {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(new CompletableFuture<>(),
+                    CompletableFuture.failedFuture(new Api400xError(404, "Product unknown was not Found"))),
+                    TIMEOUT, Duration.ofMillis(20), bulkhead(2), circuitBreaker(), false);
+
+            // When
+            final var exception = assertThrows(Api400xError.class, () -> resilientPriceApi.getPrice("unknown"));
+
+            // Then
+            assertEquals(404, exception.getStatus());
+            assertEquals(2, upstreamCalls.get());
+            assertEquals("CLOSED", resilientPriceApi.stats().circuitBreakerState());
+        }
+
+        @Test
+        @DisplayName("Then a fast response is not hedged")
+        void shouldNotHedgeFastResponse() throws InterruptedException {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.completedFuture(PRICE)),
+                    TIMEOUT, Duration.ofMillis(10), bulkhead(1), circuitBreaker(), false);
+
+            // When
+            final var price = resilientPriceApi.getPrice(PRODUCT);
+            Thread.sleep(50);
+
+            // Then
+            assertEquals(PRICE, price);
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(0, resilientPriceApi.stats().hedgedRequests());
+        }
+
+        @Test
+        @DisplayName("Then unknown products are passed on, without opening the circuit")
+        void shouldNotCountNotFoundAsFailure() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.failedFuture(new Api400xError(404, "Product unknown was not Found"))),
+                    TIMEOUT, null, bulkhead(1), circuitBreaker(), false);
+
+            // When
+            for (int i = 0; i < 5; i++) {
+                assertEquals(404, assertThrows(Api400xError.class, () -> resilientPriceApi.getPrice("unknown")).getStatus());
+            }
+
+            // Then
+            assertEquals(5, upstreamCalls.get());
+            assertEquals("CLOSED", resilientPriceApi.stats().circuitBreakerState());
+        }
+
+        @Test
+        @DisplayName("Then an empty price is passed on, and not remembered as the last-known price")
+        void shouldPassOnEmptyPrice() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.completedFuture(null)),
+                    TIMEOUT, null, bulkhead(1), circuitBreaker(), true);
+
+            // When
+            final var price = resilientPriceApi.getPrice(PRODUCT);
+
+            // Then
+            assertNull(price);
+        }
+    }
+
+    @Nested
+    @DisplayName("When fetching price - Negative")
+    class WhenFetchingPriceNegative {
+
+        @Test
+        @DisplayName("Then a look-up that takes too long times out")
+        void shouldTimeOut() {
+            // Given
+            final CompletableFuture<BigDecimal> stalled = new CompletableFuture<>();
+            final var resilientPriceApi = new ResilientPriceApi(upstream(stalled),
+                    Duration.ofMillis(50), null, bulkhead(1), circuitBreaker(), false);
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertEquals("Price look-up of cornflakes timed out after 50 ms", exception.getMessage());
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+            assertEquals(1, resilientPriceApi.stats().timeouts());
+            assertEquals(0, resilientPriceApi.stats().availableConcurrentCalls());    // Held until the request settles
+            stalled.complete(PRICE);
+            assertEquals(1, resilientPriceApi.stats().availableConcurrentCalls());
+        }
+
+        @Test
+        @DisplayName("Then a blocking Price API is timed out without holding up the caller, and its slot held until it returns")
+        void shouldTimeOutBlockingPriceApi() {
+            // Given
+            final CountDownLatch answer = new CountDownLatch(1);
+            final var resilientPriceApi = new ResilientPriceApi(productName -> {
+                await(answer);
+                return PRICE;
+            }, Duration.ofMillis(50), null, bulkhead(1), circuitBreaker(), false);
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            final int availableWhileBlocked = resilientPriceApi.stats().availableConcurrentCalls();
+            answer.countDown();
+
+            // Then
+            assertInstanceOf(TimeoutException.class, exception.getCause());
+            assertEquals(0, availableWhileBlocked);
+            awaitAvailableConcurrentCalls(resilientPriceApi, 1);
+        }
+
+        @Test
+        @DisplayName("Then a slow look-up is not hedged while the bulkhead is full")
+        void shouldNotHedgeWhenBulkheadIsFull() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(new CompletableFuture<>()),
+                    Duration.ofMillis(100), Duration.ofMillis(10), bulkhead(1), circuitBreaker(), false);
+
+            // When
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(0, resilientPriceApi.stats().hedgedRequests());
+        }
+
+        @Test
+        @DisplayName("Then a look-up the executor rejects fails, and gives its slot back")
+        void shouldFailRejectedLookUp() {
+            // Given
+            final ExecutorService executor = Executors.newSingleThreadExecutor();
+            executor.shutdown();
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.completedFuture(PRICE)),
+                    TIMEOUT, null, bulkhead(1), circuitBreaker(), false, executor);
+
+            // When - Then
+            assertThrows(RejectedExecutionException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            assertEquals(0, upstreamCalls.get());
+            assertEquals(1, resilientPriceApi.stats().availableConcurrentCalls());
+        }
+
+        @Test
+        @DisplayName("Then a hedged look-up fails once both of its requests have failed")
+        void shouldFailOnceBothRequestsFailed() throws InterruptedException {
+            // Given
+            final CompletableFuture<BigDecimal> first = new CompletableFuture<>();
+            final CompletableFuture<BigDecimal> hedged = new CompletableFuture<>();
+            final var resilientPriceApi = new ResilientPriceApi(upstream(first, hedged), TIMEOUT, Duration.ofMillis(20),
+                    bulkhead(2), circuitBreaker(), false);
+            final var price = resilientPriceApi.getPriceAsync(PRODUCT);
+            awaitUpstreamCalls(2);
+
+            // When
+            hedged.completeExceptionally(new HttpAPIException("Failed to fetch product details. HTTP status: 502"));
+            final boolean doneOnFirstFailure = price.isDone();
+            first.completeExceptionally(new HttpAPIException("Failed to fetch product details. HTTP status: 503"));
+
+            // Then
+            assertFalse(doneOnFirstFailure);
+            final var exception = assertThrows(CompletionException.class, price::join);
+            assertEquals("Failed to fetch product details. HTTP status: 503", exception.getCause().getMessage());
+        }
+
+        @Test
+        @DisplayName("Then a failure before the hedge delay fails the look-up, without hedging it")
+        void shouldNotHedgeFailedLookUp() throws InterruptedException {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.failedFuture(
+                    new HttpAPIException("Failed to fetch product details. HTTP status: 503"))),
+                    TIMEOUT, Duration.ofMillis(10), bulkhead(1), circuitBreaker(), false);
+
+            // When
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            Thread.sleep(50);
+
+            // Then
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(0, resilientPriceApi.stats().hedgedRequests());
+        }
+
+        @Test
+        @DisplayName("Then a look-up that timed out is not hedged")
+        void shouldNotHedgeAfterTimeout() throws InterruptedException {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(new CompletableFuture<>()),
+                    Duration.ofMillis(20), Duration.ofMillis(60), bulkhead(2), circuitBreaker(), false);
+
+            // When
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            Thread.sleep(100);
+
+            // Then
+            assertEquals(1, upstreamCalls.get());
+            assertEquals(0, resilientPriceApi.stats().hedgedRequests());
+            assertEquals(1, resilientPriceApi.stats().availableConcurrentCalls());    // Only the stalled request holds one
+        }
+
+        @Test
+        @DisplayName("Then look-ups beyond the bulkhead fail fast")
+        void shouldFailFastWhenBulkheadIsFull() {
+            // Given
+            final CompletableFuture<BigDecimal> stalled = new CompletableFuture<>();
+            final var resilientPriceApi = new ResilientPriceApi(upstream(stalled), TIMEOUT, null, bulkhead(1), circuitBreaker(), false);
+            final var inFlight = resilientPriceApi.getPriceAsync(PRODUCT);
+
+            // When
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertInstanceOf(BulkheadFullException.class, exception.getCause());
+            assertEquals(1, resilientPriceApi.stats().bulkheadRejections());
+            assertEquals(0, resilientPriceApi.stats().availableConcurrentCalls());
+            stalled.complete(PRICE);
+            assertEquals(PRICE, inFlight.join());
+            assertEquals(1, upstreamCalls.get());   // Sent from the executor, so only known to have been once it completed
+            assertEquals(1, resilientPriceApi.stats().availableConcurrentCalls());
+        }
+
+        @Test
+        @DisplayName("Then the circuit opens on failures, and look-ups fail fast while it is open")
+        void shouldOpenCircuit() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.supplyAsync(() -> {
+                throw new HttpAPIException("Failed to fetch product details. HTTP status: 503");
+            })), TIMEOUT, null, bulkhead(1), circuitBreaker(), false);
+
+            // When
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertInstanceOf(CallNotPermittedException.class, exception.getCause());
+            assertEquals(2, upstreamCalls.get());
+            final var stats = resilientPriceApi.stats();
+            assertEquals("OPEN", stats.circuitBreakerState());
+            assertEquals(100.0f, stats.failureRate());
+            assertEquals(1, stats.notPermittedCalls());
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+            assertEquals(2, resilientPriceApi.stats().notPermittedCalls());
+        }
+
+        @Test
+        @DisplayName("Then the last-known price is served while the circuit is open")
+        void shouldServeLastKnownPrice() {
+            // Given
+            final AtomicInteger calls = new AtomicInteger();
+            final var resilientPriceApi = new ResilientPriceApi(productName -> {
+                if (calls.incrementAndGet() > 1) {
+                    throw new HttpAPIException("Failed to fetch product details. HTTP status: 503");
+                }
+                return PRICE;
+            }, TIMEOUT, null, bulkhead(1), circuitBreaker(), true);
+            resilientPriceApi.getPrice(PRODUCT);
+            assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // When
+            final var price = resilientPriceApi.getPrice(PRODUCT);
+            final var exception = assertThrows(HttpAPIException.class, () -> resilientPriceApi.getPrice("weetabix"));
+
+            // Then
+            assertEquals(PRICE, price);
+            assertEquals("OPEN", resilientPriceApi.stats().circuitBreakerState());
+            assertEquals(1, resilientPriceApi.stats().lastKnownPricesServed());
+            assertTrue(exception.getMessage().startsWith("Price API unavailable: CircuitBreaker 'test' is OPEN"));
+            assertEquals(2, calls.get());
+        }
+
+        @Test
+        @DisplayName("Then a look-up the Price API throws on is failed")
+        void shouldFailOnSynchronousThrow() {
+            // Given
+            final var failure = new IllegalStateException("Client closed");
+            final var resilientPriceApi = new ResilientPriceApi(new PriceApi() {
+                @Override
+                public BigDecimal getPrice(final String productName) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public CompletableFuture<BigDecimal> getPriceAsync(final String productName) {
+                    throw failure;
+                }
+            }, TIMEOUT, null, bulkhead(1), circuitBreaker(), false);
+
+            // When - Then
+            assertSame(failure, assertThrows(IllegalStateException.class, () -> resilientPriceApi.getPrice(PRODUCT)));
+        }
+
+        @Test
+        @DisplayName("Then a checked failure of the Price API is reported wrapped")
+        void shouldWrapCheckedFailure() {
+            // Given
+            final var resilientPriceApi = new ResilientPriceApi(upstream(CompletableFuture.failedFuture(new IOException("Connection reset"))),
+                    TIMEOUT, null, bulkhead(1), circuitBreaker(), false);
+
+            // When
+            final var exception = assertThrows(CompletionException.class, () -> resilientPriceApi.getPrice(PRODUCT));
+
+            // Then
+            assertInstanceOf(IOException.class, exception.getCause());
+        }
+    }
+}
@@ -2,8 +2,8 @@ package io.equalexperts.service.internal;
 
 import io.equalexperts.component.calculator.CartCalculator;
 import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
-import io.equalexperts.component.cart.Cart;
-import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.cart.CartRegistry;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
 import io.equalexperts.component.tax.TaxCalculator;
 import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
 import io.equalexperts.model.ProductIn;
@@ -32,9 +32,10 @@ class CartServiceIntTest {
     private static final HttpClient httpClient = HttpClient.newHttpClient();
     private final TaxCalculator taxCalculator = new TaxCalculatorImpl(BigDecimal.valueOf(12.5)); // @12.5% tax
     private final PriceApi priceApi = new PriceApiImpl(API_URI, BASE_URL, httpClient);
-    private final Cart cart = new CartImpl();
+    private static final String CART_ID = "int-session";
+    private final CartRegistry cartRegistry = new CartRegistryImpl();
     private final CartCalculator cartCalculator = new CartCalculatorImpl(taxCalculator);
-    private final CartService cartService = new CartServiceImpl(priceApi, cart, cartCalculator);
+    private final CartService cartService = new CartServiceImpl(priceApi, cartRegistry, cartCalculator);
 
     @Nested
     @DisplayName("Validate & AddToCart - Positive Int-Test Scenarios")
@@ -47,7 +48,7 @@ class CartServiceIntTest {
             final var productIn = new ProductIn("cornflakes", 3);
 
             // When
-            final var cartSummaryView = cartService.validateAndAddToCart(productIn);
+            final var cartSummaryView = cartService.validateAndAddToCart(CART_ID, productIn);
 
             // Then
             assertFalse(cartSummaryView.errors().hasErrors());
@@ -78,14 +79,14 @@ class CartServiceIntTest {
         @DisplayName("When adding 2 products to cart")
         void thenAdd5ProductToCart() {
             // Given
-            cartService.validateAndAddToCart(new ProductIn("cheerios", 10));
-            cartService.validateAndAddToCart(new ProductIn("cornflakes", 1));
-            cartService.validateAndAddToCart(new ProductIn("frosties", 45));
-            cartService.validateAndAddToCart(new ProductIn("shreddies", 23));
-            cartService.validateAndAddToCart(new ProductIn("weetabix", 10));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 10));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cornflakes", 1));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 45));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("shreddies", 23));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("weetabix", 10));
 
             // When
-            final var consolidatedCart = cartService.validateAndAddToCart(new ProductIn("weetabix", 1));
+            final var consolidatedCart = cartService.validateAndAddToCart(CART_ID, new ProductIn("weetabix", 1));
             final var cornflakesCartItem = consolidatedCart.items().stream().filter(item -> item.productName().equals("cornflakes")).findAny();
 
             // Then
@@ -114,7 +115,7 @@ class CartServiceIntTest {
             final var productIn = new ProductIn("chocolate", 1); //Chocolate does not exist in the Price API
 
             // When
-            final var consolidatedCart = cartService.validateAndAddToCart(productIn);
+            final var consolidatedCart = cartService.validateAndAddToCart(CART_ID, productIn);
 
             // Then
             assertNotNull(consolidatedCart.errors());
@@ -133,7 +134,7 @@ class CartServiceIntTest {
             final var productIn = new ProductIn("cornflakes", -1);
 
             // When
-            final var consolidatedCart = cartService.validateAndAddToCart(productIn);
+            final var consolidatedCart = cartService.validateAndAddToCart(CART_ID, productIn);
 
             final var cartTotals = consolidatedCart.totals();
 
@@ -151,7 +152,7 @@ class CartServiceIntTest {
             final var productIn = new ProductIn("invalid-product", 1);
 
             // When
-            final var consolidatedCart = cartService.validateAndAddToCart(productIn);
+            final var consolidatedCart = cartService.validateAndAddToCart(CART_ID, productIn);
 
             // Then
             assertNotNull(consolidatedCart.errors());
@@ -3,21 +3,30 @@ package io.equalexperts.service.internal;
 import io.equalexperts.component.calculator.CartCalculator;
 import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
 import io.equalexperts.component.cart.Cart;
+import io.equalexperts.component.cart.CartRegistry;
 import io.equalexperts.component.cart.impl.CartImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.metrics.impl.CartMetricsImpl;
 import io.equalexperts.component.tax.TaxCalculator;
 import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
 import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.CartClosedException;
+import io.equalexperts.model.CartOutcomeStats;
+import io.equalexperts.model.CartStage;
 import io.equalexperts.model.ProductIn;
 import io.equalexperts.model.ProductRm;
 import io.equalexperts.service.external.priceclient.PriceApi;
 import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.service.internal.cartengine.CartServiceOptions;
+import io.equalexperts.util.LogRateLimiter;
+import io.equalexperts.view.CartLineErrorView;
+import io.equalexperts.view.CartViewDetail;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -25,13 +34,36 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static io.equalexperts.constant.ErrorConstants.CONFLICT_ERROR;
+import static io.equalexperts.constant.ErrorConstants.NOT_FOUND_ERROR;
+import static io.equalexperts.constant.ErrorConstants.VALIDATION_ERROR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Tag("unit")
@@ -41,13 +73,13 @@ import static org.mockito.Mockito.when;
 class CartServiceTest {
     @Spy
     private final TaxCalculator taxCalculator = new TaxCalculatorImpl(BigDecimal.valueOf(12.5)); // @12.5% tax
+    private static final String CART_ID = "session-1";
     @Spy
-    private final Cart cart = new CartImpl();
+    private final CartRegistry cartRegistry = new CartRegistryImpl();
     @Spy
     private CartCalculator cartCalculator = new CartCalculatorImpl(taxCalculator);
     @Mock
     private PriceApi priceApi;
-    @InjectMocks
     private CartServiceImpl cartService;
 
     @BeforeEach
@@ -56,7 +88,7 @@ class CartServiceTest {
         when(priceApi.getPrice("frosties")).thenReturn(BigDecimal.valueOf(12.34));
         when(priceApi.getPrice("cheerios")).thenReturn(BigDecimal.valueOf(19.09));
 
-        cartService = new CartServiceImpl(priceApi, cart, cartCalculator);
+        cartService = new CartServiceImpl(priceApi, cartRegistry, cartCalculator);
     }
 
     @Nested
@@ -65,13 +97,83 @@ class CartServiceTest {
         @Test
         void validateAndAddToCart() {
             final ProductIn cheerios = new ProductIn("cheerios", 3);
-            final var consolidatedCart = cartService.validateAndAddToCart(cheerios);
+            final var consolidatedCart = cartService.validateAndAddToCart(CART_ID, cheerios);
 
             final var cheeriosItem = consolidatedCart.items().stream().filter(i -> i.productName().equals("cheerios")).findAny().get();
 
             assertEquals("cheerios", cheeriosItem.productName());
             assertEquals(19.09, cheeriosItem.price().doubleValue());
         }
+
+        @Test
+        @DisplayName("Then each cart-id gets its own cart")
+        void validateAndAddToSeparateCarts() {
+            // Given
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var otherCart = cartService.validateAndAddToCart("session-2", new ProductIn("frosties", 1));
+
+            // Then
+            assertEquals(1, otherCart.items().size());
+            assertEquals("frosties", otherCart.items().get(0).productName());
+            assertEquals(1, otherCart.quantities().totalItemsCount());
+            assertEquals(2, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then a totals-only summary holds the totals of the cart, without its quantities and items")
+        void validateAndAddToCartTotalsOnly() {
+            // Given
+            final var full = cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var totalsOnly = cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 1), CartViewDetail.TOTALS_ONLY);
+
+            // Then
+            assertEquals(57.27, full.totals().subTotal().doubleValue());
+            assertEquals(69.61, totalsOnly.totals().subTotal().doubleValue());
+            assertFalse(totalsOnly.errors().hasErrors());
+            assertNull(totalsOnly.quantities());
+            assertTrue(totalsOnly.items().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Then a summary holds the items and quantities of the cart")
+        void validateAndAddToCartHoldsItems() {
+            // Given
+            final var summary = cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var items = summary.items();
+
+            // Then
+            assertEquals(1, items.size());
+            assertSame(items, summary.items());
+            assertEquals(3, summary.quantities().totalItemsCount());
+        }
+
+        @Test
+        @DisplayName("Then the summary is computed from the snapshot the add published, without reading the cart again")
+        void validateAndAddToCartFromPublishedSnapshot() {
+            // Given
+            final Cart cart = spy(new CartImpl());
+            doReturn(cart).when(cartRegistry).getOrCreate(CART_ID);
+            doReturn(Optional.of(cart)).when(cartRegistry).find(CART_ID);
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var summary = cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 1));
+            final var removal = cartService.removeFromCartAndGetTotals(CART_ID, new ProductRm("cheerios"));
+
+            // Then
+            assertEquals(69.61, summary.totals().subTotal().doubleValue());
+            assertEquals(2, summary.quantities().categoryItemCount());
+            assertEquals(12.34, removal.totals().subTotal().doubleValue());
+            verify(cart, never()).snapshot();
+            verify(cart, never()).items();
+            verify(cart, never()).subTotal();
+        }
     }
 
     @Nested
@@ -84,7 +186,7 @@ class CartServiceTest {
 
             final ProductIn cheerios = new ProductIn("cheerios", 3);
 
-            final var resp = cartService.validateAndAddToCart(cheerios);
+            final var resp = cartService.validateAndAddToCart(CART_ID, cheerios);
             assertTrue(resp.errors().hasErrors());
             assertEquals("Internal Server Error", resp.errors().errorMessage());
         }
@@ -95,12 +197,29 @@ class CartServiceTest {
 
             final ProductIn cheerios = new ProductIn("choco", 9);
 
-            final var cartException = cartService.validateAndAddToCart(cheerios);
+            final var cartException = cartService.validateAndAddToCart(CART_ID, cheerios);
 
             assertTrue(cartException.errors().hasErrors());
             assertEquals("'price': Price should not be less than 0.00", cartException.errors().errorMessage().trim());
         }
 
+        @Test
+        @DisplayName("Then an add to a cart closed in the meantime is reported as a conflict")
+        void returnCartErrorsWhenCartIsClosed() {
+            // Given - the cart is removed (e.g. on expiry) while the price is looked up
+            final Cart cart = spy(new CartImpl());
+            doReturn(cart).when(cartRegistry).getOrCreate(CART_ID);
+            doThrow(new CartClosedException("Cart has been closed")).when(cart).addProduct(any(), any());
+
+            // When
+            final var response = cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // Then
+            assertEquals(409L, response.errors().statusCode());
+            assertEquals(CONFLICT_ERROR, response.errors().errorType());
+            assertEquals("Cart has been closed", response.errors().errorMessage());
+        }
+
         @Test
         @DisplayName("Return CartErrors when product is not found (Api400xError)")
         void returnCartErrorsWhenProductNotFound() {
@@ -111,7 +230,7 @@ class CartServiceTest {
             final ProductIn productIn = new ProductIn(productName, 1);
 
             // When
-            final var response = cartService.validateAndAddToCart(productIn);
+            final var response = cartService.validateAndAddToCart(CART_ID, productIn);
 
             // Then
             assertTrue(response.errors().hasErrors());
@@ -119,6 +238,228 @@ class CartServiceTest {
             assertEquals("Product %s not found".formatted(productName), response.errors().errorMessage()); // Verify the error message
             verify(priceApi, times(1)).getPrice(productName); // Verify that the getPrice method was called
         }
+
+        @Test
+        @DisplayName("Return CartErrors when the cart-id is blank")
+        void returnCartErrorsWhenCartIdIsBlank() {
+            // Given
+            final ProductIn cheerios = new ProductIn("cheerios", 3);
+
+            // When
+            final var response = cartService.validateAndAddToCart(" ", cheerios);
+
+            // Then
+            assertTrue(response.errors().hasErrors());
+            assertEquals(400, response.errors().statusCode());
+            assertEquals("Cart-Id must not be null or blank", response.errors().errorMessage());
+            verify(priceApi, times(0)).getPrice(any());
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Add item to Cart asynchronously")
+    class AddItemToCartAsynchronously {
+
+        @Test
+        @DisplayName("Then the product is added once its price arrives")
+        void validateAndAddToCartAsync() {
+            // Given
+            final CompletableFuture<BigDecimal> price = new CompletableFuture<>();
+            when(priceApi.getPriceAsync("cheerios")).thenReturn(price);
+
+            // When
+            final var pending = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("cheerios", 3));
+            final boolean doneBeforePrice = pending.isDone();
+            price.complete(BigDecimal.valueOf(19.09));
+            final var summary = pending.join();
+
+            // Then
+            assertFalse(doneBeforePrice);
+            assertEquals(3, summary.quantities().totalItemsCount());
+            assertEquals(19.09, summary.items().get(0).price().doubleValue());
+            verify(priceApi, times(0)).getPrice(any());
+        }
+
+        @Test
+        @DisplayName("Then invalid input and cart-ids are reported without a price look-up")
+        void returnCartErrorsForInvalidInput() {
+            // When
+            final var invalidProduct = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("", 3)).join();
+            final var blankCartId = cartService.validateAndAddToCartAsync(" ", new ProductIn("cheerios", 3)).join();
+
+            // Then
+            assertEquals(400, invalidProduct.errors().statusCode());
+            assertEquals("Cart-Id must not be null or blank", blankCartId.errors().errorMessage());
+            verify(priceApi, times(0)).getPriceAsync(any());
+            assertEquals(0, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then failures of the price look-up are reported like the blocking variant")
+        void returnCartErrorsForFailedLookUps() {
+            // Given
+            when(priceApi.getPriceAsync("nonexistent-product")).thenReturn(CompletableFuture.failedFuture(new Api400xError(404, "Product not found")));
+            when(priceApi.getPriceAsync("choco")).thenReturn(CompletableFuture.completedFuture(BigDecimal.valueOf(-19.09)));
+            when(priceApi.getPriceAsync("cheerios")).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Price API is down")));
+
+            // When
+            final var notFound = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("nonexistent-product", 1)).join();
+            final var negativePrice = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("choco", 9)).join();
+            final var apiDown = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("cheerios", 3)).join();
+
+            // Then
+            assertEquals(404, notFound.errors().statusCode());
+            assertEquals("Product nonexistent-product not found", notFound.errors().errorMessage());
+            assertEquals("'price': Price should not be less than 0.00", negativePrice.errors().errorMessage().trim());
+            assertEquals("Internal Server Error", apiDown.errors().errorMessage());
+        }
+
+        @Test
+        @DisplayName("Then a Price API that throws, instead of failing the future, is reported like a failed look-up")
+        void returnCartErrorsForThrowingLookUps() {
+            // Given
+            when(priceApi.getPriceAsync("nonexistent-product")).thenThrow(new Api400xError(404, "Product not found"));
+            when(priceApi.getPriceAsync("cheerios")).thenThrow(new RuntimeException("Price API is down"));
+
+            // When
+            final var notFound = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("nonexistent-product", 1)).join();
+            final var apiDown = cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("cheerios", 3)).join();
+
+            // Then
+            assertEquals(404, notFound.errors().statusCode());
+            assertEquals("Product nonexistent-product not found", notFound.errors().errorMessage());
+            assertEquals("Internal Server Error", apiDown.errors().errorMessage());
+            assertTrue(cartService.reconcileAndGetTotals(CART_ID).items().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Add items to Cart in a batch")
+    class AddItemsToCartInBatch {
+
+        @BeforeEach
+        void setUp() {
+            when(priceApi.getPriceAsync("frosties")).thenReturn(CompletableFuture.completedFuture(BigDecimal.valueOf(12.34)));
+            when(priceApi.getPriceAsync("cheerios")).thenReturn(CompletableFuture.completedFuture(BigDecimal.valueOf(19.09)));
+        }
+
+        @Test
+        @DisplayName("Then every line is added, each product is looked up once and the totals are computed once")
+        void addAllToCart() {
+            // Given
+            final List<ProductIn> products = List.of(new ProductIn("cheerios", 2), new ProductIn("frosties", 1), new ProductIn("cheerios", 1));
+
+            // When
+            final var batch = cartService.addAllToCart(CART_ID, products);
+
+            // Then
+            assertFalse(batch.hasLineErrors());
+            assertFalse(batch.cart().errors().hasErrors());
+            assertEquals(2, batch.cart().quantities().categoryItemCount());
+            assertEquals(4, batch.cart().quantities().totalItemsCount());
+            assertEquals(69.61, batch.cart().totals().subTotal().doubleValue());
+            verify(priceApi, times(1)).getPriceAsync("cheerios");
+            verify(priceApi, times(1)).getPriceAsync("frosties");
+            verify(priceApi, times(0)).getPrice(any());
+            verify(cartCalculator, times(1)).calculateTotals(any(BigDecimal.class));
+        }
+
+        @Test
+        @DisplayName("Then failed lines are reported per line, and the valid lines are still added")
+        void reportLineErrors() {
+            // Given
+            when(priceApi.getPriceAsync("nonexistent-product")).thenReturn(CompletableFuture.failedFuture(new Api400xError(404, "Product not found")));
+            when(priceApi.getPriceAsync("choco")).thenReturn(CompletableFuture.completedFuture(BigDecimal.valueOf(-19.09)));
+            when(priceApi.getPriceAsync("shreddies")).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Price API is down")));
+            when(priceApi.getPriceAsync("weetabix")).thenThrow(new IllegalStateException("Client closed"));
+            final List<ProductIn> products = Arrays.asList(
+                    new ProductIn("cheerios", 2),
+                    new ProductIn("", 1),
+                    null,
+                    new ProductIn("frosties", 0),
+                    new ProductIn("nonexistent-product", 1),
+                    new ProductIn("choco", 1),
+                    new ProductIn("shreddies", 1),
+                    new ProductIn("weetabix", 1),
+                    new ProductIn("frosties", 1));
+
+            // When
+            final var batch = cartService.addAllToCart(CART_ID, products);
+
+            // Then
+            assertTrue(batch.hasLineErrors());
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), batch.lineErrors().stream().map(CartLineErrorView::line).toList());
+            assertEquals(400, batch.lineErrors().get(0).statusCode());
+            assertEquals("Product must not be null", batch.lineErrors().get(1).errorMessage());
+            assertNull(batch.lineErrors().get(1).productName());
+            assertEquals("Quantity must not be null and must be positive integer", batch.lineErrors().get(2).errorMessage());
+            assertEquals("Product nonexistent-product not found", batch.lineErrors().get(3).errorMessage());
+            assertEquals(404, batch.lineErrors().get(3).statusCode());
+            assertEquals("'price': Price should not be less than 0.00", batch.lineErrors().get(4).errorMessage().trim());
+            assertEquals(500, batch.lineErrors().get(5).statusCode());
+            assertEquals("weetabix", batch.lineErrors().get(6).productName());
+            assertEquals(500, batch.lineErrors().get(6).statusCode());
+            assertEquals(3, batch.cart().quantities().totalItemsCount());
+        }
+
+        @Test
+        @DisplayName("Then an invalid batch or cart-id is reported for the whole batch")
+        void returnCartErrorsForInvalidBatch() {
+            // When
+            final var nullBatch = cartService.addAllToCart(CART_ID, null);
+            final var blankCartId = cartService.addAllToCart(" ", List.of(new ProductIn("cheerios", 1)));
+
+            // Then
+            assertEquals("Products must not be null", nullBatch.cart().errors().errorMessage());
+            assertEquals("Cart-Id must not be null or blank", blankCartId.cart().errors().errorMessage());
+            assertFalse(blankCartId.hasLineErrors());
+            verify(priceApi, times(0)).getPriceAsync(any());
+            assertEquals(0, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then no more price look-ups are in flight than allowed")
+        void boundPriceLookUps() {
+            // Given
+            final AtomicInteger inFlight = new AtomicInteger();
+            final AtomicInteger maxInFlight = new AtomicInteger();
+            final ExecutorService executor = Executors.newFixedThreadPool(8);
+            when(priceApi.getPriceAsync(any())).thenAnswer(invocation -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return CompletableFuture.supplyAsync(() -> {
+                    sleep();
+                    inFlight.decrementAndGet();
+                    return BigDecimal.ONE;
+                }, executor);
+            });
+            final var boundedService = new CartServiceImpl(priceApi, cartRegistry, cartCalculator,
+                    CartServiceOptions.defaults().withMaxConcurrentPriceLookups(2));
+            final List<ProductIn> products = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                products.add(new ProductIn("product-" + i, 1));
+            }
+
+            try {
+                // When
+                final var batch = boundedService.addAllToCart(CART_ID, products);
+
+                // Then
+                assertFalse(batch.hasLineErrors());
+                assertEquals(20, batch.cart().quantities().categoryItemCount());
+                assertTrue(maxInFlight.get() <= 2);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private static void sleep() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     @Nested
@@ -131,14 +472,319 @@ class CartServiceTest {
 
             //When
             when(priceApi.getPrice("cornflakes")).thenReturn(BigDecimal.valueOf(19.09));
-            cartService.validateAndAddToCart(cheerios);
-            cartService.validateAndAddToCart(new ProductIn("cornflakes", 3));
+            cartService.validateAndAddToCart(CART_ID, cheerios);
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cornflakes", 3));
 
-            final var consolidatedCart = cartService.removeFromCartAndGetTotals(new ProductRm("cheerios"));
+            final var consolidatedCart = cartService.removeFromCartAndGetTotals(CART_ID, new ProductRm("cheerios"));
 
             assertFalse(consolidatedCart.items().stream().anyMatch(i -> i.productName().equals("cheerios")));
             assertTrue(consolidatedCart.items().stream().anyMatch(i -> i.productName().equals("cornflakes")));
             assertEquals(3, consolidatedCart.quantities().totalItemsCount());
         }
+
+        @Test
+        @DisplayName("Then removing from an unknown cart returns an empty cart without creating it")
+        void removeFromUnknownCart() {
+            // When
+            final var consolidatedCart = cartService.removeFromCartAndGetTotals("unknown-session", new ProductRm("cheerios"));
+
+            // Then
+            assertTrue(consolidatedCart.items().isEmpty());
+            assertEquals(0, consolidatedCart.quantities().totalItemsCount());
+            assertEquals(0.0, consolidatedCart.totals().total().doubleValue());
+            assertEquals(0, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then a totals-only summary of the removal holds the totals of the cart only")
+        void removeFromCartAndGetTotalsOnly() {
+            // Given
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 1));
+
+            // When
+            final var totalsOnly = cartService.removeFromCartAndGetTotals(CART_ID, new ProductRm("cheerios"), CartViewDetail.TOTALS_ONLY);
+
+            // Then
+            assertEquals(12.34, totalsOnly.totals().subTotal().doubleValue());
+            assertNull(totalsOnly.quantities());
+            assertTrue(totalsOnly.items().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconcile Cart totals")
+    class WhenReconcilingCartTotals {
+        @Test
+        @DisplayName("Then the reconciled totals match the running totals")
+        void reconcileAndGetTotals() {
+            // Given
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+            final var running = cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 2));
+
+            // When
+            final var reconciled = cartService.reconcileAndGetTotals(CART_ID);
+
+            // Then
+            assertEquals(running.totals(), reconciled.totals());
+            assertEquals(5, reconciled.quantities().totalItemsCount());
+            verify(cartCalculator, times(1)).reconcile(any(), any());
+        }
+
+        @Test
+        @DisplayName("Then reconciling an unknown cart returns an empty cart")
+        void reconcileUnknownCart() {
+            // When
+            final var reconciled = cartService.reconcileAndGetTotals("unknown-session");
+
+            // Then
+            assertTrue(reconciled.items().isEmpty());
+            assertEquals(0.0, reconciled.totals().total().doubleValue());
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Change the Cart at an expected version")
+    class WhenChangingCartAtExpectedVersion {
+        @Test
+        @DisplayName("Then the cart is changed, and every summary holds the version it was taken from")
+        void changeCartAtExpectedVersion() {
+            // When
+            final var added = cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("cheerios", 3), 0);
+            final var addedAgain = cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("frosties", 1), added.version());
+            final var removed = cartService.removeFromCartAndGetTotalsIfVersion(CART_ID, new ProductRm("cheerios"), addedAgain.version());
+
+            // Then
+            assertEquals(1, added.version());
+            assertEquals(2, addedAgain.version());
+            assertEquals(2, addedAgain.items().size());
+            assertEquals(3, removed.version());
+            assertEquals(12.34, removed.totals().subTotal().doubleValue());
+            assertEquals(3, cartService.reconcileAndGetTotals(CART_ID).version());
+        }
+
+        @Test
+        @DisplayName("Then each summary is computed from the snapshot the change published, without reading the cart again")
+        void changeCartAtExpectedVersionFromPublishedSnapshot() {
+            // Given
+            final Cart cart = spy(new CartImpl());
+            doReturn(cart).when(cartRegistry).getOrCreate(CART_ID);
+            doReturn(Optional.of(cart)).when(cartRegistry).find(CART_ID);
+
+            // When
+            final var added = cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("cheerios", 3), 0);
+            final var removed = cartService.removeFromCartAndGetTotalsIfVersion(CART_ID, new ProductRm("cheerios"), added.version());
+
+            // Then
+            assertEquals(1, added.version());
+            assertEquals(57.27, added.totals().subTotal().doubleValue());
+            assertEquals(2, removed.version());
+            assertTrue(removed.items().isEmpty());
+            verify(cart, times(1)).snapshot();    // The fail-fast version check of the add, before its price look-up
+            verify(cart, never()).items();
+            verify(cart, never()).subTotal();
+        }
+
+        @Test
+        @DisplayName("Then an add to a cart at another version is reported as a conflict, without a price look-up")
+        void reportConflictOnAdd() {
+            // Given
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var conflict = cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("frosties", 1), 0);
+
+            // Then
+            assertTrue(conflict.errors().hasErrors());
+            assertEquals(409L, conflict.errors().statusCode());
+            assertEquals(CONFLICT_ERROR, conflict.errors().errorType());
+            assertEquals("Cart version 0 was expected, but the cart is at version 1", conflict.errors().errorMessage());
+            verify(priceApi, never()).getPrice("frosties");
+            assertEquals(1, cartService.reconcileAndGetTotals(CART_ID).items().size());
+        }
+
+        @Test
+        @DisplayName("Then an add whose cart changes during the price look-up is reported as a conflict")
+        void reportConflictOnAddDuringPriceLookUp() {
+            // Given - another device adds to the cart while the price is looked up
+            when(priceApi.getPrice("frosties")).thenAnswer(invocation -> {
+                cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 1));
+                return BigDecimal.valueOf(12.34);
+            });
+
+            // When
+            final var conflict = cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("frosties", 1), 0);
+
+            // Then
+            assertEquals(409L, conflict.errors().statusCode());
+            assertFalse(cartService.reconcileAndGetTotals(CART_ID).items().stream().anyMatch(item -> item.productName().equals("frosties")));
+        }
+
+        @Test
+        @DisplayName("Then a removal from a cart at another version is reported as a conflict, and leaves the cart unchanged")
+        void reportConflictOnRemoval() {
+            // Given
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+
+            // When
+            final var conflict = cartService.removeFromCartAndGetTotalsIfVersion(CART_ID, new ProductRm("cheerios"), 0);
+            final var unknownCart = cartService.removeFromCartAndGetTotalsIfVersion("unknown-session", new ProductRm("cheerios"), 1);
+
+            // Then
+            assertEquals(409L, conflict.errors().statusCode());
+            assertEquals(CONFLICT_ERROR, conflict.errors().errorType());
+            assertEquals("Cart version 0 was expected, but the cart is at version 1", conflict.errors().errorMessage());
+            assertEquals(409L, unknownCart.errors().statusCode());
+            assertEquals("Cart version 1 was expected, but the cart is at version 0", unknownCart.errors().errorMessage());
+            assertEquals(1, cartService.reconcileAndGetTotals(CART_ID).items().size());
+        }
+
+        @Test
+        @DisplayName("Then a removal from a cart closed in the meantime is reported as a conflict")
+        void reportConflictOnRemovalFromClosedCart() {
+            // Given - the cart is removed (e.g. on expiry) as the shopper removes a product from it
+            final Cart cart = spy(new CartImpl());
+            doReturn(Optional.of(cart)).when(cartRegistry).find(CART_ID);
+            doThrow(new CartClosedException("Cart has been closed")).when(cart).removeProductIfVersion(any(), anyLong());
+
+            // When
+            final var response = cartService.removeFromCartAndGetTotalsIfVersion(CART_ID, new ProductRm("cheerios"), 0);
+
+            // Then
+            assertEquals(409L, response.errors().statusCode());
+            assertEquals(CONFLICT_ERROR, response.errors().errorType());
+            assertEquals("Cart has been closed", response.errors().errorMessage());
+        }
+
+        @Test
+        @DisplayName("Then a removal from an unknown cart at version 0 returns an empty cart without creating it")
+        void removeFromUnknownCartAtVersionZero() {
+            // When
+            final var removed = cartService.removeFromCartAndGetTotalsIfVersion("unknown-session", new ProductRm("cheerios"), 0);
+
+            // Then
+            assertEquals(0, removed.version());
+            assertTrue(removed.items().isEmpty());
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Get the Cart if it was modified")
+    class WhenGettingCartIfModified {
+        @Test
+        @DisplayName("Then an unchanged cart is answered as not modified, without computing totals")
+        void answerUnchangedCartAsNotModified() {
+            // Given
+            final var added = cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+            clearInvocations(cartCalculator);
+
+            // When
+            final var notModified = cartService.getCartIfModified(CART_ID, added.version());
+            final var unknownCart = cartService.getCartIfModified("unknown-session", 0);
+
+            // Then
+            assertTrue(notModified.isEmpty());
+            assertTrue(unknownCart.isEmpty());
+            verifyNoInteractions(cartCalculator);
+            assertEquals(1, cartRegistry.size());
+        }
+
+        @Test
+        @DisplayName("Then a changed cart is answered with its summary")
+        void answerChangedCartWithSummary() {
+            // Given
+            final var added = cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("frosties", 2));
+
+            // When
+            final var modified = cartService.getCartIfModified(CART_ID, added.version());
+
+            // Then
+            assertTrue(modified.isPresent());
+            assertEquals(2, modified.get().version());
+            assertEquals(5, modified.get().quantities().totalItemsCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Collect metrics of adding items to the Cart")
+    class WhenCollectingMetrics {
+        private final CartMetricsImpl metrics = new CartMetricsImpl();
+
+        @BeforeEach
+        void setUp() {
+            cartService = new CartServiceImpl(priceApi, cartRegistry, cartCalculator, CartServiceOptions.defaults().withMetrics(metrics));
+        }
+
+        @Test
+        @DisplayName("Then every stage of a successful add is timed, and the add is counted")
+        void timeEveryStageOfAdd() {
+            // Given
+            when(priceApi.getPriceAsync("frosties")).thenReturn(CompletableFuture.completedFuture(BigDecimal.valueOf(12.34)));
+
+            // When
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", 3));
+            cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("frosties", 1)).join();
+            cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("cheerios", 1), 2);
+
+            // Then
+            for (final CartStage stage : CartStage.values()) {
+                assertEquals(3, metrics.stageStats(stage).count());
+            }
+            assertEquals(new CartOutcomeStats(3, 0, 0, 0, 0, 0), metrics.outcomeStats());
+        }
+
+        @Test
+        @DisplayName("Then failed adds are counted by error type, and time the stages they got through")
+        void countFailedAddsByErrorType() {
+            // Given
+            when(priceApi.getPrice("nonexistent-product")).thenThrow(new Api400xError(404, "Product not found"));
+            when(priceApi.getPrice("choco")).thenReturn(BigDecimal.valueOf(-19.09));
+            when(priceApi.getPriceAsync("cheerios")).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Price API is down")));
+
+            // When
+            cartService.validateAndAddToCart(" ", new ProductIn("cheerios", 3));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("nonexistent-product", 1));
+            cartService.validateAndAddToCart(CART_ID, new ProductIn("choco", 1));
+            cartService.validateAndAddToCartAsync(" ", new ProductIn("cheerios", 3)).join();
+            cartService.validateAndAddToCartAsync(CART_ID, new ProductIn("cheerios", 3)).join();
+            cartService.validateAndAddToCartIfVersion(CART_ID, new ProductIn("cheerios", 3), 1);
+
+            // Then
+            assertEquals(new CartOutcomeStats(0, 3, 1, 0, 1, 1), metrics.outcomeStats());
+            assertEquals(3, metrics.stageStats(CartStage.VALIDATION).count());
+            assertEquals(1, metrics.stageStats(CartStage.PRICE_FETCH).count());     // The invalid price, fetched but not added
+            assertEquals(0, metrics.stageStats(CartStage.CART_MUTATION).count());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flood the Cart with client errors")
+    class WhenFloodedWithClientErrors {
+
+        @Test
+        @DisplayName("Then every add is reported, beyond the rate at which client errors are logged")
+        void reportEveryAddBeyondLogRate() {
+            // Given
+            final LogRateLimiter clientErrorLogs = mock(LogRateLimiter.class);
+            cartService = new CartServiceImpl(priceApi, cartRegistry, cartCalculator,
+                    CartServiceOptions.defaults().withClientErrorLogs(clientErrorLogs));
+            when(priceApi.getPrice("nonexistent-product")).thenThrow(new Api400xError(404, "Product not found"));
+
+            // When
+            final var errors = new ArrayList<String>();
+            for (int i = 0; i < 150; i++) {
+                errors.add(cartService.validateAndAddToCart(CART_ID, new ProductIn("nonexistent-product", 1)).errors().errorType());
+                errors.add(cartService.validateAndAddToCart(CART_ID, new ProductIn("cheerios", -1)).errors().errorType());
+            }
+
+            // Then
+            assertEquals(150, errors.stream().filter(NOT_FOUND_ERROR::equals).count());
+            assertEquals(150, errors.stream().filter(VALIDATION_ERROR::equals).count());
+            verify(clientErrorLogs, times(300)).tryAcquire();
+            verify(clientErrorLogs, never()).takeSuppressed();
+        }
     }
-}
\ No newline at end of file
+}
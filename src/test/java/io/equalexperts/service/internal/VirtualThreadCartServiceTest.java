@@ -0,0 +1,270 @@
+package io.equalexperts.service.internal;
+
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.exception.CartValidationException;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.model.ProductRm;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.equalexperts.service.external.priceclient.impl.CachingPriceApi;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.service.internal.cartengine.VirtualThreadCartService;
+import io.equalexperts.view.CartSummaryView;
+import io.equalexperts.view.CartViewDetail;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given CartService in virtual-thread execution mode")
+class VirtualThreadCartServiceTest {
+    private static final String CART_ID = "session-1";
+    private static final BigDecimal PRICE = BigDecimal.valueOf(2.52);
+
+    private final CartService delegate = mock(CartService.class);
+    private final AtomicReference<Thread> caller = new AtomicReference<>();
+
+    private CartSummaryView recordCaller() {
+        caller.set(Thread.currentThread());
+        return new CartSummaryView(null, null, null, List.of());
+    }
+
+    @Nested
+    @DisplayName("When CartService calls are made - Positive Scenarios")
+    class WhenCartServiceCallsAreMadePositiveScenarios {
+
+        @Test
+        @DisplayName("Then an async add runs on a virtual thread, and blocking calls on the caller's thread")
+        void shouldRunAsyncCallsOnVirtualThreads() {
+            // Given
+            final ProductIn cheerios = new ProductIn("cheerios", 1);
+            when(delegate.validateAndAddToCart(CART_ID, cheerios)).thenAnswer(invocation -> recordCaller());
+            when(delegate.removeFromCartAndGetTotals(eq(CART_ID), any())).thenAnswer(invocation -> recordCaller());
+            when(delegate.validateAndAddToCart(CART_ID, cheerios, CartViewDetail.TOTALS_ONLY)).thenAnswer(invocation -> recordCaller());
+            when(delegate.removeFromCartAndGetTotals(eq(CART_ID), any(), eq(CartViewDetail.TOTALS_ONLY))).thenAnswer(invocation -> recordCaller());
+            when(delegate.reconcileAndGetTotals(CART_ID)).thenAnswer(invocation -> recordCaller());
+            when(delegate.validateAndAddToCartIfVersion(CART_ID, cheerios, 1)).thenAnswer(invocation -> recordCaller());
+            when(delegate.removeFromCartAndGetTotalsIfVersion(eq(CART_ID), any(), eq(1L))).thenAnswer(invocation -> recordCaller());
+            when(delegate.getCartIfModified(CART_ID, 1)).thenAnswer(invocation -> Optional.of(recordCaller()));
+            when(delegate.addAllToCart(CART_ID, List.of(cheerios))).thenAnswer(invocation -> {
+                caller.set(Thread.currentThread());
+                return null;
+            });
+            final Thread self = Thread.currentThread();
+
+            try (final var cartService = new VirtualThreadCartService(delegate)) {
+                // When - Then
+                cartService.validateAndAddToCartAsync(CART_ID, cheerios).join();
+                assertTrue(caller.get().isVirtual());
+                assertTrue(caller.get().getName().startsWith("cart-"));
+
+                cartService.validateAndAddToCart(CART_ID, cheerios);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.addAllToCart(CART_ID, List.of(cheerios));
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.removeFromCartAndGetTotals(CART_ID, new ProductRm("cheerios"));
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.reconcileAndGetTotals(CART_ID);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.validateAndAddToCart(CART_ID, cheerios, CartViewDetail.TOTALS_ONLY);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.removeFromCartAndGetTotals(CART_ID, new ProductRm("cheerios"), CartViewDetail.TOTALS_ONLY);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.validateAndAddToCartIfVersion(CART_ID, cheerios, 1);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.removeFromCartAndGetTotalsIfVersion(CART_ID, new ProductRm("cheerios"), 1);
+                assertSame(self, caller.get());
+
+                caller.set(null);
+                cartService.getCartIfModified(CART_ID, 1);
+                assertSame(self, caller.get());
+            }
+        }
+
+        @Test
+        @DisplayName("Then a virtual thread caller runs the call itself")
+        void shouldRunInlineOnVirtualThread() throws InterruptedException {
+            // Given
+            when(delegate.reconcileAndGetTotals(CART_ID)).thenAnswer(invocation -> recordCaller());
+            final AtomicReference<Thread> virtualCaller = new AtomicReference<>();
+
+            try (final var cartService = new VirtualThreadCartService(delegate)) {
+                // When
+                Thread.ofVirtual().start(() -> {
+                    virtualCaller.set(Thread.currentThread());
+                    cartService.reconcileAndGetTotals(CART_ID);
+                }).join();
+            }
+
+            // Then
+            assertSame(virtualCaller.get(), caller.get());
+        }
+
+        @Test
+        @DisplayName("Then close waits for the calls in flight and closes the executor")
+        void shouldCloseExecutor() {
+            // Given
+            final ExecutorService executor = Executors.newFixedThreadPool(2);
+            final ProductIn cheerios = new ProductIn("cheerios", 1);
+            when(delegate.validateAndAddToCart(CART_ID, cheerios)).thenAnswer(invocation -> recordCaller());
+            final var cartService = new VirtualThreadCartService(delegate, executor);
+
+            // When
+            final var added = cartService.validateAndAddToCartAsync(CART_ID, cheerios);
+            cartService.close();
+
+            // Then
+            assertTrue(added.isDone());
+            assertFalse(caller.get().isVirtual());
+            assertTrue(executor.isTerminated());
+        }
+
+        @Test
+        @DisplayName("Then thousands of shoppers wait on the Price API concurrently, without pinning a carrier thread")
+        void shouldServeConcurrentShoppersWithoutPinning() {
+            // Given - a blocking Price API behind the price cache, one cart per shopper
+            final int shoppers = 2_000;
+            final PriceApi upstream = productName -> {
+                sleep(Duration.ofMillis(50));
+                if (productName.equals("nonexistent-product")) {
+                    throw new Api400xError(404, "Product not found");
+                }
+                return PRICE;
+            };
+            final CartService cartService = new CartServiceImpl(new CachingPriceApi(upstream), new CartRegistryImpl(),
+                    new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5))));
+            final AtomicInteger pinned = new AtomicInteger();
+            final List<CompletableFuture<CartSummaryView>> summaries = new ArrayList<>();
+
+            try (final var recording = new RecordingStream();
+                 final var virtualThreadCartService = new VirtualThreadCartService(cartService)) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+                recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+                recording.startAsync();
+
+                // When
+                for (int i = 0; i < shoppers; i++) {
+                    final String productName = i % 10 == 0 ? "nonexistent-product" : "cornflakes-" + (i % 100);
+                    summaries.add(virtualThreadCartService.validateAndAddToCartAsync("shopper-" + i, new ProductIn(productName, 1)));
+                }
+                CompletableFuture.allOf(summaries.toArray(CompletableFuture[]::new)).join();
+                recording.stop();
+            }
+
+            // Then
+            assertEquals(shoppers / 10, summaries.stream().filter(summary -> summary.join().errors().hasErrors()).count());
+            assertEquals(0, pinned.get());
+        }
+
+        @Test
+        @DisplayName("Then carrier pinning is detected (control for the pinning check)")
+        void shouldDetectPinning() throws InterruptedException {
+            // Given
+            final Object monitor = new Object();
+            final AtomicInteger pinned = new AtomicInteger();
+
+            try (final var recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+                recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+                recording.startAsync();
+
+                // When - blocking while holding a monitor
+                Thread.ofVirtual().start(() -> {
+                    synchronized (monitor) {
+                        sleep(Duration.ofMillis(10));
+                    }
+                }).join();
+                recording.stop();
+            }
+
+            // Then
+            assertTrue(pinned.get() > 0);
+        }
+    }
+
+    @Nested
+    @DisplayName("When CartService calls are made - Negative Scenarios")
+    class WhenCartServiceCallsAreMadeNegativeScenarios {
+
+        @Test
+        @DisplayName("Then the exception of the call is rethrown as-is")
+        void shouldRethrowCallException() {
+            // Given
+            final ProductRm productRm = new ProductRm("");
+            when(delegate.removeFromCartAndGetTotals(CART_ID, productRm)).thenThrow(new CartValidationException("Product name must not be blank", Map.of()));
+
+            try (final var cartService = new VirtualThreadCartService(delegate)) {
+                // When
+                final var exception = assertThrows(CartValidationException.class, () -> cartService.removeFromCartAndGetTotals(CART_ID, productRm));
+
+                // Then
+                assertEquals("Product name must not be blank", exception.getMessage());
+            }
+        }
+
+        @Test
+        @DisplayName("Then an error of an async call is reported wrapped")
+        void shouldWrapCallError() {
+            // Given
+            final ProductIn cheerios = new ProductIn("cheerios", 1);
+            when(delegate.validateAndAddToCart(CART_ID, cheerios)).thenThrow(new AssertionError("Totals out of balance"));
+
+            try (final var cartService = new VirtualThreadCartService(delegate)) {
+                // When
+                final var exception = assertThrows(CompletionException.class, () -> cartService.validateAndAddToCartAsync(CART_ID, cheerios).join());
+
+                // Then
+                assertEquals("Totals out of balance", exception.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.equalexperts.service.internal.warmup;
+
+import io.equalexperts.component.calculator.CartCalculator;
+import io.equalexperts.component.calculator.impl.CartCalculatorImpl;
+import io.equalexperts.component.cart.impl.CartRegistryImpl;
+import io.equalexperts.component.metrics.impl.CartMetricsImpl;
+import io.equalexperts.component.tax.impl.TaxCalculatorImpl;
+import io.equalexperts.exception.Api400xError;
+import io.equalexperts.model.CartOutcomeStats;
+import io.equalexperts.model.ProductCatalogue;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.service.external.priceclient.PriceApi;
+import io.equalexperts.service.external.priceclient.impl.CachingPriceApi;
+import io.equalexperts.service.internal.cartengine.CartServiceImpl;
+import io.equalexperts.service.internal.cartengine.CartServiceOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given WarmUpService")
+class WarmUpServiceImplTest {
+    private static final Map<String, BigDecimal> PRICES = Map.of(
+            "cheerios", new BigDecimal("8.43"),
+            "cornflakes", new BigDecimal("2.52"),
+            "frosties", new BigDecimal("4.99"),
+            "shreddies", new BigDecimal("4.68"),
+            "weetabix", new BigDecimal("9.98"));
+    private final Map<String, AtomicInteger> priceApiCalls = new ConcurrentHashMap<>();
+    private final CartCalculator cartCalculator = new CartCalculatorImpl(new TaxCalculatorImpl(BigDecimal.valueOf(12.5)));
+    private final CartRegistryImpl cartRegistry = new CartRegistryImpl();
+    private final CartMetricsImpl metrics = new CartMetricsImpl();
+    private CachingPriceApi cachingPriceApi;
+    private CartServiceImpl cartService;    // The cart service of the instance
+
+    @BeforeEach
+    void setUp() {
+        final PriceApi priceApi = productName -> {
+            priceApiCalls.computeIfAbsent(productName, name -> new AtomicInteger()).incrementAndGet();
+            if (!PRICES.containsKey(productName)) {
+                throw new Api400xError(404, "Product %s was not Found. HTTP status: 404".formatted(productName));
+            }
+            return PRICES.get(productName);
+        };
+        cachingPriceApi = new CachingPriceApi(priceApi);
+        cartService = new CartServiceImpl(cachingPriceApi, cartRegistry, cartCalculator, CartServiceOptions.defaults().withMetrics(metrics));
+    }
+
+    @Nested
+    @DisplayName("When warming up - Positive")
+    class WhenWarmingUpPositive {
+
+        @Test
+        @DisplayName("Then the prices of the catalogue are loaded once, and the rounds are served from the cache")
+        void shouldPreloadPricesAndExerciseCart() {
+            // Given
+            final var warmUpService = new WarmUpServiceImpl(cartService, cartRegistry, ProductCatalogue.known(), 500, System::nanoTime);
+            assertFalse(warmUpService.isReady());
+
+            // When
+            final var report = warmUpService.warmUp();
+
+            // Then
+            assertTrue(warmUpService.isReady());
+            assertEquals(5, report.productsLoaded());
+            assertEquals(List.of(), report.failedProducts());
+            assertEquals(500, report.iterations());
+            PRICES.keySet().forEach(productName -> assertEquals(1, priceApiCalls.get(productName).get(), productName));
+            assertEquals(5, cachingPriceApi.stats().size());
+            assertEquals(0, cartRegistry.size());   // The warm-up cart is discarded
+            assertTrue(report.duration().compareTo(report.timeToFastRequest()) >= 0);
+            assertTrue(report.coldRequest().isPositive());
+            assertTrue(report.warmRequest().isPositive());
+        }
+
+        @Test
+        @DisplayName("Then the warm-up runs on a cart service of its own: the cart metrics and registry of the instance are untouched")
+        void shouldNotTouchMetricsOrRegistryOfInstance() {
+            // Given
+            final var warmUpService = new WarmUpServiceImpl(cachingPriceApi, cartCalculator, ProductCatalogue.known(), 500);
+
+            // When
+            final var report = warmUpService.warmUp();
+
+            // Then
+            assertEquals(5, report.productsLoaded());
+            assertEquals(5, cachingPriceApi.stats().size());    // The prices are loaded into the cache of the instance
+            assertEquals(new CartOutcomeStats(0, 0, 0, 0, 0, 0), metrics.outcomeStats());
+            assertEquals(0, cartRegistry.size());
+            cartService.validateAndAddToCart("session-1", new ProductIn("cornflakes", 1));
+            assertEquals(new CartOutcomeStats(1, 0, 0, 0, 0, 0), metrics.outcomeStats());
+            PRICES.keySet().forEach(productName -> assertEquals(1, priceApiCalls.get(productName).get(), productName));
+        }
+
+        @Test
+        @DisplayName("Then the time to the first fast request is measured against the average of the last tenth")
+        void shouldMeasureTimeToFastRequest() {
+            // Given - 10 rounds: the first 3 add-to-carts take 1000ns, the rest 10ns
+            final var warmUpService = new WarmUpServiceImpl(cartService, cartRegistry, ProductCatalogue.known(), 10, clock(3, 1_000, 10));
+
+            // When
+            final var report = warmUpService.warmUp();
+
+            // Then
+            assertEquals(Duration.ofNanos(1_000), report.coldRequest());
+            assertEquals(Duration.ofNanos(10), report.warmRequest());
+            assertEquals(Duration.ofNanos(3 * 1_000 + 10), report.timeToFastRequest());
+            assertEquals(Duration.ofNanos(3 * 1_000 + 7 * 10), report.duration());
+        }
+    }
+
+    @Nested
+    @DisplayName("When warming up - Negative")
+    class WhenWarmingUpNegative {
+
+        @Test
+        @DisplayName("Then products that cannot be loaded are reported, and the rest is warmed up")
+        void shouldReportFailedProducts() {
+            // Given
+            final var catalogue = new ProductCatalogue(List.of("cornflakes", "unknown-product", "x"));
+            final var warmUpService = new WarmUpServiceImpl(cachingPriceApi, cartCalculator, catalogue, 50);
+
+            // When
+            final var report = warmUpService.warmUp();
+
+            // Then
+            assertTrue(warmUpService.isReady());
+            assertEquals(1, report.productsLoaded());
+            assertEquals(List.of("unknown-product", "x"), report.failedProducts());
+            assertEquals(50, report.iterations());
+            assertEquals(1, priceApiCalls.get("cornflakes").get());
+        }
+
+        @Test
+        @DisplayName("Then the instance is ready without rounds if no price could be loaded")
+        void shouldBeReadyWithoutLoadedProducts() {
+            // Given
+            final var warmUpService = new WarmUpServiceImpl(cachingPriceApi, cartCalculator, new ProductCatalogue(List.of("unknown-product")));
+
+            // When
+            final var report = warmUpService.warmUp();
+
+            // Then
+            assertTrue(warmUpService.isReady());
+            assertEquals(0, report.productsLoaded());
+            assertEquals(0, report.iterations());
+            assertEquals(Duration.ZERO, report.coldRequest());
+            assertEquals(Duration.ZERO, report.warmRequest());
+            assertEquals(Duration.ZERO, report.timeToFastRequest());
+            assertEquals(0, cartRegistry.size());
+        }
+    }
+
+    /**
+     * A clock that stands still, except during the add-to-carts of the rounds: the first {@code slowRounds} take
+     * {@code slowNanos}, the others {@code fastNanos}. The warm-up reads the clock at its start, around every
+     * add-to-cart, and at its end.
+     */
+    private static LongSupplier clock(final int slowRounds, final long slowNanos, final long fastNanos) {
+        final AtomicInteger reads = new AtomicInteger();
+        final long[] now = {0};
+        return () -> {
+            final int read = reads.getAndIncrement();
+            if (read > 0 && read % 2 == 0) {    // The end of the add-to-cart of round (read / 2 - 1)
+                now[0] += read / 2 - 1 < slowRounds ? slowNanos : fastNanos;
+            }
+            return now[0];
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package io.equalexperts.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given LogRateLimiter")
+class LogRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(-5_000_000_000L);
+    private final LogRateLimiter limiter = new LogRateLimiter(10, 3, now::get);
+
+    @Nested
+    @DisplayName("When events are logged - Positive Scenarios")
+    class WhenEventsAreLoggedPositiveScenarios {
+
+        @Test
+        @DisplayName("Then a burst is let through at once, then one event per interval")
+        void shouldLetThroughBurstThenRate() {
+            // When - Then
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            assertFalse(limiter.tryAcquire());
+
+            now.addAndGet(99_999_999);
+            assertFalse(limiter.tryAcquire());
+            now.addAndGet(1);
+            assertTrue(limiter.tryAcquire());
+            assertFalse(limiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Then the burst is available again after a quiet period")
+        void shouldRefillBurst() {
+            // Given
+            for (int i = 0; i < 5; i++) {
+                limiter.tryAcquire();
+            }
+
+            // When
+            now.addAndGet(10_000_000_000L);
+
+            // Then
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            assertFalse(limiter.tryAcquire());
+        }
+
+        @Test
+        @DisplayName("Then the events suppressed are counted until taken")
+        void shouldCountSuppressed() {
+            // Given
+            for (int i = 0; i < 10; i++) {
+                limiter.tryAcquire();
+            }
+
+            // When - Then
+            assertEquals(7, limiter.takeSuppressed());
+            assertEquals(0, limiter.takeSuppressed());
+        }
+
+        @Test
+        @DisplayName("Then concurrent events never exceed the burst")
+        void shouldNotExceedBurstConcurrently() throws Exception {
+            // Given
+            final AtomicInteger acquired = new AtomicInteger();
+            final List<Future<?>> futures = new ArrayList<>();
+
+            // When
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 100; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 100; j++) {
+                            if (limiter.tryAcquire()) {
+                                acquired.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            // Then
+            assertEquals(3, acquired.get());
+            assertEquals(9_997, limiter.takeSuppressed());
+        }
+    }
+
+    @Nested
+    @DisplayName("When events are logged - Negative Scenarios")
+    class WhenEventsAreLoggedNegativeScenarios {
+
+        @Test
+        @DisplayName("Then a rate or burst that is not positive is rejected")
+        void shouldRejectNonPositiveLimits() {
+            assertThrows(IllegalArgumentException.class, () -> new LogRateLimiter(0, 3));
+            assertThrows(IllegalArgumentException.class, () -> new LogRateLimiter(10, 0));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.equalexperts.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static io.equalexperts.util.MoneyUtil.NOT_REPRESENTABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given MoneyUtil")
+class MoneyUtilTest {
+
+    @Nested
+    @DisplayName("When amounts are converted")
+    class WhenAmountsAreConverted {
+
+        @Test
+        @DisplayName("Then amounts with up to 4 decimals are converted to units of 1/10,000")
+        void shouldConvertToUnits() {
+            assertEquals(25_200, MoneyUtil.toUnits(BigDecimal.valueOf(2.52)));
+            assertEquals(99_999, MoneyUtil.toUnits(new BigDecimal("9.9999")));
+            assertEquals(30_000, MoneyUtil.toUnits(BigDecimal.valueOf(3)));
+            assertEquals(25_000, MoneyUtil.toUnits(new BigDecimal("2.5000000")));
+            assertEquals(-15_000, MoneyUtil.toUnits(BigDecimal.valueOf(-1.5)));
+        }
+
+        @Test
+        @DisplayName("Then amounts with more than 4 decimals, or beyond a long, are not representable")
+        void shouldReportNotRepresentable() {
+            assertEquals(NOT_REPRESENTABLE, MoneyUtil.toUnits(BigDecimal.valueOf(99.999999)));
+            assertEquals(NOT_REPRESENTABLE, MoneyUtil.toUnits(new BigDecimal("1e16")));
+        }
+
+        @Test
+        @DisplayName("Then scaled values are converted back to amounts")
+        void shouldConvertToAmount() {
+            assertEquals(new BigDecimal("2.52"), MoneyUtil.toAmount(252, 2));
+            assertEquals(new BigDecimal("0.0001"), MoneyUtil.toAmount(1, 4));
+        }
+    }
+
+    @Nested
+    @DisplayName("When scaled values are rounded")
+    class WhenScaledValuesAreRounded {
+
+        @Test
+        @DisplayName("Then values are rounded HALF_UP")
+        void shouldRoundHalfUp() {
+            assertEquals(1, MoneyUtil.roundHalfUp(50, 4, 2));
+            assertEquals(0, MoneyUtil.roundHalfUp(49, 4, 2));
+            assertEquals(253, MoneyUtil.roundHalfUp(25_250, 4, 2));
+            assertEquals(252, MoneyUtil.roundHalfUp(25_249, 4, 2));
+            assertEquals(1_250, MoneyUtil.roundHalfUp(125_000_000_000L, 10, 2));
+            assertEquals(7, MoneyUtil.roundHalfUp(7, 2, 2));
+        }
+
+        @Test
+        @DisplayName("Then rounding agrees with BigDecimal for every remainder")
+        void shouldAgreeWithBigDecimal() {
+            for (long value = 0; value < 20_000; value++) {
+                final long expected = BigDecimal.valueOf(value, 4).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                assertEquals(expected, MoneyUtil.roundHalfUp(value, 4, 2));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("When scaled values are combined")
+    class WhenScaledValuesAreCombined {
+
+        @Test
+        @DisplayName("Then products and sums within range are exact")
+        void shouldMultiplyAndAdd() {
+            assertEquals(75_600, MoneyUtil.multiply(25_200, 3));
+            assertEquals(Long.MAX_VALUE, MoneyUtil.add(Long.MAX_VALUE - 1, 1));
+            assertEquals(10_000_000_000L, MoneyUtil.powerOfTen(10));
+        }
+
+        @Test
+        @DisplayName("Then overflowing products and sums are not representable")
+        void shouldReportOverflow() {
+            assertEquals(NOT_REPRESENTABLE, MoneyUtil.multiply(10_000_000_000L, 10_000_000_000L));
+            assertEquals(NOT_REPRESENTABLE, MoneyUtil.multiply(1L << 32, 1L << 31));
+            assertEquals(NOT_REPRESENTABLE, MoneyUtil.add(Long.MAX_VALUE, 1));
+        }
+    }
+}
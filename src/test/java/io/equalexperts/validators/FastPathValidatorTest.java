@@ -0,0 +1,152 @@
+package io.equalexperts.validators;
+
+import io.equalexperts.exception.CartValidationException;
+import io.equalexperts.exception.PriceServiceException;
+import io.equalexperts.model.ProductIn;
+import io.equalexperts.model.ProductRm;
+import io.equalexperts.validators.wrapper.PriceWrapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given FastPathValidator")
+class FastPathValidatorTest {
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDownValidator() {
+        factory.close();
+    }
+
+    static Stream<Object> models() {
+        return Stream.of(
+                // Product names: @NotBlank, @Size(min = 3, max = 50)
+                new ProductIn("cornflakes", 1), new ProductIn("abc", 1), new ProductIn("a".repeat(50), 1),
+                new ProductIn("ab", 1), new ProductIn("a".repeat(51), 1), new ProductIn("", 1), new ProductIn("   ", 1),
+                new ProductIn(" a ", 1), new ProductIn("\t\n\r", 1), new ProductIn("\u2003\u2003\u2003", 1),
+                new ProductIn("\u0001\u0001\u0001", 1), new ProductIn(null, 1),
+                // Quantities: @NotNull, @Min(0), @Digits(integer = 6, fraction = 0)
+                new ProductIn("cornflakes", 0), new ProductIn("cornflakes", 999_999), new ProductIn("cornflakes", 1_000_000),
+                new ProductIn("cornflakes", -1), new ProductIn("cornflakes", Integer.MIN_VALUE),
+                new ProductIn("cornflakes", Integer.MAX_VALUE), new ProductIn("cornflakes", null), new ProductIn(null, null),
+                new ProductRm("cornflakes"), new ProductRm("ab"), new ProductRm("   "), new ProductRm(null),
+                // Prices: @DecimalMin("0.00"), @Digits(integer = 18, fraction = 4)
+                new PriceWrapper(new BigDecimal("2.52")), new PriceWrapper(BigDecimal.ZERO), new PriceWrapper(new BigDecimal("0.0000")),
+                new PriceWrapper(new BigDecimal("0.00000")), new PriceWrapper(new BigDecimal("2.5200")),
+                new PriceWrapper(new BigDecimal("2.52000")), new PriceWrapper(new BigDecimal("-0.01")),
+                new PriceWrapper(new BigDecimal("999999999999999999.9999")), new PriceWrapper(new BigDecimal("1000000000000000000")),
+                new PriceWrapper(new BigDecimal("1E+17")), new PriceWrapper(new BigDecimal("1E+18")), new PriceWrapper(null));
+    }
+
+    @Nested
+    @DisplayName("When checking models - Positive")
+    class WhenCheckingModelsPositive {
+
+        @ParameterizedTest
+        @MethodSource("io.equalexperts.validators.FastPathValidatorTest#models")
+        @DisplayName("Then a model passes the fast path only if Hibernate Validator finds no violation")
+        void shouldAgreeWithHibernateValidator(final Object model) {
+            assertEquals(validator.validate(model).isEmpty(), FastPathValidator.isValid(model), model.toString());
+        }
+
+        @Test
+        @DisplayName("Then valid models are checked without allocating")
+        void shouldNotAllocateOnValidModels() {
+            // Given
+            final var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final var productIn = new ProductIn("cornflakes", 2);
+            final var productRm = new ProductRm("cornflakes");
+            final var priceWrapper = new PriceWrapper(new BigDecimal("2.52"));
+            final long threadId = Thread.currentThread().threadId();
+            checkAll(productIn, productRm, priceWrapper);   // Loads and links everything up-front
+
+            // When
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            final boolean valid = checkAll(productIn, productRm, priceWrapper);
+            final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            // Then
+            assertTrue(valid);
+            assertEquals(0, allocated);
+        }
+
+        private static boolean checkAll(final ProductIn productIn, final ProductRm productRm, final PriceWrapper priceWrapper) {
+            boolean valid = true;
+            for (int i = 0; i < 10_000; i++) {
+                valid &= FastPathValidator.isValid(productIn) && FastPathValidator.isValid(productRm) && FastPathValidator.isValid(priceWrapper);
+            }
+            return valid;
+        }
+    }
+
+    @Nested
+    @DisplayName("When checking models - Negative")
+    class WhenCheckingModelsNegative {
+
+        @Test
+        @DisplayName("Then unknown types and null are left to Hibernate Validator")
+        void shouldLeaveUnknownTypesToHibernateValidator() {
+            assertFalse(FastPathValidator.isValid("cornflakes"));
+            assertFalse(FastPathValidator.isValid(null));
+        }
+
+        @Test
+        @DisplayName("Then unknown types without violations pass Hibernate Validator")
+        void shouldPassUnknownTypesWithoutViolations() {
+            assertDoesNotThrow(() -> ValidatorProvider.validateData("cornflakes"));
+        }
+
+        @ParameterizedTest
+        @MethodSource("io.equalexperts.validators.FastPathValidatorTest#models")
+        @DisplayName("Then invalid models are reported with the violations of Hibernate Validator")
+        void shouldReportViolationsOfHibernateValidator(final Object model) {
+            // Given
+            final Map<String, Set<String>> expected = validator.validate(model).stream()
+                    .collect(Collectors.groupingBy(violation -> violation.getPropertyPath().toString(),
+                            Collectors.mapping(ConstraintViolation::getMessage, Collectors.toSet())));
+
+            // When / Then
+            if (expected.isEmpty()) {
+                ValidatorProvider.validateData(model);
+            } else if (model instanceof PriceWrapper) {
+                final var exception = assertThrows(PriceServiceException.class, () -> ValidatorProvider.validateData(model));
+                assertEquals("'price': %s".formatted(expected.get("price").iterator().next()), exception.getMessage().trim());
+            } else {
+                final var exception = assertThrows(CartValidationException.class, () -> ValidatorProvider.validateData(model));
+                assertEquals(expected.keySet(), exception.getViolations().keySet());
+                // Of several violations of a field, one is reported (e.g. @NotBlank or @Size of a blank name)
+                exception.getViolations().forEach((field, message) -> assertTrue(expected.get(field).contains(message), message));
+            }
+        }
+    }
+}
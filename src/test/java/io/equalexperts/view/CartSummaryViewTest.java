@@ -0,0 +1,147 @@
+package io.equalexperts.view;
+
+import io.equalexperts.model.CartError;
+import io.equalexperts.model.CartTotals;
+import io.equalexperts.model.ConsolidatedCart;
+import io.equalexperts.model.ItemMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit-Tests - Given CartSummaryView")
+class CartSummaryViewTest {
+    private static final CartTotals TOTALS = new CartTotals(new BigDecimal("0.94"), new BigDecimal("7.51"), new BigDecimal("8.45"));
+
+    private static ConsolidatedCart cart(final Map<String, ItemMetadata> shoppingCart) {
+        return new ConsolidatedCart(null, shoppingCart, TOTALS);
+    }
+
+    @Nested
+    @DisplayName("When summarising a cart - Positive")
+    class WhenSummarisingCartPositive {
+
+        @Test
+        @DisplayName("Then the quantities and items are derived as the summary is built")
+        void shouldDeriveQuantitiesAndItems() {
+            // Given
+            final Map<String, ItemMetadata> shoppingCart = new HashMap<>(Map.of("cornflakes", new ItemMetadata(new BigDecimal("2.52"), 2)));
+            shoppingCart.put("weetabix", new ItemMetadata(new BigDecimal("2.47"), 1));
+
+            // When
+            final var summary = CartSummaryView.from(cart(shoppingCart));
+            shoppingCart.remove("cornflakes");  // Summarised already
+
+            // Then
+            assertEquals(2, summary.items().size());
+            assertEquals(new CartQuantityView(2, 3), summary.quantities());
+            assertEquals(new CartTotalsView(new BigDecimal("0.94"), new BigDecimal("7.51"), new BigDecimal("8.45"), true), summary.totals());
+            assertFalse(summary.errors().hasErrors());
+        }
+
+        @Test
+        @DisplayName("Then a totals-only summary holds no quantities and no items, and does not read the lines of the cart")
+        void shouldHoldTotalsOnly() {
+            // Given
+            final Map<String, ItemMetadata> unreadable = new AbstractMap<>() {
+                @Override
+                public Set<Entry<String, ItemMetadata>> entrySet() {
+                    throw new AssertionError("The lines of the cart were read");
+                }
+            };
+            final var consolidatedCart = new ConsolidatedCart(null, unreadable, TOTALS, 3);
+
+            // When
+            final var summary = CartSummaryView.totalsOnly(consolidatedCart);
+
+            // Then
+            assertEquals(new BigDecimal("8.45"), summary.totals().total());
+            assertNull(summary.quantities());
+            assertEquals(List.of(), summary.items());
+            assertEquals(3, summary.version());
+            assertEquals(summary, CartSummaryView.from(consolidatedCart, CartViewDetail.TOTALS_ONLY));
+        }
+
+        @Test
+        @DisplayName("Then a full summary equals the summary built from its parts")
+        void shouldEqualSummaryOfParts() {
+            // Given
+            final var consolidatedCart = cart(Map.of("cornflakes", new ItemMetadata(new BigDecimal("2.52"), 2)));
+            final var parts = new CartSummaryView(CartTotalsView.from(consolidatedCart), CartErrorView.from(consolidatedCart),
+                    new CartQuantityView(1, 2), List.of(new CartItemView("cornflakes", 2, new BigDecimal("2.52"))));
+
+            // When
+            final var summary = CartSummaryView.from(consolidatedCart, CartViewDetail.FULL);
+
+            // Then
+            assertEquals(parts, summary);
+            assertEquals(summary, summary);
+            assertEquals(parts.hashCode(), summary.hashCode());
+            assertEquals(parts.toString(), summary.toString());
+            assertTrue(summary.toString().contains("productName=cornflakes"));
+        }
+    }
+
+    @Nested
+    @DisplayName("When summarising a cart - Negative")
+    class WhenSummarisingCartNegative {
+
+        @Test
+        @DisplayName("Then summaries that differ in any part are not equal")
+        void shouldNotEqualSummaryWithOtherParts() {
+            // Given
+            final var totals = new CartTotalsView(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, true);
+            final var errors = new CartErrorView(false, null, null, 0);
+            final var quantities = new CartQuantityView(1, 1);
+            final var items = List.of(new CartItemView("cornflakes", 1, BigDecimal.ONE));
+            final var summary = new CartSummaryView(totals, errors, quantities, items);
+
+            // When - Then
+            assertNotEquals(new CartSummaryView(CartTotalsView.from(cart(null)), errors, quantities, items), summary);
+            assertNotEquals(new CartSummaryView(totals, new CartErrorView(true, "Not Found", "NOT_FOUND", 404), quantities, items), summary);
+            assertNotEquals(new CartSummaryView(totals, errors, new CartQuantityView(1, 2), items), summary);
+            assertNotEquals(new CartSummaryView(totals, errors, quantities, List.of()), summary);
+            assertNotEquals(CartSummaryView.from(new ConsolidatedCart(null, Map.of("cornflakes", new ItemMetadata(BigDecimal.ONE, 1)),
+                    new CartTotals(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE), 1)), summary);
+            assertNotEquals(summary, totals);
+        }
+
+        @Test
+        @DisplayName("Then the summary of a failed request holds its errors, and an empty cart")
+        void shouldSummariseErrors() {
+            // When
+            final var summary = CartSummaryView.from(new ConsolidatedCart(new CartError(404, "NOT_FOUND", Map.of(), "Not Found"), null, null));
+
+            // Then
+            assertTrue(summary.errors().hasErrors());
+            assertFalse(summary.totals().hasAmount());
+            assertEquals(new CartQuantityView(0, 0), summary.quantities());
+            assertEquals(List.of(), summary.items());
+        }
+
+        @Test
+        @DisplayName("Then parts that were not given are not derived")
+        void shouldNotDeriveMissingParts() {
+            // When
+            final var summary = new CartSummaryView(null, null, null, null);
+
+            // Then
+            assertNull(summary.quantities());
+            assertNull(summary.items());
+        }
+    }
+}